@@ -0,0 +1,125 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import scoring.CachingHandEvaluator;
+import scoring.EvictionPolicy;
+import scoring.OptimalHandEvaluator;
+import util.Utility;
+
+public class AllocationBudget {
+
+	private static final int CORPUS_SIZE = 4096;
+	private static final long CORPUS_SEED = 20230409L;
+	private static final int WARMUP_CALLS = 50_000;
+	private static final int MEASURED_CALLS = 20_000;
+
+	/**
+	 * Bytes that a measured path may allocate per call. The scoring paths reuse per-thread
+	 * scratch arrays, so in steady state they must not allocate at all.
+	 */
+	private static final double BYTES_PER_CALL_BUDGET = 0;
+
+	private final com.sun.management.ThreadMXBean threadBean;
+	private final List<String> failures = new ArrayList<>();
+	private int sink;
+
+	/**
+	 * Creates the check and enables the allocation counters of the threads.
+	 */
+	public AllocationBudget() {
+		threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	/**
+	 * Checks that the scoring paths do not allocate, and exits with status 1 if any path
+	 * goes over the budget.
+	 *
+	 * @param args the command line arguments, not used
+	 */
+	public static void main(String[] args) {
+		AllocationBudget budget = new AllocationBudget();
+		budget.checkAll();
+		if (!budget.failures.isEmpty()) {
+			System.out.println("Over the allocation budget: " + budget.failures);
+			System.exit(1);
+		}
+		System.out.println("All scoring paths are within the allocation budget.");
+	}
+
+	/**
+	 * Checks every scoring path on hands of every size and wildcard count.
+	 */
+	public void checkAll() {
+		OptimalHandEvaluator evaluator = new OptimalHandEvaluator();
+		for (int handSize = OkeyGame.TILE_PER_HAND; handSize <= OkeyGame.TILE_PER_HAND + 1; handSize++) {
+			for (int wildcards = 0; wildcards <= OptimalHandEvaluator.MAX_WILDCARDS; wildcards++) {
+				HandCorpus corpus = HandCorpus.generate(CORPUS_SEED, CORPUS_SIZE, handSize, wildcards);
+				String parameters = String.format("hand=%d,wildcards=%d", handSize, wildcards);
+				Player[] players = new Player[corpus.size()];
+				for (int i = 0; i < players.length; i++) {
+					players[i] = new Player(1);
+					players[i].setHand(new ArrayList<>(corpus.hand(i)));
+					players[i].startTracking(corpus.okeyTile(i));
+				}
+				check("processHand", parameters, invocation -> {
+					int index = invocation & (CORPUS_SIZE - 1);
+					Utility.processHand(players[index], corpus.okeyTile(index));
+					return players[index].getScore();
+				});
+				check("optimalEvaluate", parameters, invocation -> {
+					int index = invocation & (CORPUS_SIZE - 1);
+					return evaluator.evaluate(corpus.hand(index), corpus.okeyTile(index));
+				});
+				// The corpus fits into the cache, so the measured calls are hits.
+				CachingHandEvaluator cached = new CachingHandEvaluator(2 * CORPUS_SIZE, EvictionPolicy.TINY_LFU);
+				check("cachedEvaluate", parameters, invocation -> {
+					int index = invocation & (CORPUS_SIZE - 1);
+					return cached.evaluate(corpus.hand(index), corpus.okeyTile(index));
+				});
+				check("incrementalRescore", parameters, invocation -> {
+					Player player = players[invocation & (CORPUS_SIZE - 1)];
+					return player.scoreWithout(player.getHand().get(invocation % player.getHand().size()));
+				});
+				check("countingSort", parameters, invocation -> {
+					List<Tile> hand = players[invocation & (CORPUS_SIZE - 1)].getHand();
+					Utility.sortHand(hand);
+					return hand.get(0).getCode();
+				});
+			}
+		}
+	}
+
+	/**
+	 * Runs a path until it is compiled, then measures the bytes it allocates per call on this thread.
+	 *
+	 * @param name       the name of the path
+	 * @param parameters the parameters of the hands
+	 * @param operation  the path to check
+	 */
+	private void check(String name, String parameters, IntUnaryOperator operation) {
+		int consumed = sink;
+		for (int i = 0; i < WARMUP_CALLS; i++) {
+			consumed += operation.applyAsInt(i);
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < MEASURED_CALLS; i++) {
+			consumed += operation.applyAsInt(i);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+		sink = consumed;
+		double bytesPerCall = (double) allocated / MEASURED_CALLS;
+		System.out.println(String.format("%-20s %-28s %10d bytes %8.3f B/call", name, parameters, allocated, bytesPerCall));
+		if (bytesPerCall > BYTES_PER_CALL_BUDGET) {
+			failures.add(name + " " + parameters);
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import objects.OkeyGame;
+import scoring.BatchScorer;
+import scoring.HandBatch;
+import scoring.OptimalHandEvaluator;
+import scoring.ScalarBatchScorer;
+
+public class BatchScoring {
+
+	private static final int CORPUS_SIZE = 4096;
+	private static final long CORPUS_SEED = 20230409L;
+	private static final int BATCH_SIZE = 1024;
+	private static final int[] HAND_SIZES = {OkeyGame.TILE_PER_HAND, OkeyGame.TILE_PER_HAND + 1};
+	private static final int[] WILDCARD_COUNTS = {0, 1, 2};
+
+	private final BenchmarkRunner runner;
+	private final List<String> mismatches = new ArrayList<>();
+
+	/**
+	 * Creates the comparison.
+	 *
+	 * @param runner the runner that measures the paths
+	 */
+	public BatchScoring(BenchmarkRunner runner) {
+		this.runner = runner;
+	}
+
+	/**
+	 * Compares scoring hands one at a time with the batch scorers: [--quick]. The vector scorer
+	 * is only measured when the JVM is started with --add-modules jdk.incubator.vector and the
+	 * vector folder is compiled. Exits with status 1 if a batch scorer gives a different score.
+	 *
+	 * @param args the command line arguments
+	 */
+	public static void main(String[] args) {
+		boolean quick = args.length > 0 && args[0].equals("--quick");
+		BatchScoring comparison = new BatchScoring(quick ? new BenchmarkRunner(1, 3, 200) : new BenchmarkRunner(3, 5, 1000));
+		comparison.compareAll();
+		if (!comparison.mismatches.isEmpty()) {
+			System.out.println("Batch scores differ from the per-hand scores: " + comparison.mismatches);
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Checks and measures every path on corpora of every hand size and wildcard count.
+	 */
+	public void compareAll() {
+		BatchScorer best = BatchScorer.create();
+		System.out.println("Batch scorer: " + best.getName() + ", " + BATCH_SIZE + " hands per operation");
+		for (int handSize : HAND_SIZES) {
+			for (int wildcards : WILDCARD_COUNTS) {
+				HandCorpus corpus = HandCorpus.generate(CORPUS_SEED, CORPUS_SIZE, handSize, wildcards);
+				String parameters = String.format("hand=%d,wildcards=%d", handSize, wildcards);
+				OptimalHandEvaluator evaluator = new OptimalHandEvaluator();
+				int[] expected = new int[CORPUS_SIZE];
+				for (int i = 0; i < CORPUS_SIZE; i++) {
+					expected[i] = evaluator.evaluate(corpus.hand(i), corpus.okeyTile(i));
+				}
+				run("perHand", parameters, invocation -> {
+					int first = (invocation * BATCH_SIZE) & (CORPUS_SIZE - 1);
+					int sum = 0;
+					for (int i = first; i < first + BATCH_SIZE; i++) {
+						sum += evaluator.evaluate(corpus.hand(i), corpus.okeyTile(i));
+					}
+					return sum;
+				});
+				measureBatch(new ScalarBatchScorer(), corpus, expected, parameters);
+				if (!(best instanceof ScalarBatchScorer)) {
+					measureBatch(best, corpus, expected, parameters);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks the scores of a batch scorer on a whole corpus and measures it.
+	 *
+	 * @param scorer     the scorer to measure
+	 * @param corpus     the hands to score
+	 * @param expected   the per-hand score of every hand of the corpus
+	 * @param parameters the parameters of the corpus
+	 */
+	private void measureBatch(BatchScorer scorer, HandCorpus corpus, int[] expected, String parameters) {
+		HandBatch batch = new HandBatch(BATCH_SIZE);
+		for (int first = 0; first < CORPUS_SIZE; first += BATCH_SIZE) {
+			fill(batch, corpus, first);
+			scorer.score(batch);
+			for (int i = 0; i < BATCH_SIZE; i++) {
+				if (batch.getScore(i) != expected[first + i]) {
+					mismatches.add(scorer.getName() + " " + parameters + " hand " + (first + i));
+				}
+			}
+		}
+		run(scorer.getName(), parameters, invocation -> {
+			fill(batch, corpus, (invocation * BATCH_SIZE) & (CORPUS_SIZE - 1));
+			scorer.score(batch);
+			return batch.getScore(invocation & (BATCH_SIZE - 1));
+		});
+	}
+
+	/**
+	 * Fills a batch with consecutive hands of a corpus.
+	 *
+	 * @param batch  the batch to fill
+	 * @param corpus the hands
+	 * @param first  the index of the first hand
+	 */
+	private static void fill(HandBatch batch, HandCorpus corpus, int first) {
+		batch.clear();
+		for (int i = first; i < first + BATCH_SIZE; i++) {
+			batch.add(corpus.hand(i), corpus.okeyTile(i));
+		}
+	}
+
+	/**
+	 * Measures a path and prints its result with the time per hand.
+	 *
+	 * @param name       the name of the path
+	 * @param parameters the parameters of the corpus
+	 * @param operation  the operation to measure, which scores {@link #BATCH_SIZE} hands
+	 */
+	private void run(String name, String parameters, IntUnaryOperator operation) {
+		BenchmarkResult result = runner.run(name, parameters, operation);
+		System.out.println(String.format("%s %8.1f ns/hand", result, 1e9 / (result.getOperationsPerSecond() * BATCH_SIZE)));
+	}
+}
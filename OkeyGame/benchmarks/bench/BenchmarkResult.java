@@ -0,0 +1,92 @@
+package bench;
+
+public class BenchmarkResult {
+	private final String name;
+	private final String parameters;
+	private final double operationsPerSecond;
+	private final double error;
+	private final double bytesPerOperation;
+
+	/**
+	 * Creates the result of a benchmark.
+	 *
+	 * @param name                the name of the benchmark
+	 * @param parameters          the parameters of the benchmark
+	 * @param operationsPerSecond the mean throughput of the measurement iterations
+	 * @param error               the standard deviation of the throughput
+	 * @param bytesPerOperation   the heap memory allocated per operation
+	 */
+	public BenchmarkResult(String name, String parameters, double operationsPerSecond, double error,
+			double bytesPerOperation) {
+		this.name = name;
+		this.parameters = parameters;
+		this.operationsPerSecond = operationsPerSecond;
+		this.error = error;
+		this.bytesPerOperation = bytesPerOperation;
+	}
+
+	/**
+	 * Returns the name of the benchmark.
+	 *
+	 * @return the benchmark name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the parameters of the benchmark.
+	 *
+	 * @return the parameters
+	 */
+	public String getParameters() {
+		return parameters;
+	}
+
+	/**
+	 * Returns the mean throughput of the measurement iterations.
+	 *
+	 * @return the operations per second
+	 */
+	public double getOperationsPerSecond() {
+		return operationsPerSecond;
+	}
+
+	/**
+	 * Returns the standard deviation of the throughput.
+	 *
+	 * @return the error of the throughput
+	 */
+	public double getError() {
+		return error;
+	}
+
+	/**
+	 * Returns the heap memory allocated per operation.
+	 *
+	 * @return the allocated bytes per operation
+	 */
+	public double getBytesPerOperation() {
+		return bytesPerOperation;
+	}
+
+	/**
+	 * Returns the result as a line of comma separated values.
+	 *
+	 * @return the CSV line of the result
+	 */
+	public String toCsv() {
+		return String.format("%s,%s,%.1f,%.1f,%.1f", name, parameters, operationsPerSecond, error, bytesPerOperation);
+	}
+
+	/**
+	 * Returns a string representation of the result.
+	 *
+	 * @return A string representing the result.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%-28s %-22s %14.1f +- %10.1f ops/s %10.1f B/op", name, parameters,
+				operationsPerSecond, error, bytesPerOperation);
+	}
+}
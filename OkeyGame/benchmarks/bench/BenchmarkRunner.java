@@ -0,0 +1,129 @@
+package bench;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+public class BenchmarkRunner {
+	private final int warmupIterations;
+	private final int measurementIterations;
+	private final long iterationNanos;
+	private final List<BenchmarkResult> results = new ArrayList<>();
+	private final com.sun.management.ThreadMXBean threadBean;
+	private int sink;
+
+	/**
+	 * Creates a runner that measures throughput in fixed-length iterations, after a number of
+	 * warmup iterations that are not measured.
+	 *
+	 * @param warmupIterations      the number of unmeasured iterations
+	 * @param measurementIterations the number of measured iterations
+	 * @param iterationMillis       the length of an iteration
+	 */
+	public BenchmarkRunner(int warmupIterations, int measurementIterations, long iterationMillis) {
+		this.warmupIterations = warmupIterations;
+		this.measurementIterations = measurementIterations;
+		this.iterationNanos = iterationMillis * 1_000_000;
+		threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	/**
+	 * Measures the throughput and the allocation of an operation. The operation receives the
+	 * number of the invocation and returns a value that is consumed so it cannot be optimized away.
+	 *
+	 * @param name       the name of the benchmark
+	 * @param parameters the parameters of the benchmark
+	 * @param operation  the operation to measure
+	 * @return the result of the benchmark
+	 */
+	public BenchmarkResult run(String name, String parameters, IntUnaryOperator operation) {
+		for (int i = 0; i < warmupIterations; i++) {
+			iterate(operation);
+		}
+		double[] throughputs = new double[measurementIterations];
+		long operations = 0;
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < measurementIterations; i++) {
+			long start = System.nanoTime();
+			long count = iterate(operation);
+			throughputs[i] = count * 1e9 / (System.nanoTime() - start);
+			operations += count;
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+		double mean = 0;
+		for (double throughput : throughputs) {
+			mean += throughput / measurementIterations;
+		}
+		double variance = 0;
+		for (double throughput : throughputs) {
+			variance += (throughput - mean) * (throughput - mean);
+		}
+		double error = measurementIterations > 1 ? Math.sqrt(variance / (measurementIterations - 1)) : 0;
+		BenchmarkResult result = new BenchmarkResult(name, parameters, mean, error, (double) allocated / operations);
+		results.add(result);
+		return result;
+	}
+
+	/**
+	 * Runs an operation repeatedly for the length of one iteration.
+	 *
+	 * @param operation the operation to run
+	 * @return the number of invocations
+	 */
+	private long iterate(IntUnaryOperator operation) {
+		long deadline = System.nanoTime() + iterationNanos;
+		int invocation = 0;
+		int consumed = sink;
+		do {
+			for (int i = 0; i < 64; i++) {
+				consumed += operation.applyAsInt(invocation++);
+			}
+		} while (System.nanoTime() < deadline);
+		sink = consumed;
+		return invocation;
+	}
+
+	/**
+	 * Returns the results measured so far.
+	 *
+	 * @return the list of results
+	 */
+	public List<BenchmarkResult> getResults() {
+		return results;
+	}
+
+	/**
+	 * Prints the results measured so far.
+	 *
+	 * @param out the stream to print to
+	 */
+	public void printResults(PrintStream out) {
+		for (BenchmarkResult result : results) {
+			out.println(result);
+		}
+	}
+
+	/**
+	 * Writes the results measured so far as comma separated values, so they can be compared
+	 * between releases.
+	 *
+	 * @param path the file to write
+	 * @throws IOException if the file cannot be written
+	 */
+	public void writeCsv(Path path) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("benchmark,parameters,ops_per_second,error,bytes_per_op");
+		for (BenchmarkResult result : results) {
+			lines.add(result.toCsv());
+		}
+		Files.write(path, lines);
+	}
+}
@@ -0,0 +1,90 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import objects.Tile;
+
+public class HandCorpus {
+	private final List<List<Tile>> hands;
+	private final List<Tile> okeyTiles;
+
+	/**
+	 * Creates a corpus of hands with their okey tiles.
+	 *
+	 * @param hands     the hands of the corpus
+	 * @param okeyTiles the okey tile of each hand
+	 */
+	private HandCorpus(List<List<Tile>> hands, List<Tile> okeyTiles) {
+		this.hands = hands;
+		this.okeyTiles = okeyTiles;
+	}
+
+	/**
+	 * Generates a fixed corpus of random hands. Every hand holds exactly the given number of
+	 * okey tiles, and the same seed always generates the same corpus.
+	 *
+	 * @param seed      the seed of the corpus
+	 * @param size      the number of hands
+	 * @param handSize  the number of tiles in each hand
+	 * @param wildcards the number of okey tiles in each hand (0-2)
+	 * @return the generated corpus
+	 */
+	public static HandCorpus generate(long seed, int size, int handSize, int wildcards) {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<List<Tile>> hands = new ArrayList<>(size);
+		List<Tile> okeyTiles = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			Tile okeyTile = Tile.valueOf(random.nextInt(Tile.FACE_COUNT));
+			int[] remaining = new int[Tile.TILE_KINDS];
+			Arrays.fill(remaining, 2);
+			remaining[okeyTile.getCode()] = 0;
+			List<Tile> hand = new ArrayList<>(handSize);
+			for (int j = 0; j < wildcards; j++) {
+				hand.add(okeyTile);
+			}
+			while (hand.size() < handSize) {
+				int code = random.nextInt(Tile.TILE_KINDS);
+				if (remaining[code] > 0) {
+					remaining[code]--;
+					hand.add(Tile.valueOf(code));
+				}
+			}
+			hand.sort(null);
+			hands.add(hand);
+			okeyTiles.add(okeyTile);
+		}
+		return new HandCorpus(hands, okeyTiles);
+	}
+
+	/**
+	 * Returns the number of hands in the corpus.
+	 *
+	 * @return the size of the corpus
+	 */
+	public int size() {
+		return hands.size();
+	}
+
+	/**
+	 * Returns a hand of the corpus.
+	 *
+	 * @param index the index of the hand
+	 * @return the hand
+	 */
+	public List<Tile> hand(int index) {
+		return hands.get(index);
+	}
+
+	/**
+	 * Returns the okey tile of a hand of the corpus.
+	 *
+	 * @param index the index of the hand
+	 * @return the okey tile of the hand
+	 */
+	public Tile okeyTile(int index) {
+		return okeyTiles.get(index);
+	}
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.Arrays;
+
+import hints.DealHint;
+import hints.HintAdvisor;
+import objects.OkeyGame;
+
+public class HintLatency {
+
+	private static final long SEED = 20230409L;
+	private static final int WARMUP_DEALS = 100;
+	private static final int MEASURED_DEALS = 400;
+
+	/**
+	 * Latency that the hint of a deal may take at the 99th percentile, including the discard
+	 * ranking, the win distance and the estimated chance of finishing.
+	 */
+	private static final long P99_BUDGET_NANOS = 50_000_000L;
+
+	/**
+	 * Measures the latency of the hints of dealt games, and exits with status 1 if the 99th
+	 * percentile goes over the budget.
+	 *
+	 * @param args the command line arguments, not used
+	 */
+	public static void main(String[] args) {
+		HintAdvisor advisor = new HintAdvisor();
+		OkeyGame game = new OkeyGame();
+		long[] nanos = new long[MEASURED_DEALS];
+		double width = 0;
+		for (int deal = 0; deal < WARMUP_DEALS + MEASURED_DEALS; deal++) {
+			game.redeal(SEED + deal);
+			long start = System.nanoTime();
+			DealHint hint = advisor.advise(game);
+			long elapsed = System.nanoTime() - start;
+			if (deal >= WARMUP_DEALS) {
+				nanos[deal - WARMUP_DEALS] = elapsed;
+				width += hint.getWinEstimate().getUpper() - hint.getWinEstimate().getLower();
+			}
+		}
+		Arrays.sort(nanos);
+		long p50 = nanos[MEASURED_DEALS / 2];
+		long p99 = nanos[MEASURED_DEALS * 99 / 100];
+		System.out.println(String.format("Hint latency: p50 %.1f ms, p99 %.1f ms, max %.1f ms, mean interval width %.3f",
+				p50 / 1e6, p99 / 1e6, nanos[MEASURED_DEALS - 1] / 1e6, width / MEASURED_DEALS));
+		if (p99 > P99_BUDGET_NANOS) {
+			System.out.println(String.format("Over the latency budget of %.0f ms", P99_BUDGET_NANOS / 1e6));
+			System.exit(1);
+		}
+		System.out.println("The hints are within the latency budget.");
+	}
+}
@@ -0,0 +1,248 @@
+package bench;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import metrics.HotPathMetrics;
+import objects.Deck;
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import scoring.HandState;
+import scoring.OptimalHandEvaluator;
+import util.Utility;
+
+public class InstrumentationOverhead {
+
+	private static final int CORPUS_SIZE = 4096;
+	private static final long CORPUS_SEED = 20230409L;
+	private static final long WARMUP_NANOS = 1_000_000_000L;
+	private static final long ROUND_NANOS = 50_000_000L;
+	private static final int ROUNDS = 31;
+
+	/**
+	 * Number of JVMs that measure each path. The code compiled for a path differs from one JVM
+	 * to the next, so a path fails only when most of its JVMs find it over the budget.
+	 */
+	private static final int FORKS = 3;
+
+	/**
+	 * Slowdown that the instrumentation may cause when it is turned on, as a share of the
+	 * duration with the instrumentation turned off.
+	 */
+	private static final double OVERHEAD_BUDGET = 0.02;
+
+	private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	private final List<String> failures = new ArrayList<>();
+	private final List<String> paths = new ArrayList<>();
+	private final String selected;
+	private int sink;
+
+	/**
+	 * Creates the check.
+	 *
+	 * @param selected the name and parameters of the only path to measure, or null to measure none
+	 *                 and only list the paths
+	 */
+	public InstrumentationOverhead(String selected) {
+		this.selected = selected;
+	}
+
+	/**
+	 * Measures the overhead of the hot path metrics, and exits with status 1 if any path goes
+	 * over the budget. Every path is measured in {@link #FORKS} JVMs of its own, so that the
+	 * code compiled for the paths measured before it does not change its result.
+	 *
+	 * @param args the name and parameters of the only path to measure, as one argument, or none
+	 *             to measure every path
+	 * @throws IOException          if a JVM cannot be started
+	 * @throws InterruptedException if the thread is interrupted while waiting for a JVM
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException {
+		InstrumentationOverhead overhead = new InstrumentationOverhead(args.length > 0 ? args[0] : null);
+		overhead.checkAll();
+		if (args.length == 0) {
+			overhead.fork();
+		}
+		if (args.length > 0) {
+			System.exit(overhead.failures.isEmpty() ? 0 : 1);
+		}
+		if (!overhead.failures.isEmpty()) {
+			System.out.println("Over the overhead budget: " + overhead.failures);
+			System.exit(1);
+		}
+		System.out.println("All instrumented paths are within the overhead budget.");
+	}
+
+	/**
+	 * Measures every listed path in JVMs of its own with the class path of this one, and counts
+	 * a path as failed when most of its JVMs find it over the budget.
+	 *
+	 * @throws IOException          if a JVM cannot be started
+	 * @throws InterruptedException if the thread is interrupted while waiting for a JVM
+	 */
+	private void fork() throws IOException, InterruptedException {
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		for (String path : paths) {
+			int failed = 0;
+			for (int fork = 0; fork < FORKS; fork++) {
+				Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+						InstrumentationOverhead.class.getName(), path).inheritIO().start();
+				if (process.waitFor() != 0) {
+					failed++;
+				}
+			}
+			if (failed > FORKS / 2) {
+				failures.add(path);
+			}
+		}
+	}
+
+	/**
+	 * Measures the scoring and dealing paths: the optimal evaluator, the incremental scoring of a
+	 * discard and a draw, the permutation scorer and the deck.
+	 */
+	public void checkAll() {
+		OptimalHandEvaluator evaluator = new OptimalHandEvaluator();
+		for (int wildcards = 0; wildcards <= 2; wildcards++) {
+			HandCorpus corpus = HandCorpus.generate(CORPUS_SEED, CORPUS_SIZE, OkeyGame.TILE_PER_HAND, wildcards);
+			check("evaluate", "wildcards=" + wildcards, invocation -> {
+				int index = invocation & (CORPUS_SIZE - 1);
+				return evaluator.evaluate(corpus.hand(index), corpus.okeyTile(index));
+			});
+			HandState[] states = new HandState[corpus.size()];
+			for (int i = 0; i < states.length; i++) {
+				states[i] = new HandState();
+				states[i].reset(corpus.hand(i), corpus.okeyTile(i));
+			}
+			check("handState", "wildcards=" + wildcards, invocation -> {
+				int index = invocation & (CORPUS_SIZE - 1);
+				Tile tile = corpus.hand(index).get(invocation / CORPUS_SIZE % OkeyGame.TILE_PER_HAND);
+				states[index].remove(tile);
+				int score = states[index].score();
+				states[index].add(tile);
+				return score + states[index].score();
+			});
+			Player[] players = new Player[corpus.size()];
+			for (int i = 0; i < players.length; i++) {
+				players[i] = new Player(1);
+				players[i].setHand(new ArrayList<>(corpus.hand(i)));
+			}
+			check("processHand", "wildcards=" + wildcards, invocation -> {
+				int index = invocation & (CORPUS_SIZE - 1);
+				Utility.processHand(players[index], corpus.okeyTile(index));
+				return players[index].getScore();
+			});
+		}
+		Deck deck = new Deck();
+		check("deal", "tiles=" + (OkeyGame.PLAYER_COUNT * OkeyGame.TILE_PER_HAND + 1), invocation -> {
+			deck.reset(invocation);
+			int codes = 0;
+			for (int i = 0; i < OkeyGame.PLAYER_COUNT * OkeyGame.TILE_PER_HAND + 1; i++) {
+				codes += deck.drawCode();
+			}
+			return codes;
+		});
+	}
+
+	/**
+	 * Runs a path with the instrumentation turned off and on in alternating rounds, and compares
+	 * the median of the duration ratios of the rounds with the budget.
+	 *
+	 * @param name       the name of the path
+	 * @param parameters the parameters of the path
+	 * @param operation  the path to measure
+	 */
+	private void check(String name, String parameters, IntUnaryOperator operation) {
+		String path = name + " " + parameters;
+		if (!path.equals(selected)) {
+			paths.add(path);
+			return;
+		}
+		boolean wasEnabled = HotPathMetrics.isEnabled();
+		HotPathMetrics.setEnabled(true);
+		warmUp(operation);
+		HotPathMetrics.setEnabled(false);
+		int calls = warmUp(operation);
+		double[] ratios = new double[ROUNDS];
+		long offNanos = 0;
+		long onNanos = 0;
+		for (int round = 0; round < ROUNDS; round++) {
+			// Every other round measures the instrumented path first, so neither order is favored.
+			boolean onFirst = (round & 1) != 0;
+			long on = onFirst ? time(operation, calls, true) : 0;
+			long off = time(operation, calls, false);
+			if (!onFirst) {
+				on = time(operation, calls, true);
+			}
+			ratios[round] = (double) on / off;
+			offNanos += off;
+			onNanos += on;
+		}
+		HotPathMetrics.setEnabled(wasEnabled);
+		Arrays.sort(ratios);
+		double overhead = ratios[ROUNDS / 2] - 1;
+		System.out.println(String.format("%-12s %-14s off %8.1f ns/op  on %8.1f ns/op  overhead %+6.2f%%",
+				name, parameters, (double) offNanos / ((double) ROUNDS * calls),
+				(double) onNanos / ((double) ROUNDS * calls), overhead * 100));
+		if (overhead > OVERHEAD_BUDGET) {
+			failures.add(path);
+		}
+	}
+
+	/**
+	 * Runs a path in batches of growing size until it is compiled.
+	 *
+	 * @param operation the path to run
+	 * @return the number of calls that take about the length of a round
+	 */
+	private int warmUp(IntUnaryOperator operation) {
+		int calls = 1000;
+		long total = 0;
+		long nanos;
+		do {
+			nanos = Math.max(1, time(operation, calls));
+			total += nanos;
+			calls *= 2;
+		} while (total < WARMUP_NANOS);
+		return (int) Math.max(1, calls / 2 * ROUND_NANOS / nanos);
+	}
+
+	/**
+	 * Runs a path a number of times with the instrumentation turned on or off.
+	 *
+	 * @param operation the path to run
+	 * @param calls     the number of calls
+	 * @param enabled   true to turn the instrumentation on
+	 * @return the CPU time in nanoseconds
+	 */
+	private long time(IntUnaryOperator operation, int calls, boolean enabled) {
+		HotPathMetrics.setEnabled(enabled);
+		return time(operation, calls);
+	}
+
+	/**
+	 * Runs a path a number of times. The CPU time of the thread is measured, so that time given
+	 * to other processes is not counted.
+	 *
+	 * @param operation the path to run
+	 * @param calls     the number of calls
+	 * @return the CPU time in nanoseconds
+	 */
+	private long time(IntUnaryOperator operation, int calls) {
+		int consumed = sink;
+		long start = threadBean.getCurrentThreadCpuTime();
+		for (int i = 0; i < calls; i++) {
+			consumed += operation.applyAsInt(i);
+		}
+		long nanos = threadBean.getCurrentThreadCpuTime() - start;
+		sink = consumed;
+		return nanos;
+	}
+}
@@ -0,0 +1,239 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntUnaryOperator;
+
+import objects.Deck;
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import scoring.CachingHandEvaluator;
+import scoring.EvictionPolicy;
+import scoring.HandEvaluator;
+import scoring.OptimalHandEvaluator;
+import scoring.WinDistanceCalculator;
+import util.Utility;
+
+public class OkeyBenchmarks {
+
+	static final int CORPUS_SIZE = 4096;
+	static final long CORPUS_SEED = 20230409L;
+	private static final int[] HAND_SIZES = {OkeyGame.TILE_PER_HAND, OkeyGame.TILE_PER_HAND + 1};
+	private static final int[] WILDCARD_COUNTS = {0, 1, 2};
+
+	private final BenchmarkRunner runner;
+	private final String filter;
+
+	/**
+	 * Creates the benchmark suite.
+	 *
+	 * @param runner the runner that measures the benchmarks
+	 * @param filter only benchmarks whose name contains this text are run
+	 */
+	public OkeyBenchmarks(BenchmarkRunner runner, String filter) {
+		this.runner = runner;
+		this.filter = filter;
+	}
+
+	/**
+	 * Runs the benchmarks: [--quick] [--filter text] [--csv file]
+	 *
+	 * @param args the command line arguments
+	 * @throws IOException if the CSV file cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean quick = false;
+		String filter = "";
+		String csv = null;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--quick")) {
+				quick = true;
+			} else if (args[i].equals("--filter")) {
+				filter = args[++i];
+			} else if (args[i].equals("--csv")) {
+				csv = args[++i];
+			}
+		}
+		BenchmarkRunner runner = quick ? new BenchmarkRunner(1, 3, 200) : new BenchmarkRunner(3, 5, 1000);
+		new OkeyBenchmarks(runner, filter).runAll();
+		if (csv != null) {
+			runner.writeCsv(Paths.get(csv));
+		}
+	}
+
+	/**
+	 * Runs every benchmark of the suite.
+	 */
+	public void runAll() {
+		for (int handSize : HAND_SIZES) {
+			for (int wildcards : WILDCARD_COUNTS) {
+				HandCorpus corpus = HandCorpus.generate(CORPUS_SEED, CORPUS_SIZE, handSize, wildcards);
+				String parameters = String.format("hand=%d,wildcards=%d", handSize, wildcards);
+				benchmarkProcessHand(corpus, parameters);
+				benchmarkEvaluator("optimalEvaluate", new OptimalHandEvaluator(), corpus, parameters);
+				benchmarkEvaluator("cachedEvaluate", new CachingHandEvaluator(CORPUS_SIZE * 2, EvictionPolicy.LRU),
+						corpus, parameters);
+				benchmarkIncremental(corpus, parameters);
+				benchmarkWinDistance(corpus, parameters);
+			}
+		}
+		benchmarkDeck();
+		HandCorpus corpus = HandCorpus.generate(CORPUS_SEED, CORPUS_SIZE, OkeyGame.TILE_PER_HAND + 1, 0);
+		benchmarkSort(corpus);
+	}
+
+	/**
+	 * Measures the greedy Utility.processHand on every hand of a corpus.
+	 *
+	 * @param corpus     the hands to score
+	 * @param parameters the parameters of the corpus
+	 */
+	private void benchmarkProcessHand(HandCorpus corpus, String parameters) {
+		Player[] players = new Player[corpus.size()];
+		for (int i = 0; i < players.length; i++) {
+			players[i] = new Player(1);
+			players[i].setHand(new ArrayList<>(corpus.hand(i)));
+		}
+		run("processHand", parameters, invocation -> {
+			int index = invocation & (CORPUS_SIZE - 1);
+			Utility.processHand(players[index], corpus.okeyTile(index));
+			return players[index].getScore();
+		});
+	}
+
+	/**
+	 * Measures an evaluator on every hand of a corpus.
+	 *
+	 * @param name       the name of the benchmark
+	 * @param evaluator  the evaluator to measure
+	 * @param corpus     the hands to score
+	 * @param parameters the parameters of the corpus
+	 */
+	private void benchmarkEvaluator(String name, HandEvaluator evaluator, HandCorpus corpus, String parameters) {
+		run(name, parameters, invocation -> {
+			int index = invocation & (CORPUS_SIZE - 1);
+			return evaluator.evaluate(corpus.hand(index), corpus.okeyTile(index));
+		});
+	}
+
+	/**
+	 * Measures rescoring a tracked hand after a single tile is removed and put back, as done
+	 * for every draw and discard during the turns of a game.
+	 *
+	 * @param corpus     the hands to score
+	 * @param parameters the parameters of the corpus
+	 */
+	private void benchmarkIncremental(HandCorpus corpus, String parameters) {
+		Player[] players = new Player[corpus.size()];
+		for (int i = 0; i < players.length; i++) {
+			players[i] = new Player(1);
+			players[i].setHand(new ArrayList<>(corpus.hand(i)));
+			players[i].startTracking(corpus.okeyTile(i));
+		}
+		run("incrementalRescore", parameters, invocation -> {
+			Player player = players[invocation & (CORPUS_SIZE - 1)];
+			return player.scoreWithout(player.getHand().get(invocation % player.getHand().size()));
+		});
+	}
+
+	/**
+	 * Measures the distance from a finished hand together with the improving tiles, as asked
+	 * by hints and bots.
+	 *
+	 * @param corpus     the hands to measure
+	 * @param parameters the parameters of the corpus
+	 */
+	private void benchmarkWinDistance(HandCorpus corpus, String parameters) {
+		WinDistanceCalculator calculator = new WinDistanceCalculator();
+		run("winDistance", parameters, invocation -> {
+			int index = invocation & (CORPUS_SIZE - 1);
+			return calculator.calculate(corpus.hand(index), corpus.okeyTile(index)).getDistance();
+		});
+	}
+
+	/**
+	 * Measures building a shuffled deck, dealing the hands of a game from it, and dealing
+	 * from one deck that is reshuffled in place for every game.
+	 */
+	private void benchmarkDeck() {
+		SplittableRandom random = new SplittableRandom(CORPUS_SEED);
+		run("deckCreate", "tiles=106", invocation -> new Deck(random).drawTile().getCode());
+		int dealtTiles = OkeyGame.PLAYER_COUNT * OkeyGame.TILE_PER_HAND + 1;
+		run("deckDeal", "tiles=" + dealtTiles, invocation -> {
+			Deck deck = new Deck(random);
+			int sum = deck.drawNonFakeTile().getCode();
+			for (int i = 0; i < dealtTiles; i++) {
+				sum += deck.drawTile().getCode();
+			}
+			return sum;
+		});
+		Deck reusedDeck = new Deck(random);
+		run("deckResetDeal", "tiles=" + dealtTiles, invocation -> {
+			reusedDeck.reset(invocation);
+			int sum = reusedDeck.drawNonFakeTile().getCode();
+			for (int i = 0; i < dealtTiles; i++) {
+				sum += reusedDeck.drawCode();
+			}
+			return sum;
+		});
+	}
+
+	/**
+	 * Measures sorting shuffled hands with Collections.sort and with the counting sort in Utility.
+	 *
+	 * @param corpus the hands to sort
+	 */
+	private void benchmarkSort(HandCorpus corpus) {
+		List<List<Tile>> shuffled = new ArrayList<>();
+		SplittableRandom random = new SplittableRandom(CORPUS_SEED);
+		for (int i = 0; i < corpus.size(); i++) {
+			List<Tile> hand = new ArrayList<>(corpus.hand(i));
+			for (int j = hand.size() - 1; j > 0; j--) {
+				Collections.swap(hand, j, random.nextInt(j + 1));
+			}
+			shuffled.add(hand);
+		}
+		List<Tile> scratch = new ArrayList<>(shuffled.get(0));
+		String parameters = "hand=" + scratch.size();
+		run("collectionsSort", parameters, invocation -> {
+			copy(shuffled.get(invocation & (CORPUS_SIZE - 1)), scratch);
+			Collections.sort(scratch);
+			return scratch.get(0).getCode();
+		});
+		run("countingSort", parameters, invocation -> {
+			copy(shuffled.get(invocation & (CORPUS_SIZE - 1)), scratch);
+			Utility.sortHand(scratch);
+			return scratch.get(0).getCode();
+		});
+	}
+
+	/**
+	 * Copies the tiles of a hand into a list of the same size.
+	 *
+	 * @param source the hand to copy
+	 * @param target the list to overwrite
+	 */
+	private static void copy(List<Tile> source, List<Tile> target) {
+		for (int i = 0; i < source.size(); i++) {
+			target.set(i, source.get(i));
+		}
+	}
+
+	/**
+	 * Runs a benchmark if it matches the filter and prints its result.
+	 *
+	 * @param name       the name of the benchmark
+	 * @param parameters the parameters of the benchmark
+	 * @param operation  the operation to measure
+	 */
+	private void run(String name, String parameters, IntUnaryOperator operation) {
+		if (name.contains(filter)) {
+			System.out.println(runner.run(name, parameters, operation));
+		}
+	}
+}
@@ -0,0 +1,265 @@
+package bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+import fuzz.ReferencePointSolver;
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import rules.RuleSet;
+import rules.Scoring;
+import scoring.HandEvaluator;
+import scoring.ReferenceSolver;
+
+public class RuleVariants {
+
+	private static final long SEED = 20230409L;
+	private static final long WARMUP_NANOS = 500_000_000L;
+
+	/**
+	 * Rule sets that are not presets: a smaller hand with the standard scoring, 101 counting on
+	 * standard hands, and the standard rules built by hand, which is timed against the game
+	 * that never had rules set.
+	 */
+	private static final RuleSet SMALL_HANDS = new RuleSet("tiles-11", 11, Scoring.TILES, 11);
+	private static final RuleSet POINTS_14 = new RuleSet("points-14", OkeyGame.TILE_PER_HAND, Scoring.POINTS, 60);
+	private static final RuleSet CUSTOM_STANDARD = new RuleSet("custom-standard", OkeyGame.TILE_PER_HAND,
+			Scoring.TILES, OkeyGame.TILE_PER_HAND);
+
+	/**
+	 * Slowdown that a game with a rule set may show against the game that never had rules set,
+	 * as a share of the time of the latter. It covers the measurement noise.
+	 */
+	private static final double SPEED_BUDGET = 0.05;
+
+	private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+	private final List<String> failures = new ArrayList<>();
+	private final int games;
+	private final int rounds;
+	private final long roundNanos;
+	private int sink;
+
+	/**
+	 * Creates the comparison.
+	 *
+	 * @param games      the number of games dealt with every rule set and checked against the reference
+	 * @param rounds     the number of rounds in which both games are timed
+	 * @param roundNanos the length of a round for each game
+	 */
+	public RuleVariants(int games, int rounds, long roundNanos) {
+		this.games = games;
+		this.rounds = rounds;
+		this.roundNanos = roundNanos;
+	}
+
+	/**
+	 * Checks the games dealt with every rule set against the reference solvers, and times the
+	 * standard rules set on a game against the game without rules: [--quick]. Exits with status 1
+	 * if a rule set deals or scores wrongly, or is slower than the budget.
+	 *
+	 * @param args the command line arguments
+	 */
+	public static void main(String[] args) {
+		boolean quick = args.length > 0 && args[0].equals("--quick");
+		RuleVariants comparison = quick ? new RuleVariants(200, 11, 20_000_000L) : new RuleVariants(1000, 31, 50_000_000L);
+		comparison.compareAll();
+		if (!comparison.failures.isEmpty()) {
+			System.out.println("Rule sets deal or score wrongly: " + comparison.failures);
+			System.exit(1);
+		}
+		System.out.println("Every rule set deals and scores like the reference.");
+	}
+
+	/**
+	 * Checks every preset and the rule sets built here, then times the standard rules.
+	 */
+	public void compareAll() {
+		List<RuleSet> checked = new ArrayList<>(Arrays.asList(RuleSet.presets()));
+		checked.add(SMALL_HANDS);
+		checked.add(POINTS_14);
+		checked.add(CUSTOM_STANDARD);
+		for (RuleSet rules : checked) {
+			check(rules);
+		}
+		compare();
+	}
+
+	/**
+	 * Deals games with a rule set and checks the size and the score of every hand. The scores
+	 * are compared with a reference that shares no code with the evaluator of the rule set.
+	 *
+	 * @param rules the rule set
+	 */
+	private void check(RuleSet rules) {
+		HandEvaluator reference = reference(rules);
+		OkeyGame game = new OkeyGame();
+		game.setRules(rules);
+		int targets = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < games; i++) {
+			game.redeal(SEED + i);
+			for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+				Player player = game.getPlayers().get(seat);
+				int handSize = rules.getHandSize() + (seat == game.getFirstPlayerIndex() ? 1 : 0);
+				if (player.getHand().size() != handSize) {
+					failures.add(rules.getName() + " hand size, seed " + (SEED + i));
+					return;
+				}
+				if (player.getScore() != reference.evaluate(player.getHand(), game.getOkeyTile())) {
+					failures.add(rules.getName() + " score, seed " + (SEED + i));
+					return;
+				}
+				if (player.getScore() >= rules.getTargetScore()) {
+					targets++;
+				}
+			}
+		}
+		System.out.println(String.format("%-16s %6d games checked in %6.2f s, %5d hands at the target",
+				rules.getName(), games, (System.nanoTime() - start) / 1e9, targets));
+	}
+
+	/**
+	 * Returns the reference of the scoring of a rule set.
+	 *
+	 * @param rules the rule set
+	 * @return the reference evaluator
+	 */
+	private static HandEvaluator reference(RuleSet rules) {
+		switch (rules.getScoring()) {
+		case PAIRS:
+			return RuleVariants::referencePairs;
+		case POINTS:
+			return new ReferencePointSolver();
+		default:
+			return new ReferenceSolver();
+		}
+	}
+
+	/**
+	 * Counts the tiles of a hand that pair up: identical tiles pair, a wildcard pairs with a
+	 * single tile, and the wildcards left pair with each other.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the number of tiles in pairs
+	 */
+	private static int referencePairs(List<Tile> hand, Tile okeyTile) {
+		int[] counts = new int[Tile.FACE_COUNT];
+		int wildcards = 0;
+		for (Tile tile : hand) {
+			if (tile == okeyTile) {
+				wildcards++;
+			} else {
+				counts[tile.isFakeOkey() ? okeyTile.getCode() : tile.getCode()]++;
+			}
+		}
+		int pairs = 0;
+		int singles = 0;
+		for (int count : counts) {
+			pairs += count / 2;
+			singles += count % 2;
+		}
+		int matched = Math.min(wildcards, singles);
+		return 2 * (pairs + matched + (wildcards - matched) / 2);
+	}
+
+	/**
+	 * Deals and scores the same games with the standard rules built by hand and with a game that
+	 * never had rules set, checks that they deal the same hands and scores, and times both in
+	 * alternating rounds. The median of the duration ratios of the rounds is compared with the budget.
+	 */
+	private void compare() {
+		OkeyGame plain = new OkeyGame();
+		OkeyGame ruled = new OkeyGame();
+		ruled.setRules(CUSTOM_STANDARD);
+		for (int i = 0; i < games; i++) {
+			plain.redeal(SEED + i);
+			ruled.redeal(SEED + i);
+			for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+				Player expected = plain.getPlayers().get(seat);
+				Player actual = ruled.getPlayers().get(seat);
+				if (!expected.getHand().equals(actual.getHand()) || expected.getScore() != actual.getScore()) {
+					failures.add(CUSTOM_STANDARD.getName() + " differs from the game without rules, seed " + (SEED + i));
+					return;
+				}
+			}
+		}
+		IntUnaryOperator plainDeal = deal(plain);
+		IntUnaryOperator ruledDeal = deal(ruled);
+		warmUp(plainDeal);
+		int calls = warmUp(ruledDeal);
+		double[] ratios = new double[rounds];
+		long plainNanos = 0;
+		long ruledNanos = 0;
+		for (int round = 0; round < rounds; round++) {
+			long base = time(plainDeal, calls);
+			long measured = time(ruledDeal, calls);
+			ratios[round] = (double) measured / base;
+			plainNanos += base;
+			ruledNanos += measured;
+		}
+		Arrays.sort(ratios);
+		double slowdown = ratios[rounds / 2] - 1;
+		System.out.println(String.format("deal and score   no rules %8.1f ns/game  %s %8.1f ns/game  slowdown %+6.2f%%",
+				(double) plainNanos / ((double) rounds * calls), CUSTOM_STANDARD.getName(),
+				(double) ruledNanos / ((double) rounds * calls), slowdown * 100));
+		if (slowdown > SPEED_BUDGET) {
+			failures.add(CUSTOM_STANDARD.getName() + " slowdown");
+		}
+	}
+
+	/**
+	 * Returns an operation that deals and scores a game from the seed of each call.
+	 *
+	 * @param game the game to deal
+	 * @return the operation, which returns the score of the first seat
+	 */
+	private static IntUnaryOperator deal(OkeyGame game) {
+		return invocation -> {
+			game.redeal(SEED + invocation);
+			return game.getPlayers().get(0).getScore();
+		};
+	}
+
+	/**
+	 * Runs an operation in batches of growing size until it is compiled.
+	 *
+	 * @param operation the operation to run
+	 * @return the number of calls that take about the length of a round
+	 */
+	private int warmUp(IntUnaryOperator operation) {
+		int calls = 1000;
+		long total = 0;
+		long nanos;
+		do {
+			nanos = Math.max(1, time(operation, calls));
+			total += nanos;
+			calls *= 2;
+		} while (total < WARMUP_NANOS);
+		return (int) Math.max(1, calls / 2 * roundNanos / nanos);
+	}
+
+	/**
+	 * Runs an operation a number of times. The CPU time of the thread is measured, so that time
+	 * given to other processes is not counted.
+	 *
+	 * @param operation the operation to run
+	 * @param calls     the number of calls
+	 * @return the CPU time in nanoseconds
+	 */
+	private long time(IntUnaryOperator operation, int calls) {
+		int consumed = sink;
+		long start = threadBean.getCurrentThreadCpuTime();
+		for (int i = 0; i < calls; i++) {
+			consumed += operation.applyAsInt(i);
+		}
+		long nanos = threadBean.getCurrentThreadCpuTime() - start;
+		sink = consumed;
+		return nanos;
+	}
+}
@@ -0,0 +1,81 @@
+package bench;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import objects.Deck;
+import objects.OkeyGame;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DeckBenchmark {
+
+	private static final int DEALT_TILES = OkeyGame.PLAYER_COUNT * OkeyGame.TILE_PER_HAND + 1;
+
+	private SplittableRandom random;
+	private Deck reusedDeck;
+	private int invocation;
+
+	/**
+	 * Seeds the shuffles and creates the deck that is reshuffled in place.
+	 */
+	@Setup
+	public void setUp() {
+		random = new SplittableRandom(OkeyBenchmarks.CORPUS_SEED);
+		reusedDeck = new Deck(random);
+	}
+
+	/**
+	 * Measures building a shuffled deck of 106 tiles.
+	 *
+	 * @param blackhole the sink of the drawn tile
+	 */
+	@Benchmark
+	public void deckCreate(Blackhole blackhole) {
+		blackhole.consume(new Deck(random).drawTile());
+	}
+
+	/**
+	 * Measures building a shuffled deck and dealing the indicator and the hands of a game from it.
+	 *
+	 * @param blackhole the sink of the dealt tiles
+	 */
+	@Benchmark
+	public void deckDeal(Blackhole blackhole) {
+		Deck deck = new Deck(random);
+		blackhole.consume(deck.drawNonFakeTile());
+		for (int i = 0; i < DEALT_TILES; i++) {
+			blackhole.consume(deck.drawTile());
+		}
+	}
+
+	/**
+	 * Measures dealing a game from one deck that is reshuffled in place for every game.
+	 *
+	 * @param blackhole the sink of the dealt tiles
+	 */
+	@Benchmark
+	public void deckResetDeal(Blackhole blackhole) {
+		reusedDeck.reset(invocation++);
+		blackhole.consume(reusedDeck.drawNonFakeTile());
+		for (int i = 0; i < DEALT_TILES; i++) {
+			blackhole.consume(reusedDeck.drawCode());
+		}
+	}
+}
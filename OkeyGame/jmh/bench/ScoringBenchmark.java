@@ -0,0 +1,135 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import objects.Player;
+import scoring.CachingHandEvaluator;
+import scoring.EvictionPolicy;
+import scoring.OptimalHandEvaluator;
+import scoring.WinDistanceCalculator;
+import util.Utility;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ScoringBenchmark {
+
+	@Param({"14", "15"})
+	private int handSize;
+
+	@Param({"0", "1", "2"})
+	private int wildcards;
+
+	private HandCorpus corpus;
+	private Player[] players;
+	private Player[] trackedPlayers;
+	private OptimalHandEvaluator optimalEvaluator;
+	private CachingHandEvaluator cachedEvaluator;
+	private WinDistanceCalculator calculator;
+	private int invocation;
+
+	/**
+	 * Generates the corpus of the parameters, the same one as {@link OkeyBenchmarks}, and the
+	 * players and evaluators that score it.
+	 */
+	@Setup
+	public void setUp() {
+		corpus = HandCorpus.generate(OkeyBenchmarks.CORPUS_SEED, OkeyBenchmarks.CORPUS_SIZE, handSize, wildcards);
+		players = new Player[corpus.size()];
+		trackedPlayers = new Player[corpus.size()];
+		for (int i = 0; i < corpus.size(); i++) {
+			players[i] = new Player(1);
+			players[i].setHand(new ArrayList<>(corpus.hand(i)));
+			trackedPlayers[i] = new Player(1);
+			trackedPlayers[i].setHand(new ArrayList<>(corpus.hand(i)));
+			trackedPlayers[i].startTracking(corpus.okeyTile(i));
+		}
+		optimalEvaluator = new OptimalHandEvaluator();
+		cachedEvaluator = new CachingHandEvaluator(OkeyBenchmarks.CORPUS_SIZE * 2, EvictionPolicy.LRU);
+		calculator = new WinDistanceCalculator();
+	}
+
+	/**
+	 * Returns the index of the next hand of the corpus.
+	 *
+	 * @return the hand index
+	 */
+	private int nextIndex() {
+		return invocation++ & (OkeyBenchmarks.CORPUS_SIZE - 1);
+	}
+
+	/**
+	 * Measures the greedy Utility.processHand, which counts the pairs, sets and series of
+	 * every scoring order.
+	 *
+	 * @param blackhole the sink of the scores
+	 */
+	@Benchmark
+	public void processHand(Blackhole blackhole) {
+		int index = nextIndex();
+		Utility.processHand(players[index], corpus.okeyTile(index));
+		blackhole.consume(players[index].getScore());
+	}
+
+	/**
+	 * Measures the optimal evaluator.
+	 *
+	 * @param blackhole the sink of the scores
+	 */
+	@Benchmark
+	public void optimalEvaluate(Blackhole blackhole) {
+		int index = nextIndex();
+		blackhole.consume(optimalEvaluator.evaluate(corpus.hand(index), corpus.okeyTile(index)));
+	}
+
+	/**
+	 * Measures the caching evaluator, large enough to hold every hand of the corpus.
+	 *
+	 * @param blackhole the sink of the scores
+	 */
+	@Benchmark
+	public void cachedEvaluate(Blackhole blackhole) {
+		int index = nextIndex();
+		blackhole.consume(cachedEvaluator.evaluate(corpus.hand(index), corpus.okeyTile(index)));
+	}
+
+	/**
+	 * Measures rescoring a tracked hand after a single tile is removed and put back.
+	 *
+	 * @param blackhole the sink of the scores
+	 */
+	@Benchmark
+	public void incrementalRescore(Blackhole blackhole) {
+		int tile = invocation;
+		Player player = trackedPlayers[nextIndex()];
+		blackhole.consume(player.scoreWithout(player.getHand().get(tile % player.getHand().size())));
+	}
+
+	/**
+	 * Measures the distance from a finished hand together with the improving tiles.
+	 *
+	 * @param blackhole the sink of the distances
+	 */
+	@Benchmark
+	public void winDistance(Blackhole blackhole) {
+		int index = nextIndex();
+		blackhole.consume(calculator.calculate(corpus.hand(index), corpus.okeyTile(index)).getDistance());
+	}
+}
@@ -0,0 +1,89 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import objects.OkeyGame;
+import objects.Tile;
+import util.Utility;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SortBenchmark {
+
+	private List<List<Tile>> shuffled;
+	private List<Tile> scratch;
+	private int invocation;
+
+	/**
+	 * Shuffles every 15-tile hand of the corpus, the same ones as {@link OkeyBenchmarks}.
+	 */
+	@Setup
+	public void setUp() {
+		HandCorpus corpus = HandCorpus.generate(OkeyBenchmarks.CORPUS_SEED, OkeyBenchmarks.CORPUS_SIZE,
+				OkeyGame.TILE_PER_HAND + 1, 0);
+		SplittableRandom random = new SplittableRandom(OkeyBenchmarks.CORPUS_SEED);
+		shuffled = new ArrayList<>();
+		for (int i = 0; i < corpus.size(); i++) {
+			List<Tile> hand = new ArrayList<>(corpus.hand(i));
+			for (int j = hand.size() - 1; j > 0; j--) {
+				Collections.swap(hand, j, random.nextInt(j + 1));
+			}
+			shuffled.add(hand);
+		}
+		scratch = new ArrayList<>(shuffled.get(0));
+	}
+
+	/**
+	 * Copies the next shuffled hand into the scratch list.
+	 */
+	private void copyNext() {
+		List<Tile> source = shuffled.get(invocation++ & (OkeyBenchmarks.CORPUS_SIZE - 1));
+		for (int i = 0; i < source.size(); i++) {
+			scratch.set(i, source.get(i));
+		}
+	}
+
+	/**
+	 * Measures sorting a shuffled hand with Collections.sort.
+	 *
+	 * @param blackhole the sink of the sorted hand
+	 */
+	@Benchmark
+	public void collectionsSort(Blackhole blackhole) {
+		copyNext();
+		Collections.sort(scratch);
+		blackhole.consume(scratch.get(0));
+	}
+
+	/**
+	 * Measures sorting a shuffled hand with the counting sort in Utility.
+	 *
+	 * @param blackhole the sink of the sorted hand
+	 */
+	@Benchmark
+	public void countingSort(Blackhole blackhole) {
+		copyNext();
+		Utility.sortHand(scratch);
+		blackhole.consume(scratch.get(0));
+	}
+}
@@ -1,10 +1,523 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import bot.ExpectimaxStrategy;
+import bot.TranspositionTable;
+import corpus.ColumnarCorpus;
+import corpus.CorpusReport;
+import events.ConsoleEventListener;
+import fuzz.CappedWinDistance;
+import fuzz.DifferentialFuzzer;
+import fuzz.ReferencePointSolver;
+import fuzz.ReferenceWinDistance;
+import fuzz.TurnReplay;
+import hints.HintAdvisor;
+import host.TableHost;
+import journal.GameJournal;
+import journal.JournalReader;
+import journal.JournalReplayer;
+import journal.JournalWriter;
+import metrics.HotPathMetrics;
 import objects.OkeyGame;
+import pipeline.PipelineStats;
+import pipeline.ScoringPipeline;
+import rules.RuleSet;
+import scoring.CachingHandEvaluator;
+import scoring.ColorTable;
+import scoring.EvictionPolicy;
+import scoring.GreedyHandEvaluator;
+import scoring.HandEvaluator;
+import scoring.OptimalHandEvaluator;
+import scoring.PointHandEvaluator;
+import scoring.ReferenceSolver;
+import service.LoadGenerator;
+import service.ScoringServer;
+import simulation.BatchSimulator;
+import simulation.LogRescorer;
+import storage.GameLogReader;
+import storage.GameLogWriter;
+import strategy.GreedyStrategy;
 
 public class Main {
 
 	public static void main(String[] args) {
+		HotPathMetrics.registerIfConfigured();
+		if (args.length > 0 && args[0].equals("--simulate")) {
+			simulate(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--host")) {
+			host(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--generate-table")) {
+			generateTable(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--rescore")) {
+			rescore(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--score")) {
+			score(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--fuzz")) {
+			fuzz(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--serve")) {
+			serve(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--load")) {
+			load(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--query")) {
+			query(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--replay")) {
+			replay(args);
+			return;
+		}
+		play(args);
+	}
+
+	/**
+	 * Deals a game and plays it on the console, with the options given on the command line:
+	 * [--rules standard|pairs|101] [--seed seed]. Turns are only played with the standard rules;
+	 * with the other rules the dealt hands are printed along with the players whose hands reach
+	 * the target score.
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void play(String[] args) {
+		RuleSet rules = rules(args);
 		OkeyGame game = new OkeyGame();
-		game.startGame();
+		game.setRules(rules);
+		if (rules.isPlayable()) {
+			game.setHintAdvisor(new HintAdvisor());
+			game.startGame();
+			return;
+		}
+		ConsoleEventListener console = new ConsoleEventListener(System.out);
+		game.setEventListener(console);
+		game.redeal(Long.parseLong(option(args, "--seed", String.valueOf(System.nanoTime()))));
+		console.flush();
+		System.out.print("Hedef " + rules.getTargetScore() + " puana ulasan oyuncular:");
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			if (game.getPlayers().get(seat).getScore() >= rules.getTargetScore()) {
+				System.out.print(" " + (seat + 1));
+			}
+		}
+		System.out.println();
+	}
+
+	/**
+	 * Returns the rule set named by the --rules option, or the standard rules. Exits with
+	 * status 1 if there is no rule set with that name.
+	 *
+	 * @param args the command line arguments
+	 * @return the rule set
+	 */
+	private static RuleSet rules(String[] args) {
+		String name = option(args, "--rules", RuleSet.STANDARD.getName());
+		try {
+			return RuleSet.forName(name);
+		} catch (IllegalArgumentException e) {
+			System.err.println("Bilinmeyen kural seti: " + name);
+			System.exit(1);
+			return null;
+		}
+	}
+
+	/**
+	 * Runs the batch simulator with the options given on the command line:
+	 * --simulate games [--seed seed] [--threads threads] [--log file] [--rules standard|pairs|101].
+	 * Only games of the standard rules can be logged.
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void simulate(String[] args) {
+		long games = args.length > 1 && !args[1].startsWith("--") ? Long.parseLong(args[1]) : 1_000_000;
+		long seed = Long.parseLong(option(args, "--seed", "42"));
+		int threads = Integer.parseInt(option(args, "--threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		String logPath = option(args, "--log", null);
+		RuleSet rules = rules(args);
+		if (logPath != null && !rules.isPlayable()) {
+			System.err.println("Oyun kaydi yalnizca standart kurallarla yazilir: " + rules.getName());
+			System.exit(1);
+		}
+		BatchSimulator simulator = new BatchSimulator(rules, threads);
+		if (logPath == null) {
+			simulator.runAndReport(games, seed, System.out);
+			reportMetrics();
+			return;
+		}
+		try (GameLogWriter log = new GameLogWriter(Paths.get(logPath))) {
+			simulator.runAndReport(games, seed, log, System.out);
+			reportMetrics();
+		} catch (IOException e) {
+			System.err.println("Oyun kaydi yazilamadi: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Prints the hot path metrics when they are recorded.
+	 */
+	private static void reportMetrics() {
+		if (HotPathMetrics.isEnabled()) {
+			HotPathMetrics.report(System.out);
+		}
+	}
+
+	/**
+	 * Plays many tables at once with the options given on the command line:
+	 * --host tables [--concurrency tables] [--threads threads] [--seed seed]
+	 * [--bots seats] [--budget-us micros] [--depth turns] [--search-threads threads] [--journal file]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void host(String[] args) {
+		long tables = args.length > 1 ? Long.parseLong(args[1]) : 10_000;
+		int concurrency = Integer.parseInt(option(args, "--concurrency", "1000"));
+		int threads = Integer.parseInt(option(args, "--threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		long seed = Long.parseLong(option(args, "--seed", "42"));
+		int bots = Integer.parseInt(option(args, "--bots", "0"));
+		long budgetNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(option(args, "--budget-us",
+				String.valueOf(TimeUnit.NANOSECONDS.toMicros(ExpectimaxStrategy.DEFAULT_BUDGET_NANOS)))));
+		int depth = Integer.parseInt(option(args, "--depth", String.valueOf(ExpectimaxStrategy.DEFAULT_MAX_DEPTH)));
+		int searchThreads = Integer.parseInt(option(args, "--search-threads", "1"));
+		ExecutorService searchExecutor = searchThreads > 1 ? Executors.newFixedThreadPool(searchThreads - 1) : null;
+		// One bot plays every table: it keeps no game state and its lock-free table is shared on
+		// purpose, since a 1M-entry table per table in play would take 16 MB each.
+		ExpectimaxStrategy bot = new ExpectimaxStrategy(new TranspositionTable(1 << 20), budgetNanos, depth,
+				searchExecutor, searchThreads);
+		String journalPath = option(args, "--journal", null);
+		ExecutorService executor = TableHost.newTableExecutor(threads);
+		try (JournalWriter journal = journalPath == null ? null : new JournalWriter(Paths.get(journalPath))) {
+			TableHost tableHost = new TableHost(new OptimalHandEvaluator(),
+					seat -> seat < bots ? bot : GreedyStrategy.INSTANCE, executor, concurrency);
+			tableHost.setJournal(journal);
+			tableHost.runAndReport(tables, seed, System.out);
+			reportMetrics();
+			if (bots > 0) {
+				System.out.println(bot.getStats());
+			}
+			if (journal != null) {
+				System.out.println(String.format("Oyun gunlugu: %d oyun, %d bayt", journal.getGames(), journal.getBytes()));
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			System.err.println("Oyun gunlugu yazilamadi: " + e.getMessage());
+			System.exit(1);
+		} finally {
+			executor.shutdown();
+			if (searchExecutor != null) {
+				searchExecutor.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * Writes the per-color score table to the file given on the command line:
+	 * --generate-table file
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void generateTable(String[] args) {
+		String path = args.length > 1 ? args[1] : "color-table.bin";
+		long start = System.nanoTime();
+		try {
+			ColorTable.generate(Paths.get(path));
+		} catch (IOException e) {
+			System.err.println("Renk tablosu yazilamadi: " + e.getMessage());
+			System.exit(1);
+		}
+		System.out.println(String.format("Renk tablosu %s dosyasina yazildi (%.2f sn). Kullanmak icin: -D%s=%s",
+				path, (System.nanoTime() - start) / 1e9, ColorTable.PATH_PROPERTY, path));
+	}
+
+	/**
+	 * Scores the hands of a game log again with the options given on the command line:
+	 * --rescore file [--threads threads]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void rescore(String[] args) {
+		int threads = Integer.parseInt(option(args, "--threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		String path = fileArgument(args, "--rescore dosya [--threads is parcacigi]");
+		try (GameLogReader reader = new GameLogReader(Paths.get(path))) {
+			new LogRescorer(new OptimalHandEvaluator(), threads).rescoreAndReport(reader, System.out);
+		} catch (IOException e) {
+			System.err.println("Oyun kaydi okunamadi: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Answers the standard questions about the dealt hands of a game log or a columnar corpus
+	 * file, with the options given on the command line: --query file [--threads threads] [--save file]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void query(String[] args) {
+		int threads = Integer.parseInt(option(args, "--threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		String path = fileArgument(args, "--query dosya [--threads is parcacigi] [--save dosya]");
+		String savePath = option(args, "--save", null);
+		try (ColumnarCorpus corpus = ColumnarCorpus.load(Paths.get(path), threads)) {
+			if (savePath != null) {
+				corpus.write(Paths.get(savePath));
+			}
+			System.out.print(CorpusReport.run(corpus, threads));
+		} catch (IOException e) {
+			System.err.println("El kaydi okunamadi: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Replays the games of a journal file with the options given on the command line:
+	 * --replay file [--game index] [--turn turn]. Without --game every game is replayed and
+	 * checked; with it, the state of that game at the start of the turn (by default the end) is printed.
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void replay(String[] args) {
+		String path = fileArgument(args, "--replay dosya [--game sira] [--turn tur]");
+		String gameOption = option(args, "--game", null);
+		try (JournalReader reader = new JournalReader(Paths.get(path))) {
+			if (gameOption == null) {
+				System.out.print(JournalReplayer.replayAll(reader));
+				return;
+			}
+			long index = Long.parseLong(gameOption);
+			GameJournal journal = reader.next();
+			for (long i = 0; i < index && journal != null; i++) {
+				journal = reader.next();
+			}
+			if (journal == null) {
+				System.err.println("Oyun gunlugunde " + index + " numarali oyun yok");
+				System.exit(1);
+			}
+			JournalReplayer replayer = new JournalReplayer();
+			replayer.load(journal);
+			replayer.seek(Integer.parseInt(option(args, "--turn", String.valueOf(journal.getTurnCount()))));
+			printReplay(replayer);
+		} catch (IOException e) {
+			System.err.println("Oyun gunlugu okunamadi: " + e.getMessage());
+			System.exit(1);
+		} catch (IllegalStateException | IndexOutOfBoundsException e) {
+			System.err.println("Oyun tekrar oynatilamadi: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Prints the state of a replayed game.
+	 *
+	 * @param replayer the replayer, moved to the turn to print
+	 */
+	private static void printReplay(JournalReplayer replayer) {
+		GameJournal journal = replayer.getJournal();
+		System.out.println(String.format("Tohum: %d, gosterge: %s, okey: %s, ilk oyuncu: Oyuncu %d",
+				journal.getSeed(), replayer.getIndicatorTile(), replayer.getOkeyTile(), replayer.getFirstPlayerIndex() + 1));
+		System.out.println(String.format("Tur: %d/%d, sira: Oyuncu %d, destede kalan: %d tas",
+				replayer.getTurn(), journal.getTurnCount(), replayer.getCurrentPlayerIndex() + 1, replayer.getDeckRemaining()));
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			System.out.println("Oyuncu " + (seat + 1) + ": " + replayer.getHand(seat));
+		}
+		System.out.println("Atilan taslar: " + replayer.getDiscardPile());
+		if (replayer.getTurn() == journal.getTurnCount()) {
+			System.out.println(journal.getWinnerIndex() < 0 ? "Deste bitti, kazanan yok"
+					: "Kazanan: Oyuncu " + (journal.getWinnerIndex() + 1));
+		}
+	}
+
+	/**
+	 * Scores the hands of a file, or of the standard input, with the options given on the
+	 * command line: --score [file|-] [--out file] [--parsers parsers] [--scorers scorers] [--window batches]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void score(String[] args) {
+		int processors = Runtime.getRuntime().availableProcessors();
+		String input = args.length > 1 && !args[1].startsWith("--") ? args[1] : "-";
+		String output = option(args, "--out", "-");
+		int parsers = Integer.parseInt(option(args, "--parsers", String.valueOf(Math.max(1, processors / 4))));
+		int scorers = Integer.parseInt(option(args, "--scorers", String.valueOf(processors)));
+		int window = Integer.parseInt(option(args, "--window", String.valueOf(4 * (parsers + scorers))));
+		ScoringPipeline pipeline = new ScoringPipeline(new OptimalHandEvaluator(), parsers, scorers, window);
+		try (BufferedReader in = input.equals("-")
+				? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), 1 << 16)
+				: Files.newBufferedReader(Paths.get(input), StandardCharsets.UTF_8);
+				Writer out = output.equals("-")
+						? new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), 1 << 16)
+						: Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+			PipelineStats stats = pipeline.run(in, out);
+			System.err.print(stats);
+		} catch (IOException e) {
+			System.err.println("Eller puanlanamadi: " + e.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Compares an evaluator with the reference solver on random hands, with the options given on
+	 * the command line: --fuzz hands [--seed seed] [--threads threads]
+	 * [--engine optimal|greedy|cached|windistance|turns|points]. The windistance engine compares the
+	 * win distances 0, 1 and above instead of the scores, the turns engine checks the scores a
+	 * player tracks through draws and discards against full evaluations, and the points engine
+	 * compares the 101 points with a brute-force meld search.
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void fuzz(String[] args) {
+		long hands = args.length > 1 && !args[1].startsWith("--") ? Long.parseLong(args[1]) : 1_000_000;
+		long seed = Long.parseLong(option(args, "--seed", "42"));
+		int threads = Integer.parseInt(option(args, "--threads",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		String engine = option(args, "--engine", "optimal");
+		HandEvaluator candidate;
+		HandEvaluator oracle = new ReferenceSolver();
+		switch (engine) {
+		case "optimal":
+			candidate = new OptimalHandEvaluator();
+			break;
+		case "greedy":
+			candidate = new GreedyHandEvaluator();
+			break;
+		case "cached":
+			candidate = new CachingHandEvaluator(1 << 16, EvictionPolicy.TINY_LFU);
+			break;
+		case "windistance":
+			candidate = new CappedWinDistance();
+			oracle = new ReferenceWinDistance();
+			break;
+		case "turns":
+			candidate = new TurnReplay();
+			break;
+		case "points":
+			candidate = new PointHandEvaluator();
+			oracle = new ReferencePointSolver();
+			break;
+		default:
+			System.err.println("Bilinmeyen puanlayici: " + engine);
+			System.exit(1);
+			return;
+		}
+		if (new DifferentialFuzzer(candidate, oracle, threads)
+				.runAndReport(hands, seed, System.out).getMismatches() > 0) {
+			System.exit(2);
+		}
+	}
+
+	/**
+	 * Runs the HTTP scoring service until the process is stopped, with the options given on the
+	 * command line: --serve [--port port] [--workers threads] [--queue hands] [--batch hands]
+	 * [--batch-delay-us micros]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void serve(String[] args) {
+		int port = Integer.parseInt(option(args, "--port", "8080"));
+		int workers = Integer.parseInt(option(args, "--workers",
+				String.valueOf(Runtime.getRuntime().availableProcessors())));
+		int queue = Integer.parseInt(option(args, "--queue", "65536"));
+		int batch = Integer.parseInt(option(args, "--batch", "256"));
+		long delayNanos = TimeUnit.MICROSECONDS.toNanos(Long.parseLong(option(args, "--batch-delay-us", "100")));
+		ScoringServer server = new ScoringServer(new OptimalHandEvaluator(), workers, queue, batch, delayNanos);
+		try {
+			InetSocketAddress address = server.start(new InetSocketAddress(port));
+			System.out.println(String.format("Puanlama sunucusu %d portunda calisiyor (%d is parcacigi)",
+					address.getPort(), workers));
+		} catch (IOException e) {
+			System.err.println("Sunucu baslatilamadi: " + e.getMessage());
+			System.exit(1);
+		}
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+			server.close();
+			System.out.print(server.getStats());
+		}));
+		try {
+			Thread.currentThread().join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Sends requests to a running scoring service and prints the throughput and the latencies,
+	 * with the options given on the command line: --load [url] [--connections clients]
+	 * [--hands per-request] [--seconds seconds] [--seed seed]
+	 *
+	 * @param args the command line arguments
+	 */
+	private static void load(String[] args) {
+		String url = args.length > 1 && !args[1].startsWith("--") ? args[1] : "http://localhost:8080";
+		int connections = Integer.parseInt(option(args, "--connections", "64"));
+		int hands = Integer.parseInt(option(args, "--hands", "1"));
+		long seconds = Long.parseLong(option(args, "--seconds", "10"));
+		long seed = Long.parseLong(option(args, "--seed", "42"));
+		try {
+			new LoadGenerator(URI.create(url), connections, hands)
+					.runAndReport(TimeUnit.SECONDS.toNanos(seconds), seed, System.out);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Returns the value following an option on the command line.
+	 *
+	 * @param args         the command line arguments
+	 * @param name         the name of the option
+	 * @param defaultValue the value used when the option is missing
+	 * @return the value of the option
+	 */
+	private static String option(String[] args, String name, String defaultValue) {
+		for (int i = 0; i < args.length - 1; i++) {
+			if (args[i].equals(name)) {
+				return args[i + 1];
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Returns the file given after a subcommand, or prints the usage of the subcommand and exits
+	 * when it is missing.
+	 *
+	 * @param args  the command line arguments
+	 * @param usage the arguments of the subcommand, printed when the file is missing
+	 * @return the path of the file
+	 */
+	private static String fileArgument(String[] args, String usage) {
+		if (args.length < 2 || args[1].startsWith("--")) {
+			System.err.println("Kullanim: java Main " + usage);
+			System.exit(1);
+		}
+		return args[1];
 	}
 
 }
@@ -0,0 +1,115 @@
+package bot;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import util.LatencyHistogram;
+
+public class BotStats {
+	private final LongAdder moves = new LongAdder();
+	private final LongAdder depths = new LongAdder();
+	private final LongAdder stoppedMoves = new LongAdder();
+	private final LongAdder nodes = new LongAdder();
+	private final LongAdder tableHits = new LongAdder();
+	private final LatencyHistogram moveLatency = new LatencyHistogram();
+
+	/**
+	 * Counts a decided move.
+	 *
+	 * @param completedDepth the number of turns looked ahead by the last complete iteration
+	 * @param stopped        true if the deadline stopped a deeper iteration
+	 * @param nanos          the duration of the move
+	 */
+	void addMove(int completedDepth, boolean stopped, long nanos) {
+		moves.increment();
+		depths.add(completedDepth);
+		if (stopped) {
+			stoppedMoves.increment();
+		}
+		synchronized (moveLatency) {
+			moveLatency.record(nanos);
+		}
+	}
+
+	/**
+	 * Adds the work of a search.
+	 *
+	 * @param search the finished or stopped search
+	 */
+	void addSearch(ExpectimaxSearch search) {
+		nodes.add(search.getNodes());
+		tableHits.add(search.getTableHits());
+	}
+
+	/**
+	 * Returns the number of decided moves.
+	 *
+	 * @return the move count
+	 */
+	public long getMoves() {
+		return moves.sum();
+	}
+
+	/**
+	 * Returns the mean number of turns looked ahead by the moves.
+	 *
+	 * @return the mean completed depth
+	 */
+	public double getMeanDepth() {
+		long count = moves.sum();
+		return count == 0 ? 0 : (double) depths.sum() / count;
+	}
+
+	/**
+	 * Returns the number of moves whose search was stopped by the deadline.
+	 *
+	 * @return the stopped move count
+	 */
+	public long getStoppedMoves() {
+		return stoppedMoves.sum();
+	}
+
+	/**
+	 * Returns the value of a move latency percentile.
+	 *
+	 * @param percentile the percentile, from 0 to 100
+	 * @return the latency in nanoseconds
+	 */
+	public long getMoveLatency(double percentile) {
+		synchronized (moveLatency) {
+			return moveLatency.getPercentile(percentile);
+		}
+	}
+
+	/**
+	 * Returns the number of hands scored by the searches.
+	 *
+	 * @return the node count
+	 */
+	public long getNodes() {
+		return nodes.sum();
+	}
+
+	/**
+	 * Returns the number of draws answered by the transposition table.
+	 *
+	 * @return the hit count
+	 */
+	public long getTableHits() {
+		return tableHits.sum();
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string with the moves, the search depth, the searched nodes and the move latency.
+	 */
+	@Override
+	public String toString() {
+		String latency;
+		synchronized (moveLatency) {
+			latency = moveLatency.toString();
+		}
+		return String.format("Bot hamlesi: %d, ort. derinlik: %.2f, sureye takilan: %d, dugum: %d, tablo isabeti: %d%n"
+				+ "Hamle suresi: %s", getMoves(), getMeanDepth(), getStoppedMoves(), getNodes(), getTableHits(), latency);
+	}
+}
@@ -0,0 +1,322 @@
+package bot;
+
+import java.util.List;
+
+import objects.OkeyGame;
+import objects.Tile;
+import scoring.HandState;
+import tracking.SeenTiles;
+
+class ExpectimaxSearch {
+
+	private static final int COPIES = SeenTiles.COPIES;
+
+	/**
+	 * Value of a won hand. Wins are worth more than any score, and sooner wins more than later ones.
+	 */
+	static final double WIN_VALUE = 100;
+
+	/**
+	 * Number of scored hands between two reads of the clock. A hand with wildcards can take a
+	 * full set search, so the clock is read often enough to stop within a few of them.
+	 */
+	private static final int CLOCK_INTERVAL = 16;
+
+	private final TranspositionTable table;
+	private final HandState state = new HandState();
+	private final int[] hand = new int[Tile.TILE_KINDS];
+	private final SeenTiles known = new SeenTiles();
+	private final int[] drawScores = new int[Tile.TILE_KINDS];
+	private final long deadline;
+	private Tile okeyTile;
+	private long hash;
+	private long nodes;
+	private long tableHits;
+	private boolean aborted;
+
+	/**
+	 * Creates a search that stops at the deadline.
+	 *
+	 * @param table    the table of searched positions
+	 * @param deadline the time, as given by {@link System#nanoTime()}, at which the search stops
+	 */
+	ExpectimaxSearch(TranspositionTable table, long deadline) {
+		this.table = table;
+		this.deadline = deadline;
+	}
+
+	/**
+	 * Sets the position: the hand and the tiles known to be out of the deck.
+	 *
+	 * @param handTiles the tiles of the hand
+	 * @param okeyTile  the okey tile
+	 * @param seen      the tiles seen by the player, including the hand
+	 */
+	void reset(List<Tile> handTiles, Tile okeyTile, SeenTiles seen) {
+		this.okeyTile = okeyTile;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			hand[code] = 0;
+		}
+		for (int i = 0; i < handTiles.size(); i++) {
+			hand[handTiles.get(i).getCode()]++;
+		}
+		known.copyFrom(seen);
+		state.reset(handTiles, okeyTile);
+		hash = Zobrist.hash(hand, known, okeyTile.getCode());
+	}
+
+	/**
+	 * Copies the position of another search.
+	 *
+	 * @param other the search to copy
+	 */
+	void copyFrom(ExpectimaxSearch other) {
+		okeyTile = other.okeyTile;
+		System.arraycopy(other.hand, 0, hand, 0, hand.length);
+		known.copyFrom(other.known);
+		state.copyFrom(other.state);
+		hash = other.hash;
+	}
+
+	/**
+	 * Returns the value of discarding a tile of a 15-tile hand.
+	 *
+	 * @param code  the code of the discarded tile
+	 * @param depth the number of turns searched after the discard
+	 * @param alpha the value of the best discard found so far; a draw that cannot beat it is cut
+	 *              short and answers a value below it
+	 * @return the expected value of the hand left
+	 */
+	double discardValue(int code, int depth, double alpha) {
+		if (tick()) {
+			return 0;
+		}
+		int held = hand[code];
+		hand[code] = held - 1;
+		hash ^= Zobrist.hand(code, held, held - 1);
+		Tile tile = Tile.valueOf(code);
+		state.remove(tile);
+		int score = state.score();
+		double value;
+		if (score == OkeyGame.TILE_PER_HAND) {
+			value = WIN_VALUE + depth;
+		} else if (depth == 0) {
+			value = score;
+		} else {
+			value = drawValue(depth, alpha);
+		}
+		state.add(tile);
+		hash ^= Zobrist.hand(code, held, held - 1);
+		hand[code] = held;
+		return value;
+	}
+
+	/**
+	 * Returns the expected value of drawing from the deck with a 14-tile hand. Every tile that has
+	 * not been seen is equally likely to be drawn. Moves of the other players are not
+	 * modelled. The draws are cut short as soon as the drawn values, with the largest value
+	 * each remaining draw could have, cannot reach the value to beat (Star1). A value cut short
+	 * is below that value and is not stored.
+	 *
+	 * @param depth the number of turns searched, including this draw
+	 * @param alpha the value the draw has to beat to matter, or negative infinity
+	 * @return the expected value of the best discard after the draw
+	 */
+	double drawValue(int depth, double alpha) {
+		double stored = table.probe(hash, depth);
+		if (!Double.isNaN(stored)) {
+			tableHits++;
+			return stored;
+		}
+		int unseen = known.unseenTotal();
+		if (unseen == 0) {
+			return state.score();
+		}
+		if (depth == 1) {
+			return lastDrawValue(unseen, alpha);
+		}
+		// A win after the next draw is worth the most a later position can be worth.
+		double upper = WIN_VALUE + depth - 1;
+		double sum = 0;
+		int remaining = unseen;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			int left = known.unseenCopies(code);
+			if (left > 0) {
+				known.see(code);
+				hash ^= Zobrist.seen(code, COPIES - left, COPIES - left + 1);
+				sum += left * takeValue(code, depth);
+				hash ^= Zobrist.seen(code, COPIES - left, COPIES - left + 1);
+				known.unsee(code);
+				if (aborted) {
+					return 0;
+				}
+				remaining -= left;
+				if (sum + remaining * upper < alpha * unseen) {
+					return (sum + remaining * upper) / unseen;
+				}
+			}
+		}
+		double value = sum / unseen;
+		table.store(hash, depth, value);
+		return value;
+	}
+
+	/**
+	 * Returns the expected value of the last draw searched. Every draw is probed first with the
+	 * score of the 15 tiles, which bounds the score kept after the discard, so the whole draw
+	 * can be cut short before any discard is searched (Star2). A draw that does not raise the
+	 * score of the 15 tiles needs no search, since discarding it keeps the score of the hand.
+	 *
+	 * @param unseen the number of unseen tiles
+	 * @param alpha  the value the draw has to beat to matter, or negative infinity
+	 * @return the expected value of the best discard after the draw
+	 */
+	private double lastDrawValue(int unseen, double alpha) {
+		int score = state.score();
+		double bound = 0;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			int left = known.unseenCopies(code);
+			if (left > 0) {
+				if (tick()) {
+					return 0;
+				}
+				Tile tile = Tile.valueOf(code);
+				state.add(tile);
+				drawScores[code] = state.score();
+				state.remove(tile);
+				bound += left * upperValue(drawScores[code]);
+			}
+		}
+		if (bound < alpha * unseen) {
+			return bound / unseen;
+		}
+		double sum = 0;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			int left = known.unseenCopies(code);
+			if (left == 0) {
+				continue;
+			}
+			bound -= left * upperValue(drawScores[code]);
+			if (drawScores[code] == score) {
+				sum += left * score;
+				continue;
+			}
+			known.see(code);
+			hash ^= Zobrist.seen(code, COPIES - left, COPIES - left + 1);
+			sum += left * takeValue(code, 1);
+			hash ^= Zobrist.seen(code, COPIES - left, COPIES - left + 1);
+			known.unsee(code);
+			if (aborted) {
+				return 0;
+			}
+			if (sum + bound < alpha * unseen) {
+				return (sum + bound) / unseen;
+			}
+		}
+		double value = sum / unseen;
+		table.store(hash, 1, value);
+		return value;
+	}
+
+	/**
+	 * Returns the largest value a 15-tile hand can keep after its discard.
+	 *
+	 * @param score the score of the 15 tiles
+	 * @return the value of a win if the score allows one, otherwise the score
+	 */
+	private static double upperValue(int score) {
+		return score >= OkeyGame.TILE_PER_HAND ? WIN_VALUE : score;
+	}
+
+	/**
+	 * Returns the value of adding a seen tile to a 14-tile hand, such as the top of the discard
+	 * pile or a tile just drawn, and then making the best discard.
+	 *
+	 * @param code  the code of the added tile
+	 * @param depth the number of turns searched, including this one
+	 * @return the value of the best discard
+	 */
+	double takeValue(int code, int depth) {
+		int held = hand[code];
+		hand[code] = held + 1;
+		hash ^= Zobrist.hand(code, held, held + 1);
+		Tile tile = Tile.valueOf(code);
+		state.add(tile);
+		double value = bestDiscardValue(depth - 1, code);
+		state.remove(tile);
+		hash ^= Zobrist.hand(code, held, held + 1);
+		hand[code] = held;
+		return value;
+	}
+
+	/**
+	 * Returns the value of the best discard of a 15-tile hand. The added tile is tried first,
+	 * since most drawn tiles do not fit the hand, and every other discard only has to beat the
+	 * best one so far. When no turn is searched after the discard, the search stops at the
+	 * first discard that keeps the score of the 15 tiles, since no discard can raise it.
+	 *
+	 * @param depth the number of turns searched after the discard
+	 * @param added the code of the tile added to the hand
+	 * @return the value of the best discard
+	 */
+	private double bestDiscardValue(int depth, int added) {
+		int fullScore = depth == 0 ? state.score() : Integer.MAX_VALUE;
+		double best = discardValue(added, depth, Double.NEGATIVE_INFINITY);
+		for (int code = 0; code < Tile.TILE_KINDS && !isFinal(best, fullScore); code++) {
+			if (hand[code] > 0 && code != added) {
+				best = Math.max(best, discardValue(code, depth, best));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns whether the search of the discards can stop.
+	 *
+	 * @param best      the value of the best discard so far
+	 * @param fullScore the score of the 15 tiles when no turn is searched after the discard
+	 * @return true if no other discard can be better, or the deadline has passed
+	 */
+	private boolean isFinal(double best, int fullScore) {
+		return aborted || best >= WIN_VALUE || (fullScore < OkeyGame.TILE_PER_HAND && best >= fullScore);
+	}
+
+	/**
+	 * Counts a scored hand and checks the clock every {@link #CLOCK_INTERVAL} hands.
+	 *
+	 * @return true if the deadline has passed
+	 */
+	private boolean tick() {
+		if (!aborted && ++nodes % CLOCK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+			aborted = true;
+		}
+		return aborted;
+	}
+
+	/**
+	 * Returns whether the deadline passed during the search. The values returned after that are not valid.
+	 *
+	 * @return true if the search was stopped
+	 */
+	boolean isAborted() {
+		return aborted;
+	}
+
+	/**
+	 * Returns the number of hands scored by the search.
+	 *
+	 * @return the node count
+	 */
+	long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Returns the number of draw nodes answered by the transposition table.
+	 *
+	 * @return the hit count
+	 */
+	long getTableHits() {
+		return tableHits;
+	}
+}
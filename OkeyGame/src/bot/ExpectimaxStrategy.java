@@ -0,0 +1,302 @@
+package bot;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import strategy.PlayerStrategy;
+
+public class ExpectimaxStrategy implements PlayerStrategy {
+
+	/**
+	 * Default time budget of a move.
+	 */
+	public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	/**
+	 * Default number of turns looked ahead at most.
+	 */
+	public static final int DEFAULT_MAX_DEPTH = 3;
+
+	private final TranspositionTable table;
+	private final long budgetNanos;
+	private final int maxDepth;
+	private final ExecutorService executor;
+	private final int parallelism;
+	private final BotStats stats = new BotStats();
+
+	/**
+	 * Creates a bot that searches on the calling thread.
+	 *
+	 * @param table       the table of searched positions, which can be shared by many bots
+	 * @param budgetNanos the time budget of a move
+	 * @param maxDepth    the number of turns looked ahead at most
+	 */
+	public ExpectimaxStrategy(TranspositionTable table, long budgetNanos, int maxDepth) {
+		this(table, budgetNanos, maxDepth, null, 1);
+	}
+
+	/**
+	 * Creates a bot that splits the discards of a move between the calling thread and an executor.
+	 *
+	 * @param table       the table of searched positions, which can be shared by many bots
+	 * @param budgetNanos the time budget of a move
+	 * @param maxDepth    the number of turns looked ahead at most
+	 * @param executor    the executor that searches the other groups of discards, or null
+	 * @param parallelism the number of groups the discards are split into
+	 */
+	public ExpectimaxStrategy(TranspositionTable table, long budgetNanos, int maxDepth, ExecutorService executor,
+			int parallelism) {
+		if (maxDepth < 1) {
+			throw new IllegalArgumentException("Search depth must be positive: " + maxDepth);
+		}
+		this.table = table;
+		this.budgetNanos = budgetNanos;
+		this.maxDepth = maxDepth;
+		this.executor = executor;
+		this.parallelism = executor == null ? 1 : Math.max(1, parallelism);
+	}
+
+	/**
+	 * Takes the discarded tile when it is worth more than a draw from the deck. The search deepens
+	 * one turn at a time until the time budget runs out; the answer of the deepest complete
+	 * search is used, and the greedy rule if not even one turn could be searched.
+	 *
+	 * @param game   the game being played
+	 * @param player the player whose turn it is
+	 * @param top    the top tile of the discard pile
+	 * @return true if taking the tile has the higher expected value
+	 */
+	@Override
+	public boolean takeDiscard(OkeyGame game, Player player, Tile top) {
+		long start = System.nanoTime();
+		ExpectimaxSearch search = newSearch(game, player, start + budgetNanos);
+		boolean take = player.scoreWith(top) > player.getScore();
+		int completed = 0;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			double takeValue = search.takeValue(top.getCode(), depth);
+			double drawValue = search.drawValue(depth, takeValue);
+			if (search.isAborted()) {
+				break;
+			}
+			take = takeValue > drawValue;
+			completed = depth;
+		}
+		stats.addSearch(search);
+		stats.addMove(completed, search.isAborted(), System.nanoTime() - start);
+		return take;
+	}
+
+	/**
+	 * Chooses the discard with the highest expected value, searching deeper one turn at a time
+	 * until the time budget runs out. Without a complete search, the discard that keeps the
+	 * highest score is chosen. The discards are searched from the highest score, and the best
+	 * one of the last depth first, so that the others can be cut short early.
+	 *
+	 * @param game   the game being played
+	 * @param player the player who discards
+	 * @return the tile to discard
+	 */
+	@Override
+	public Tile chooseDiscard(OkeyGame game, Player player) {
+		long start = System.nanoTime();
+		long deadline = start + budgetNanos;
+		List<Tile> hand = player.getHand();
+		int[] codes = distinctCodes(hand);
+		int[] scores = new int[codes.length];
+		for (int i = 0; i < codes.length; i++) {
+			scores[i] = player.scoreWithout(Tile.valueOf(codes[i]));
+			// Insertion by score keeps the codes of equal scores in increasing order.
+			for (int j = i; j > 0 && scores[j] > scores[j - 1]; j--) {
+				swap(codes, scores, j, j - 1);
+			}
+		}
+		int best = 0;
+		if (scores[best] == OkeyGame.TILE_PER_HAND) {
+			stats.addMove(0, false, System.nanoTime() - start);
+			return Tile.valueOf(codes[best]);
+		}
+		ExpectimaxSearch search = newSearch(game, player, deadline);
+		int completed = 0;
+		boolean stopped = false;
+		for (int depth = 1; depth <= maxDepth; depth++) {
+			double[] values = searchDiscards(search, codes, depth, deadline);
+			if (values == null) {
+				stopped = true;
+				break;
+			}
+			int deepest = 0;
+			for (int i = 1; i < codes.length; i++) {
+				if (values[i] > values[deepest] || (values[i] == values[deepest] && scores[i] > scores[deepest])) {
+					deepest = i;
+				}
+			}
+			swap(codes, scores, 0, deepest);
+			completed = depth;
+		}
+		stats.addSearch(search);
+		stats.addMove(completed, stopped, System.nanoTime() - start);
+		return Tile.valueOf(codes[best]);
+	}
+
+	/**
+	 * Swaps two discards and their scores.
+	 *
+	 * @param codes  the distinct codes of the hand
+	 * @param scores the score kept by each discard
+	 * @param i      the index of one discard
+	 * @param j      the index of the other discard
+	 */
+	private static void swap(int[] codes, int[] scores, int i, int j) {
+		int code = codes[i];
+		codes[i] = codes[j];
+		codes[j] = code;
+		int score = scores[i];
+		scores[i] = scores[j];
+		scores[j] = score;
+	}
+
+	/**
+	 * Returns the statistics of the moves of this bot.
+	 *
+	 * @return the statistics
+	 */
+	public BotStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Creates a search on the position of a player.
+	 *
+	 * @param game     the game being played
+	 * @param player   the player whose turn it is
+	 * @param deadline the time at which the search stops
+	 * @return the search
+	 */
+	private ExpectimaxSearch newSearch(OkeyGame game, Player player, long deadline) {
+		ExpectimaxSearch search = new ExpectimaxSearch(table, deadline);
+		search.reset(player.getHand(), game.getOkeyTile(), game.getSeenTiles(game.getCurrentPlayerIndex()));
+		return search;
+	}
+
+	/**
+	 * Searches every discard to the given depth, splitting the discards into groups when an
+	 * executor is set. Each group searches its own copy of the position.
+	 *
+	 * @param root     the search holding the position
+	 * @param codes    the distinct codes of the hand
+	 * @param depth    the number of turns searched after the discard
+	 * @param deadline the time at which the search stops
+	 * @return the value of each discard, or null if the deadline passed first
+	 */
+	private double[] searchDiscards(ExpectimaxSearch root, int[] codes, int depth, long deadline) {
+		int groups = Math.min(parallelism, codes.length);
+		List<Future<double[]>> futures = new ArrayList<>();
+		for (int group = 1; group < groups; group++) {
+			int from = group * codes.length / groups;
+			int to = (group + 1) * codes.length / groups;
+			futures.add(executor.submit(() -> {
+				ExpectimaxSearch search = new ExpectimaxSearch(table, deadline);
+				search.copyFrom(root);
+				double[] values = searchGroup(search, codes, from, to, depth);
+				stats.addSearch(search);
+				return values;
+			}));
+		}
+		double[] values = new double[codes.length];
+		int firstEnd = codes.length / groups;
+		double[] first = searchGroup(root, codes, 0, firstEnd, depth);
+		boolean complete = first != null;
+		if (complete) {
+			System.arraycopy(first, 0, values, 0, firstEnd);
+		}
+		for (int group = 1; group < groups; group++) {
+			Future<double[]> future = futures.get(group - 1);
+			double[] groupValues = complete ? await(future, deadline) : null;
+			if (groupValues == null) {
+				future.cancel(true);
+				complete = false;
+			} else {
+				int from = group * codes.length / groups;
+				System.arraycopy(groupValues, 0, values, from, groupValues.length);
+			}
+		}
+		return complete ? values : null;
+	}
+
+	/**
+	 * Searches a group of discards. Every discard only has to beat the best one of the group so
+	 * far, and the values of the discards that cannot are below it.
+	 *
+	 * @param search the search holding the position
+	 * @param codes  the distinct codes of the hand
+	 * @param from   the index of the first discard of the group
+	 * @param to     the index after the last discard of the group
+	 * @param depth  the number of turns searched after the discard
+	 * @return the value of each discard of the group, or null if the deadline passed first
+	 */
+	private static double[] searchGroup(ExpectimaxSearch search, int[] codes, int from, int to, int depth) {
+		double[] values = new double[to - from];
+		double best = Double.NEGATIVE_INFINITY;
+		for (int i = from; i < to; i++) {
+			values[i - from] = search.discardValue(codes[i], depth, best);
+			if (search.isAborted()) {
+				return null;
+			}
+			best = Math.max(best, values[i - from]);
+		}
+		return values;
+	}
+
+	/**
+	 * Waits for a group of discards until the deadline.
+	 *
+	 * @param future   the search of the group
+	 * @param deadline the time at which the search stops
+	 * @return the values of the group, or null if it did not finish in time
+	 */
+	private static double[] await(Future<double[]> future, long deadline) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException | CancellationException | ExecutionException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Lists the distinct codes of a hand in increasing order.
+	 *
+	 * @param hand the tiles of the hand
+	 * @return the distinct codes
+	 */
+	private static int[] distinctCodes(List<Tile> hand) {
+		boolean[] held = new boolean[Tile.TILE_KINDS];
+		int count = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			int code = hand.get(i).getCode();
+			if (!held[code]) {
+				held[code] = true;
+				count++;
+			}
+		}
+		int[] codes = new int[count];
+		int index = 0;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			if (held[code]) {
+				codes[index++] = code;
+			}
+		}
+		return codes;
+	}
+}
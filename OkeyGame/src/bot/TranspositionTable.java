@@ -0,0 +1,68 @@
+package bot;
+
+public class TranspositionTable {
+	private static final long DEPTH_MASK = 0xFF;
+
+	private final long[] keys;
+	private final long[] data;
+	private final int mask;
+
+	/**
+	 * Creates a table that holds the values of searched positions. The table has no locks, so
+	 * every bot and every search thread can share one table.
+	 *
+	 * @param capacity the number of entries, rounded up to a power of two
+	 */
+	public TranspositionTable(int capacity) {
+		if (capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Table size must be between 1 and 2^30: " + capacity);
+		}
+		int size = Integer.highestOneBit(capacity);
+		if (size < capacity) {
+			size <<= 1;
+		}
+		keys = new long[size];
+		data = new long[size];
+		mask = size - 1;
+	}
+
+	/**
+	 * Returns the value of a position searched at least to the given depth.
+	 *
+	 * @param key   the hash of the position
+	 * @param depth the number of turns the value must look ahead
+	 * @return the value, or NaN if the position is not stored or was searched less deeply
+	 */
+	double probe(long key, int depth) {
+		int index = (int) key & mask;
+		long entry = data[index];
+		// The key is stored XORed with the data, so an entry torn by a concurrent store does not match.
+		if ((keys[index] ^ entry) != key || (entry & DEPTH_MASK) < depth) {
+			return Double.NaN;
+		}
+		return Float.intBitsToFloat((int) (entry >>> 32));
+	}
+
+	/**
+	 * Stores the value of a position, replacing the entry in its slot.
+	 *
+	 * @param key   the hash of the position
+	 * @param depth the number of turns the value looks ahead
+	 * @param value the value of the position
+	 */
+	void store(long key, int depth, double value) {
+		int index = (int) key & mask;
+		long entry = (long) Float.floatToRawIntBits((float) value) << 32 | depth;
+		data[index] = entry;
+		keys[index] = key ^ entry;
+	}
+
+	/**
+	 * Returns the number of entries of the table.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+}
@@ -0,0 +1,76 @@
+package bot;
+
+import objects.Tile;
+import tracking.SeenTiles;
+import util.FastRandom;
+
+final class Zobrist {
+
+	/**
+	 * Number of copies of a tile that can be held or seen (0-2).
+	 */
+	static final int COPY_STATES = 3;
+
+	private static final long SEED = 0x0CE7_5EEDL;
+	private static final long[] HAND = new long[Tile.TILE_KINDS * COPY_STATES];
+	private static final long[] SEEN = new long[Tile.TILE_KINDS * COPY_STATES];
+	private static final long[] OKEY = new long[Tile.TILE_KINDS];
+
+	static {
+		FastRandom random = new FastRandom(SEED);
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			// Holding or seeing no copy has key zero, so an empty hand hashes to zero.
+			for (int copies = 1; copies < COPY_STATES; copies++) {
+				HAND[code * COPY_STATES + copies] = random.nextLong();
+				SEEN[code * COPY_STATES + copies] = random.nextLong();
+			}
+			OKEY[code] = random.nextLong();
+		}
+	}
+
+	/**
+	 * Prevents instantiation, since the keys are shared by every search.
+	 */
+	private Zobrist() {
+	}
+
+	/**
+	 * Hashes a position from scratch.
+	 *
+	 * @param hand     the number of copies of each tile in the hand
+	 * @param seen     the tiles seen by the player, including the hand
+	 * @param okeyCode the code of the okey tile
+	 * @return the hash of the position
+	 */
+	static long hash(int[] hand, SeenTiles seen, int okeyCode) {
+		long hash = OKEY[okeyCode];
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			hash ^= HAND[code * COPY_STATES + hand[code]] ^ SEEN[code * COPY_STATES + seen.seenCopies(code)];
+		}
+		return hash;
+	}
+
+	/**
+	 * Returns the change of the hash when the number of copies of a tile in the hand changes.
+	 *
+	 * @param code the code of the tile
+	 * @param from the old number of copies
+	 * @param to   the new number of copies
+	 * @return the value to XOR into the hash
+	 */
+	static long hand(int code, int from, int to) {
+		return HAND[code * COPY_STATES + from] ^ HAND[code * COPY_STATES + to];
+	}
+
+	/**
+	 * Returns the change of the hash when the number of seen copies of a tile changes.
+	 *
+	 * @param code the code of the tile
+	 * @param from the old number of copies
+	 * @param to   the new number of copies
+	 * @return the value to XOR into the hash
+	 */
+	static long seen(int code, int from, int to) {
+		return SEEN[code * COPY_STATES + from] ^ SEEN[code * COPY_STATES + to];
+	}
+}
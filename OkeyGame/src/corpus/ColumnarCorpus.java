@@ -0,0 +1,315 @@
+package corpus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import objects.OkeyGame;
+import objects.Tile;
+import storage.GameLogReader;
+import storage.GameRecord;
+
+public class ColumnarCorpus implements Closeable {
+
+	/**
+	 * Number of hands in a chunk. Every column of a chunk is stored contiguously, and chunks are
+	 * the unit of work of the parallel scans.
+	 */
+	public static final int CHUNK_ROWS = 1 << 16;
+
+	/**
+	 * Magic number at the start of a corpus file ("OKCC").
+	 */
+	static final int MAGIC = 0x4F4B4343;
+	static final short VERSION = 1;
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * Offsets of the columns in a chunk. The counts of each color are packed two bits per value
+	 * into an int; the other columns take one byte per hand.
+	 */
+	static final int COLOR_COUNTS_OFFSET = 0;
+	static final int FAKE_OKEYS_OFFSET = COLOR_COUNTS_OFFSET + Tile.COLOR_COUNT * Integer.BYTES * CHUNK_ROWS;
+	static final int OKEY_OFFSET = FAKE_OKEYS_OFFSET + CHUNK_ROWS;
+	static final int SEAT_OFFSET = OKEY_OFFSET + CHUNK_ROWS;
+	static final int FIRST_PLAYER_OFFSET = SEAT_OFFSET + CHUNK_ROWS;
+	static final int SCORE_OFFSET = FIRST_PLAYER_OFFSET + CHUNK_ROWS;
+	static final int CHUNK_BYTES = SCORE_OFFSET + CHUNK_ROWS;
+
+	private final ByteBuffer[] chunks;
+	private final long rows;
+	private final FileChannel channel;
+
+	/**
+	 * Creates a corpus over filled chunks.
+	 *
+	 * @param chunks  the chunks of the corpus
+	 * @param rows    the number of hands
+	 * @param channel the mapped file, or null if the chunks are direct buffers
+	 */
+	private ColumnarCorpus(ByteBuffer[] chunks, long rows, FileChannel channel) {
+		this.chunks = chunks;
+		this.rows = rows;
+		this.channel = channel;
+	}
+
+	/**
+	 * Builds a corpus from the dealt hands of a game log, four hands per game in seat order.
+	 * The chunks are filled in parallel into direct buffers outside the heap, so the JVM may
+	 * need a larger -XX:MaxDirectMemorySize for big logs; use {@link #write(Path)} and
+	 * {@link #open(Path)} to keep a corpus in a file instead.
+	 *
+	 * @param reader      the game log
+	 * @param parallelism the number of worker threads
+	 * @return the corpus
+	 */
+	public static ColumnarCorpus fromLog(GameLogReader reader, int parallelism) {
+		long rows = reader.size() * OkeyGame.PLAYER_COUNT;
+		ByteBuffer[] chunks = new ByteBuffer[(int) ((rows + CHUNK_ROWS - 1) / CHUNK_ROWS)];
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new FillTask(reader, chunks, 0, chunks.length));
+		} finally {
+			pool.shutdown();
+		}
+		return new ColumnarCorpus(chunks, rows, null);
+	}
+
+	/**
+	 * Opens a corpus file written by {@link #write(Path)}. The chunks are mapped into memory,
+	 * so pages are only read from the disk when a scan touches them.
+	 *
+	 * @param path the path of the file
+	 * @return the corpus
+	 * @throws IOException if the file cannot be read or is not a corpus file
+	 */
+	public static ColumnarCorpus open(Path path) throws IOException {
+		FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			long rows = readHeader(channel);
+			ByteBuffer[] chunks = new ByteBuffer[(int) ((rows + CHUNK_ROWS - 1) / CHUNK_ROWS)];
+			if (channel.size() < HEADER_SIZE + (long) chunks.length * CHUNK_BYTES) {
+				throw new IOException("Sutun dosyasi eksik: " + rows + " el bekleniyordu");
+			}
+			for (int i = 0; i < chunks.length; i++) {
+				chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + (long) i * CHUNK_BYTES, CHUNK_BYTES);
+			}
+			return new ColumnarCorpus(chunks, rows, channel);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a corpus file, or builds a corpus from a game log if the file is not a corpus file.
+	 *
+	 * @param path        the path of a corpus file or a game log
+	 * @param parallelism the number of worker threads used to build from a game log
+	 * @return the corpus
+	 * @throws IOException if the file cannot be read
+	 */
+	public static ColumnarCorpus load(Path path, int parallelism) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES);
+			channel.read(magic, 0);
+			if (magic.position() == Integer.BYTES && magic.getInt(0) == MAGIC) {
+				return open(path);
+			}
+		}
+		try (GameLogReader reader = new GameLogReader(path)) {
+			return fromLog(reader, parallelism);
+		}
+	}
+
+	/**
+	 * Writes the corpus to a file that {@link #open(Path)} can map.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		try (FileChannel out = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			header.putInt(0, MAGIC);
+			header.putShort(4, VERSION);
+			header.putShort(6, (short) Integer.numberOfTrailingZeros(CHUNK_ROWS));
+			header.putLong(8, rows);
+			writeFully(out, header, 0);
+			for (int i = 0; i < chunks.length; i++) {
+				writeFully(out, chunks[i].duplicate().clear(), HEADER_SIZE + (long) i * CHUNK_BYTES);
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of hands in the corpus.
+	 *
+	 * @return the hand count
+	 */
+	public long size() {
+		return rows;
+	}
+
+	/**
+	 * Returns the number of chunks of the corpus.
+	 *
+	 * @return the chunk count
+	 */
+	public int chunkCount() {
+		return chunks.length;
+	}
+
+	/**
+	 * Returns the number of hands in a chunk.
+	 *
+	 * @param chunk the index of the chunk
+	 * @return the number of hands, which is {@link #CHUNK_ROWS} except for the last chunk
+	 */
+	public int chunkRows(int chunk) {
+		return (int) Math.min(CHUNK_ROWS, rows - (long) chunk * CHUNK_ROWS);
+	}
+
+	/**
+	 * Returns a query over every hand of the corpus.
+	 *
+	 * @param parallelism the number of worker threads that scan the chunks
+	 * @return the query
+	 */
+	public HandQuery query(int parallelism) {
+		return new HandQuery(this, parallelism);
+	}
+
+	/**
+	 * Points a view at the first hand of a chunk.
+	 *
+	 * @param chunk the index of the chunk
+	 * @param view  the view to move
+	 * @return the view
+	 */
+	HandRow wrap(int chunk, HandRow view) {
+		return view.wrap(chunks[chunk], 0);
+	}
+
+	/**
+	 * Closes the mapped file, if any. Mapped chunks stay readable until they are garbage collected.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Fills a chunk with the hands of the games of a game log.
+	 *
+	 * @param reader the game log
+	 * @param chunk  the chunk to fill
+	 * @param first  the index of the first hand of the chunk
+	 * @param count  the number of hands of the chunk
+	 */
+	static void fillChunk(GameLogReader reader, ByteBuffer chunk, long first, int count) {
+		GameRecord record = new GameRecord();
+		int[] colorCounts = new int[Tile.COLOR_COUNT];
+		for (int row = 0; row < count; row++) {
+			long hand = first + row;
+			int seat = (int) (hand % OkeyGame.PLAYER_COUNT);
+			if (seat == 0 || row == 0) {
+				reader.get(hand / OkeyGame.PLAYER_COUNT, record);
+			}
+			int fakeOkeys = 0;
+			Arrays.fill(colorCounts, 0);
+			for (int i = 0; i < record.getHandSize(seat); i++) {
+				int code = record.getTile(seat, i).getCode();
+				if (code == Tile.FAKE_OKEY_CODE) {
+					fakeOkeys++;
+				} else {
+					colorCounts[code / Tile.VALUE_COUNT] += 1 << (2 * (code % Tile.VALUE_COUNT));
+				}
+			}
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				chunk.putInt(COLOR_COUNTS_OFFSET + (color * CHUNK_ROWS + row) * Integer.BYTES, colorCounts[color]);
+			}
+			chunk.put(FAKE_OKEYS_OFFSET + row, (byte) fakeOkeys);
+			chunk.put(OKEY_OFFSET + row, (byte) record.getOkeyTile().getCode());
+			chunk.put(SEAT_OFFSET + row, (byte) seat);
+			chunk.put(FIRST_PLAYER_OFFSET + row, (byte) (seat == record.getFirstPlayerIndex() ? 1 : 0));
+			chunk.put(SCORE_OFFSET + row, (byte) record.getScore(seat));
+		}
+	}
+
+	/**
+	 * Checks the header of a corpus file and returns the number of hands.
+	 *
+	 * @param channel the file
+	 * @return the number of hands in the file
+	 * @throws IOException if the file is not a corpus file this version can read
+	 */
+	private static long readHeader(FileChannel channel) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+			// Read until the header is full or the file ends.
+		}
+		if (header.position() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+			throw new IOException("Dosya bir sutun dosyasi degil");
+		}
+		if (header.getShort(4) != VERSION || header.getShort(6) != Integer.numberOfTrailingZeros(CHUNK_ROWS)) {
+			throw new IOException("Desteklenmeyen sutun dosyasi surumu: " + header.getShort(4));
+		}
+		return header.getLong(8);
+	}
+
+	/**
+	 * Writes a whole buffer at a position of a file.
+	 *
+	 * @param out      the file
+	 * @param buffer   the bytes to write
+	 * @param position the position in the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void writeFully(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += out.write(buffer, position);
+		}
+	}
+
+	@SuppressWarnings("serial")
+	private static class FillTask extends RecursiveAction {
+		private final GameLogReader reader;
+		private final ByteBuffer[] chunks;
+		private final int fromChunk;
+		private final int toChunk;
+
+		FillTask(GameLogReader reader, ByteBuffer[] chunks, int fromChunk, int toChunk) {
+			this.reader = reader;
+			this.chunks = chunks;
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+		}
+
+		@Override
+		protected void compute() {
+			if (toChunk - fromChunk <= 1) {
+				if (fromChunk < toChunk) {
+					long first = (long) fromChunk * CHUNK_ROWS;
+					long rows = reader.size() * OkeyGame.PLAYER_COUNT;
+					chunks[fromChunk] = ByteBuffer.allocateDirect(CHUNK_BYTES);
+					fillChunk(reader, chunks[fromChunk], first, (int) Math.min(CHUNK_ROWS, rows - first));
+				}
+				return;
+			}
+			int middle = (fromChunk + toChunk) >>> 1;
+			invokeAll(new FillTask(reader, chunks, fromChunk, middle), new FillTask(reader, chunks, middle, toChunk));
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package corpus;
+
+import java.util.Arrays;
+
+import objects.OkeyGame;
+import objects.Tile;
+
+public class CorpusReport {
+
+	/**
+	 * Number of score buckets; no hand scores more than its tile count.
+	 */
+	static final int SCORE_BUCKETS = OkeyGame.TILE_PER_HAND + 2;
+
+	/**
+	 * Minimum number of tiles in runs for a hand to count as series-heavy.
+	 */
+	public static final int SERIES_HEAVY_TILES = 9;
+
+	private long hands;
+	private long[] scores;
+	private long[] bothOkeyScores;
+	private long[] handsPerOkeyColor;
+	private long[] seriesHeavyPerOkeyColor;
+	private double firstPlayerAverage;
+	private double otherPlayersAverage;
+	private long elapsedNanos;
+
+	/**
+	 * Runs the standard questions on a corpus: the score distribution of all hands and of the
+	 * hands holding both okeys, the series-heavy hands per okey color, and the average score of
+	 * the first player against the others.
+	 *
+	 * @param corpus      the corpus to query
+	 * @param parallelism the number of worker threads that scan the chunks
+	 * @return the answers
+	 */
+	public static CorpusReport run(ColumnarCorpus corpus, int parallelism) {
+		CorpusReport report = new CorpusReport();
+		long start = System.nanoTime();
+		HandQuery all = corpus.query(parallelism);
+		report.hands = corpus.size();
+		report.scores = all.histogram(HandRow::getScore, SCORE_BUCKETS);
+		report.bothOkeyScores = all.where(HandFilters.holdsBothOkeys()).histogram(HandRow::getScore, SCORE_BUCKETS);
+		report.handsPerOkeyColor = all.histogram(HandRow::getOkeyColor, Tile.COLOR_COUNT);
+		report.seriesHeavyPerOkeyColor = all.where(HandFilters.seriesTilesAtLeast(SERIES_HEAVY_TILES))
+				.histogram(HandRow::getOkeyColor, Tile.COLOR_COUNT);
+		report.firstPlayerAverage = all.where(HandFilters.firstPlayer()).average(HandRow::getScore);
+		report.otherPlayersAverage = all.where(HandFilters.firstPlayer().negate()).average(HandRow::getScore);
+		report.elapsedNanos = System.nanoTime() - start;
+		return report;
+	}
+
+	/**
+	 * Returns the score distribution of all hands.
+	 *
+	 * @return the number of hands per score
+	 */
+	public long[] getScores() {
+		return scores.clone();
+	}
+
+	/**
+	 * Returns the score distribution of the hands holding both okeys.
+	 *
+	 * @return the number of hands per score
+	 */
+	public long[] getBothOkeyScores() {
+		return bothOkeyScores.clone();
+	}
+
+	/**
+	 * Returns the number of series-heavy hands per okey color.
+	 *
+	 * @return the number of hands per color index
+	 */
+	public long[] getSeriesHeavyPerOkeyColor() {
+		return seriesHeavyPerOkeyColor.clone();
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("El sayisi: ").append(hands).append('\n');
+		builder.append("Skor dagilimi: ").append(Arrays.toString(scores)).append('\n');
+		long bothOkeys = Arrays.stream(bothOkeyScores).sum();
+		builder.append(String.format("Iki okeyli eller: %d (%%%.3f), skor dagilimi: %s%n", bothOkeys,
+				percent(bothOkeys, hands), Arrays.toString(bothOkeyScores)));
+		builder.append("Seri agirlikli eller (en az ").append(SERIES_HEAVY_TILES).append(" tas seride), okey rengine gore:\n");
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			builder.append(String.format("  %-8s %d (%%%.2f)%n", Tile.of(1, color).getColor(), seriesHeavyPerOkeyColor[color],
+					percent(seriesHeavyPerOkeyColor[color], handsPerOkeyColor[color])));
+		}
+		builder.append(String.format("Ortalama skor: ilk oyuncu %.3f, digerleri %.3f%n", firstPlayerAverage, otherPlayersAverage));
+		builder.append(String.format("Sorgu suresi: %.1f ms%n", elapsedNanos / 1e6));
+		return builder.toString();
+	}
+
+	/**
+	 * Returns a count as a percentage of a total.
+	 *
+	 * @param count the count
+	 * @param total the total
+	 * @return the percentage, or 0 for an empty total
+	 */
+	private static double percent(long count, long total) {
+		return total == 0 ? 0 : 100.0 * count / total;
+	}
+}
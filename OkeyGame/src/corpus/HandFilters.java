@@ -0,0 +1,80 @@
+package corpus;
+
+import java.util.function.Predicate;
+
+public class HandFilters {
+
+	/**
+	 * Prevents instantiation, since the filters are static factories.
+	 */
+	private HandFilters() {
+	}
+
+	/**
+	 * Matches the hands holding both okey tiles.
+	 *
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> holdsBothOkeys() {
+		return row -> row.getWildcards() == 2;
+	}
+
+	/**
+	 * Matches the hands holding at least a number of okey tiles.
+	 *
+	 * @param wildcards the minimum number of okey tiles
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> wildcardsAtLeast(int wildcards) {
+		return row -> row.getWildcards() >= wildcards;
+	}
+
+	/**
+	 * Matches the hands of the first player, who was dealt the extra tile.
+	 *
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> firstPlayer() {
+		return HandRow::isFirstPlayer;
+	}
+
+	/**
+	 * Matches the hands dealt to a seat.
+	 *
+	 * @param seat the seat index
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> seat(int seat) {
+		return row -> row.getSeat() == seat;
+	}
+
+	/**
+	 * Matches the hands of the games whose okey tile has a color.
+	 *
+	 * @param color the index of the color
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> okeyColor(int color) {
+		return row -> row.getOkeyColor() == color;
+	}
+
+	/**
+	 * Matches the hands with at least a score.
+	 *
+	 * @param score the minimum score
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> scoreAtLeast(int score) {
+		return row -> row.getScore() >= score;
+	}
+
+	/**
+	 * Matches the hands with at least a number of tiles in runs, see {@link HandRow#getSeriesTiles()}.
+	 *
+	 * @param tiles the minimum number of tiles in runs
+	 * @return the predicate
+	 */
+	public static Predicate<HandRow> seriesTilesAtLeast(int tiles) {
+		return row -> row.getSeriesTiles() >= tiles;
+	}
+}
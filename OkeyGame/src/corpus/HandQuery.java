@@ -0,0 +1,186 @@
+package corpus;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+public class HandQuery {
+
+	private final ColumnarCorpus corpus;
+	private final int parallelism;
+	private final Predicate<HandRow> filter;
+
+	/**
+	 * Creates a query over every hand of a corpus.
+	 *
+	 * @param corpus      the corpus to scan
+	 * @param parallelism the number of worker threads that scan the chunks
+	 */
+	HandQuery(ColumnarCorpus corpus, int parallelism) {
+		this(corpus, parallelism, null);
+	}
+
+	/**
+	 * Creates a query over the hands of a corpus that match a filter.
+	 *
+	 * @param corpus      the corpus to scan
+	 * @param parallelism the number of worker threads that scan the chunks
+	 * @param filter      the filter, or null for every hand
+	 */
+	private HandQuery(ColumnarCorpus corpus, int parallelism, Predicate<HandRow> filter) {
+		if (parallelism < 1) {
+			throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+		}
+		this.corpus = corpus;
+		this.parallelism = parallelism;
+		this.filter = filter;
+	}
+
+	/**
+	 * Returns a query over the hands of this query that also match a predicate. Queries are
+	 * immutable, so a filtered query can be reused for several aggregations.
+	 *
+	 * @param predicate the predicate, for example one of {@link HandFilters}
+	 * @return the narrower query
+	 */
+	public HandQuery where(Predicate<HandRow> predicate) {
+		return new HandQuery(corpus, parallelism, filter == null ? predicate : filter.and(predicate));
+	}
+
+	/**
+	 * Counts the matching hands.
+	 *
+	 * @return the hand count
+	 */
+	public long count() {
+		return scan(1, (row, totals) -> totals[0]++)[0];
+	}
+
+	/**
+	 * Counts the matching hands per key, for example the score distribution with
+	 * {@code histogram(HandRow::getScore, 15)}. Hands whose key is outside the buckets are skipped.
+	 *
+	 * @param key     the key of a hand
+	 * @param buckets the number of keys, from 0
+	 * @return the number of hands per key
+	 */
+	public long[] histogram(ToIntFunction<HandRow> key, int buckets) {
+		return scan(buckets, (row, totals) -> {
+			int bucket = key.applyAsInt(row);
+			if (bucket >= 0 && bucket < buckets) {
+				totals[bucket]++;
+			}
+		});
+	}
+
+	/**
+	 * Counts the matching hands per group and key, for example the score distribution per okey
+	 * color. Hands whose group or key is out of range are skipped.
+	 *
+	 * @param group   the group of a hand
+	 * @param groups  the number of groups, from 0
+	 * @param key     the key of a hand
+	 * @param buckets the number of keys, from 0
+	 * @return the number of hands per group and key: {@code counts[group][key]}
+	 */
+	public long[][] histogram(ToIntFunction<HandRow> group, int groups, ToIntFunction<HandRow> key, int buckets) {
+		long[] flat = scan(groups * buckets, (row, totals) -> {
+			int g = group.applyAsInt(row);
+			int bucket = key.applyAsInt(row);
+			if (g >= 0 && g < groups && bucket >= 0 && bucket < buckets) {
+				totals[g * buckets + bucket]++;
+			}
+		});
+		long[][] counts = new long[groups][buckets];
+		for (int g = 0; g < groups; g++) {
+			System.arraycopy(flat, g * buckets, counts[g], 0, buckets);
+		}
+		return counts;
+	}
+
+	/**
+	 * Averages a metric over the matching hands.
+	 *
+	 * @param metric the metric of a hand
+	 * @return the average, or NaN if no hand matches
+	 */
+	public double average(ToIntFunction<HandRow> metric) {
+		long[] totals = scan(2, (row, sums) -> {
+			sums[0]++;
+			sums[1] += metric.applyAsInt(row);
+		});
+		return totals[0] == 0 ? Double.NaN : (double) totals[1] / totals[0];
+	}
+
+	/**
+	 * Scans the chunks in parallel, each worker adding the matching hands of its chunks to its
+	 * own totals, and sums the totals.
+	 *
+	 * @param width       the number of totals
+	 * @param accumulator adds a matching hand to the totals
+	 * @return the summed totals
+	 */
+	private long[] scan(int width, Accumulator accumulator) {
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new ScanTask(width, accumulator, 0, corpus.chunkCount()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	private interface Accumulator {
+
+		/**
+		 * Adds a hand to the totals.
+		 *
+		 * @param row    the hand
+		 * @param totals the totals of the worker
+		 */
+		void add(HandRow row, long[] totals);
+	}
+
+	@SuppressWarnings("serial")
+	private class ScanTask extends RecursiveTask<long[]> {
+		private final int width;
+		private final Accumulator accumulator;
+		private final int fromChunk;
+		private final int toChunk;
+
+		ScanTask(int width, Accumulator accumulator, int fromChunk, int toChunk) {
+			this.width = width;
+			this.accumulator = accumulator;
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+		}
+
+		@Override
+		protected long[] compute() {
+			if (toChunk - fromChunk <= 1) {
+				long[] totals = new long[width];
+				HandRow row = new HandRow();
+				for (int chunk = fromChunk; chunk < toChunk; chunk++) {
+					corpus.wrap(chunk, row);
+					int rows = corpus.chunkRows(chunk);
+					for (int i = 0; i < rows; i++) {
+						row.moveTo(i);
+						if (filter == null || filter.test(row)) {
+							accumulator.add(row, totals);
+						}
+					}
+				}
+				return totals;
+			}
+			int middle = (fromChunk + toChunk) >>> 1;
+			ScanTask right = new ScanTask(width, accumulator, middle, toChunk);
+			right.fork();
+			long[] totals = new ScanTask(width, accumulator, fromChunk, middle).compute();
+			long[] rightTotals = right.join();
+			for (int i = 0; i < width; i++) {
+				totals[i] += rightTotals[i];
+			}
+			return totals;
+		}
+	}
+}
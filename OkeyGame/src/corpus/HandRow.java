@@ -0,0 +1,176 @@
+package corpus;
+
+import java.nio.ByteBuffer;
+
+import objects.Tile;
+
+public class HandRow {
+
+	/**
+	 * Lowest bit of the two-bit count of every value in a packed color column.
+	 */
+	private static final int LOW_BITS = 0x1555555;
+
+	/**
+	 * Highest bit of the two-bit count of every value; a count is two when it is set.
+	 */
+	private static final int HIGH_BITS = LOW_BITS << 1;
+
+	private ByteBuffer chunk;
+	private int row;
+
+	/**
+	 * Points the view at a hand of a chunk. Views read the columns in place, so no tiles or
+	 * players are created while a query scans the corpus.
+	 *
+	 * @param chunk the chunk holding the hand
+	 * @param row   the index of the hand in the chunk
+	 * @return this view
+	 */
+	HandRow wrap(ByteBuffer chunk, int row) {
+		this.chunk = chunk;
+		this.row = row;
+		return this;
+	}
+
+	/**
+	 * Moves the view to another hand of the same chunk.
+	 *
+	 * @param row the index of the hand in the chunk
+	 */
+	void moveTo(int row) {
+		this.row = row;
+	}
+
+	/**
+	 * Returns the number of copies of a tile in the hand, as dealt: the okey tiles are counted
+	 * as their own face.
+	 *
+	 * @param code the code of the tile, {@link Tile#FAKE_OKEY_CODE} for the fake okeys
+	 * @return the number of copies, from 0 to 2
+	 */
+	public int getCount(int code) {
+		if (code == Tile.FAKE_OKEY_CODE) {
+			return getFakeOkeys();
+		}
+		return (getColorCounts(code / Tile.VALUE_COUNT) >>> (2 * (code % Tile.VALUE_COUNT))) & 3;
+	}
+
+	/**
+	 * Returns the counts of the tiles of a color, two bits per value from value 1 upwards.
+	 *
+	 * @param color the index of the color
+	 * @return the packed counts
+	 */
+	public int getColorCounts(int color) {
+		return chunk.getInt(ColumnarCorpus.COLOR_COUNTS_OFFSET + (color * ColumnarCorpus.CHUNK_ROWS + row) * Integer.BYTES);
+	}
+
+	/**
+	 * Returns the number of fake okeys in the hand.
+	 *
+	 * @return the fake okey count
+	 */
+	public int getFakeOkeys() {
+		return chunk.get(ColumnarCorpus.FAKE_OKEYS_OFFSET + row);
+	}
+
+	/**
+	 * Returns the code of the okey tile of the game of the hand.
+	 *
+	 * @return the okey tile code
+	 */
+	public int getOkeyCode() {
+		return chunk.get(ColumnarCorpus.OKEY_OFFSET + row);
+	}
+
+	/**
+	 * Returns the color of the okey tile of the game of the hand.
+	 *
+	 * @return the index of the okey color
+	 */
+	public int getOkeyColor() {
+		return getOkeyCode() / Tile.VALUE_COUNT;
+	}
+
+	/**
+	 * Returns the number of okey tiles (wildcards) in the hand.
+	 *
+	 * @return the wildcard count, from 0 to 2
+	 */
+	public int getWildcards() {
+		return getCount(getOkeyCode());
+	}
+
+	/**
+	 * Returns the seat of the player who was dealt the hand.
+	 *
+	 * @return the seat index
+	 */
+	public int getSeat() {
+		return chunk.get(ColumnarCorpus.SEAT_OFFSET + row);
+	}
+
+	/**
+	 * Returns whether the hand belongs to the first player, who was dealt the extra tile.
+	 *
+	 * @return true for the first player's hand
+	 */
+	public boolean isFirstPlayer() {
+		return chunk.get(ColumnarCorpus.FIRST_PLAYER_OFFSET + row) != 0;
+	}
+
+	/**
+	 * Returns the score of the hand recorded in the game log.
+	 *
+	 * @return the score
+	 */
+	public int getScore() {
+		return chunk.get(ColumnarCorpus.SCORE_OFFSET + row);
+	}
+
+	/**
+	 * Returns the number of tiles in the hand.
+	 *
+	 * @return the hand size
+	 */
+	public int getHandSize() {
+		int size = getFakeOkeys();
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int counts = getColorCounts(color);
+			size += Integer.bitCount(counts & LOW_BITS) + 2 * Integer.bitCount(counts & HIGH_BITS);
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the number of tiles held twice, counting the fake okeys as one more tile.
+	 *
+	 * @return the pair count
+	 */
+	public int getPairs() {
+		int pairs = getFakeOkeys() == 2 ? 1 : 0;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			pairs += Integer.bitCount(getColorCounts(color) & HIGH_BITS);
+		}
+		return pairs;
+	}
+
+	/**
+	 * Returns the number of distinct tiles that lie in runs of three or more consecutive values
+	 * of the same color, without using wildcards. This measures how series-heavy a hand is.
+	 *
+	 * @return the number of tiles in runs
+	 */
+	public int getSeriesTiles() {
+		int tiles = 0;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int counts = getColorCounts(color);
+			// One bit per held value, in the lowest bit of its two-bit field.
+			int held = (counts | counts >>> 1) & LOW_BITS;
+			int runStarts = held & held >>> 2 & held >>> 4;
+			tiles += Integer.bitCount(runStarts | runStarts << 2 | runStarts << 4);
+		}
+		return tiles;
+	}
+}
@@ -0,0 +1,122 @@
+package events;
+
+import java.io.PrintStream;
+import java.util.List;
+
+import hints.DealHint;
+import objects.OkeyGame;
+import objects.Player;
+import scoring.DiscardCandidate;
+import simulation.WinEstimate;
+
+public class ConsoleEventListener implements GameEventListener {
+
+	/**
+	 * Number of buffered characters after which the buffer is written before the game ends.
+	 */
+	private static final int FLUSH_THRESHOLD = 8192;
+
+	private final PrintStream out;
+	private final StringBuilder buffer = new StringBuilder(FLUSH_THRESHOLD);
+
+	/**
+	 * Creates a listener that renders the game as text. The text is collected in a buffer and
+	 * written in large pieces, instead of one synchronized console write per line.
+	 *
+	 * @param out the stream to print to
+	 */
+	public ConsoleEventListener(PrintStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Prints the message of the phase.
+	 *
+	 * @param game  the game
+	 * @param phase the phase that starts
+	 */
+	@Override
+	public void phaseStarted(OkeyGame game, GamePhase phase) {
+		buffer.append(phase.getMessage()).append('\n');
+		flushIfFull();
+	}
+
+	/**
+	 * Prints the okey tile, the hands, the best hands and the hint of the first player.
+	 *
+	 * @param game the dealt game
+	 * @param hint the hint of the first player, or null to print none
+	 */
+	@Override
+	public void handsDealt(OkeyGame game, DealHint hint) {
+		List<Player> players = game.getPlayers();
+		buffer.append("Okey: ").append(game.getOkeyTile()).append('\n');
+		buffer.append("Oyuncularin Elleri:\n");
+		for (Player player : players) {
+			buffer.append(player).append('\n');
+		}
+		buffer.append('\n');
+
+		int bestScore = -1;
+		for (Player player : players) {
+			bestScore = Math.max(bestScore, player.getScore());
+		}
+		buffer.append("En Iyi El(ler):\n");
+		for (int i = 0; i < players.size(); i++) {
+			if (players.get(i).getScore() == bestScore) {
+				buffer.append("Oyuncu ").append(i + 1).append(": ").append(players.get(i)).append('\n');
+			}
+		}
+
+		if (hint != null) {
+			List<DiscardCandidate> candidates = hint.getDiscards();
+			buffer.append("Oyuncu ").append(hint.getSeat() + 1).append(" icin atilacak tas onerileri:\n");
+			for (int i = 0; i < Math.min(3, candidates.size()); i++) {
+				buffer.append(i + 1).append(". ").append(candidates.get(i)).append('\n');
+			}
+			buffer.append("Oyuncu ").append(hint.getSeat() + 1).append(" eli bitirmeye ").append(hint.getWinDistance())
+					.append(" tas uzakta\n");
+			WinEstimate estimate = hint.getWinEstimate();
+			buffer.append(String.format("Oyuncu %d icin %d cekiste bitirme olasiligi: %%%.1f (%%95 aralik: %%%.1f - %%%.1f)\n",
+					hint.getSeat() + 1, hint.getWinDraws(), 100 * estimate.getProbability(), 100 * estimate.getLower(),
+					100 * estimate.getUpper()));
+		}
+		flushIfFull();
+	}
+
+	/**
+	 * Prints the winner, or that the deck ran out, and writes the buffered text.
+	 *
+	 * @param game the finished game
+	 */
+	@Override
+	public void gameFinished(OkeyGame game) {
+		int winnerIndex = game.getWinnerIndex();
+		if (winnerIndex < 0) {
+			buffer.append(String.format("Deste bitti, kazanan yok (%d tur).", game.getTurnCount()));
+		} else {
+			buffer.append(String.format("Oyuncu %d %d turda kazandi: %s", winnerIndex + 1, game.getTurnCount(),
+					game.getPlayers().get(winnerIndex)));
+		}
+		buffer.append('\n');
+		flush();
+	}
+
+	/**
+	 * Writes the buffered text.
+	 */
+	public void flush() {
+		out.print(buffer);
+		out.flush();
+		buffer.setLength(0);
+	}
+
+	/**
+	 * Writes the buffered text if the buffer is full.
+	 */
+	private void flushIfFull() {
+		if (buffer.length() >= FLUSH_THRESHOLD) {
+			flush();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package events;
+
+import hints.DealHint;
+import objects.OkeyGame;
+import objects.Tile;
+
+public interface GameEventListener {
+
+	/**
+	 * Listener that ignores every event. Games use it when nothing subscribes, so a headless
+	 * game builds no event data at all.
+	 */
+	GameEventListener NONE = new GameEventListener() {
+	};
+
+	/**
+	 * Called when a phase of the game starts.
+	 *
+	 * @param game  the game
+	 * @param phase the phase that starts
+	 */
+	default void phaseStarted(OkeyGame game, GamePhase phase) {
+	}
+
+	/**
+	 * Called when the hands are dealt and scored.
+	 *
+	 * @param game the game, holding the okey tile, the hands and the scores
+	 * @param hint the hint of the first player, or null if the game has no hint advisor
+	 */
+	default void handsDealt(OkeyGame game, DealHint hint) {
+	}
+
+	/**
+	 * Called after a player's turn.
+	 *
+	 * @param game        the game
+	 * @param seat        the seat of the player
+	 * @param drawn       the drawn tile, or null if the player discarded the extra tile without drawing
+	 * @param fromDiscard true if the drawn tile was taken from the discard pile
+	 * @param discarded   the discarded tile
+	 * @param score       the score of the player's hand after the discard
+	 */
+	default void turnPlayed(OkeyGame game, int seat, Tile drawn, boolean fromDiscard, Tile discarded, int score) {
+	}
+
+	/**
+	 * Called when a player wins or the deck runs out.
+	 *
+	 * @param game the finished game, holding the winner and the turn count
+	 */
+	default void gameFinished(OkeyGame game) {
+	}
+}
@@ -0,0 +1,29 @@
+package events;
+
+public enum GamePhase {
+	CREATE_PLAYERS("Oyuncular Hazirlaniyor..."),
+	CHOOSE_OKEY("Okey belirleniyor..."),
+	DRAW_HANDS("Oyuncularin elleri dagitiliyor..."),
+	CALCULATE_SCORES("Oyuncularin skorlari hesaplaniyor..."),
+	PLAY_TURNS("Oyun oynaniyor...");
+
+	private final String message;
+
+	/**
+	 * Creates a phase with the message shown when it starts.
+	 *
+	 * @param message the message of the phase
+	 */
+	GamePhase(String message) {
+		this.message = message;
+	}
+
+	/**
+	 * Returns the message shown when the phase starts.
+	 *
+	 * @return the message of the phase
+	 */
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,148 @@
+package events;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import hints.DealHint;
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import pipeline.HandFormat;
+
+public class JsonEventListener implements GameEventListener {
+	private final Appendable out;
+	private final StringBuilder line = new StringBuilder(512);
+
+	/**
+	 * Creates a listener that writes every event as one line of JSON. Tiles are written in the
+	 * text format of {@link HandFormat}, such as "K5" or "SO".
+	 *
+	 * @param out the output, flushed at the end of every game if it is {@link Flushable}
+	 */
+	public JsonEventListener(Appendable out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes the phase that starts.
+	 *
+	 * @param game  the game
+	 * @param phase the phase that starts
+	 */
+	@Override
+	public void phaseStarted(OkeyGame game, GamePhase phase) {
+		line.append("{\"event\":\"phase\",\"phase\":\"").append(phase.name()).append("\"}");
+		writeLine();
+	}
+
+	/**
+	 * Writes the indicator and okey tiles, the first player, the hands and the scores.
+	 *
+	 * @param game the dealt game
+	 * @param hint the hint of the first player, not written
+	 */
+	@Override
+	public void handsDealt(OkeyGame game, DealHint hint) {
+		List<Player> players = game.getPlayers();
+		line.append("{\"event\":\"deal\",\"indicator\":");
+		appendTile(game.getIndicatorTile());
+		line.append(",\"okey\":");
+		appendTile(game.getOkeyTile());
+		line.append(",\"firstPlayer\":").append(game.getFirstPlayerIndex());
+		line.append(",\"hands\":[");
+		for (int seat = 0; seat < players.size(); seat++) {
+			if (seat > 0) {
+				line.append(',');
+			}
+			line.append('[');
+			List<Tile> hand = players.get(seat).getHand();
+			for (int i = 0; i < hand.size(); i++) {
+				if (i > 0) {
+					line.append(',');
+				}
+				appendTile(hand.get(i));
+			}
+			line.append(']');
+		}
+		line.append("],\"scores\":[");
+		for (int seat = 0; seat < players.size(); seat++) {
+			if (seat > 0) {
+				line.append(',');
+			}
+			line.append(players.get(seat).getScore());
+		}
+		line.append("]}");
+		writeLine();
+	}
+
+	/**
+	 * Writes the moves of a turn.
+	 *
+	 * @param game        the game
+	 * @param seat        the seat of the player
+	 * @param drawn       the drawn tile, or null
+	 * @param fromDiscard true if the drawn tile was taken from the discard pile
+	 * @param discarded   the discarded tile
+	 * @param score       the score of the player's hand after the discard
+	 */
+	@Override
+	public void turnPlayed(OkeyGame game, int seat, Tile drawn, boolean fromDiscard, Tile discarded, int score) {
+		line.append("{\"event\":\"turn\",\"turn\":").append(game.getTurnCount());
+		line.append(",\"seat\":").append(seat).append(",\"drawn\":");
+		if (drawn == null) {
+			line.append("null");
+		} else {
+			appendTile(drawn);
+		}
+		line.append(",\"fromDiscard\":").append(fromDiscard).append(",\"discarded\":");
+		appendTile(discarded);
+		line.append(",\"score\":").append(score).append('}');
+		writeLine();
+	}
+
+	/**
+	 * Writes the winner and the turn count, then flushes the output.
+	 *
+	 * @param game the finished game
+	 */
+	@Override
+	public void gameFinished(OkeyGame game) {
+		line.append("{\"event\":\"end\",\"winner\":").append(game.getWinnerIndex());
+		line.append(",\"turns\":").append(game.getTurnCount()).append('}');
+		writeLine();
+		if (out instanceof Flushable) {
+			try {
+				((Flushable) out).flush();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Appends a tile as a JSON string.
+	 *
+	 * @param tile the tile
+	 */
+	private void appendTile(Tile tile) {
+		line.append('"');
+		HandFormat.appendTile(line, tile);
+		line.append('"');
+	}
+
+	/**
+	 * Writes the current line to the output.
+	 */
+	private void writeLine() {
+		line.append('\n');
+		try {
+			out.append(line);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			line.setLength(0);
+		}
+	}
+}
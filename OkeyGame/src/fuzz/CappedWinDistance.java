@@ -0,0 +1,25 @@
+package fuzz;
+
+import java.util.List;
+
+import objects.Tile;
+import scoring.HandEvaluator;
+import scoring.WinDistanceCalculator;
+
+public class CappedWinDistance implements HandEvaluator {
+
+	private final WinDistanceCalculator calculator = new WinDistanceCalculator();
+
+	/**
+	 * Returns the distance of a hand given by {@link WinDistanceCalculator}, capped at
+	 * {@link ReferenceWinDistance#CAP} so that it can be compared with the reference.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return 0, 1 or {@link ReferenceWinDistance#CAP}
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		return Math.min(ReferenceWinDistance.CAP, calculator.distance(hand, okeyTile));
+	}
+}
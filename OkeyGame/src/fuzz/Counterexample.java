@@ -0,0 +1,100 @@
+package fuzz;
+
+import java.util.List;
+
+import objects.Tile;
+import pipeline.HandFormat;
+
+public class Counterexample {
+
+	/**
+	 * Score reported when the tested evaluator threw an exception instead of returning a score.
+	 */
+	public static final int FAILED = -1;
+
+	private final long index;
+	private final List<Tile> hand;
+	private final Tile okeyTile;
+	private final int originalSize;
+	private final int expected;
+	private final int actual;
+
+	/**
+	 * Creates a hand on which two evaluators disagree.
+	 *
+	 * @param index        the index of the generated hand that failed first
+	 * @param hand         the shrunk hand
+	 * @param okeyTile     the okey tile of the hand
+	 * @param originalSize the number of tiles of the generated hand before shrinking
+	 * @param expected     the score of the reference evaluator
+	 * @param actual       the score of the tested evaluator, or {@link #FAILED}
+	 */
+	public Counterexample(long index, List<Tile> hand, Tile okeyTile, int originalSize, int expected, int actual) {
+		this.index = index;
+		this.hand = List.copyOf(hand);
+		this.okeyTile = okeyTile;
+		this.originalSize = originalSize;
+		this.expected = expected;
+		this.actual = actual;
+	}
+
+	/**
+	 * Returns the index of the generated hand, which can be generated again from the same seed.
+	 *
+	 * @return the index of the hand
+	 */
+	public long getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns the shrunk hand.
+	 *
+	 * @return an unmodifiable list of the tiles
+	 */
+	public List<Tile> getHand() {
+		return hand;
+	}
+
+	/**
+	 * Returns the okey tile of the hand.
+	 *
+	 * @return the okey tile
+	 */
+	public Tile getOkeyTile() {
+		return okeyTile;
+	}
+
+	/**
+	 * Returns the number of tiles of the hand before it was shrunk.
+	 *
+	 * @return the original size
+	 */
+	public int getOriginalSize() {
+		return originalSize;
+	}
+
+	/**
+	 * Returns the score of the shrunk hand given by the reference evaluator.
+	 *
+	 * @return the expected score
+	 */
+	public int getExpected() {
+		return expected;
+	}
+
+	/**
+	 * Returns the score of the shrunk hand given by the tested evaluator.
+	 *
+	 * @return the actual score, or {@link #FAILED}
+	 */
+	public int getActual() {
+		return actual;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("#%d (%d tastan %d tasa): %s -> beklenen %d, bulunan %s", index, originalSize,
+				hand.size(), HandFormat.format(hand, okeyTile), expected, actual == FAILED ? "hata" : actual);
+	}
+}
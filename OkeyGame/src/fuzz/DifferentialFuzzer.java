@@ -0,0 +1,234 @@
+package fuzz;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import objects.Tile;
+import scoring.HandEvaluator;
+import util.FastRandom;
+
+public class DifferentialFuzzer {
+
+	/**
+	 * Number of hands generated from one random number stream. The hands are split into chunks of
+	 * this size no matter how many threads are used, so the results only depend on the seed.
+	 */
+	public static final int CHUNK_SIZE = 4096;
+
+	private final HandEvaluator candidate;
+	private final HandEvaluator oracle;
+	private final int parallelism;
+
+	/**
+	 * Creates a fuzzer that compares an evaluator with a reference evaluator.
+	 *
+	 * @param candidate   the evaluator under test, shared by every worker
+	 * @param oracle      the evaluator trusted to give the right scores, shared by every worker
+	 * @param parallelism the number of worker threads
+	 */
+	public DifferentialFuzzer(HandEvaluator candidate, HandEvaluator oracle, int parallelism) {
+		this.candidate = candidate;
+		this.oracle = oracle;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Generates and compares the given number of hands on all worker threads. Every failing hand
+	 * that is kept in the report is shrunk to a minimal counterexample first.
+	 *
+	 * @param hands      the number of hands to compare
+	 * @param masterSeed the seed from which the random number stream of every chunk is derived
+	 * @return the merged report of the chunks
+	 */
+	public FuzzReport run(long hands, long masterSeed) {
+		long chunks = (hands + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new ChunkTask(0, chunks, hands, masterSeed));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs the fuzzer and prints the report and the throughput.
+	 *
+	 * @param hands      the number of hands to compare
+	 * @param masterSeed the seed of the run
+	 * @param out        the stream to print to
+	 * @return the merged report of the chunks
+	 */
+	public FuzzReport runAndReport(long hands, long masterSeed, PrintStream out) {
+		out.println(String.format("%d el %d is parcacigi ile karsilastiriliyor (tohum: %d)...", hands, parallelism, masterSeed));
+		long start = System.nanoTime();
+		FuzzReport report = run(hands, masterSeed);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		out.print(report);
+		out.println(String.format("Sure: %.2f sn, Hiz: %.0f el/sn", seconds, hands / seconds));
+		return report;
+	}
+
+	/**
+	 * Generates and compares the hands of one chunk with its own random number stream.
+	 *
+	 * @param chunk      the index of the chunk
+	 * @param hands      the total number of hands
+	 * @param masterSeed the seed of the run
+	 * @return the report of the chunk
+	 */
+	FuzzReport fuzzChunk(long chunk, long hands, long masterSeed) {
+		FuzzReport report = new FuzzReport();
+		SplittableRandom random = new SplittableRandom(chunkSeed(masterSeed, chunk));
+		HandGenerator generator = new HandGenerator();
+		List<Tile> hand = new ArrayList<>(15);
+		int[] scores = new int[2];
+		long end = Math.min(hands, (chunk + 1) * CHUNK_SIZE);
+		for (long index = chunk * CHUNK_SIZE; index < end; index++) {
+			Tile okeyTile = generator.generate(random, hand);
+			if (!fails(hand, okeyTile, scores)) {
+				report.addMatch();
+				continue;
+			}
+			report.addMismatch();
+			if (report.wants(index)) {
+				int originalSize = hand.size();
+				shrink(hand, okeyTile, scores);
+				report.addCounterexample(new Counterexample(index, hand, okeyTile, originalSize, scores[0], scores[1]));
+			}
+		}
+		return report;
+	}
+
+	/**
+	 * Shrinks a failing hand in place. Tiles are removed as long as the evaluators still
+	 * disagree, then the remaining tiles are replaced with plainer ones: wildcards and fake
+	 * okeys with ordinary tiles, and ordinary tiles with tiles of lower codes. Both steps are
+	 * repeated until neither changes the hand.
+	 *
+	 * @param hand     a hand on which the evaluators disagree
+	 * @param okeyTile the okey tile of the hand
+	 * @param scores   receives the expected and the actual score of the shrunk hand
+	 */
+	void shrink(List<Tile> hand, Tile okeyTile, int[] scores) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			for (int i = hand.size() - 1; i >= 0; i--) {
+				Tile removed = hand.remove(i);
+				if (fails(hand, okeyTile, scores)) {
+					changed = true;
+				} else {
+					hand.add(i, removed);
+				}
+			}
+			for (int i = 0; i < hand.size(); i++) {
+				changed |= simplify(hand, i, okeyTile, scores);
+			}
+		}
+		fails(hand, okeyTile, scores);
+	}
+
+	/**
+	 * Replaces a tile of a failing hand with the plainest tile that keeps the hand failing.
+	 *
+	 * @param hand     a hand on which the evaluators disagree
+	 * @param i        the index of the tile to replace
+	 * @param okeyTile the okey tile of the hand
+	 * @param scores   receives the scores of the last comparison
+	 * @return true if the tile was replaced
+	 */
+	private boolean simplify(List<Tile> hand, int i, Tile okeyTile, int[] scores) {
+		Tile original = hand.get(i);
+		int limit = original == okeyTile || original.isFakeOkey() ? Tile.FACE_COUNT : original.getCode();
+		for (int code = 0; code < limit; code++) {
+			Tile replacement = Tile.valueOf(code);
+			if (replacement == okeyTile || copies(hand, replacement) >= 2) {
+				continue;
+			}
+			hand.set(i, replacement);
+			if (fails(hand, okeyTile, scores)) {
+				return true;
+			}
+		}
+		hand.set(i, original);
+		return false;
+	}
+
+	/**
+	 * Compares the scores of the two evaluators on a hand.
+	 *
+	 * @param hand     the hand to score
+	 * @param okeyTile the okey tile of the hand
+	 * @param scores   receives the expected and the actual score
+	 * @return true if the scores differ or the tested evaluator threw an exception
+	 */
+	private boolean fails(List<Tile> hand, Tile okeyTile, int[] scores) {
+		scores[0] = oracle.evaluate(hand, okeyTile);
+		try {
+			scores[1] = candidate.evaluate(hand, okeyTile);
+		} catch (RuntimeException e) {
+			scores[1] = Counterexample.FAILED;
+		}
+		return scores[0] != scores[1];
+	}
+
+	/**
+	 * Counts the copies of a tile in a hand.
+	 *
+	 * @param hand the hand
+	 * @param tile the tile to count
+	 * @return the number of copies
+	 */
+	private static int copies(List<Tile> hand, Tile tile) {
+		int copies = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			if (hand.get(i) == tile) {
+				copies++;
+			}
+		}
+		return copies;
+	}
+
+	/**
+	 * Derives the seed of a chunk from the master seed.
+	 *
+	 * @param masterSeed the seed of the run
+	 * @param chunk      the index of the chunk
+	 * @return the seed of the chunk
+	 */
+	static long chunkSeed(long masterSeed, long chunk) {
+		return FastRandom.mix(masterSeed + (chunk + 1) * 0x9E3779B97F4A7C15L);
+	}
+
+	@SuppressWarnings("serial")
+	private class ChunkTask extends RecursiveTask<FuzzReport> {
+		private final long fromChunk;
+		private final long toChunk;
+		private final long hands;
+		private final long masterSeed;
+
+		ChunkTask(long fromChunk, long toChunk, long hands, long masterSeed) {
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+			this.hands = hands;
+			this.masterSeed = masterSeed;
+		}
+
+		@Override
+		protected FuzzReport compute() {
+			if (toChunk - fromChunk <= 1) {
+				return fromChunk < toChunk ? fuzzChunk(fromChunk, hands, masterSeed) : new FuzzReport();
+			}
+			long middle = (fromChunk + toChunk) >>> 1;
+			ChunkTask left = new ChunkTask(fromChunk, middle, hands, masterSeed);
+			ChunkTask right = new ChunkTask(middle, toChunk, hands, masterSeed);
+			left.fork();
+			FuzzReport report = right.compute();
+			return report.merge(left.join());
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package fuzz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+public class FuzzReport {
+
+	/**
+	 * Number of counterexamples kept by a report. Only the hands with the lowest indexes are
+	 * kept, so the report does not depend on the number of threads.
+	 */
+	public static final int MAX_COUNTEREXAMPLES = 10;
+
+	private long hands;
+	private long mismatches;
+	private final List<Counterexample> counterexamples = new ArrayList<>();
+
+	/**
+	 * Counts a hand on which the evaluators agree.
+	 */
+	void addMatch() {
+		hands++;
+	}
+
+	/**
+	 * Counts a hand on which the evaluators disagree.
+	 */
+	void addMismatch() {
+		hands++;
+		mismatches++;
+	}
+
+	/**
+	 * Returns whether a counterexample with the given index would still be kept, so that
+	 * hands which would be dropped are not shrunk.
+	 *
+	 * @param index the index of the failing hand
+	 * @return true if the counterexample is worth shrinking
+	 */
+	boolean wants(long index) {
+		return counterexamples.size() < MAX_COUNTEREXAMPLES
+				|| counterexamples.get(counterexamples.size() - 1).getIndex() > index;
+	}
+
+	/**
+	 * Keeps a counterexample if its index is among the lowest ones.
+	 *
+	 * @param counterexample the shrunk counterexample
+	 */
+	void addCounterexample(Counterexample counterexample) {
+		counterexamples.add(counterexample);
+		counterexamples.sort(Comparator.comparingLong(Counterexample::getIndex));
+		if (counterexamples.size() > MAX_COUNTEREXAMPLES) {
+			counterexamples.remove(MAX_COUNTEREXAMPLES);
+		}
+	}
+
+	/**
+	 * Adds the counts and the counterexamples of another report to this one.
+	 *
+	 * @param other the report to merge
+	 * @return this report
+	 */
+	public FuzzReport merge(FuzzReport other) {
+		hands += other.hands;
+		mismatches += other.mismatches;
+		for (Counterexample counterexample : other.counterexamples) {
+			addCounterexample(counterexample);
+		}
+		return this;
+	}
+
+	/**
+	 * Returns the number of hands compared.
+	 *
+	 * @return the hand count
+	 */
+	public long getHands() {
+		return hands;
+	}
+
+	/**
+	 * Returns the number of hands on which the evaluators disagreed.
+	 *
+	 * @return the mismatch count
+	 */
+	public long getMismatches() {
+		return mismatches;
+	}
+
+	/**
+	 * Returns the shrunk counterexamples of the first failing hands.
+	 *
+	 * @return an unmodifiable list of at most {@link #MAX_COUNTEREXAMPLES} counterexamples
+	 */
+	public List<Counterexample> getCounterexamples() {
+		return Collections.unmodifiableList(counterexamples);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(String.format("Karsilastirilan el: %d\n", hands));
+		stringBuilder.append(String.format("Uyusmayan el: %d (%.6f)\n", mismatches,
+				hands == 0 ? 0 : (double) mismatches / hands));
+		for (Counterexample counterexample : counterexamples) {
+			stringBuilder.append("  ").append(counterexample).append('\n');
+		}
+		return stringBuilder.toString();
+	}
+}
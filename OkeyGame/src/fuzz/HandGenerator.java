@@ -0,0 +1,128 @@
+package fuzz;
+
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+import objects.Tile;
+
+public class HandGenerator {
+
+	/**
+	 * Number of copies of every tile in the deck.
+	 */
+	private static final int COPIES = 2;
+
+	/**
+	 * Width of the value window used by narrow hands, which are full of series and sets.
+	 */
+	private static final int NARROW_VALUES = 5;
+
+	/**
+	 * Most tiles swapped for random ones in a hand built from groups.
+	 */
+	private static final int MAX_SWAPS = 2;
+
+	private final int[] copies = new int[Tile.TILE_KINDS];
+
+	/**
+	 * Fills a list with a random hand that could be held in a real game: no tile appears more
+	 * than twice and at most two fake okeys are used. Most hands have 14 or 15 tiles, but some
+	 * are smaller. Half of the hands are drawn from a few neighboring values, which gives many
+	 * overlapping series and sets, and okey tiles and fake okeys are added more often than in
+	 * a dealt hand. A quarter of the hands are built from pairs, sets and series before a few
+	 * tiles are swapped for random ones, so many of them are finished or one draw away.
+	 *
+	 * @param random the random number generator
+	 * @param hand   the list that receives the tiles, which is cleared first
+	 * @return the okey tile of the hand
+	 */
+	public Tile generate(RandomGenerator random, List<Tile> hand) {
+		hand.clear();
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			copies[code] = 0;
+		}
+		Tile okeyTile = Tile.valueOf(random.nextInt(Tile.FACE_COUNT));
+		int size = random.nextInt(8) == 0 ? 2 + random.nextInt(12) : 14 + random.nextInt(2);
+		boolean narrow = random.nextBoolean();
+		int colors = narrow && random.nextBoolean() ? 2 + random.nextInt(2) : Tile.COLOR_COUNT;
+		int firstColor = random.nextInt(Tile.COLOR_COUNT);
+		int firstValue = narrow ? random.nextInt(Tile.VALUE_COUNT - NARROW_VALUES + 1) : 0;
+		int values = narrow ? NARROW_VALUES : Tile.VALUE_COUNT;
+		// Wildcards and fake okeys are given their own chance, so that most hands contain some.
+		int extras = random.nextInt(5);
+		for (int i = 0; i < extras && hand.size() < size; i++) {
+			add(hand, random.nextBoolean() ? okeyTile : Tile.FAKE_OKEY);
+		}
+		if (random.nextInt(4) == 0) {
+			addGroups(random, hand, size);
+		}
+		while (hand.size() < size) {
+			int color = (firstColor + random.nextInt(colors)) % Tile.COLOR_COUNT;
+			int value = firstValue + random.nextInt(values);
+			add(hand, Tile.valueOf(color * Tile.VALUE_COUNT + value));
+		}
+		shuffle(random, hand);
+		return okeyTile;
+	}
+
+	/**
+	 * Fills a hand with random pairs, sets and series, then swaps a few of its tiles for random
+	 * ones. A group that does not fit is cut short.
+	 *
+	 * @param random the random number generator
+	 * @param hand   the hand being generated
+	 * @param size   the number of tiles of the hand
+	 */
+	private void addGroups(RandomGenerator random, List<Tile> hand, int size) {
+		while (hand.size() < size) {
+			int color = random.nextInt(Tile.COLOR_COUNT);
+			int value = random.nextInt(Tile.VALUE_COUNT);
+			int kind = random.nextInt(3);
+			int length = kind == 0 ? 2 : 3 + random.nextInt(2);
+			for (int i = 0; i < length && hand.size() < size; i++) {
+				if (kind == 0) {
+					add(hand, Tile.valueOf(color * Tile.VALUE_COUNT + value));
+				} else if (kind == 1 && value + i < Tile.VALUE_COUNT) {
+					add(hand, Tile.valueOf(color * Tile.VALUE_COUNT + value + i));
+				} else if (kind == 2) {
+					add(hand, Tile.valueOf((color + i) % Tile.COLOR_COUNT * Tile.VALUE_COUNT + value));
+				}
+			}
+		}
+		int swaps = random.nextInt(MAX_SWAPS + 1);
+		for (int i = 0; i < swaps; i++) {
+			int index = random.nextInt(hand.size());
+			copies[hand.get(index).getCode()]--;
+			hand.remove(index);
+			while (hand.size() < size) {
+				add(hand, Tile.valueOf(random.nextInt(Tile.TILE_KINDS)));
+			}
+		}
+	}
+
+	/**
+	 * Adds a tile to a hand unless both of its copies are already there.
+	 *
+	 * @param hand the hand being generated
+	 * @param tile the tile to add
+	 */
+	private void add(List<Tile> hand, Tile tile) {
+		if (copies[tile.getCode()] < COPIES) {
+			copies[tile.getCode()]++;
+			hand.add(tile);
+		}
+	}
+
+	/**
+	 * Shuffles a hand, so that the order of the tiles does not follow the generation.
+	 *
+	 * @param random the random number generator
+	 * @param hand   the hand to shuffle
+	 */
+	private static void shuffle(RandomGenerator random, List<Tile> hand) {
+		for (int i = hand.size() - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			hand.set(i, hand.set(j, hand.get(i)));
+		}
+	}
+}
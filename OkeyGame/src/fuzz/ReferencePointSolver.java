@@ -0,0 +1,141 @@
+package fuzz;
+
+import java.util.List;
+
+import objects.Tile;
+import scoring.HandEvaluator;
+import scoring.PointHandEvaluator;
+
+public class ReferencePointSolver implements HandEvaluator {
+
+	/**
+	 * Points of a placement that leaves a group unfinished, below every real score.
+	 */
+	private static final int UNFINISHED = -1_000;
+
+	/**
+	 * Calculates the best points of a hand under 101 Okey counting by trying every placement of
+	 * the tiles into sets and series, tile by tile from the lowest face. It shares no code with
+	 * {@link PointHandEvaluator} and is meant as its reference: the points are the face values
+	 * of the tiles placed into groups of at least three, wildcards are worth the value of the
+	 * tile they stand for, and fake okeys keep the face of the okey tile.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the points of the hand
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		int[] counts = new int[Tile.FACE_COUNT];
+		int wildcards = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile == okeyTile) {
+				wildcards++;
+			} else {
+				counts[tile.isFakeOkey() ? okeyTile.getCode() : tile.getCode()]++;
+			}
+		}
+		return best(counts, wildcards);
+	}
+
+	/**
+	 * Returns the best points of the remaining tiles. The lowest remaining face is either left
+	 * unused or placed into a series or a set; the faces below it are already placed, so only
+	 * wildcards can stand for them. Groups of wildcards alone are never formed, since a hand
+	 * holds at most two okey tiles.
+	 *
+	 * @param counts    the copies of every face left, changed and restored by the method
+	 * @param wildcards the number of wildcards left
+	 * @return the best points
+	 */
+	private static int best(int[] counts, int wildcards) {
+		int face = 0;
+		while (face < Tile.FACE_COUNT && counts[face] == 0) {
+			face++;
+		}
+		if (face == Tile.FACE_COUNT) {
+			return 0;
+		}
+		int color = face / Tile.VALUE_COUNT;
+		int value = face % Tile.VALUE_COUNT;
+		counts[face]--;
+		int best = best(counts, wildcards);
+		for (int first = 0; first <= value; first++) {
+			for (int last = Math.max(value, first + 2); last < Tile.VALUE_COUNT; last++) {
+				best = Math.max(best, series(counts, wildcards, color, last, value, first, value + 1));
+			}
+		}
+		for (int colors = 0; colors < 1 << Tile.COLOR_COUNT; colors++) {
+			if ((colors >> color & 1) != 0 && Integer.bitCount(colors) >= 3) {
+				best = Math.max(best, set(counts, wildcards, value, colors, color, 0, value + 1));
+			}
+		}
+		counts[face]++;
+		return best;
+	}
+
+	/**
+	 * Fills the places of a series with tiles or wildcards, then places the remaining tiles.
+	 *
+	 * @param counts    the copies of every face left
+	 * @param wildcards the number of wildcards left
+	 * @param color     the color of the series
+	 * @param last      the value of the last place of the series
+	 * @param placed    the value of the tile already placed into the series
+	 * @param value     the value of the next place to fill, starting at the first place
+	 * @param points    the points of the series so far
+	 * @return the best points, or {@link #UNFINISHED} if the series cannot be filled
+	 */
+	private static int series(int[] counts, int wildcards, int color, int last, int placed, int value, int points) {
+		if (value > last) {
+			return points + best(counts, wildcards);
+		}
+		if (value == placed) {
+			return series(counts, wildcards, color, last, placed, value + 1, points);
+		}
+		int best = UNFINISHED;
+		int face = color * Tile.VALUE_COUNT + value;
+		if (counts[face] > 0) {
+			counts[face]--;
+			best = series(counts, wildcards, color, last, placed, value + 1, points + value + 1);
+			counts[face]++;
+		}
+		if (wildcards > 0) {
+			best = Math.max(best, series(counts, wildcards - 1, color, last, placed, value + 1, points + value + 1));
+		}
+		return best;
+	}
+
+	/**
+	 * Fills the colors of a set with tiles or wildcards, then places the remaining tiles.
+	 *
+	 * @param counts    the copies of every face left
+	 * @param wildcards the number of wildcards left
+	 * @param value     the value of the set
+	 * @param colors    the colors of the set as a bit mask
+	 * @param placed    the color of the tile already placed into the set
+	 * @param color     the next color to fill
+	 * @param points    the points of the set so far
+	 * @return the best points, or {@link #UNFINISHED} if the set cannot be filled
+	 */
+	private static int set(int[] counts, int wildcards, int value, int colors, int placed, int color, int points) {
+		if (color == Tile.COLOR_COUNT) {
+			return points + best(counts, wildcards);
+		}
+		if ((colors >> color & 1) == 0 || color == placed) {
+			return set(counts, wildcards, value, colors, placed, color + 1, points);
+		}
+		int best = UNFINISHED;
+		int face = color * Tile.VALUE_COUNT + value;
+		if (counts[face] > 0) {
+			counts[face]--;
+			best = set(counts, wildcards, value, colors, placed, color + 1, points + value + 1);
+			counts[face]++;
+		}
+		if (wildcards > 0) {
+			best = Math.max(best, set(counts, wildcards - 1, value, colors, placed, color + 1, points + value + 1));
+		}
+		return best;
+	}
+}
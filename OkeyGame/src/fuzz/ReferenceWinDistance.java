@@ -0,0 +1,82 @@
+package fuzz;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import objects.OkeyGame;
+import objects.Tile;
+import scoring.HandEvaluator;
+import scoring.ReferenceSolver;
+
+public class ReferenceWinDistance implements HandEvaluator {
+
+	/**
+	 * Distance reported for every hand that needs more than one draw. The reference tries every
+	 * drawn tile, so it can only tell the distances 0 and 1 apart from the rest.
+	 */
+	public static final int CAP = 2;
+
+	private final ReferenceSolver solver = new ReferenceSolver();
+
+	/**
+	 * Returns the distance of a hand from a finished hand, capped at {@link #CAP}, with the
+	 * reference solver. The distance is 0 when 14 tiles of the hand all fit into pairs, sets
+	 * and series, and 1 when that holds after drawing a tile with a copy left, the okey
+	 * included. It is not a score, but it lets {@link DifferentialFuzzer} compare
+	 * {@link CappedWinDistance} with the reference and shrink the hands they disagree on.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return 0, 1 or {@link #CAP}
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		List<Tile> tiles = new ArrayList<>(hand);
+		if (finished(tiles, okeyTile)) {
+			return 0;
+		}
+		int[] copies = new int[Tile.TILE_KINDS];
+		for (int i = 0; i < hand.size(); i++) {
+			copies[hand.get(i).getCode()]++;
+		}
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			if (copies[code] >= 2) {
+				continue;
+			}
+			tiles.add(Tile.valueOf(code));
+			boolean finished = finished(tiles, okeyTile);
+			tiles.remove(tiles.size() - 1);
+			if (finished) {
+				return 1;
+			}
+		}
+		return CAP;
+	}
+
+	/**
+	 * Returns whether some 14 tiles of a hand are all placed into groups. A hand scoring less
+	 * than 14 has no such tiles, so larger hands are only split when they score enough.
+	 *
+	 * @param tiles    the tiles, restored before the method returns
+	 * @param okeyTile the okey tile of the hand
+	 * @return true if the tiles hold a finished hand
+	 */
+	private boolean finished(List<Tile> tiles, Tile okeyTile) {
+		if (tiles.size() < OkeyGame.TILE_PER_HAND || tiles.size() > ReferenceSolver.MAX_TILES
+				|| solver.evaluate(tiles, okeyTile) < OkeyGame.TILE_PER_HAND) {
+			return false;
+		}
+		if (tiles.size() == OkeyGame.TILE_PER_HAND) {
+			return true;
+		}
+		for (int i = tiles.size() - 1; i >= 0; i--) {
+			Tile discarded = tiles.remove(i);
+			boolean finished = finished(tiles, okeyTile);
+			tiles.add(i, discarded);
+			if (finished) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
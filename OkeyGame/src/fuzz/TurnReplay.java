@@ -0,0 +1,139 @@
+package fuzz;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import objects.Player;
+import objects.Tile;
+import scoring.HandEvaluator;
+import scoring.OptimalHandEvaluator;
+
+public class TurnReplay implements HandEvaluator {
+
+	/**
+	 * Score returned when a move leaves a tracked score that differs from the full evaluation.
+	 * No hand scores below zero, so the fuzzer always reports it.
+	 */
+	public static final int MISMATCH = -1;
+
+	private static final int COPIES = 2;
+
+	private final HandEvaluator fullEvaluator = new OptimalHandEvaluator();
+
+	/**
+	 * Reaches a hand through the moves of a game and returns the score tracked by
+	 * {@link Player}. The first half of the tiles is dealt and the rest is drawn one by one.
+	 * While the hand has room, a tile that is not part of the hand is drawn before each of them
+	 * and discarded after it, and a dealt tile is discarded and drawn back. The moves follow
+	 * from the tiles of the hand, so a shrunk hand replays moves of its own. After every move
+	 * the tracked score is compared with a full evaluation of the hand.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the tracked score of the hand, or {@link #MISMATCH} if a move left a wrong one
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		SplittableRandom random = new SplittableRandom(seed(hand, okeyTile));
+		int[] copies = new int[Tile.TILE_KINDS];
+		Player player = new Player(1);
+		int dealt = (hand.size() + 1) / 2;
+		for (int i = 0; i < dealt; i++) {
+			player.addTile(hand.get(i));
+			copies[hand.get(i).getCode()]++;
+		}
+		player.startTracking(okeyTile);
+		if (!tracked(player, okeyTile)) {
+			return MISMATCH;
+		}
+		for (int i = dealt; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			Tile filler = player.getHand().size() + 2 <= hand.size() ? filler(random, copies, tile) : null;
+			if (filler != null && !draw(player, filler, copies, okeyTile)) {
+				return MISMATCH;
+			}
+			if (!draw(player, tile, copies, okeyTile)) {
+				return MISMATCH;
+			}
+			if (filler != null && !discard(player, filler, copies, okeyTile)) {
+				return MISMATCH;
+			}
+			Tile held = hand.get(random.nextInt(dealt));
+			if (!discard(player, held, copies, okeyTile) || !draw(player, held, copies, okeyTile)) {
+				return MISMATCH;
+			}
+		}
+		return player.getScore();
+	}
+
+	/**
+	 * Draws a tile and checks the tracked score.
+	 *
+	 * @param player   the player holding the hand
+	 * @param tile     the drawn tile
+	 * @param copies   the copies of every tile in the hand
+	 * @param okeyTile the okey tile
+	 * @return true if the tracked score matches a full evaluation
+	 */
+	private boolean draw(Player player, Tile tile, int[] copies, Tile okeyTile) {
+		player.draw(tile);
+		copies[tile.getCode()]++;
+		return tracked(player, okeyTile);
+	}
+
+	/**
+	 * Discards a tile and checks the tracked score.
+	 *
+	 * @param player   the player holding the hand
+	 * @param tile     the discarded tile
+	 * @param copies   the copies of every tile in the hand
+	 * @param okeyTile the okey tile
+	 * @return true if the tracked score matches a full evaluation
+	 */
+	private boolean discard(Player player, Tile tile, int[] copies, Tile okeyTile) {
+		player.discard(tile);
+		copies[tile.getCode()]--;
+		return tracked(player, okeyTile);
+	}
+
+	/**
+	 * Returns whether the score tracked by a player matches a full evaluation of the hand.
+	 *
+	 * @param player   the player holding the hand
+	 * @param okeyTile the okey tile
+	 * @return true if the scores match
+	 */
+	private boolean tracked(Player player, Tile okeyTile) {
+		return player.getScore() == fullEvaluator.evaluate(player.getHand(), okeyTile);
+	}
+
+	/**
+	 * Chooses a tile to hold while the next tile of the hand is drawn, keeping at most two
+	 * copies of every tile in the hand.
+	 *
+	 * @param random the generator of the moves
+	 * @param copies the copies of every tile in the hand
+	 * @param next   the next tile of the hand
+	 * @return the filler tile, or null if the drawn tile leaves no room for it
+	 */
+	private static Tile filler(SplittableRandom random, int[] copies, Tile next) {
+		int code = random.nextInt(Tile.TILE_KINDS);
+		int held = copies[code] + (code == next.getCode() ? 1 : 0);
+		return held < COPIES ? Tile.valueOf(code) : null;
+	}
+
+	/**
+	 * Returns the seed of the moves that reach a hand.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile
+	 * @return the seed
+	 */
+	private static long seed(List<Tile> hand, Tile okeyTile) {
+		long seed = okeyTile.getCode();
+		for (int i = 0; i < hand.size(); i++) {
+			seed = seed * 31 + hand.get(i).getCode();
+		}
+		return seed;
+	}
+}
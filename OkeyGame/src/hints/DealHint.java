@@ -0,0 +1,76 @@
+package hints;
+
+import java.util.List;
+
+import scoring.DiscardCandidate;
+import simulation.WinEstimate;
+
+public final class DealHint {
+	private final int seat;
+	private final List<DiscardCandidate> discards;
+	private final int winDistance;
+	private final int winDraws;
+	private final WinEstimate winEstimate;
+
+	/**
+	 * Creates the hint of a player after the deal.
+	 *
+	 * @param seat        the seat of the player
+	 * @param discards    the discards of the player, ranked by resulting score
+	 * @param winDistance the number of draws, each followed by a discard, that finish the player's hand
+	 * @param winDraws    the number of draws within which the chance of finishing is estimated
+	 * @param winEstimate the estimated chance of finishing the hand within the draws
+	 */
+	public DealHint(int seat, List<DiscardCandidate> discards, int winDistance, int winDraws, WinEstimate winEstimate) {
+		this.seat = seat;
+		this.discards = List.copyOf(discards);
+		this.winDistance = winDistance;
+		this.winDraws = winDraws;
+		this.winEstimate = winEstimate;
+	}
+
+	/**
+	 * Returns the seat of the player the hint is for.
+	 *
+	 * @return the seat of the player
+	 */
+	public int getSeat() {
+		return seat;
+	}
+
+	/**
+	 * Returns the discards of the player, ranked by resulting score.
+	 *
+	 * @return an unmodifiable list of the ranked discards
+	 */
+	public List<DiscardCandidate> getDiscards() {
+		return discards;
+	}
+
+	/**
+	 * Returns the smallest number of draws, each followed by a discard, that finish the hand.
+	 *
+	 * @return the distance of the hand from a finished hand
+	 */
+	public int getWinDistance() {
+		return winDistance;
+	}
+
+	/**
+	 * Returns the number of draws within which the chance of finishing is estimated.
+	 *
+	 * @return the number of draws
+	 */
+	public int getWinDraws() {
+		return winDraws;
+	}
+
+	/**
+	 * Returns the estimated chance of finishing the hand within {@link #getWinDraws()} draws.
+	 *
+	 * @return the estimate
+	 */
+	public WinEstimate getWinEstimate() {
+		return winEstimate;
+	}
+}
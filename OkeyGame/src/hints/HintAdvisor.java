@@ -0,0 +1,95 @@
+package hints;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import scoring.DiscardAdvisor;
+import scoring.WinDistanceCalculator;
+import simulation.WinProbabilityEstimator;
+
+public class HintAdvisor {
+
+	/**
+	 * Number of draws within which the chance of finishing the hand is estimated.
+	 */
+	public static final int WIN_DRAWS = 10;
+
+	/**
+	 * Width of the 95% confidence interval at which the estimation of the chance stops.
+	 */
+	public static final double WIN_INTERVAL_WIDTH = 0.02;
+
+	/**
+	 * Number of completions after which the estimation of the chance stops anyway.
+	 */
+	public static final long WIN_MAX_SAMPLES = 1_000_000;
+
+	/**
+	 * Default time budget of the estimation of the chance. Most hands need more completions for
+	 * the target width than fit into it, so their interval is wider.
+	 */
+	public static final long DEFAULT_WIN_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+	private final DiscardAdvisor discardAdvisor;
+	private final WinDistanceCalculator winDistanceCalculator = new WinDistanceCalculator();
+	private final WinProbabilityEstimator winEstimator;
+
+	/**
+	 * Creates an advisor that ranks the discards and estimates the chance of finishing within
+	 * the default latency budgets.
+	 */
+	public HintAdvisor() {
+		this(new DiscardAdvisor(DiscardAdvisor.DEFAULT_BUDGET_NANOS), new WinProbabilityEstimator(null,
+				WIN_INTERVAL_WIDTH, WIN_MAX_SAMPLES, DEFAULT_WIN_BUDGET_NANOS));
+	}
+
+	/**
+	 * Creates an advisor that ranks the discards and estimates the chance of finishing with the
+	 * given advisor and estimator.
+	 *
+	 * @param discardAdvisor the advisor that ranks the discards
+	 * @param winEstimator   the estimator of the chance of finishing within {@link #WIN_DRAWS} draws
+	 */
+	public HintAdvisor(DiscardAdvisor discardAdvisor, WinProbabilityEstimator winEstimator) {
+		this.discardAdvisor = discardAdvisor;
+		this.winEstimator = winEstimator;
+	}
+
+	/**
+	 * Calculates the hint of the first player of a dealt game, who holds the extra tile and
+	 * discards first: the ranked discards, the distance of the hand from a finished hand and the
+	 * chance of finishing it within {@link #WIN_DRAWS} draws. The chance is simulated from the
+	 * tiles the player has seen, and its seed follows from the hand, so a hand always gets the
+	 * same hint.
+	 *
+	 * @param game the dealt game
+	 * @return the hint of the first player
+	 */
+	public DealHint advise(OkeyGame game) {
+		int seat = game.getFirstPlayerIndex();
+		Player player = game.getPlayers().get(seat);
+		List<Tile> hand = player.getHand();
+		Tile indicatorTile = game.getIndicatorTile();
+		return new DealHint(seat, discardAdvisor.advise(player, game.getOkeyTile()),
+				winDistanceCalculator.distance(hand, game.getOkeyTile()), WIN_DRAWS,
+				winEstimator.estimate(hand, indicatorTile, List.of(), WIN_DRAWS, seed(hand, indicatorTile)));
+	}
+
+	/**
+	 * Returns the seed of the simulation of a hand.
+	 *
+	 * @param hand          the tiles of the hand
+	 * @param indicatorTile the indicator tile
+	 * @return the seed
+	 */
+	private static long seed(List<Tile> hand, Tile indicatorTile) {
+		long seed = indicatorTile.getCode();
+		for (int i = 0; i < hand.size(); i++) {
+			seed = seed * 31 + hand.get(i).getCode();
+		}
+		return seed;
+	}
+}
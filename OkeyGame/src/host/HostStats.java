@@ -0,0 +1,160 @@
+package host;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import objects.OkeyGame;
+import util.LatencyHistogram;
+
+public class HostStats {
+	private long tables;
+	private long failedTables;
+	private long turns;
+	private long exhaustedDecks;
+	private final long[] seatWins = new long[OkeyGame.PLAYER_COUNT];
+	private final LatencyHistogram turnLatency = new LatencyHistogram();
+	private final LatencyHistogram tableLatency = new LatencyHistogram();
+	private long nanos;
+	private long firstFailureSeed;
+	private Throwable firstFailure;
+
+	/**
+	 * Adds the result of a finished table.
+	 *
+	 * @param game        the finished game
+	 * @param turnLatency the durations of the turns of the table
+	 * @param tableNanos  the duration of the whole table
+	 */
+	synchronized void addTable(OkeyGame game, LatencyHistogram turnLatency, long tableNanos) {
+		tables++;
+		turns += game.getTurnCount();
+		if (game.getWinnerIndex() < 0) {
+			exhaustedDecks++;
+		} else {
+			seatWins[game.getWinnerIndex()]++;
+		}
+		this.turnLatency.merge(turnLatency);
+		tableLatency.record(tableNanos);
+	}
+
+	/**
+	 * Counts a table that stopped with an error. The other tables are not affected, and the
+	 * first error is kept with the seed of its table so that it can be reported and replayed.
+	 *
+	 * @param seed  the seed of the table
+	 * @param error the error that stopped the table
+	 */
+	synchronized void addFailedTable(long seed, Throwable error) {
+		if (failedTables++ == 0) {
+			firstFailureSeed = seed;
+			firstFailure = error;
+		}
+	}
+
+	/**
+	 * Sets the duration of the run.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	synchronized void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of finished tables.
+	 *
+	 * @return the table count
+	 */
+	public synchronized long getTables() {
+		return tables;
+	}
+
+	/**
+	 * Returns the number of tables that stopped with an error.
+	 *
+	 * @return the failed table count
+	 */
+	public synchronized long getFailedTables() {
+		return failedTables;
+	}
+
+	/**
+	 * Returns the error of the first table that failed.
+	 *
+	 * @return the first error, or null if no table failed
+	 */
+	public synchronized Throwable getFirstFailure() {
+		return firstFailure;
+	}
+
+	/**
+	 * Returns the seed of the first table that failed.
+	 *
+	 * @return the seed of the table, meaningful only if a table failed
+	 */
+	public synchronized long getFirstFailureSeed() {
+		return firstFailureSeed;
+	}
+
+	/**
+	 * Returns the number of played turns.
+	 *
+	 * @return the turn count
+	 */
+	public synchronized long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * Returns the number of tables whose deck ran out before a player won.
+	 *
+	 * @return the number of tables without a winner
+	 */
+	public synchronized long getExhaustedDecks() {
+		return exhaustedDecks;
+	}
+
+	/**
+	 * Returns the number of tables finished per second.
+	 *
+	 * @return the table throughput
+	 */
+	public synchronized double getTablesPerSecond() {
+		return nanos == 0 ? 0 : tables * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns the value of a turn latency percentile.
+	 *
+	 * @param percentile the percentile (0-100)
+	 * @return the turn duration at the percentile, in nanoseconds
+	 */
+	public synchronized long getTurnLatency(double percentile) {
+		return turnLatency.getPercentile(percentile);
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string with the counts, the throughput and the latencies.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(String.format("Masa: %d (hatali: %d), tur: %d, kazanansiz: %d\n",
+				tables, failedTables, turns, exhaustedDecks));
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			stringBuilder.append(String.format("Oyuncu %d kazandi: %d\n", seat + 1, seatWins[seat]));
+		}
+		stringBuilder.append("Tur suresi: ").append(turnLatency).append('\n');
+		stringBuilder.append("Masa suresi: ").append(tableLatency).append('\n');
+		stringBuilder.append(String.format("Sure: %.2f sn, Hiz: %.0f masa/sn, %.0f tur/sn\n",
+				nanos / 1e9, getTablesPerSecond(), nanos == 0 ? 0 : turns * 1e9 / nanos));
+		if (firstFailure != null) {
+			StringWriter trace = new StringWriter();
+			firstFailure.printStackTrace(new PrintWriter(trace));
+			stringBuilder.append(String.format("Ilk hatali masa (tohum: %d): ", firstFailureSeed)).append(trace);
+		}
+		return stringBuilder.toString();
+	}
+}
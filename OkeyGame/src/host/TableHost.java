@@ -0,0 +1,151 @@
+package host;
+
+import java.io.PrintStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import journal.GameJournal;
+import journal.JournalRecorder;
+import objects.OkeyGame;
+import scoring.HandEvaluator;
+import strategy.PlayerStrategy;
+import util.FastRandom;
+import util.LatencyHistogram;
+
+public class TableHost {
+	private final HandEvaluator handEvaluator;
+	private final IntFunction<PlayerStrategy> strategies;
+	private final ExecutorService executor;
+	private final int maxConcurrentTables;
+	private Consumer<GameJournal> journal;
+
+	/**
+	 * Creates a host that plays every table as its own task on an executor.
+	 *
+	 * @param handEvaluator       the evaluator shared by every table
+	 * @param strategies          creates the strategy of a seat; it is called once per seat of every table,
+	 *                            so a strategy that keeps the state of a game must be created anew,
+	 *                            while a thread-safe strategy such as {@link bot.ExpectimaxStrategy}
+	 *                            may be returned for every table, sharing its transposition table
+	 * @param executor            the executor that runs the tables
+	 * @param maxConcurrentTables the maximum number of tables in play at once
+	 */
+	public TableHost(HandEvaluator handEvaluator, IntFunction<PlayerStrategy> strategies, ExecutorService executor,
+			int maxConcurrentTables) {
+		this.handEvaluator = handEvaluator;
+		this.strategies = strategies;
+		this.executor = executor;
+		this.maxConcurrentTables = maxConcurrentTables;
+	}
+
+	/**
+	 * Records every table as a compact journal from which the game can be replayed exactly.
+	 *
+	 * @param journal receives the journal of every finished table, from any thread; null records nothing
+	 */
+	public void setJournal(Consumer<GameJournal> journal) {
+		this.journal = journal;
+	}
+
+	/**
+	 * Returns an executor that runs each task on its own virtual thread when the runtime
+	 * supports them (Java 21 and later), and otherwise a pool of platform threads.
+	 *
+	 * @param threads the number of platform threads used without virtual threads
+	 * @return the executor
+	 */
+	public static ExecutorService newTableExecutor(int threads) {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newFixedThreadPool(threads);
+		}
+	}
+
+	/**
+	 * Deals and plays the given number of tables. A semaphore keeps at most
+	 * {@code maxConcurrentTables} tables in play, so the tables waiting to start do not hold
+	 * any game state. Each table has its own deck, players and random number stream, and a
+	 * table that fails is counted without stopping the others; the first failure is kept with
+	 * the seed of its table.
+	 *
+	 * @param tables     the number of tables to play
+	 * @param masterSeed the seed from which the seed of every table is derived
+	 * @return the statistics of the tables
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public HostStats run(long tables, long masterSeed) throws InterruptedException {
+		HostStats stats = new HostStats();
+		Semaphore permits = new Semaphore(maxConcurrentTables);
+		long start = System.nanoTime();
+		for (long table = 0; table < tables; table++) {
+			long seed = FastRandom.mix(masterSeed + (table + 1) * 0x9E3779B97F4A7C15L);
+			permits.acquire();
+			try {
+				executor.execute(() -> {
+					try {
+						playTable(seed, stats);
+					} catch (RuntimeException | AssertionError e) {
+						stats.addFailedTable(seed, e);
+					} finally {
+						permits.release();
+					}
+				});
+			} catch (RuntimeException e) {
+				permits.release();
+				throw e;
+			}
+		}
+		permits.acquire(maxConcurrentTables);
+		permits.release(maxConcurrentTables);
+		stats.setNanos(System.nanoTime() - start);
+		return stats;
+	}
+
+	/**
+	 * Plays the tables and prints the statistics.
+	 *
+	 * @param tables     the number of tables to play
+	 * @param masterSeed the seed of the run
+	 * @param out        the stream to print to
+	 * @return the statistics of the tables
+	 * @throws InterruptedException if the calling thread is interrupted while waiting
+	 */
+	public HostStats runAndReport(long tables, long masterSeed, PrintStream out) throws InterruptedException {
+		out.println(String.format("%d masa en fazla %d eszamanli masa ile oynaniyor (tohum: %d)...",
+				tables, maxConcurrentTables, masterSeed));
+		HostStats stats = run(tables, masterSeed);
+		out.print(stats);
+		return stats;
+	}
+
+	/**
+	 * Deals one table and plays its turns, timing every turn.
+	 *
+	 * @param seed  the seed of the table
+	 * @param stats the statistics to add the table to
+	 */
+	private void playTable(long seed, HostStats stats) {
+		long start = System.nanoTime();
+		OkeyGame game = new OkeyGame(handEvaluator, null);
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			game.setStrategy(seat, strategies.apply(seat));
+		}
+		if (journal != null) {
+			game.setEventListener(new JournalRecorder(journal));
+		}
+		game.redeal(seed);
+		game.startTurns();
+		LatencyHistogram turnLatency = new LatencyHistogram();
+		boolean playing = true;
+		while (playing) {
+			long turnStart = System.nanoTime();
+			playing = game.playTurn();
+			turnLatency.record(System.nanoTime() - turnStart);
+		}
+		stats.addTable(game, turnLatency, System.nanoTime() - start);
+	}
+}
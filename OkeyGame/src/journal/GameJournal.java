@@ -0,0 +1,156 @@
+package journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import objects.Tile;
+
+public class GameJournal {
+
+	/**
+	 * Bytes written before the events of a game: the seed, the indicator code, the winner and
+	 * the turn count.
+	 */
+	public static final int HEADER_SIZE = Long.BYTES + 2 + Integer.BYTES;
+
+	/**
+	 * Bit of an event that is set when the player took the top of the discard pile instead of
+	 * drawing from the deck. The low bits hold the code of the discarded tile.
+	 */
+	static final int FROM_DISCARD = 0x40;
+	static final int CODE_MASK = 0x3F;
+
+	private final long seed;
+	private final int indicatorCode;
+	private final int winnerIndex;
+	private final byte[] events;
+
+	/**
+	 * Creates the journal of a finished game.
+	 *
+	 * @param seed          the seed the game was dealt from
+	 * @param indicatorCode the code of the indicator tile
+	 * @param winnerIndex   the seat of the winner, or -1 if the deck ran out
+	 * @param events        the encoded turns; the array is copied
+	 * @param turns         the number of turns
+	 */
+	public GameJournal(long seed, int indicatorCode, int winnerIndex, byte[] events, int turns) {
+		this.seed = seed;
+		this.indicatorCode = indicatorCode;
+		this.winnerIndex = winnerIndex;
+		this.events = Arrays.copyOf(events, turns);
+	}
+
+	/**
+	 * Encodes a turn as one byte. Tiles drawn from the deck are not stored, since the deck
+	 * order follows from the seed, and a tile taken from the discard pile is its top.
+	 *
+	 * @param discarded   the discarded tile
+	 * @param fromDiscard true if the player took the top of the discard pile
+	 * @return the event
+	 */
+	public static byte encodeTurn(Tile discarded, boolean fromDiscard) {
+		return (byte) (discarded.getCode() | (fromDiscard ? FROM_DISCARD : 0));
+	}
+
+	/**
+	 * Reads a journal written by {@link #write(DataOutput)}.
+	 *
+	 * @param in the input
+	 * @return the journal
+	 * @throws IOException if the journal cannot be read
+	 */
+	public static GameJournal read(DataInput in) throws IOException {
+		long seed = in.readLong();
+		int indicatorCode = in.readUnsignedByte();
+		int winnerIndex = in.readByte();
+		int turns = in.readInt();
+		if (indicatorCode >= Tile.FACE_COUNT || turns < 0) {
+			throw new IOException("Bozuk oyun gunlugu kaydi");
+		}
+		byte[] events = new byte[turns];
+		in.readFully(events);
+		return new GameJournal(seed, indicatorCode, winnerIndex, events, turns);
+	}
+
+	/**
+	 * Writes the journal.
+	 *
+	 * @param out the output
+	 * @throws IOException if the journal cannot be written
+	 */
+	public void write(DataOutput out) throws IOException {
+		out.writeLong(seed);
+		out.writeByte(indicatorCode);
+		out.writeByte(winnerIndex);
+		out.writeInt(events.length);
+		out.write(events);
+	}
+
+	/**
+	 * Returns the seed the game was dealt from.
+	 *
+	 * @return the seed
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * Returns the indicator tile recorded when the game was dealt.
+	 *
+	 * @return the indicator tile
+	 */
+	public Tile getIndicatorTile() {
+		return Tile.valueOf(indicatorCode);
+	}
+
+	/**
+	 * Returns the seat of the winner.
+	 *
+	 * @return the winner index, or -1 if the deck ran out
+	 */
+	public int getWinnerIndex() {
+		return winnerIndex;
+	}
+
+	/**
+	 * Returns the number of turns played.
+	 *
+	 * @return the turn count
+	 */
+	public int getTurnCount() {
+		return events.length;
+	}
+
+	/**
+	 * Returns the tile discarded in a turn.
+	 *
+	 * @param turn the index of the turn
+	 * @return the code of the discarded tile
+	 */
+	public int getDiscardCode(int turn) {
+		return events[turn] & CODE_MASK;
+	}
+
+	/**
+	 * Returns whether the player took the top of the discard pile in a turn.
+	 *
+	 * @param turn the index of the turn
+	 * @return true for a draw from the discard pile, false for a draw from the deck or no draw
+	 */
+	public boolean isFromDiscard(int turn) {
+		return (events[turn] & FROM_DISCARD) != 0;
+	}
+
+	/**
+	 * Returns the number of bytes {@link #write(DataOutput)} writes.
+	 *
+	 * @return the encoded size
+	 */
+	public int getEncodedSize() {
+		return HEADER_SIZE + events.length;
+	}
+}
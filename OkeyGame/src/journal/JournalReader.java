@@ -0,0 +1,70 @@
+package journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+public class JournalReader implements Closeable {
+	private final Path path;
+	private final DataInputStream in;
+
+	/**
+	 * Opens a journal file written by {@link JournalWriter}.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be read or is not a journal file, which includes
+	 *                     a file shorter than the header
+	 */
+	public JournalReader(Path path) throws IOException {
+		this.path = path;
+		in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16));
+		try {
+			if (in.readInt() != JournalWriter.MAGIC) {
+				throw new IOException("Dosya bir oyun gunlugu degil: " + path);
+			}
+			int version = in.readInt();
+			if (version != JournalWriter.VERSION) {
+				throw new IOException("Desteklenmeyen oyun gunlugu surumu " + version + ": " + path);
+			}
+		} catch (EOFException e) {
+			in.close();
+			throw new IOException("Dosya bir oyun gunlugu degil, baslik eksik: " + path, e);
+		} catch (IOException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads the journal of the next game.
+	 *
+	 * @return the journal, or null at the end of the file
+	 * @throws IOException if the file cannot be read or ends inside a game
+	 */
+	public GameJournal next() throws IOException {
+		in.mark(1);
+		if (in.read() < 0) {
+			return null;
+		}
+		in.reset();
+		try {
+			return GameJournal.read(in);
+		} catch (EOFException e) {
+			throw new IOException("Oyun gunlugu bir oyunun ortasinda bitiyor: " + path, e);
+		}
+	}
+
+	/**
+	 * Closes the file.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+}
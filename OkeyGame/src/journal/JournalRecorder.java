@@ -0,0 +1,69 @@
+package journal;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import events.GameEventListener;
+import hints.DealHint;
+import objects.OkeyGame;
+import objects.Tile;
+
+public class JournalRecorder implements GameEventListener {
+	private final Consumer<GameJournal> sink;
+	private long seed;
+	private int indicatorCode;
+	private byte[] events = new byte[128];
+	private int turns;
+
+	/**
+	 * Creates a recorder for the games of one table. Recorders keep the events of the game in
+	 * play, so every table needs its own recorder; the sink can be shared.
+	 *
+	 * @param sink receives the journal of every finished game
+	 */
+	public JournalRecorder(Consumer<GameJournal> sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Starts the journal of a game with its seed and indicator tile. The hands are not
+	 * recorded, since they follow from the seed.
+	 *
+	 * @param game the dealt game, which must have been dealt with {@link OkeyGame#redeal(long)}
+	 * @param hint the hint of the first player, not recorded
+	 */
+	@Override
+	public void handsDealt(OkeyGame game, DealHint hint) {
+		seed = game.getSeed();
+		indicatorCode = game.getIndicatorTile().getCode();
+		turns = 0;
+	}
+
+	/**
+	 * Appends the turn as one byte: the discarded tile and whether the discard pile was taken.
+	 *
+	 * @param game        the game
+	 * @param seat        the seat of the player
+	 * @param drawn       the drawn tile, or null for the first discard
+	 * @param fromDiscard true if the drawn tile was taken from the discard pile
+	 * @param discarded   the discarded tile
+	 * @param score       the score of the player's hand after the discard
+	 */
+	@Override
+	public void turnPlayed(OkeyGame game, int seat, Tile drawn, boolean fromDiscard, Tile discarded, int score) {
+		if (turns == events.length) {
+			events = Arrays.copyOf(events, 2 * events.length);
+		}
+		events[turns++] = GameJournal.encodeTurn(discarded, fromDiscard);
+	}
+
+	/**
+	 * Hands the journal of the finished game to the sink.
+	 *
+	 * @param game the finished game
+	 */
+	@Override
+	public void gameFinished(OkeyGame game) {
+		sink.accept(new GameJournal(seed, indicatorCode, game.getWinnerIndex(), events, turns));
+	}
+}
@@ -0,0 +1,252 @@
+package journal;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import objects.Deck;
+import objects.OkeyGame;
+import objects.Tile;
+import util.Utility;
+
+public class JournalReplayer {
+	private final Deck deck = new Deck();
+	private final int[][] counts = new int[OkeyGame.PLAYER_COUNT][Tile.TILE_KINDS];
+	private final int[] handSizes = new int[OkeyGame.PLAYER_COUNT];
+	private final byte[] discardPile = new byte[Deck.TILE_COUNT];
+	private int discardCount;
+	private GameJournal journal;
+	private Tile indicatorTile;
+	private Tile okeyTile;
+	private int firstPlayerIndex;
+	private int currentPlayerIndex;
+	private int turn;
+
+	/**
+	 * Loads a game and deals it again, so the replayer is at the start of the first turn. The
+	 * deal follows {@link OkeyGame#redeal(long)}: the deck is shuffled from the seed, the
+	 * indicator is drawn, the first player is chosen and the hands are drawn in seat order.
+	 *
+	 * @param journal the journal of the game
+	 * @throws IllegalStateException if the dealt indicator tile does not match the journal
+	 */
+	public void load(GameJournal journal) {
+		this.journal = journal;
+		deal();
+	}
+
+	/**
+	 * Moves the replay to the start of a turn. Moving forward applies the events in between;
+	 * moving back deals the game again first. Nothing is scored or printed on the way.
+	 *
+	 * @param turn the index of the turn, up to the turn count of the game
+	 * @throws IllegalStateException if the journal does not match the game dealt from its seed
+	 */
+	public void seek(int turn) {
+		if (turn < 0 || turn > journal.getTurnCount()) {
+			throw new IndexOutOfBoundsException("Turn " + turn + " of " + journal.getTurnCount());
+		}
+		if (turn < this.turn) {
+			deal();
+		}
+		while (this.turn < turn) {
+			step();
+		}
+	}
+
+	/**
+	 * Applies the next turn: the draw, unless the player holds the extra tile, and the discard.
+	 *
+	 * @return true if a turn was applied, false at the end of the game
+	 * @throws IllegalStateException if the journal does not match the game dealt from its seed
+	 */
+	public boolean step() {
+		if (turn == journal.getTurnCount()) {
+			return false;
+		}
+		int[] hand = counts[currentPlayerIndex];
+		if (handSizes[currentPlayerIndex] == OkeyGame.TILE_PER_HAND) {
+			int drawn;
+			if (journal.isFromDiscard(turn)) {
+				if (discardCount == 0) {
+					throw new IllegalStateException("Turn " + turn + " takes from an empty discard pile");
+				}
+				drawn = discardPile[--discardCount];
+			} else {
+				if (deck.remaining() == 0) {
+					throw new IllegalStateException("Turn " + turn + " draws from an empty deck");
+				}
+				drawn = deck.drawCode();
+			}
+			hand[drawn]++;
+			handSizes[currentPlayerIndex]++;
+		}
+		int discarded = journal.getDiscardCode(turn);
+		if (discarded >= Tile.TILE_KINDS || hand[discarded] == 0) {
+			throw new IllegalStateException("Turn " + turn + " discards a tile that is not in the hand");
+		}
+		hand[discarded]--;
+		handSizes[currentPlayerIndex]--;
+		discardPile[discardCount++] = (byte) discarded;
+		turn++;
+		// The winner's turn ends the game, so the turn stays with the winner like in OkeyGame.
+		if (turn < journal.getTurnCount() || journal.getWinnerIndex() < 0) {
+			currentPlayerIndex = (currentPlayerIndex + 1) % OkeyGame.PLAYER_COUNT;
+		}
+		return true;
+	}
+
+	/**
+	 * Deals the loaded game again from its seed.
+	 */
+	private void deal() {
+		deck.reset(journal.getSeed());
+		indicatorTile = deck.drawNonFakeTile();
+		if (indicatorTile != journal.getIndicatorTile()) {
+			throw new IllegalStateException("Seed " + journal.getSeed() + " deals indicator " + indicatorTile
+					+ " instead of " + journal.getIndicatorTile());
+		}
+		okeyTile = OkeyGame.okeyFor(indicatorTile);
+		firstPlayerIndex = deck.getRandom().nextInt(OkeyGame.PLAYER_COUNT);
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			int[] hand = counts[seat];
+			Arrays.fill(hand, 0);
+			handSizes[seat] = seat == firstPlayerIndex ? OkeyGame.TILE_PER_HAND + 1 : OkeyGame.TILE_PER_HAND;
+			for (int i = 0; i < handSizes[seat]; i++) {
+				hand[deck.drawCode()]++;
+			}
+		}
+		discardCount = 0;
+		currentPlayerIndex = firstPlayerIndex;
+		turn = 0;
+	}
+
+	/**
+	 * Replays every game of a journal file to its end, checking that each journal matches the
+	 * game dealt from its seed.
+	 *
+	 * @param reader the journal file
+	 * @return the statistics of the replay
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalStateException if a journal does not match the game dealt from its seed
+	 */
+	public static ReplayStats replayAll(JournalReader reader) throws IOException {
+		ReplayStats stats = new ReplayStats();
+		JournalReplayer replayer = new JournalReplayer();
+		long start = System.nanoTime();
+		GameJournal journal;
+		while ((journal = reader.next()) != null) {
+			replayer.load(journal);
+			replayer.seek(journal.getTurnCount());
+			stats.addGame(journal);
+		}
+		stats.setNanos(System.nanoTime() - start);
+		return stats;
+	}
+
+	/**
+	 * Returns the tiles of a player's hand at the current turn, sorted like a dealt hand.
+	 *
+	 * @param seat the seat of the player
+	 * @return a new list of the tiles
+	 */
+	public List<Tile> getHand(int seat) {
+		List<Tile> hand = new ArrayList<>(handSizes[seat]);
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			for (int copy = 0; copy < counts[seat][code]; copy++) {
+				hand.add(Tile.valueOf(code));
+			}
+		}
+		Utility.sortHand(hand);
+		return hand;
+	}
+
+	/**
+	 * Returns the number of copies of a tile in a player's hand at the current turn.
+	 *
+	 * @param seat the seat of the player
+	 * @param code the code of the tile
+	 * @return the number of copies
+	 */
+	public int getCount(int seat, int code) {
+		return counts[seat][code];
+	}
+
+	/**
+	 * Returns the discarded tiles at the current turn, the last discard at the end.
+	 *
+	 * @return a new list of the tiles
+	 */
+	public List<Tile> getDiscardPile() {
+		List<Tile> pile = new ArrayList<>(discardCount);
+		for (int i = 0; i < discardCount; i++) {
+			pile.add(Tile.valueOf(discardPile[i]));
+		}
+		return pile;
+	}
+
+	/**
+	 * Returns the number of tiles left in the deck at the current turn.
+	 *
+	 * @return the number of tiles that can still be drawn
+	 */
+	public int getDeckRemaining() {
+		return deck.remaining();
+	}
+
+	/**
+	 * Returns the index of the turn the replay is at.
+	 *
+	 * @return the number of turns applied
+	 */
+	public int getTurn() {
+		return turn;
+	}
+
+	/**
+	 * Returns the seat of the player who plays the current turn, or of the winner at the end of
+	 * a won game.
+	 *
+	 * @return the index of the current player
+	 */
+	public int getCurrentPlayerIndex() {
+		return currentPlayerIndex;
+	}
+
+	/**
+	 * Returns the seat of the player who was dealt the extra tile.
+	 *
+	 * @return the index of the first player
+	 */
+	public int getFirstPlayerIndex() {
+		return firstPlayerIndex;
+	}
+
+	/**
+	 * Returns the indicator tile of the game.
+	 *
+	 * @return the indicator tile
+	 */
+	public Tile getIndicatorTile() {
+		return indicatorTile;
+	}
+
+	/**
+	 * Returns the okey tile of the game.
+	 *
+	 * @return the okey tile
+	 */
+	public Tile getOkeyTile() {
+		return okeyTile;
+	}
+
+	/**
+	 * Returns the loaded journal.
+	 *
+	 * @return the journal
+	 */
+	public GameJournal getJournal() {
+		return journal;
+	}
+}
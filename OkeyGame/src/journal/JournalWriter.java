@@ -0,0 +1,80 @@
+package journal;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+
+public class JournalWriter implements Consumer<GameJournal>, Closeable {
+
+	/**
+	 * Magic number at the start of a journal file ("OKJR").
+	 */
+	static final int MAGIC = 0x4F4B4A52;
+	static final int VERSION = 1;
+
+	private final DataOutputStream out;
+	private long games;
+	private long bytes;
+
+	/**
+	 * Creates a journal file, replacing any existing file.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be created
+	 */
+	public JournalWriter(Path path) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+	}
+
+	/**
+	 * Appends the journal of a game. Tables finishing on several threads can share the writer.
+	 *
+	 * @param journal the journal of a finished game
+	 * @throws UncheckedIOException if the journal cannot be written
+	 */
+	@Override
+	public synchronized void accept(GameJournal journal) {
+		try {
+			journal.write(out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		games++;
+		bytes += journal.getEncodedSize();
+	}
+
+	/**
+	 * Returns the number of games written.
+	 *
+	 * @return the game count
+	 */
+	public synchronized long getGames() {
+		return games;
+	}
+
+	/**
+	 * Returns the number of bytes of the written games, without the file header.
+	 *
+	 * @return the byte count
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * Flushes and closes the file.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		out.close();
+	}
+}
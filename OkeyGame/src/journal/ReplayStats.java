@@ -0,0 +1,68 @@
+package journal;
+
+public class ReplayStats {
+	private long games;
+	private long turns;
+	private long bytes;
+	private long nanos;
+
+	/**
+	 * Adds a replayed game.
+	 *
+	 * @param journal the journal of the game
+	 */
+	void addGame(GameJournal journal) {
+		games++;
+		turns += journal.getTurnCount();
+		bytes += journal.getEncodedSize();
+	}
+
+	/**
+	 * Sets the duration of the replay.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of replayed games.
+	 *
+	 * @return the game count
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Returns the number of replayed turns, one event each.
+	 *
+	 * @return the turn count
+	 */
+	public long getTurns() {
+		return turns;
+	}
+
+	/**
+	 * Returns the number of turns replayed per second.
+	 *
+	 * @return the event throughput
+	 */
+	public double getEventsPerSecond() {
+		return nanos == 0 ? 0 : turns * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string with the counts, the journal size and the throughput.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Oyun: %d, olay: %d, gunluk: %d bayt (oyun basina %.1f bayt)\n"
+				+ "Sure: %.2f sn, Hiz: %.0f oyun/sn, %.0f olay/sn\n",
+				games, turns, bytes, games == 0 ? 0 : (double) bytes / games,
+				nanos / 1e9, nanos == 0 ? 0 : games * 1e9 / nanos, getEventsPerSecond());
+	}
+}
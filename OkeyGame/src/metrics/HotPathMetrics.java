@@ -0,0 +1,261 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+public final class HotPathMetrics {
+
+	/**
+	 * Number of calls of which one is timed. Reading the clock costs about as much as a phase of
+	 * a hand, so timing every call would slow the hot paths down by far more than the counters.
+	 */
+	public static final int SAMPLE_INTERVAL = 64;
+
+	/**
+	 * The call is only counted.
+	 */
+	public static final int NOT_SAMPLED = 0;
+
+	/**
+	 * The whole call is timed.
+	 */
+	public static final int SAMPLE_TOTAL = 1;
+
+	/**
+	 * The phases of the call are timed. The whole call is not, since the clock reads of the
+	 * phases would be part of its duration.
+	 */
+	public static final int SAMPLE_PHASES = 2;
+
+	private static final String DOMAIN = "okey";
+
+	private static volatile boolean enabled = Boolean.getBoolean("okey.metrics");
+	private static final PhaseTimer[] TIMERS = new PhaseTimer[Phase.values().length];
+	private static final LongAdder combinedHands = new LongAdder();
+	private static final LongAdder searchedHands = new LongAdder();
+	private static final LongAdder processedHands = new LongAdder();
+	private static final LongAdder permutations = new LongAdder();
+	private static final LongAdder shuffledDecks = new LongAdder();
+	private static boolean registered;
+
+	static {
+		for (Phase phase : Phase.values()) {
+			TIMERS[phase.ordinal()] = new PhaseTimer(phase);
+		}
+	}
+
+	/**
+	 * Prevents instantiation, since the metrics are shared by the whole process.
+	 */
+	private HotPathMetrics() {
+	}
+
+	/**
+	 * Returns whether the hot paths are instrumented. The value starts from the system property
+	 * {@code okey.metrics} and is off by default.
+	 *
+	 * @return true if the metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Turns the instrumentation of the hot paths on or off. When it is off, the hot paths only
+	 * read this flag.
+	 *
+	 * @param enabled true to record the metrics
+	 */
+	public static void setEnabled(boolean enabled) {
+		HotPathMetrics.enabled = enabled;
+	}
+
+	/**
+	 * Decides how a call is measured from the number of calls made on the same thread or object.
+	 * One call in {@link #SAMPLE_INTERVAL} times its phases, and another one is timed as a whole.
+	 *
+	 * @param call the number of the call
+	 * @return {@link #NOT_SAMPLED}, {@link #SAMPLE_TOTAL} or {@link #SAMPLE_PHASES}
+	 */
+	public static int sample(int call) {
+		int slot = call & (SAMPLE_INTERVAL - 1);
+		if (slot == 0) {
+			return SAMPLE_PHASES;
+		}
+		return slot == SAMPLE_INTERVAL / 2 ? SAMPLE_TOTAL : NOT_SAMPLED;
+	}
+
+	/**
+	 * Records the duration of a phase.
+	 *
+	 * @param phase the timed phase
+	 * @param nanos the duration in nanoseconds
+	 */
+	public static void record(Phase phase, long nanos) {
+		TIMERS[phase.ordinal()].record(nanos);
+	}
+
+	/**
+	 * Counts hands scored by the optimal evaluator with the set search. The evaluator counts
+	 * them a whole sample interval at a time on the timed call rather than one by one.
+	 *
+	 * @param hands the number of hands
+	 */
+	public static void handsSearched(int hands) {
+		searchedHands.add(hands);
+	}
+
+	/**
+	 * Counts hands scored by {@code HandState} from their per-color scores alone, since no set
+	 * could be formed. These hands take a few hundred nanoseconds, so they are counted a whole
+	 * sample interval at a time on the sampled call rather than one by one.
+	 *
+	 * @param hands the number of hands
+	 */
+	public static void handsCombined(int hands) {
+		combinedHands.add(hands);
+	}
+
+	/**
+	 * Counts a hand scored by the permutation scorer.
+	 *
+	 * @param tried the number of scoring orders tried for the hand
+	 */
+	public static void handProcessed(int tried) {
+		processedHands.increment();
+		permutations.add(tried);
+	}
+
+	/**
+	 * Counts shuffled decks. A deck counts its shuffles a whole sample interval at a time on the
+	 * timed shuffle rather than one by one.
+	 *
+	 * @param decks the number of shuffled decks
+	 */
+	public static void decksShuffled(int decks) {
+		shuffledDecks.add(decks);
+	}
+
+	/**
+	 * Returns the timer of a phase.
+	 *
+	 * @param phase the phase
+	 * @return the timer of the phase
+	 */
+	public static PhaseTimer timer(Phase phase) {
+		return TIMERS[phase.ordinal()];
+	}
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator, with or without the set search.
+	 * The count is rounded to the sample interval for each thread and each hand state.
+	 *
+	 * @return the hand count
+	 */
+	public static long getScoredHands() {
+		return searchedHands.sum() + combinedHands.sum();
+	}
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator with the set search, rounded
+	 * to the sample interval for each thread.
+	 *
+	 * @return the hand count
+	 */
+	public static long getSearchedHands() {
+		return searchedHands.sum();
+	}
+
+	/**
+	 * Returns the number of hands scored by the permutation scorer.
+	 *
+	 * @return the hand count
+	 */
+	public static long getProcessedHands() {
+		return processedHands.sum();
+	}
+
+	/**
+	 * Returns the number of scoring orders tried by the permutation scorer.
+	 *
+	 * @return the permutation count
+	 */
+	public static long getPermutations() {
+		return permutations.sum();
+	}
+
+	/**
+	 * Returns the number of shuffled decks, rounded down to the sample interval for each deck
+	 * after its first shuffle.
+	 *
+	 * @return the shuffle count
+	 */
+	public static long getShuffledDecks() {
+		return shuffledDecks.sum();
+	}
+
+	/**
+	 * Removes every recorded count and duration.
+	 */
+	public static void reset() {
+		searchedHands.reset();
+		combinedHands.reset();
+		processedHands.reset();
+		permutations.reset();
+		shuffledDecks.reset();
+		for (PhaseTimer timer : TIMERS) {
+			timer.reset();
+		}
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server, once: a control bean named
+	 * {@code okey:type=HotPathMetrics} and a timer bean named {@code okey:type=PhaseTimer,name=<phase>}
+	 * for every phase.
+	 */
+	public static synchronized void registerMBeans() {
+		if (registered) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.registerMBean(new MetricsControl(), new ObjectName(DOMAIN, "type", "HotPathMetrics"));
+			for (PhaseTimer timer : TIMERS) {
+				server.registerMBean(timer, new ObjectName(DOMAIN + ":type=PhaseTimer,name=" + timer.getPhase().name()));
+			}
+		} catch (JMException e) {
+			throw new IllegalStateException("Metrics could not be registered", e);
+		}
+		registered = true;
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server if the system property
+	 * {@code okey.metrics} is set, to either value. With {@code false} the beans are registered
+	 * but nothing is recorded until the instrumentation is turned on through the control bean.
+	 */
+	public static void registerIfConfigured() {
+		if (System.getProperty("okey.metrics") != null) {
+			registerMBeans();
+		}
+	}
+
+	/**
+	 * Prints the counters and the durations of every phase.
+	 *
+	 * @param out the stream to print to
+	 */
+	public static void report(PrintStream out) {
+		out.println("Puanlanan el: " + getScoredHands() + ", per aranan el: " + getSearchedHands());
+		out.println("Hesaplanan el: " + getProcessedHands() + ", denenen siralama: " + getPermutations()
+				+ ", karilan deste: " + getShuffledDecks());
+		for (PhaseTimer timer : TIMERS) {
+			out.println(timer);
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package metrics;
+
+public class MetricsControl implements MetricsControlMBean {
+
+	/**
+	 * Returns whether the hot paths are instrumented.
+	 *
+	 * @return true if the metrics are recorded
+	 */
+	@Override
+	public boolean isEnabled() {
+		return HotPathMetrics.isEnabled();
+	}
+
+	/**
+	 * Turns the instrumentation of the hot paths on or off.
+	 *
+	 * @param enabled true to record the metrics
+	 */
+	@Override
+	public void setEnabled(boolean enabled) {
+		HotPathMetrics.setEnabled(enabled);
+	}
+
+	/**
+	 * Returns the number of calls of which one is timed.
+	 *
+	 * @return the sample interval
+	 */
+	@Override
+	public int getSampleInterval() {
+		return HotPathMetrics.SAMPLE_INTERVAL;
+	}
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator.
+	 *
+	 * @return the hand count
+	 */
+	@Override
+	public long getScoredHands() {
+		return HotPathMetrics.getScoredHands();
+	}
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator with the set search.
+	 *
+	 * @return the hand count
+	 */
+	@Override
+	public long getSearchedHands() {
+		return HotPathMetrics.getSearchedHands();
+	}
+
+	/**
+	 * Returns the number of hands scored by the permutation scorer.
+	 *
+	 * @return the hand count
+	 */
+	@Override
+	public long getProcessedHands() {
+		return HotPathMetrics.getProcessedHands();
+	}
+
+	/**
+	 * Returns the number of scoring orders tried by the permutation scorer.
+	 *
+	 * @return the permutation count
+	 */
+	@Override
+	public long getPermutations() {
+		return HotPathMetrics.getPermutations();
+	}
+
+	/**
+	 * Returns the number of shuffled decks.
+	 *
+	 * @return the shuffle count
+	 */
+	@Override
+	public long getShuffledDecks() {
+		return HotPathMetrics.getShuffledDecks();
+	}
+
+	/**
+	 * Removes every recorded count and duration.
+	 */
+	@Override
+	public void reset() {
+		HotPathMetrics.reset();
+	}
+}
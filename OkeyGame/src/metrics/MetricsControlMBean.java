@@ -0,0 +1,65 @@
+package metrics;
+
+public interface MetricsControlMBean {
+
+	/**
+	 * Returns whether the hot paths are instrumented.
+	 *
+	 * @return true if the metrics are recorded
+	 */
+	boolean isEnabled();
+
+	/**
+	 * Turns the instrumentation of the hot paths on or off.
+	 *
+	 * @param enabled true to record the metrics
+	 */
+	void setEnabled(boolean enabled);
+
+	/**
+	 * Returns the number of calls of which one is timed.
+	 *
+	 * @return the sample interval
+	 */
+	int getSampleInterval();
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator.
+	 *
+	 * @return the hand count
+	 */
+	long getScoredHands();
+
+	/**
+	 * Returns the number of hands scored by the optimal evaluator with the set search.
+	 *
+	 * @return the hand count
+	 */
+	long getSearchedHands();
+
+	/**
+	 * Returns the number of hands scored by the permutation scorer.
+	 *
+	 * @return the hand count
+	 */
+	long getProcessedHands();
+
+	/**
+	 * Returns the number of scoring orders tried by the permutation scorer.
+	 *
+	 * @return the permutation count
+	 */
+	long getPermutations();
+
+	/**
+	 * Returns the number of shuffled decks.
+	 *
+	 * @return the shuffle count
+	 */
+	long getShuffledDecks();
+
+	/**
+	 * Removes every recorded count and duration.
+	 */
+	void reset();
+}
@@ -0,0 +1,33 @@
+package metrics;
+
+public enum Phase {
+	SCORE_HAND("Eli puanlama"),
+	MARK_VALUES("Deger isaretleme"),
+	SEARCH_SETS("Per arama"),
+	PROCESS_HAND("Eli hesaplama"),
+	COUNT_PAIRS("Cift sayma"),
+	COUNT_SETS("Per sayma"),
+	COUNT_SERIES("Seri sayma"),
+	PERMUTATION("Siralama deneme"),
+	DECK_SHUFFLE("Deste karma");
+
+	private final String description;
+
+	/**
+	 * Creates a phase with the name shown in reports.
+	 *
+	 * @param description the name of the phase
+	 */
+	Phase(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * Returns the name of the phase shown in reports.
+	 *
+	 * @return the description of the phase
+	 */
+	public String getDescription() {
+		return description;
+	}
+}
@@ -0,0 +1,143 @@
+package metrics;
+
+import util.LatencyHistogram;
+
+public class PhaseTimer implements PhaseTimerMBean {
+	private final Phase phase;
+	private final LatencyHistogram[] stripes;
+	private final int stripeMask;
+
+	/**
+	 * Creates a timer whose durations are recorded into one histogram per stripe. Each thread
+	 * records into the stripe of its id, so threads rarely wait for each other.
+	 *
+	 * @param phase the timed phase
+	 */
+	PhaseTimer(Phase phase) {
+		this.phase = phase;
+		int stripeCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2);
+		stripes = new LatencyHistogram[stripeCount];
+		stripeMask = stripeCount - 1;
+		for (int i = 0; i < stripeCount; i++) {
+			stripes[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	void record(long nanos) {
+		LatencyHistogram stripe = stripes[(int) Thread.currentThread().getId() & stripeMask];
+		synchronized (stripe) {
+			stripe.record(nanos);
+		}
+	}
+
+	/**
+	 * Returns the timed phase.
+	 *
+	 * @return the phase
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+
+	/**
+	 * Merges the stripes into a new histogram.
+	 *
+	 * @return the recorded durations
+	 */
+	public LatencyHistogram snapshot() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (LatencyHistogram stripe : stripes) {
+			synchronized (stripe) {
+				histogram.merge(stripe);
+			}
+		}
+		return histogram;
+	}
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return the sample count
+	 */
+	@Override
+	public long getSampleCount() {
+		return snapshot().getCount();
+	}
+
+	/**
+	 * Returns the mean of the recorded durations.
+	 *
+	 * @return the mean in nanoseconds
+	 */
+	@Override
+	public double getMeanNanos() {
+		return snapshot().getMean();
+	}
+
+	/**
+	 * Returns the median of the recorded durations.
+	 *
+	 * @return the median in nanoseconds
+	 */
+	@Override
+	public long getP50Nanos() {
+		return snapshot().getPercentile(50);
+	}
+
+	/**
+	 * Returns the 99th percentile of the recorded durations.
+	 *
+	 * @return the percentile in nanoseconds
+	 */
+	@Override
+	public long getP99Nanos() {
+		return snapshot().getPercentile(99);
+	}
+
+	/**
+	 * Returns the 99.9th percentile of the recorded durations.
+	 *
+	 * @return the percentile in nanoseconds
+	 */
+	@Override
+	public long getP999Nanos() {
+		return snapshot().getPercentile(99.9);
+	}
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return the maximum in nanoseconds
+	 */
+	@Override
+	public long getMaxNanos() {
+		return snapshot().getMax();
+	}
+
+	/**
+	 * Removes every recorded duration.
+	 */
+	@Override
+	public void reset() {
+		for (LatencyHistogram stripe : stripes) {
+			synchronized (stripe) {
+				stripe.reset();
+			}
+		}
+	}
+
+	/**
+	 * Returns a string representation of the timer.
+	 *
+	 * @return A string with the name of the phase and its durations.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%-16s %s", phase.getDescription(), snapshot());
+	}
+}
@@ -0,0 +1,51 @@
+package metrics;
+
+public interface PhaseTimerMBean {
+
+	/**
+	 * Returns the number of recorded durations.
+	 *
+	 * @return the sample count
+	 */
+	long getSampleCount();
+
+	/**
+	 * Returns the mean of the recorded durations.
+	 *
+	 * @return the mean in nanoseconds
+	 */
+	double getMeanNanos();
+
+	/**
+	 * Returns the median of the recorded durations.
+	 *
+	 * @return the median in nanoseconds
+	 */
+	long getP50Nanos();
+
+	/**
+	 * Returns the 99th percentile of the recorded durations.
+	 *
+	 * @return the percentile in nanoseconds
+	 */
+	long getP99Nanos();
+
+	/**
+	 * Returns the 99.9th percentile of the recorded durations.
+	 *
+	 * @return the percentile in nanoseconds
+	 */
+	long getP999Nanos();
+
+	/**
+	 * Returns the longest recorded duration.
+	 *
+	 * @return the maximum in nanoseconds
+	 */
+	long getMaxNanos();
+
+	/**
+	 * Removes every recorded duration.
+	 */
+	void reset();
+}
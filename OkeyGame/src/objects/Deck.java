@@ -1,40 +1,148 @@
 package objects;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.random.RandomGenerator;
+
+import metrics.HotPathMetrics;
+import metrics.Phase;
+import util.FastRandom;
 
 public class Deck {
-    private ArrayList<Tile> tiles;
+	public static final int TILE_COUNT = 2 * Tile.FACE_COUNT + 2;
+	
+	/**
+	 * The codes of a full deck in creation order, copied before every shuffle so that a seed
+	 * always produces the same order.
+	 */
+	private static final byte[] ORDERED_CODES = createDeck();
+	
+    private final byte[] codes = new byte[TILE_COUNT];
+    private final FastRandom seededRandom = new FastRandom(0);
+    private RandomGenerator random;
+    private int cursor;
+    private int shuffles;
 
     /**
-     * Initializes a new Deck by creating an empty list of tiles, creating the deck, and shuffling it.
+     * Initializes a new Deck by creating the deck and shuffling it.
      */
     public Deck() {
-        tiles = new ArrayList<>();
-        createDeck();
-        shuffleDeck();
+        this(new FastRandom(System.nanoTime()));
     }
 
     /**
-     * Creates the deck by adding tiles of each color and value, as well as two fake Okey tiles.
+     * Initializes a new Deck that is shuffled with the given random number generator.
+     * 
+     * @param random The random number generator used to shuffle the deck, or null for a deck
+     *               that stays empty until it is shuffled with {@link #reset(long)}.
      */
-    private void createDeck() {
-        String[] colors = {"Sari", "Mavi", "Siyah", "Kirmizi"};
+    public Deck(RandomGenerator random) {
+        this.random = random;
+        if (random == null) {
+        	cursor = TILE_COUNT;
+        } else {
+        	reset();
+        }
+    }
+
+    /**
+     * Creates the codes of the deck: two copies of each colored tile, as well as two fake Okey tiles.
+     * 
+     * @return The codes of the tiles of a full deck.
+     */
+    private static byte[] createDeck() {
+    	byte[] codes = new byte[TILE_COUNT];
+    	int index = 0;
         for (int i = 0; i < 2; i++) {
-            for (String color : colors) {
-                for (int value = 1; value <= 13; value++) {
-                    tiles.add(new Tile(value, color));
-                }
+            for (int code = 0; code < Tile.FACE_COUNT; code++) {
+                codes[index++] = (byte) code;
             }
         }
-        tiles.add(new Tile(-1, "Sahte Okey"));
-        tiles.add(new Tile(-1, "Sahte Okey"));
+        codes[index++] = Tile.FAKE_OKEY_CODE;
+        codes[index] = Tile.FAKE_OKEY_CODE;
+        return codes;
+    }
+
+    /**
+     * Puts every tile back into the deck and shuffles it in place with the deck's random number generator.
+     * 
+     * @throws IllegalStateException if the deck has no generator and was never shuffled from a seed.
+     */
+    public void reset() {
+    	if (random == null) {
+    		throw new IllegalStateException("Deck has no random number generator; reset it with a seed");
+    	}
+    	shuffleDeck(random);
+    }
+
+    /**
+     * Puts every tile back into the deck and shuffles it in place with a generator restarted
+     * from the given seed. The same seed always produces the same order.
+     * 
+     * @param seed The seed of the shuffle.
+     */
+    public void reset(long seed) {
+    	seededRandom.setSeed(seed);
+    	random = seededRandom;
+    	shuffleDeck(random);
+    }
+
+    /**
+     * Shuffles a full deck with a Fisher-Yates shuffle. The first shuffle of the deck and then
+     * one in {@link HotPathMetrics#SAMPLE_INTERVAL} are timed, and each of them counts the
+     * shuffles since the last one, so a deck that is shuffled once is still counted and timed.
+     * 
+     * @param random The random number generator used to shuffle the deck.
+     */
+    private void shuffleDeck(RandomGenerator random) {
+    	if (HotPathMetrics.isEnabled() && (shuffles++ & (HotPathMetrics.SAMPLE_INTERVAL - 1)) == 0) {
+    		long start = System.nanoTime();
+    		shuffleCodes(random);
+    		HotPathMetrics.record(Phase.DECK_SHUFFLE, System.nanoTime() - start);
+    		HotPathMetrics.decksShuffled(shuffles == 1 ? 1 : HotPathMetrics.SAMPLE_INTERVAL);
+    		return;
+    	}
+    	shuffleCodes(random);
+    }
+
+    /**
+     * Copies the codes of a full deck and shuffles them.
+     * 
+     * @param random The random number generator used to shuffle the deck.
+     */
+    private void shuffleCodes(RandomGenerator random) {
+    	System.arraycopy(ORDERED_CODES, 0, codes, 0, TILE_COUNT);
+        for (int i = TILE_COUNT - 1; i > 0; i--) {
+        	int j = random.nextInt(i + 1);
+        	byte code = codes[i];
+        	codes[i] = codes[j];
+        	codes[j] = code;
+        }
+        cursor = 0;
+    }
+
+    /**
+     * Returns the random number generator used by the last shuffle.
+     * 
+     * @return The random number generator of the deck.
+     */
+    public RandomGenerator getRandom() {
+    	return random;
     }
 
     /**
-     * Shuffles the deck using Java's Collections.shuffle() method.
+     * Returns the number of tiles left in the deck.
+     * 
+     * @return The number of tiles that can still be drawn.
      */
-    private void shuffleDeck() {
-        Collections.shuffle(tiles);
+    public int remaining() {
+    	return TILE_COUNT - cursor;
+    }
+
+    /**
+     * Draws the code of the tile on the top of the deck.
+     * 
+     * @return The code of the drawn tile.
+     */
+    public int drawCode() {
+    	return codes[cursor++];
     }
 
     /**
@@ -43,19 +151,23 @@ public class Deck {
      * @return The drawn Tile.
      */
     public Tile drawTile() {
-        return tiles.remove(0);
+        return Tile.valueOf(codes[cursor++]);
     }
     
     /**
      * Draws a non-fake Okey tile from the deck and removes it from the deck.
+     * The skipped fake Okey tiles stay on the top of the deck.
      * 
      * @return The drawn non-fake Okey Tile.
      */
     public Tile drawNonFakeTile() {
-    	int index = 0;
-    	while(tiles.get(index).isFakeOkey()) {
+    	int index = cursor;
+    	while(codes[index] == Tile.FAKE_OKEY_CODE) {
     		index++;
     	}
-    	return tiles.remove(index);
+    	byte code = codes[index];
+    	codes[index] = codes[cursor];
+    	codes[cursor++] = code;
+    	return Tile.valueOf(code);
     }
 }
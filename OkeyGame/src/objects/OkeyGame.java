@@ -1,7 +1,21 @@
 package objects;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
 
+import events.ConsoleEventListener;
+import events.GameEventListener;
+import events.GamePhase;
+import hints.HintAdvisor;
+import rules.RuleSet;
+import scoring.HandEvaluator;
+import scoring.OptimalHandEvaluator;
+import strategy.GreedyStrategy;
+import strategy.PlayerStrategy;
+import tracking.SeenTiles;
 import util.Utility;
 
 public class OkeyGame {
@@ -14,113 +28,485 @@ public class OkeyGame {
 	private Tile okeyTile;
 	private Deck deck;
 	private ArrayList<Player> players;
+	private HandEvaluator handEvaluator;
+	private RandomGenerator random;
+	private int firstPlayerIndex;
+	private Tile extraTile;
+	private ArrayList<Tile> discardPile = new ArrayList<>();
+	private int winnerIndex = -1;
+	private int turnCount;
+	private int currentPlayerIndex;
+	private boolean finished;
+	private long seed;
+	private boolean seeded;
+	private final PlayerStrategy[] strategies = new PlayerStrategy[PLAYER_COUNT];
+	private GameEventListener listener = GameEventListener.NONE;
+	private HintAdvisor hintAdvisor;
+	private RuleSet rules = RuleSet.STANDARD;
+	private final SeenTiles tableSeen = new SeenTiles();
+	private final SeenTiles[] playerSeen = new SeenTiles[PLAYER_COUNT];
+	private final SeenTiles[] takenDiscards = new SeenTiles[PLAYER_COUNT];
 	
 	/**
      * Initializes a new Okey game by creating an empty list of players and a new deck.
      */
 	public OkeyGame() {
+		this(new OptimalHandEvaluator());
+	}
+	
+	/**
+     * Initializes a new Okey game that scores the hands with the given evaluator.
+     * 
+     * @param handEvaluator The evaluator used to calculate the scores of the hands.
+     */
+	public OkeyGame(HandEvaluator handEvaluator) {
+		this(handEvaluator, new Random());
+	}
+	
+	/**
+     * Initializes a new Okey game whose deck and first player are chosen with the given
+     * random number generator, so that a seeded generator always deals the same game.
+     * 
+     * @param handEvaluator The evaluator used to calculate the scores of the hands.
+     * @param random The random number generator used to shuffle the deck and choose the first player,
+     *               or null for a game that is only dealt from seeds with {@link #redeal(long)},
+     *               whose deck is not shuffled until the first deal.
+     */
+	public OkeyGame(HandEvaluator handEvaluator, RandomGenerator random) {
 		players = new ArrayList<Player>();
-		deck = new Deck();
+		deck = new Deck(random);
+		this.handEvaluator = handEvaluator;
+		this.random = random;
+		Arrays.fill(strategies, GreedyStrategy.INSTANCE);
+		for (int seat = 0; seat < PLAYER_COUNT; seat++) {
+			playerSeen[seat] = new SeenTiles();
+			takenDiscards[seat] = new SeenTiles();
+		}
+	}
+	
+	/**
+     * Sets the rules of the next deals: the hand size and the evaluator built for the rules,
+     * which replaces the current evaluator.
+     * 
+     * @param rules The rule set.
+     */
+	public void setRules(RuleSet rules) {
+		this.rules = rules;
+		this.handEvaluator = rules.getEvaluator();
+	}
+	
+	/**
+     * Sets the evaluator used to calculate the scores of the hands.
+     * 
+     * @param handEvaluator The evaluator used to calculate the scores of the hands.
+     */
+	public void setHandEvaluator(HandEvaluator handEvaluator) {
+		this.handEvaluator = handEvaluator;
 	}
 	
 	 /**
-     * Starts the game by creating players, choosing the Okey tile, drawing hands, calculating scores,
-     * and printing game information and the best players.
+     * Starts the game by creating players, choosing the Okey tile, drawing hands, calculating scores
+     * and playing the turns. Every phase is reported to the event listener; if none is set, the
+     * game is printed to the console.
+     * 
+     * @throws IllegalStateException if the game was created without a random number generator
+     *                               and never dealt from a seed.
      */
 	public void startGame() {
-		createPlayers();
+		if (random == null) {
+			throw new IllegalStateException("Game has no random number generator; deal it with a seed");
+		}
+		GameEventListener previous = listener;
+		if (listener == GameEventListener.NONE) {
+			listener = new ConsoleEventListener(System.out);
+		}
+		try {
+			seeded = false;
+			createPlayers();
+			chooseOkeyTile();
+			drawHands();
+			calculatePlayerScores();
+			dealt();
+			playTurns();
+		} finally {
+			listener = previous;
+		}
+	}
+	
+	/**
+     * Sets the listener that receives the events of the game.
+     * 
+     * @param listener The listener, or {@link GameEventListener#NONE} to report nothing.
+     */
+	public void setEventListener(GameEventListener listener) {
+		this.listener = listener;
+	}
+	
+	/**
+     * Sets the advisor that calculates the hint of the first player after every deal. The hint
+     * is passed to the event listener, so nothing is calculated while no listener is set.
+     * 
+     * @param hintAdvisor The advisor, or null to calculate no hints.
+     */
+	public void setHintAdvisor(HintAdvisor hintAdvisor) {
+		this.hintAdvisor = hintAdvisor;
+	}
+	
+	/**
+     * Plays a new game with the same deck and players, without printing anything. The deck is
+     * reshuffled in place from the given seed, so the same seed always deals the same game.
+     * 
+     * @param seed The seed used to shuffle the deck and choose the first player.
+     */
+	public void redeal(long seed) {
+		if (players.isEmpty()) {
+			createPlayers();
+		}
+		for (Player player : players) {
+			player.clearHand();
+		}
+		deck.reset(seed);
+		this.seed = seed;
+		seeded = true;
+		random = deck.getRandom();
 		chooseOkeyTile();
 		drawHands();
 		calculatePlayerScores();
-		printGameInformation();
-		printBestPlayers();
+		dealt();
+	}
+	
+	/**
+     * Reports the dealt and scored hands to the event listener, with the hint of the first
+     * player if the game has a hint advisor.
+     */
+	private void dealt() {
+		if (listener == GameEventListener.NONE) {
+			return;
+		}
+		listener.handsDealt(this, hintAdvisor == null ? null : hintAdvisor.advise(this));
 	}
 	
 	/**
      * Draws and distributes tiles to each player's hand.
      */
 	private void drawHands() {
-		System.out.println("Oyuncularin elleri dagitiliyor...");
-		int firstPlayerIndex = (int) (Math.random() * PLAYER_COUNT);
+		listener.phaseStarted(this, GamePhase.DRAW_HANDS);
+		firstPlayerIndex = random.nextInt(PLAYER_COUNT);
         for (int i = 0; i < PLAYER_COUNT; i++) {
-            int tilesToDraw = (i == firstPlayerIndex) ? TILE_PER_HAND + 1  : TILE_PER_HAND;
+            int handSize = rules.getHandSize();
+            int tilesToDraw = (i == firstPlayerIndex) ? handSize + 1  : handSize;
             for (int j = 0; j < tilesToDraw; j++) {
             	Tile tile = deck.drawTile();
-            	if(tile.isFakeOkey()) {
-            		tile = new Tile(okeyTile.getValue(),okeyTile.getColor());
-            		tile.setFakeOkey(true);
-            	}
-            	else if(tile.equals(okeyTile)) {
-            		tile.setWildcard(true);
+            	if (j == handSize) {
+            		extraTile = tile;
             	}
                 players.get(i).addTile(tile);
             }
-            Collections.sort(players.get(i).getHand());
+            Utility.sortHand(players.get(i).getHand());
         }
 	}
 	
+	/**
+     * Plays draw/discard turns, starting with the first player discarding the extra tile, until a
+     * player completes a hand or the deck runs out. Each player takes the top discard or draws from
+     * the deck and then discards, as decided by the strategy of the seat. The scores are updated
+     * incrementally after every move.
+     * 
+     * @return The index of the winning player, or -1 if the deck ran out.
+     */
+	public int playTurns() {
+		startTurns();
+		while (playTurn()) {
+			// Each call plays the turn of one player.
+		}
+		return winnerIndex;
+	}
+	
+	/**
+     * Prepares the dealt game for {@link #playTurn()}: starts tracking the scores of the hands and
+     * the seen tiles, and gives the turn to the first player.
+     * 
+     * @throws IllegalStateException if turns cannot be played with the rules of the game.
+     */
+	public void startTurns() {
+		if (!rules.isPlayable()) {
+			throw new IllegalStateException("Turns cannot be played with the rules " + rules.getName());
+		}
+		listener.phaseStarted(this, GamePhase.PLAY_TURNS);
+		tableSeen.clear();
+		tableSeen.see(indicatorTile);
+		for (int seat = 0; seat < PLAYER_COUNT; seat++) {
+			Player player = players.get(seat);
+			player.startTracking(okeyTile);
+			playerSeen[seat].copyFrom(tableSeen);
+			playerSeen[seat].seeAll(player.getHand());
+			takenDiscards[seat].clear();
+		}
+		discardPile.clear();
+		winnerIndex = -1;
+		turnCount = 0;
+		currentPlayerIndex = firstPlayerIndex;
+		finished = false;
+	}
+	
+	/**
+     * Plays the turn of the current player: a draw, unless the player holds the extra tile, and a discard.
+     * 
+     * @return true if the game goes on, false if a player won or the deck ran out.
+     */
+	public boolean playTurn() {
+		if (finished) {
+			return false;
+		}
+		Player player = players.get(currentPlayerIndex);
+		PlayerStrategy strategy = strategies[currentPlayerIndex];
+		Tile drawn = null;
+		boolean fromDiscard = false;
+		if (player.getHand().size() == TILE_PER_HAND) {
+			Tile top = discardPile.isEmpty() ? null : discardPile.get(discardPile.size() - 1);
+			if (top != null && strategy.takeDiscard(this, player, top)) {
+				discardPile.remove(discardPile.size() - 1);
+				drawn = top;
+				fromDiscard = true;
+				takenDiscards[currentPlayerIndex].see(top);
+			} else if (deck.remaining() == 0) {
+				finished = true;
+				listener.gameFinished(this);
+				return false;
+			} else {
+				drawn = deck.drawTile();
+				playerSeen[currentPlayerIndex].see(drawn);
+			}
+			player.draw(drawn);
+		}
+		Tile discard = strategy.chooseDiscard(this, player);
+		player.discard(discard);
+		discardPile.add(discard);
+		trackDiscard(discard);
+		turnCount++;
+		listener.turnPlayed(this, currentPlayerIndex, drawn, fromDiscard, discard, player.getScore());
+		if (player.getScore() == TILE_PER_HAND) {
+			winnerIndex = currentPlayerIndex;
+			finished = true;
+			listener.gameFinished(this);
+			return false;
+		}
+		currentPlayerIndex = (currentPlayerIndex + 1) % PLAYER_COUNT;
+		return true;
+	}
+	
+	/**
+     * Marks a discarded tile as seen by the other players. A tile that the current player took
+     * from the discard pile has already been seen by everyone, so it is not counted twice.
+     * 
+     * @param discard The discarded tile.
+     */
+	private void trackDiscard(Tile discard) {
+		SeenTiles taken = takenDiscards[currentPlayerIndex];
+		if (taken.seenCopies(discard.getCode()) > 0) {
+			taken.unsee(discard.getCode());
+			return;
+		}
+		tableSeen.see(discard);
+		for (int seat = 0; seat < PLAYER_COUNT; seat++) {
+			if (seat != currentPlayerIndex) {
+				playerSeen[seat].see(discard);
+			}
+		}
+	}
+	
+	/**
+     * Sets the strategy that plays the turns of a seat.
+     * 
+     * @param seat The index of the seat.
+     * @param strategy The strategy of the seat.
+     */
+	public void setStrategy(int seat, PlayerStrategy strategy) {
+		strategies[seat] = strategy;
+	}
+	
 	/**
      * Calculates the scores of each player's hand.
      */
 	private void calculatePlayerScores() {
-		System.out.println("Oyuncularin skorlari hesaplaniyor...");
+		listener.phaseStarted(this, GamePhase.CALCULATE_SCORES);
 		for (Player player:players) {
-			Utility.processHand(player,okeyTile);
+			player.setScore(handEvaluator.evaluate(player.getHand(),okeyTile));
 		}
 	}
 	
 	 /**
-     * Prints the best players based on their scores.
-     */
-	void printBestPlayers() {
-        int bestScore = -1;
-        ArrayList<Integer> bestPlayers = new ArrayList<>();
-        for (int i = 0; i < players.size(); i++) {
-        	Player player = players.get(i);
-            int score = player.getScore();
-            if (score > bestScore) {
-                bestScore = score;
-                bestPlayers.clear();
-                bestPlayers.add(i);
-            } else if (score == bestScore) {
-                bestPlayers.add(i);
-            }
-        }
-        System.out.println("En Iyi El(ler):");
-        for (int playerIndex : bestPlayers) {
-            System.out.println("Oyuncu " + (playerIndex + 1) + ": " + players.get(playerIndex));
-        }
-	}
-	
-	 /**
-     * Creates player instances and adds them to the game.
+     * Creates player instances and adds them to the game, replacing the players of an earlier game.
      */
 	void createPlayers() {
-		System.out.println("Oyuncular Hazirlaniyor...");
+		listener.phaseStarted(this, GamePhase.CREATE_PLAYERS);
+		players.clear();
 		for (int i = 0; i < PLAYER_COUNT; i++) {
             players.add(new Player(i+1));
         }
 	}
 	
-	 /**
-     * Prints the game information, including the Okey tile and each player's hand.
-     */
-	void printGameInformation() {
-		StringBuilder stringBuilder = new StringBuilder();
-		stringBuilder.append(String.format("Okey: %s\n", okeyTile));
-		stringBuilder.append("Oyuncularin Elleri:\n");
-		for(Player player:players) {
-			stringBuilder.append(String.format("%s\n", player));
-		}
-		System.out.println(stringBuilder.toString());
-	}
-	 
 	 /**
      * Chooses the Okey tile based on the indicator tile drawn from the deck.
      */
     private void chooseOkeyTile() {
-    	System.out.println("Okey belirleniyor...");
+    	listener.phaseStarted(this, GamePhase.CHOOSE_OKEY);
     	indicatorTile = deck.drawNonFakeTile();
-    	okeyTile = new Tile((indicatorTile.getValue() % 13) + 1, indicatorTile.getColor());
+    	okeyTile = okeyFor(indicatorTile);
+    }
+    
+    /**
+     * Returns the Okey tile shown by an indicator tile: the next value of the same color,
+     * where 13 is followed by 1.
+     * 
+     * @param indicatorTile The indicator tile, which cannot be a fake Okey.
+     * @return The Okey tile.
+     */
+    public static Tile okeyFor(Tile indicatorTile) {
+    	return Tile.of((indicatorTile.getValue() % Tile.VALUE_COUNT) + 1, indicatorTile.getColorIndex());
+    }
+    
+    /**
+     * Returns the players of the game.
+     * 
+     * @return A list of the players, in seat order.
+     */
+    public List<Player> getPlayers() {
+    	return players;
+    }
+    
+    /**
+     * Returns the Okey tile of the game.
+     * 
+     * @return The Okey tile.
+     */
+    public Tile getOkeyTile() {
+    	return okeyTile;
+    }
+    
+    /**
+     * Returns the indicator tile, which was drawn to choose the Okey tile.
+     * 
+     * @return The indicator tile.
+     */
+    public Tile getIndicatorTile() {
+    	return indicatorTile;
+    }
+    
+    /**
+     * Returns the index of the player who was dealt the extra tile and starts the game.
+     * 
+     * @return The index of the first player.
+     */
+    public int getFirstPlayerIndex() {
+    	return firstPlayerIndex;
+    }
+    
+    /**
+     * Returns the 15th tile dealt to the first player.
+     * 
+     * @return The extra tile of the first player.
+     */
+    public Tile getExtraTile() {
+    	return extraTile;
+    }
+    
+    /**
+     * Returns the seed of the last {@link #redeal(long)}, from which the deck order and the
+     * first player can be dealt again.
+     * 
+     * @return The seed of the game.
+     * @throws IllegalStateException if the game was not dealt from a seed.
+     */
+    public long getSeed() {
+    	if (!seeded) {
+    		throw new IllegalStateException("Game was not dealt from a seed");
+    	}
+    	return seed;
+    }
+    
+    /**
+     * Returns the index of the player who won the played turns.
+     * 
+     * @return The index of the winner, or -1 if there is none.
+     */
+    public int getWinnerIndex() {
+    	return winnerIndex;
+    }
+    
+    /**
+     * Returns the number of turns played.
+     * 
+     * @return The turn count.
+     */
+    public int getTurnCount() {
+    	return turnCount;
+    }
+    
+    /**
+     * Returns the index of the player whose turn it is.
+     * 
+     * @return The index of the current player.
+     */
+    public int getCurrentPlayerIndex() {
+    	return currentPlayerIndex;
+    }
+    
+    /**
+     * Returns the discarded tiles, the last discard at the end.
+     * 
+     * @return An unmodifiable view of the discard pile.
+     */
+    public List<Tile> getDiscardPile() {
+    	return Collections.unmodifiableList(discardPile);
+    }
+    
+    /**
+     * Returns the tiles every player has seen: the indicator tile and the discarded tiles,
+     * including those that were taken back from the discard pile. The tracker is updated during
+     * the turns; copy it to keep a snapshot.
+     * 
+     * @return The tiles seen by the whole table.
+     */
+    public SeenTiles getSeenTiles() {
+    	return tableSeen;
+    }
+    
+    /**
+     * Returns the tiles a player has seen: the tiles seen by the whole table and the tiles the
+     * player has drawn. The tracker is updated during the turns; copy it to keep a snapshot.
+     * 
+     * @param seat The index of the seat of the player.
+     * @return The tiles seen by the player.
+     */
+    public SeenTiles getSeenTiles(int seat) {
+    	return playerSeen[seat];
+    }
+    
+    /**
+     * Returns the number of tiles left in the deck.
+     * 
+     * @return The number of tiles that can still be drawn.
+     */
+    public int getDeckRemaining() {
+    	return deck.remaining();
+    }
+    
+    /**
+     * Returns the rules of the game.
+     * 
+     * @return The rule set.
+     */
+    public RuleSet getRules() {
+    	return rules;
+    }
+    
+    /**
+     * Returns the evaluator used to calculate the scores of the hands.
+     * 
+     * @return The hand evaluator.
+     */
+    public HandEvaluator getHandEvaluator() {
+    	return handEvaluator;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
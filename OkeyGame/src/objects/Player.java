@@ -2,10 +2,14 @@ package objects;
 
 import java.util.ArrayList;
 
+import scoring.HandState;
+
 public class Player {
     private ArrayList<Tile> hand;
     private int playerNumber;
     private int score;
+    private final HandState handState = new HandState();
+    private boolean tracking;
     
     /**
      * Creates a new Player object with the specified player number.
@@ -26,6 +30,110 @@ public class Player {
         hand.add(tile);
     }
     
+    /**
+     * Starts keeping the score of the hand up to date during the turns of the game.
+     * 
+     * @param okeyTile The okey tile of the game.
+     */
+    public void startTracking(Tile okeyTile) {
+    	handState.reset(hand, okeyTile);
+    	score = handState.score();
+    	tracking = true;
+    }
+    
+    /**
+     * Adds a drawn tile to the player's hand, keeping it sorted, and updates the score
+     * incrementally. {@code Main --fuzz hands --engine turns} checks the incremental scores
+     * against full evaluations.
+     * 
+     * @param tile The drawn tile.
+     * @throws IllegalStateException if the score is not tracked
+     */
+    public void draw(Tile tile) {
+    	checkTracking();
+    	int index = 0;
+    	while (index < hand.size() && hand.get(index).compareTo(tile) < 0) {
+    		index++;
+    	}
+    	hand.add(index, tile);
+    	handState.add(tile);
+    	score = handState.score();
+    }
+    
+    /**
+     * Removes a discarded tile from the player's hand and updates the score incrementally.
+     * 
+     * @param tile The discarded tile.
+     * @throws IllegalStateException if the score is not tracked
+     */
+    public void discard(Tile tile) {
+    	checkTracking();
+    	if (!hand.remove(tile)) {
+    		throw new IllegalArgumentException("Tile is not in the hand: " + tile);
+    	}
+    	handState.remove(tile);
+    	score = handState.score();
+    }
+    
+    /**
+     * Throws unless {@link #startTracking(Tile)} was called since the hand was last cleared or set.
+     * 
+     * @throws IllegalStateException if the score is not tracked
+     */
+    private void checkTracking() {
+    	if (!tracking) {
+    		throw new IllegalStateException("The score of player " + playerNumber + " is not tracked");
+    	}
+    }
+    
+    /**
+     * Returns the score the hand would have with one more tile, without changing the hand.
+     * 
+     * @param tile The tile to try.
+     * @return The score of the hand with the tile.
+     * @throws IllegalStateException if the score is not tracked
+     */
+    public int scoreWith(Tile tile) {
+    	checkTracking();
+    	handState.add(tile);
+    	int result = handState.score();
+    	handState.remove(tile);
+    	return result;
+    }
+    
+    /**
+     * Returns the score the hand would have without one of its tiles, without changing the hand.
+     * 
+     * @param tile The tile to leave out.
+     * @return The score of the hand without the tile.
+     * @throws IllegalStateException if the score is not tracked
+     */
+    public int scoreWithout(Tile tile) {
+    	checkTracking();
+    	handState.remove(tile);
+    	int result = handState.score();
+    	handState.add(tile);
+    	return result;
+    }
+    
+    /**
+     * Returns the incrementally maintained evaluation state of the hand.
+     * 
+     * @return The state of the hand.
+     */
+    public HandState getHandState() {
+    	return handState;
+    }
+    
+    /**
+     * Removes every tile from the player's hand and resets the score, so the player can be dealt a new hand.
+     */
+    public void clearHand() {
+    	hand.clear();
+    	score = 0;
+    	tracking = false;
+    }
+    
     /**
      * Sets the player's hand with a new list of tiles.
      * 
@@ -33,6 +141,7 @@ public class Player {
      */
     public void setHand(ArrayList<Tile> hand) {
     	this.hand = hand;
+    	tracking = false;
     }
     
     /**
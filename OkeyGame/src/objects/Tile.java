@@ -1,44 +1,83 @@
 package objects;
-import java.util.Objects;
 
 import util.ConsoleColors;;
-public class Tile implements Comparable<Tile>{
-    private int value;
-    private String color;
-    private boolean used;
-    private boolean fakeOkey;
-    private boolean isWildcard;
+public final class Tile implements Comparable<Tile>{
+	public static final int COLOR_COUNT = 4;
+	public static final int VALUE_COUNT = 13;
+	
+	/**
+	 * Number of distinct colored tiles, whose codes are color * VALUE_COUNT + (value - 1).
+	 */
+	public static final int FACE_COUNT = COLOR_COUNT * VALUE_COUNT;
+	
+	/**
+	 * Code of the fake Okey tile, which comes after every colored tile.
+	 */
+	public static final int FAKE_OKEY_CODE = FACE_COUNT;
+	
+	/**
+	 * Number of distinct tiles, including the fake Okey.
+	 */
+	public static final int TILE_KINDS = FACE_COUNT + 1;
+	
+	private static final String[] COLOR_NAMES = {"Kirmizi", "Mavi", "Sari", "Siyah"};
+	private static final String FAKE_OKEY_NAME = "Sahte Okey";
+	private static final Tile[] TILES = new Tile[TILE_KINDS];
+	
+	static {
+		for (int code = 0; code < TILE_KINDS; code++) {
+			TILES[code] = new Tile((byte) code);
+		}
+	}
+	
+	/**
+	 * The single fake Okey tile instance.
+	 */
+	public static final Tile FAKE_OKEY = TILES[FAKE_OKEY_CODE];
+	
+    private final byte code;
+    private final String text;
     
     /**
-     * Constructs a Tile object with the specified value and color.
+     * Constructs a Tile object with the specified code. Tiles are interned, so instances
+     * can only be obtained through {@link #of(int, int)} and {@link #valueOf(int)}.
      * 
-     * @param value The value of the tile.
-     * @param color The color of the tile.
+     * @param code The code of the tile.
      */
-	public Tile(int value, String color) {
-        this.value = value;
-        this.color = color;
-        this.fakeOkey = value == -1;
-        used = false;
-        isWildcard = false;
+	private Tile(byte code) {
+        this.code = code;
+        this.text = render();
     }
-
+	
 	/**
-     * Returns true if the tile is a wildcard, otherwise false.
-     * 
-     * @return A boolean representing whether the tile is a wildcard.
-     */
-	public boolean isWildcard() {
-		return isWildcard;
+	 * Returns the tile with the specified value and color.
+	 * 
+	 * @param value The value of the tile (1-13).
+	 * @param colorIndex The index of the color of the tile (0-3).
+	 * @return The interned Tile.
+	 */
+	public static Tile of(int value, int colorIndex) {
+		return TILES[colorIndex * VALUE_COUNT + value - 1];
 	}
 	
 	/**
-     * Sets the wildcard status of the tile.
-     * 
-     * @param isWildcard A boolean representing whether the tile is a wildcard.
-     */
-	public void setWildcard(boolean isWildcard) {
-		this.isWildcard = isWildcard;
+	 * Returns the tile with the specified code.
+	 * 
+	 * @param code The code of the tile.
+	 * @return The interned Tile.
+	 */
+	public static Tile valueOf(int code) {
+		return TILES[code];
+	}
+	
+	/**
+	 * Returns the code of the tile, which is color * 13 + (value - 1) for colored tiles
+	 * and {@link #FAKE_OKEY_CODE} for the fake Okey.
+	 * 
+	 * @return An integer representing the code of the tile.
+	 */
+	public int getCode() {
+		return code;
 	}
 
 	/**
@@ -47,80 +86,71 @@ public class Tile implements Comparable<Tile>{
      * @return A boolean representing whether the tile is a fake Okey.
      */
 	public boolean isFakeOkey() {
-		return fakeOkey;
-	}
-	
-	 /**
-     * Sets the fake Okey status of the tile.
-     * 
-     * @param fakeOkey A boolean representing whether the tile is a fake Okey.
-     */
-	public void setFakeOkey(boolean fakeOkey) {
-		this.fakeOkey = fakeOkey;
+		return code == FAKE_OKEY_CODE;
 	}
 
 	/**
      * Returns the value of the tile.
      * 
-     * @return An integer representing the value of the tile.
+     * @return An integer representing the value of the tile, or -1 for the fake Okey.
      */
     public int getValue() {
-        return value;
+        return isFakeOkey() ? -1 : code % VALUE_COUNT + 1;
     }
 
     /**
-     * Returns the color of the tile.
+     * Returns the index of the color of the tile.
      * 
-     * @return A String representing the color of the tile.
+     * @return An integer representing the color of the tile (0-3), or -1 for the fake Okey.
      */
-    public String getColor() {
-        return color;
+    public int getColorIndex() {
+    	return isFakeOkey() ? -1 : code / VALUE_COUNT;
     }
 
     /**
-     * Returns true if the tile is used, otherwise false.
+     * Returns the name of the color of the tile.
      * 
-     * @return A boolean representing whether the tile is used.
-     */
-    public boolean isUsed() {
-		return used;
-	}
-
-    /**
-     * Sets the used status of the tile.
-     * 
-     * @param used A boolean representing whether the tile is used.
+     * @return A String representing the color of the tile.
      */
-	public void setUsed(boolean used) {
-		this.used = used;
-	}
+    public String getColor() {
+        return isFakeOkey() ? FAKE_OKEY_NAME : COLOR_NAMES[code / VALUE_COUNT];
+    }
 
 	/**
-     * Returns a String representation of the Tile object.
+     * Returns a String representation of the Tile object. The text is built once per tile.
      * 
      * @return A String representing the tile.
      */
     @Override
     public String toString() {
+    	return text;
+    }
+    
+    /**
+     * Builds the colored text of the tile, which is created once for every interned tile.
+     * 
+     * @return A String representing the tile.
+     */
+    private String render() {
     	StringBuilder stringBuilder = new StringBuilder();
-    	switch(color) {
-    		case "Kirmizi":
+    	switch(getColorIndex()) {
+    		case 0:
     			stringBuilder.append(ConsoleColors.ANSI_RED);
     			break;
-    		case "Mavi":
+    		case 1:
     			stringBuilder.append(ConsoleColors.ANSI_BLUE);
     			break;
-    		case "Sari":
+    		case 2:
     			stringBuilder.append(ConsoleColors.ANSI_YELLOW);
     			break;
-    		case "Siyah":
+    		case 3:
     			stringBuilder.append(ConsoleColors.ANSI_BLACK);
     			break;
     		default:
     			stringBuilder.append(ConsoleColors.ANSI_BLACK);
     			break;
     	}
-    	stringBuilder.append(fakeOkey ? "SO" : value);
+    	stringBuilder.append(isFakeOkey() ? "SO" : getValue());
     	stringBuilder.append(ConsoleColors.ANSI_BLACK);
     	
         return stringBuilder.toString();
@@ -134,12 +164,7 @@ public class Tile implements Comparable<Tile>{
 	*/
 	@Override
 	public int compareTo(Tile o) {
-		if(getColor().equals(o.getColor())) {
-			return getValue() - o.getValue();
-		}
-		else {
-			return getColor().compareTo(o.getColor());
-		}
+		return code - o.code;
 	}
 
 	/**
@@ -149,25 +174,19 @@ public class Tile implements Comparable<Tile>{
 	 */
 	@Override
 	public int hashCode() {
-		return Objects.hash(color, value);
+		return code;
 	}
 
 	/**
 	 * Indicates whether some other object is "equal to" this Tile object.
+	 * Tiles are interned, so two tiles are equal only if they are the same instance.
 	 * 
 	 * @param obj The reference object with which to compare.
 	 * @return A boolean representing whether the specified object is equal to this Tile object.
 	 */
 	@Override
 	public boolean equals(Object obj) {
-		if (this == obj)
-			return true;
-		if (obj == null)
-			return false;
-		if (getClass() != obj.getClass())
-			return false;
-		Tile other = (Tile) obj;
-		return Objects.equals(color, other.color) && value == other.value;
+		return this == obj;
 	}
 	
 }
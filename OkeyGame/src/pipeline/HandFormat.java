@@ -0,0 +1,169 @@
+package pipeline;
+
+import java.util.List;
+
+import objects.OkeyGame;
+import objects.Tile;
+
+public class HandFormat {
+
+	/**
+	 * Letters of the colors in the text format: Kirmizi, Mavi, Sari (yellow) and Siyah.
+	 */
+	private static final char[] COLOR_LETTERS = {'K', 'M', 'Y', 'S'};
+	private static final String FAKE_OKEY_TOKEN = "SO";
+	private static final String OKEY_PREFIX = "okey=";
+
+	/**
+	 * Maximum number of tiles accepted in a hand: a standard hand holding its drawn tile, the
+	 * largest hand the pipeline and the service score.
+	 */
+	public static final int MAX_HAND_SIZE = OkeyGame.TILE_PER_HAND + 1;
+
+	/**
+	 * Parses a hand written as tiles separated by spaces followed by the okey tile, for example
+	 * "K5 M7 S13 SO Y1 okey=Y3". The tiles are added to the given list.
+	 *
+	 * @param line the line to parse
+	 * @param hand the list that receives the tiles of the hand
+	 * @return the okey tile of the hand
+	 * @throws IllegalArgumentException if the line is not a valid hand
+	 */
+	public static Tile parse(CharSequence line, List<Tile> hand) {
+		Tile okeyTile = null;
+		int[] copies = new int[Tile.TILE_KINDS];
+		int length = line.length();
+		int position = 0;
+		while (position < length) {
+			while (position < length && Character.isWhitespace(line.charAt(position))) {
+				position++;
+			}
+			int start = position;
+			while (position < length && !Character.isWhitespace(line.charAt(position))) {
+				position++;
+			}
+			if (start == position) {
+				break;
+			}
+			if (regionMatches(line, start, position, OKEY_PREFIX)) {
+				if (okeyTile != null) {
+					throw new IllegalArgumentException("Okey birden fazla verilmis");
+				}
+				okeyTile = parseTile(line, start + OKEY_PREFIX.length(), position);
+				if (okeyTile.isFakeOkey()) {
+					throw new IllegalArgumentException("Okey sahte okey olamaz");
+				}
+				continue;
+			}
+			Tile tile = parseTile(line, start, position);
+			if (++copies[tile.getCode()] > 2) {
+				throw new IllegalArgumentException("Tastan ikiden fazla var: " + line.subSequence(start, position));
+			}
+			if (hand.size() == MAX_HAND_SIZE) {
+				throw new IllegalArgumentException("Elde en fazla " + MAX_HAND_SIZE + " tas olabilir");
+			}
+			hand.add(tile);
+		}
+		if (okeyTile == null) {
+			throw new IllegalArgumentException("Okey verilmemis");
+		}
+		return okeyTile;
+	}
+
+	/**
+	 * Parses a single tile such as "K5", "Y13" or "SO".
+	 *
+	 * @param line  the text holding the tile
+	 * @param start the index of the first character of the tile
+	 * @param end   the index after the last character of the tile
+	 * @return the interned tile
+	 * @throws IllegalArgumentException if the text is not a tile
+	 */
+	public static Tile parseTile(CharSequence line, int start, int end) {
+		if (regionMatches(line, start, end, FAKE_OKEY_TOKEN) && end - start == FAKE_OKEY_TOKEN.length()) {
+			return Tile.FAKE_OKEY;
+		}
+		int colorIndex = end - start < 2 ? -1 : colorIndex(line.charAt(start));
+		int value = 0;
+		for (int i = start + 1; i < end && colorIndex >= 0; i++) {
+			char c = line.charAt(i);
+			if (c < '0' || c > '9' || value > Tile.VALUE_COUNT) {
+				colorIndex = -1;
+			} else {
+				value = value * 10 + (c - '0');
+			}
+		}
+		if (colorIndex < 0 || value < 1 || value > Tile.VALUE_COUNT) {
+			throw new IllegalArgumentException("Gecersiz tas: " + line.subSequence(start, end));
+		}
+		return Tile.of(value, colorIndex);
+	}
+
+	/**
+	 * Writes a hand in the text format read by {@link #parse(CharSequence, List)}.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile
+	 * @return the hand as a line of text
+	 */
+	public static String format(List<Tile> hand, Tile okeyTile) {
+		StringBuilder stringBuilder = new StringBuilder(hand.size() * 4 + 8);
+		for (Tile tile : hand) {
+			appendTile(stringBuilder, tile);
+			stringBuilder.append(' ');
+		}
+		stringBuilder.append(OKEY_PREFIX);
+		appendTile(stringBuilder, okeyTile);
+		return stringBuilder.toString();
+	}
+
+	/**
+	 * Appends a single tile in the text format.
+	 *
+	 * @param stringBuilder the builder to append to
+	 * @param tile          the tile to write
+	 */
+	public static void appendTile(StringBuilder stringBuilder, Tile tile) {
+		if (tile.isFakeOkey()) {
+			stringBuilder.append(FAKE_OKEY_TOKEN);
+		} else {
+			stringBuilder.append(COLOR_LETTERS[tile.getColorIndex()]).append(tile.getValue());
+		}
+	}
+
+	/**
+	 * Returns the index of the color written with a letter.
+	 *
+	 * @param letter the letter of the color
+	 * @return the index of the color, or -1 if the letter is not a color
+	 */
+	private static int colorIndex(char letter) {
+		for (int i = 0; i < COLOR_LETTERS.length; i++) {
+			if (COLOR_LETTERS[i] == letter) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns whether a region of the text starts with the given prefix.
+	 *
+	 * @param line   the text
+	 * @param start  the index of the first character of the region
+	 * @param end    the index after the last character of the region
+	 * @param prefix the expected prefix
+	 * @return true if the region starts with the prefix
+	 */
+	private static boolean regionMatches(CharSequence line, int start, int end, String prefix) {
+		if (end - start < prefix.length()) {
+			return false;
+		}
+		for (int i = 0; i < prefix.length(); i++) {
+			if (line.charAt(start + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,86 @@
+package pipeline;
+
+import java.util.Arrays;
+
+import objects.OkeyGame;
+
+public class PipelineStats {
+
+	private final long[] scores = new long[OkeyGame.TILE_PER_HAND + 2];
+	private long hands;
+	private long errors;
+	private long nanos;
+
+	/**
+	 * Adds the score of a hand. Scores above the size of the histogram are counted in its last bucket.
+	 *
+	 * @param score the score of the hand
+	 */
+	void addHand(int score) {
+		scores[Math.min(score, scores.length - 1)]++;
+		hands++;
+	}
+
+	/**
+	 * Counts a line that was not a valid hand.
+	 */
+	void addError() {
+		errors++;
+	}
+
+	/**
+	 * Sets the duration of the run.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of scored hands.
+	 *
+	 * @return the number of hands
+	 */
+	public long getHands() {
+		return hands;
+	}
+
+	/**
+	 * Returns the number of lines that were not valid hands.
+	 *
+	 * @return the number of invalid lines
+	 */
+	public long getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Returns the number of hands with each score.
+	 *
+	 * @return a copy of the score histogram
+	 */
+	public long[] getScores() {
+		return scores.clone();
+	}
+
+	/**
+	 * Returns the number of lines processed per second.
+	 *
+	 * @return the throughput of the run
+	 */
+	public double getLinesPerSecond() {
+		return nanos == 0 ? 0 : (hands + errors) * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string listing the counts, the score histogram and the throughput.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Puanlanan el: %d, hatali satir: %d\nSkorlar: %s\nSure: %.2f sn, Hiz: %.0f el/sn\n",
+				hands, errors, Arrays.toString(scores), nanos / 1e9, getLinesPerSecond());
+	}
+}
@@ -0,0 +1,293 @@
+package pipeline;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import objects.OkeyGame;
+import objects.Tile;
+import scoring.HandEvaluator;
+
+public class ScoringPipeline {
+
+	/**
+	 * Number of lines that travel through the pipeline together.
+	 */
+	public static final int BATCH_SIZE = 512;
+
+	private static final Batch END = new Batch(-1, 0);
+
+	private final HandEvaluator handEvaluator;
+	private final int parsers;
+	private final int scorers;
+	private final int window;
+
+	/**
+	 * Creates a pipeline that scores hands with the given evaluator.
+	 *
+	 * @param handEvaluator the evaluator shared by every scorer thread
+	 * @param parsers       the number of parser threads
+	 * @param scorers       the number of scorer threads
+	 * @param window        the maximum number of batches in the pipeline at once, which bounds
+	 *                      both the queues and the batches waiting to be written in order
+	 */
+	public ScoringPipeline(HandEvaluator handEvaluator, int parsers, int scorers, int window) {
+		if (parsers < 1 || scorers < 1 || window < 1) {
+			throw new IllegalArgumentException("Thread and window counts must be positive");
+		}
+		this.handEvaluator = handEvaluator;
+		this.parsers = parsers;
+		this.scorers = scorers;
+		this.window = window;
+	}
+
+	/**
+	 * Reads one hand per line, scores the hands and writes one line per hand in the order of the
+	 * input: the score, or "HATA" followed by the reason if the line is not a valid hand. The
+	 * calling thread reads the input and blocks whenever the pipeline already holds
+	 * {@code window} batches, so memory use does not depend on the size of the input.
+	 *
+	 * @param in  the input, one hand per line
+	 * @param out the output, one result per line
+	 * @return the statistics of the run
+	 * @throws IOException if the input cannot be read or the output cannot be written
+	 */
+	public PipelineStats run(BufferedReader in, Writer out) throws IOException {
+		long start = System.nanoTime();
+		BlockingQueue<Batch> parseQueue = new ArrayBlockingQueue<>(window + parsers);
+		BlockingQueue<Batch> scoreQueue = new ArrayBlockingQueue<>(window + scorers);
+		BlockingQueue<Batch> writeQueue = new ArrayBlockingQueue<>(window + 1);
+		Semaphore inFlight = new Semaphore(window);
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		AtomicInteger activeParsers = new AtomicInteger(parsers);
+		AtomicInteger activeScorers = new AtomicInteger(scorers);
+		PipelineStats stats = new PipelineStats();
+
+		ArrayList<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < parsers; i++) {
+			threads.add(new Thread(() -> stage(parseQueue, scoreQueue, activeParsers, scorers, failure, ScoringPipeline::parse),
+					"okey-parser-" + (i + 1)));
+		}
+		for (int i = 0; i < scorers; i++) {
+			threads.add(new Thread(() -> stage(scoreQueue, writeQueue, activeScorers, 1, failure, this::score),
+					"okey-scorer-" + (i + 1)));
+		}
+		threads.add(new Thread(() -> write(writeQueue, out, inFlight, stats, failure), "okey-writer"));
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		try {
+			long sequence = 0;
+			Batch batch = new Batch(sequence, BATCH_SIZE);
+			String line;
+			while ((line = in.readLine()) != null && failure.get() == null) {
+				batch.lines[batch.size++] = line;
+				if (batch.size == BATCH_SIZE) {
+					inFlight.acquire();
+					parseQueue.put(batch);
+					batch = new Batch(++sequence, BATCH_SIZE);
+				}
+			}
+			if (batch.size > 0) {
+				inFlight.acquire();
+				parseQueue.put(batch);
+			}
+			for (int i = 0; i < parsers; i++) {
+				parseQueue.put(END);
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			for (Thread thread : threads) {
+				thread.interrupt();
+			}
+			throw new IOException("Puanlama kesildi", e);
+		}
+		Throwable cause = failure.get();
+		if (cause instanceof UncheckedIOException) {
+			throw ((UncheckedIOException) cause).getCause();
+		} else if (cause != null) {
+			throw new IOException("Puanlama basarisiz oldu", cause);
+		}
+		stats.setNanos(System.nanoTime() - start);
+		return stats;
+	}
+
+	/**
+	 * Runs a parser or scorer thread: takes batches from one queue, processes them and passes
+	 * them to the next queue. The last thread of the stage to finish tells every thread of the
+	 * next stage to stop.
+	 *
+	 * @param input      the queue of the stage
+	 * @param output     the queue of the next stage
+	 * @param active     the number of threads of the stage that are still running
+	 * @param nextCount  the number of threads of the next stage
+	 * @param failure    the first error of any thread
+	 * @param processor  the work done on every batch
+	 */
+	private static void stage(BlockingQueue<Batch> input, BlockingQueue<Batch> output, AtomicInteger active,
+			int nextCount, AtomicReference<Throwable> failure, BatchProcessor processor) {
+		try {
+			Batch batch;
+			while ((batch = input.take()) != END) {
+				if (failure.get() == null) {
+					try {
+						processor.process(batch);
+					} catch (RuntimeException e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+				output.put(batch);
+			}
+			if (active.decrementAndGet() == 0) {
+				for (int i = 0; i < nextCount; i++) {
+					output.put(END);
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Parses the lines of a batch. Lines that are not valid hands keep the reason instead.
+	 *
+	 * @param batch the batch to parse
+	 */
+	private static void parse(Batch batch) {
+		for (int i = 0; i < batch.size; i++) {
+			ArrayList<Tile> hand = new ArrayList<>(OkeyGame.TILE_PER_HAND + 1);
+			try {
+				batch.okeyTiles[i] = HandFormat.parse(batch.lines[i], hand);
+				batch.hands.set(i, hand);
+			} catch (IllegalArgumentException e) {
+				batch.errors[i] = e.getMessage();
+			}
+			batch.lines[i] = null;
+		}
+	}
+
+	/**
+	 * Scores the parsed hands of a batch.
+	 *
+	 * @param batch the batch to score
+	 */
+	private void score(Batch batch) {
+		for (int i = 0; i < batch.size; i++) {
+			ArrayList<Tile> hand = batch.hands.get(i);
+			if (hand != null) {
+				batch.scores[i] = handEvaluator.evaluate(hand, batch.okeyTiles[i]);
+				batch.hands.set(i, null);
+			}
+		}
+	}
+
+	/**
+	 * Runs the writer thread. Batches can arrive out of order, so they are kept in a ring of
+	 * {@code window} slots until every earlier batch is written; the ring never overflows since
+	 * no more than {@code window} batches are in the pipeline at once.
+	 *
+	 * @param input    the queue of scored batches
+	 * @param out      the output
+	 * @param inFlight the permits of the batches in the pipeline
+	 * @param stats    the statistics to update
+	 * @param failure  the first error of any thread
+	 */
+	private void write(BlockingQueue<Batch> input, Writer out, Semaphore inFlight, PipelineStats stats,
+			AtomicReference<Throwable> failure) {
+		Batch[] pending = new Batch[window];
+		long next = 0;
+		StringBuilder stringBuilder = new StringBuilder(BATCH_SIZE * 4);
+		try {
+			Batch batch;
+			while ((batch = input.take()) != END) {
+				pending[(int) (batch.sequence % window)] = batch;
+				int slot;
+				while ((batch = pending[slot = (int) (next % window)]) != null && batch.sequence == next) {
+					pending[slot] = null;
+					if (failure.get() == null) {
+						writeBatch(batch, out, stringBuilder, stats, failure);
+					}
+					next++;
+					inFlight.release();
+				}
+			}
+			if (failure.get() == null) {
+				out.flush();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (IOException e) {
+			failure.compareAndSet(null, new UncheckedIOException(e));
+		}
+	}
+
+	/**
+	 * Writes the results of a batch.
+	 *
+	 * @param batch         the scored batch
+	 * @param out           the output
+	 * @param stringBuilder a reusable buffer
+	 * @param stats         the statistics to update
+	 * @param failure       the first error of any thread
+	 */
+	private static void writeBatch(Batch batch, Writer out, StringBuilder stringBuilder, PipelineStats stats,
+			AtomicReference<Throwable> failure) {
+		stringBuilder.setLength(0);
+		for (int i = 0; i < batch.size; i++) {
+			if (batch.errors[i] != null) {
+				stringBuilder.append("HATA ").append(batch.errors[i]).append('\n');
+				stats.addError();
+			} else {
+				stringBuilder.append(batch.scores[i]).append('\n');
+				stats.addHand(batch.scores[i]);
+			}
+		}
+		try {
+			out.append(stringBuilder);
+		} catch (IOException e) {
+			failure.compareAndSet(null, new UncheckedIOException(e));
+		}
+	}
+
+	private interface BatchProcessor {
+
+		/**
+		 * Processes the lines of a batch in place.
+		 *
+		 * @param batch the batch to process
+		 */
+		void process(Batch batch);
+	}
+
+	private static class Batch {
+		final long sequence;
+		final String[] lines;
+		final ArrayList<ArrayList<Tile>> hands;
+		final Tile[] okeyTiles;
+		final int[] scores;
+		final String[] errors;
+		int size;
+
+		Batch(long sequence, int capacity) {
+			this.sequence = sequence;
+			lines = new String[capacity];
+			hands = new ArrayList<>(Collections.nCopies(capacity, null));
+			okeyTiles = new Tile[capacity];
+			scores = new int[capacity];
+			errors = new String[capacity];
+		}
+	}
+}
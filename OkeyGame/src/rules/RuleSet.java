@@ -0,0 +1,163 @@
+package rules;
+
+import java.util.Locale;
+
+import objects.Deck;
+import objects.OkeyGame;
+import objects.Tile;
+import scoring.HandEvaluator;
+
+public final class RuleSet {
+
+	/**
+	 * Standard Okey: 14 tiles, scored by the tiles placed into pairs, sets and series.
+	 */
+	public static final RuleSet STANDARD = new RuleSet("standard", OkeyGame.TILE_PER_HAND, Scoring.TILES, OkeyGame.TILE_PER_HAND);
+
+	/**
+	 * Pair finishes: 14 tiles, scored by the tiles placed into pairs only.
+	 */
+	public static final RuleSet PAIRS = new RuleSet("pairs", OkeyGame.TILE_PER_HAND, Scoring.PAIRS, OkeyGame.TILE_PER_HAND);
+
+	/**
+	 * 101 Okey: 21 tiles, scored by the face values of the tiles in sets and series. A hand
+	 * reaches the target when it can open with 101 points.
+	 */
+	public static final RuleSet OKEY_101 = new RuleSet("101", 21, Scoring.POINTS, 101);
+
+	private static final RuleSet[] PRESETS = {STANDARD, PAIRS, OKEY_101};
+
+	private final String name;
+	private final int handSize;
+	private final Scoring scoring;
+	private final int targetScore;
+	private volatile HandEvaluator evaluator;
+
+	/**
+	 * Creates a rule set.
+	 *
+	 * @param name        the name of the rule set
+	 * @param handSize    the number of tiles dealt to each player; the first player gets one more
+	 * @param scoring     how hands are scored
+	 * @param targetScore the score at which a hand is finished
+	 * @throws IllegalArgumentException if the hands do not fit into the deck
+	 */
+	public RuleSet(String name, int handSize, Scoring scoring, int targetScore) {
+		// Every player is dealt a hand, the first player one more tile, and the indicator is drawn.
+		if (handSize < 1 || OkeyGame.PLAYER_COUNT * handSize + 2 > Deck.TILE_COUNT) {
+			throw new IllegalArgumentException("Hand size does not fit into the deck: " + handSize);
+		}
+		this.name = name;
+		this.handSize = handSize;
+		this.scoring = scoring;
+		this.targetScore = targetScore;
+	}
+
+	/**
+	 * Returns a preset rule set by name: standard, pairs or 101.
+	 *
+	 * @param name the name of the preset
+	 * @return the rule set
+	 * @throws IllegalArgumentException if there is no preset with that name
+	 */
+	public static RuleSet forName(String name) {
+		for (RuleSet preset : PRESETS) {
+			if (preset.name.equals(name.toLowerCase(Locale.ROOT))) {
+				return preset;
+			}
+		}
+		throw new IllegalArgumentException("Unknown rule set: " + name);
+	}
+
+	/**
+	 * Returns the preset rule sets.
+	 *
+	 * @return a new array of the presets
+	 */
+	public static RuleSet[] presets() {
+		return PRESETS.clone();
+	}
+
+	/**
+	 * Returns the evaluator of the rule set. It is created with its lookup tables on the first
+	 * call and shared afterwards, so the rules are resolved once rather than in every hand.
+	 *
+	 * @return the evaluator, safe to share between threads
+	 */
+	public HandEvaluator getEvaluator() {
+		HandEvaluator result = evaluator;
+		if (result == null) {
+			synchronized (this) {
+				result = evaluator;
+				if (result == null) {
+					result = scoring.compile();
+					evaluator = result;
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns whether turns can be played with these rules. The incremental scores kept by the
+	 * players and the strategies follow the standard rules, so only those rules can be played
+	 * turn by turn; the other rules deal and score hands.
+	 *
+	 * @return true if turns can be played
+	 */
+	public boolean isPlayable() {
+		return scoring == Scoring.TILES && handSize == OkeyGame.TILE_PER_HAND;
+	}
+
+	/**
+	 * Returns the name of the rule set.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns the number of tiles dealt to each player; the first player gets one more.
+	 *
+	 * @return the hand size
+	 */
+	public int getHandSize() {
+		return handSize;
+	}
+
+	/**
+	 * Returns how hands are scored.
+	 *
+	 * @return the scoring
+	 */
+	public Scoring getScoring() {
+		return scoring;
+	}
+
+	/**
+	 * Returns the score at which a hand is finished. Simulations report the share of dealt hands
+	 * that reach it.
+	 *
+	 * @return the target score
+	 */
+	public int getTargetScore() {
+		return targetScore;
+	}
+
+	/**
+	 * Returns a bound on the score of a dealt hand, which holds at most one tile more than the
+	 * hand size. Points are bounded by the highest value for every tile.
+	 *
+	 * @return the highest score a dealt hand can have
+	 */
+	public int getMaxScore() {
+		return scoring == Scoring.POINTS ? (handSize + 1) * Tile.VALUE_COUNT : handSize + 1;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (%d tas, %s, hedef %d)", name, handSize, scoring, targetScore);
+	}
+}
@@ -0,0 +1,47 @@
+package rules;
+
+import scoring.HandEvaluator;
+import scoring.OptimalHandEvaluator;
+import scoring.PairHandEvaluator;
+import scoring.PointHandEvaluator;
+
+public enum Scoring {
+
+	/**
+	 * The number of tiles placed into pairs, sets and series.
+	 */
+	TILES {
+		@Override
+		HandEvaluator compile() {
+			return new OptimalHandEvaluator();
+		}
+	},
+
+	/**
+	 * The number of tiles placed into pairs of identical tiles, for pair finishes.
+	 */
+	PAIRS {
+		@Override
+		HandEvaluator compile() {
+			return new PairHandEvaluator();
+		}
+	},
+
+	/**
+	 * 101 Okey counting: the sum of the face values of the tiles placed into sets and series.
+	 */
+	POINTS {
+		@Override
+		HandEvaluator compile() {
+			return new PointHandEvaluator();
+		}
+	};
+
+	/**
+	 * Creates the evaluator written for this scoring. Each scoring has its own evaluator class
+	 * and tables, so the evaluators never check the scoring while they score a hand.
+	 *
+	 * @return the evaluator
+	 */
+	abstract HandEvaluator compile();
+}
@@ -0,0 +1,94 @@
+package scoring;
+
+import objects.Tile;
+
+public abstract class BatchScorer {
+
+	/**
+	 * System property that turns the vector scorer off when set to false.
+	 */
+	public static final String VECTOR_PROPERTY = "okey.vector";
+
+	/**
+	 * Scorer built from the separate vector source folder, which needs the incubating
+	 * jdk.incubator.vector module to compile and run.
+	 */
+	private static final String VECTOR_SCORER = "scoring.VectorBatchScorer";
+
+	private final OptimalHandEvaluator evaluator = new OptimalHandEvaluator();
+	private final int[] handColors = new int[Tile.COLOR_COUNT];
+
+	/**
+	 * Scores every hand of a batch. The scores are the same as those of
+	 * {@link OptimalHandEvaluator}. A scorer is not thread-safe; use one per thread.
+	 *
+	 * @param batch the hands to score
+	 */
+	public abstract void score(HandBatch batch);
+
+	/**
+	 * Returns the name of the scorer, as shown in reports.
+	 *
+	 * @return the name
+	 */
+	public abstract String getName();
+
+	/**
+	 * Creates the fastest scorer available: the vector scorer if it was compiled and the JVM was
+	 * started with --add-modules jdk.incubator.vector, otherwise the scalar scorer.
+	 *
+	 * @return a new scorer
+	 */
+	public static BatchScorer create() {
+		if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))) {
+			return new ScalarBatchScorer();
+		}
+		try {
+			return (BatchScorer) Class.forName(VECTOR_SCORER).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError e) {
+			return new ScalarBatchScorer();
+		}
+	}
+
+	/**
+	 * Returns whether a set can be formed in a hand: some value must be held in at least three
+	 * colors, counting the wildcards as colors. Only these hands need the set search; the others
+	 * are scored from the pair/series scores of their colors.
+	 *
+	 * @param p0        the values held in the first color, one bit per value
+	 * @param p1        the values held in the second color
+	 * @param p2        the values held in the third color
+	 * @param p3        the values held in the fourth color
+	 * @param wildcards the number of wildcards
+	 * @return true if a set can be formed
+	 */
+	static boolean canFormSet(int p0, int p1, int p2, int p3, int wildcards) {
+		int atLeastOne = p0 | p1 | p2 | p3;
+		int atLeastTwo = (p0 & p1) | (p0 & p2) | (p0 & p3) | (p1 & p2) | (p1 & p3) | (p2 & p3);
+		int atLeastThree = (p0 & p1 & (p2 | p3)) | (p2 & p3 & (p0 | p1));
+		switch (wildcards) {
+		case 0:
+			return atLeastThree != 0;
+		case 1:
+			return atLeastTwo != 0;
+		case 2:
+			return atLeastOne != 0;
+		default:
+			return true;
+		}
+	}
+
+	/**
+	 * Scores a hand of a batch with the set search of {@link OptimalHandEvaluator}.
+	 *
+	 * @param batch the batch
+	 * @param index the index of the hand
+	 * @return the score of the hand
+	 */
+	int searchScore(HandBatch batch, int index) {
+		for (int color = 0; color < handColors.length; color++) {
+			handColors[color] = batch.colors[color][index];
+		}
+		return evaluator.evaluate(handColors, batch.wildcards[index]);
+	}
+}
@@ -0,0 +1,80 @@
+package scoring;
+
+public class CacheStats {
+	private final long hits;
+	private final long misses;
+	private final long evictions;
+	private final long size;
+
+	/**
+	 * Creates a snapshot of the counters of a cache.
+	 *
+	 * @param hits      the number of lookups that found an entry
+	 * @param misses    the number of lookups that did not find an entry
+	 * @param evictions the number of entries removed to make room for new ones
+	 * @param size      the number of entries in the cache
+	 */
+	public CacheStats(long hits, long misses, long evictions, long size) {
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.size = size;
+	}
+
+	/**
+	 * Returns the number of lookups that found an entry.
+	 *
+	 * @return the hit count
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find an entry.
+	 *
+	 * @return the miss count
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Returns the number of entries removed to make room for new ones.
+	 *
+	 * @return the eviction count
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Returns the number of entries in the cache.
+	 *
+	 * @return the size of the cache
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the ratio of lookups that found an entry.
+	 *
+	 * @return the hit rate, or 0 if there were no lookups
+	 */
+	public double getHitRate() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	/**
+	 * Returns a string representation of the counters.
+	 *
+	 * @return A string representing the cache statistics.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Isabet: %d, Iska: %d, Cikarilan: %d, Boyut: %d (Isabet orani: %.2f%%)",
+				hits, misses, evictions, size, getHitRate() * 100);
+	}
+}
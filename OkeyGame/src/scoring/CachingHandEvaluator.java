@@ -0,0 +1,73 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+
+public class CachingHandEvaluator implements HandEvaluator {
+
+	/**
+	 * Reusable count vectors of each thread, used to build the cache key.
+	 */
+	private static final ThreadLocal<int[]> COLORS = ThreadLocal.withInitial(() -> new int[Tile.COLOR_COUNT]);
+
+	private final HandEvaluator delegate;
+	private final ScoreCache cache;
+
+	/**
+	 * Creates an evaluator that remembers the scores calculated by another evaluator.
+	 * The delegate must only depend on the tiles of the hand, not on their order. The cache key
+	 * sorts the count vectors of the colors, so the delegate must also give the same score when
+	 * the colors of a hand are swapped, and must not read the okey tile except to find the okey
+	 * tiles and fake okeys of the hand. The optimal, point and pair evaluators qualify; an
+	 * evaluator that prefers one color or scores the okey tile itself does not.
+	 *
+	 * @param delegate the evaluator used when a hand is not in the cache
+	 * @param cache    the cache holding the scores
+	 */
+	public CachingHandEvaluator(HandEvaluator delegate, ScoreCache cache) {
+		this.delegate = delegate;
+		this.cache = cache;
+	}
+
+	/**
+	 * Creates an evaluator that remembers the scores of the optimal evaluator.
+	 *
+	 * @param maximumSize the maximum number of cached hands
+	 * @param policy      the policy used to choose the entries to evict
+	 */
+	public CachingHandEvaluator(int maximumSize, EvictionPolicy policy) {
+		this(new OptimalHandEvaluator(), new ScoreCache(maximumSize, policy));
+	}
+
+	/**
+	 * Returns the cached score of a hand, calculating and storing it when it is not in the cache.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the score of the hand
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		int[] colors = COLORS.get();
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		int wildcards = OptimalHandEvaluator.countTiles(hand, okeyTile, colors);
+		int score = cache.get(colors, wildcards);
+		if (score < 0) {
+			score = delegate.evaluate(hand, okeyTile);
+			cache.put(colors, wildcards, score);
+		}
+		return score;
+	}
+
+	/**
+	 * Returns the cache holding the scores.
+	 *
+	 * @return the score cache
+	 */
+	public ScoreCache getCache() {
+		return cache;
+	}
+}
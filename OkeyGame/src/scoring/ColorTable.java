@@ -0,0 +1,182 @@
+package scoring;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+public final class ColorTable {
+
+	/**
+	 * System property holding the path of a generated table file to map at startup.
+	 */
+	public static final String PATH_PROPERTY = "okey.colorTable";
+
+	/**
+	 * Magic number at the start of a table file ("OKCT").
+	 */
+	private static final int MAGIC = 0x4F4B4354;
+	private static final short VERSION = 2;
+	private static final int HEADER_SIZE = 16;
+
+	/**
+	 * Bits used by the score of one wildcard count in a packed entry. A color holds at most 26
+	 * tiles and scores at most 28 with two wildcards, so the three scores fill the 15 bits left
+	 * beside the computed flag.
+	 */
+	static final int SCORE_BITS = 5;
+	static final int SCORE_MASK = (1 << SCORE_BITS) - 1;
+
+	/**
+	 * Marks an in-memory entry that is already calculated, since a packed entry can be zero.
+	 */
+	private static final short COMPUTED = (short) 0x8000;
+	private static final int ENTRY_MASK = 0x7FFF;
+
+	private final short[] entries;
+	private final ShortBuffer mapped;
+
+	/**
+	 * Creates a table that is either filled lazily in memory or read from a mapped file.
+	 *
+	 * @param entries the in-memory entries, or null
+	 * @param mapped  the mapped entries, or null
+	 */
+	private ColorTable(short[] entries, ShortBuffer mapped) {
+		this.entries = entries;
+		this.mapped = mapped;
+	}
+
+	/**
+	 * Creates an empty in-memory table whose entries are calculated on first use.
+	 *
+	 * @return the lazy table
+	 */
+	public static ColorTable lazy() {
+		return new ColorTable(new short[OptimalHandEvaluator.VECTOR_COUNT], null);
+	}
+
+	/**
+	 * Opens the table used by the evaluators: the file named by the {@value #PATH_PROPERTY}
+	 * system property if it is set and valid, otherwise a lazy in-memory table.
+	 *
+	 * @return the table
+	 */
+	static ColorTable open() {
+		String path = System.getProperty(PATH_PROPERTY);
+		if (path != null) {
+			try {
+				return map(Paths.get(path));
+			} catch (IOException e) {
+				System.err.println("Renk tablosu okunamadi, tablo hesaplanarak doldurulacak: " + e.getMessage());
+			}
+		}
+		return lazy();
+	}
+
+	/**
+	 * Maps a generated table file into memory.
+	 *
+	 * @param path the path of the file
+	 * @return the mapped table
+	 * @throws IOException if the file cannot be read or is not a table of this version
+	 */
+	public static ColorTable map(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					break;
+				}
+			}
+			if (header.getInt(0) != MAGIC || header.getShort(4) != VERSION
+					|| header.getInt(8) != OptimalHandEvaluator.VECTOR_COUNT) {
+				throw new IOException("Gecersiz renk tablosu: " + path);
+			}
+			long size = (long) OptimalHandEvaluator.VECTOR_COUNT * Short.BYTES;
+			if (channel.size() < HEADER_SIZE + size) {
+				throw new IOException("Renk tablosu eksik: " + path);
+			}
+			return new ColorTable(null, channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, size).asShortBuffer());
+		}
+	}
+
+	/**
+	 * Calculates every entry and writes the table to a file. The file holds one short per
+	 * count vector, so it is about 3 MB.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void generate(Path path) throws IOException {
+		ColorTable table = lazy();
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + OptimalHandEvaluator.VECTOR_COUNT * Short.BYTES);
+		buffer.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(OptimalHandEvaluator.VECTOR_COUNT).putInt(0);
+		// Vectors only depend on smaller vectors, so the entries are calculated in order.
+		for (int vector = 0; vector < OptimalHandEvaluator.VECTOR_COUNT; vector++) {
+			buffer.putShort((short) table.scores(vector));
+		}
+		buffer.flip();
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the table is read from a mapped file.
+	 *
+	 * @return true if the table is mapped
+	 */
+	public boolean isMapped() {
+		return mapped != null;
+	}
+
+	/**
+	 * Returns the best pair/series scores of a per-color count vector with zero, one and two
+	 * wildcards, packed into {@value #SCORE_BITS} bits each. The tiles of the vector that are not placed into
+	 * groups are its tile count minus the score without wildcards.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 * @return the packed scores, read with {@link #score(int, int)}
+	 */
+	public int scores(int vector) {
+		if (mapped != null) {
+			return mapped.get(vector);
+		}
+		int entry = entries[vector];
+		if (entry == 0) {
+			entry = OptimalHandEvaluator.solveScores(vector) | COMPUTED;
+			entries[vector] = (short) entry;
+		}
+		return entry & ENTRY_MASK;
+	}
+
+	/**
+	 * Reads the score for a number of wildcards from packed scores.
+	 *
+	 * @param scores    the packed scores of a color
+	 * @param wildcards the number of wildcards (0-2)
+	 * @return the best score of the color with that many wildcards
+	 */
+	public static int score(int scores, int wildcards) {
+		return (scores >>> (wildcards * SCORE_BITS)) & SCORE_MASK;
+	}
+
+	/**
+	 * Packs the scores of a color for zero, one and two wildcards.
+	 *
+	 * @param plain  the score without wildcards
+	 * @param single the score with one wildcard
+	 * @param pair   the score with two wildcards
+	 * @return the packed scores
+	 */
+	static int pack(int plain, int single, int pair) {
+		return plain | single << SCORE_BITS | pair << (2 * SCORE_BITS);
+	}
+}
@@ -0,0 +1,169 @@
+package scoring;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import objects.Player;
+import objects.Tile;
+
+public class DiscardAdvisor {
+
+	/**
+	 * Default latency budget of a query.
+	 */
+	public static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private final ExecutorService executor;
+	private final int parallelism;
+	private final long budgetNanos;
+
+	/**
+	 * Creates an advisor that evaluates every candidate on the calling thread.
+	 *
+	 * @param budgetNanos the latency budget of a query
+	 */
+	public DiscardAdvisor(long budgetNanos) {
+		this(null, 1, budgetNanos);
+	}
+
+	/**
+	 * Creates an advisor that splits the candidates between the calling thread and an executor.
+	 *
+	 * @param executor    the executor that evaluates the other groups of candidates
+	 * @param parallelism the number of groups the candidates are split into
+	 * @param budgetNanos the latency budget of a query
+	 */
+	public DiscardAdvisor(ExecutorService executor, int parallelism, long budgetNanos) {
+		this.executor = executor;
+		this.parallelism = executor == null ? 1 : Math.max(1, parallelism);
+		this.budgetNanos = budgetNanos;
+	}
+
+	/**
+	 * Ranks the discards of a player's hand.
+	 *
+	 * @param player   the player who discards
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the candidates ranked by resulting score
+	 */
+	public List<DiscardCandidate> advise(Player player, Tile okeyTile) {
+		return advise(player.getHand(), okeyTile);
+	}
+
+	/**
+	 * Scores the hand left by every distinct discard and ranks the discards by that score.
+	 * The hand is tracked once, and every group of candidates works on a copy of that state, so
+	 * removing a tile only rescores its own color. Candidates that could not be evaluated within
+	 * the latency budget are ranked last with a score of -1.
+	 *
+	 * @param hand     the tiles of the hand, usually 15
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the candidates ranked by resulting score
+	 */
+	public List<DiscardCandidate> advise(List<Tile> hand, Tile okeyTile) {
+		long deadline = System.nanoTime() + budgetNanos;
+		int[] copies = new int[Tile.TILE_KINDS];
+		List<Tile> tiles = new ArrayList<>();
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (copies[tile.getCode()]++ == 0) {
+				tiles.add(tile);
+			}
+		}
+		HandState base = new HandState();
+		base.reset(hand, okeyTile);
+
+		int groups = Math.min(parallelism, tiles.size());
+		int[] scores = new int[tiles.size()];
+		List<Future<int[]>> futures = new ArrayList<>();
+		for (int group = 1; group < groups; group++) {
+			int from = group * tiles.size() / groups;
+			int to = (group + 1) * tiles.size() / groups;
+			futures.add(executor.submit(() -> evaluate(base, tiles, from, to, deadline)));
+		}
+		int firstEnd = tiles.size() / groups;
+		System.arraycopy(evaluate(base, tiles, 0, firstEnd, deadline), 0, scores, 0, firstEnd);
+		for (int group = 1; group < groups; group++) {
+			int from = group * tiles.size() / groups;
+			int to = (group + 1) * tiles.size() / groups;
+			int[] groupScores = await(futures.get(group - 1), deadline, to - from);
+			System.arraycopy(groupScores, 0, scores, from, to - from);
+		}
+
+		List<DiscardCandidate> candidates = new ArrayList<>(tiles.size());
+		for (int i = 0; i < tiles.size(); i++) {
+			Tile tile = tiles.get(i);
+			candidates.add(new DiscardCandidate(tile, copies[tile.getCode()], scores[i]));
+		}
+		Collections.sort(candidates);
+		return candidates;
+	}
+
+	/**
+	 * Returns the best discard of a hand.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the tile whose discard leaves the highest score
+	 */
+	public Tile bestDiscard(List<Tile> hand, Tile okeyTile) {
+		return advise(hand, okeyTile).get(0).getTile();
+	}
+
+	/**
+	 * Scores a group of candidates on a private copy of the tracked hand.
+	 *
+	 * @param base     the tracked hand
+	 * @param tiles    the distinct tiles of the hand
+	 * @param from     the index of the first candidate of the group
+	 * @param to       the index after the last candidate of the group
+	 * @param deadline the time by which the query must be answered
+	 * @return the resulting scores, -1 for candidates reached after the deadline
+	 */
+	private static int[] evaluate(HandState base, List<Tile> tiles, int from, int to, long deadline) {
+		HandState state = new HandState();
+		state.copyFrom(base);
+		int[] scores = new int[to - from];
+		for (int i = from; i < to; i++) {
+			if (i > from && System.nanoTime() - deadline > 0) {
+				scores[i - from] = -1;
+				continue;
+			}
+			Tile tile = tiles.get(i);
+			state.remove(tile);
+			scores[i - from] = state.score();
+			state.add(tile);
+		}
+		return scores;
+	}
+
+	/**
+	 * Waits for a group of candidates until the deadline.
+	 *
+	 * @param future   the evaluation of the group
+	 * @param deadline the time by which the query must be answered
+	 * @param size     the number of candidates in the group
+	 * @return the scores of the group, all -1 if it did not finish in time
+	 */
+	private static int[] await(Future<int[]> future, long deadline, int size) {
+		try {
+			return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException | CancellationException | ExecutionException e) {
+			future.cancel(true);
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+		}
+		int[] scores = new int[size];
+		Arrays.fill(scores, -1);
+		return scores;
+	}
+}
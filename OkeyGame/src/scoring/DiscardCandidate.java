@@ -0,0 +1,82 @@
+package scoring;
+
+import objects.Tile;
+
+public class DiscardCandidate implements Comparable<DiscardCandidate> {
+	private final Tile tile;
+	private final int copies;
+	private final int score;
+
+	/**
+	 * Creates a discard candidate.
+	 *
+	 * @param tile   the tile to discard
+	 * @param copies the number of copies of the tile in the hand
+	 * @param score  the score of the hand after the discard, or -1 if it was not evaluated in time
+	 */
+	public DiscardCandidate(Tile tile, int copies, int score) {
+		this.tile = tile;
+		this.copies = copies;
+		this.score = score;
+	}
+
+	/**
+	 * Returns the tile to discard.
+	 *
+	 * @return the tile
+	 */
+	public Tile getTile() {
+		return tile;
+	}
+
+	/**
+	 * Returns the number of copies of the tile in the hand. Identical copies are only scored once.
+	 *
+	 * @return the number of copies
+	 */
+	public int getCopies() {
+		return copies;
+	}
+
+	/**
+	 * Returns the score of the hand after the discard.
+	 *
+	 * @return the score, or -1 if the candidate was not evaluated within the latency budget
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Returns whether the candidate was evaluated within the latency budget.
+	 *
+	 * @return true if the score is known
+	 */
+	public boolean isEvaluated() {
+		return score >= 0;
+	}
+
+	/**
+	 * Orders candidates from the highest resulting score to the lowest, and equal scores by tile.
+	 *
+	 * @param o The candidate to be compared.
+	 * @return A negative, zero, or positive integer as this candidate ranks before, equal to, or after the other.
+	 */
+	@Override
+	public int compareTo(DiscardCandidate o) {
+		if (score != o.score) {
+			return o.score - score;
+		}
+		return tile.compareTo(o.tile);
+	}
+
+	/**
+	 * Returns a string representation of the candidate.
+	 *
+	 * @return A string representing the tile and the resulting score.
+	 */
+	@Override
+	public String toString() {
+		return String.format("%s (Skor: %d)", tile, score);
+	}
+}
@@ -0,0 +1,14 @@
+package scoring;
+
+public enum EvictionPolicy {
+	/**
+	 * Evicts the least recently used entry.
+	 */
+	LRU,
+
+	/**
+	 * Admits new entries through a small LRU window and keeps them only if they are used more
+	 * often than the entry they would replace (W-TinyLFU).
+	 */
+	TINY_LFU
+}
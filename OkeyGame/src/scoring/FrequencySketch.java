@@ -0,0 +1,81 @@
+package scoring;
+
+class FrequencySketch {
+	private static final int DEPTH = 4;
+	private static final int MAX_COUNT = 15;
+	private static final long[] SEEDS = {
+			0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+	private final byte[] counters;
+	private final int mask;
+	private final int sampleSize;
+	private int additions;
+
+	/**
+	 * Creates a count-min sketch sized for the given number of entries. The counters are halved
+	 * after a sample of ten times that many additions, so that old popularity fades.
+	 *
+	 * @param capacity the number of entries whose frequency should be tracked
+	 */
+	FrequencySketch(int capacity) {
+		int width = Integer.highestOneBit(Math.max(16, capacity * 2 - 1)) << 1;
+		counters = new byte[width * DEPTH];
+		mask = width - 1;
+		sampleSize = Math.max(10, capacity * 10);
+	}
+
+	/**
+	 * Records one use of a key.
+	 *
+	 * @param key the hashed key
+	 */
+	void increment(long key) {
+		boolean added = false;
+		for (int row = 0; row < DEPTH; row++) {
+			int index = index(key, row);
+			if (counters[index] < MAX_COUNT) {
+				counters[index]++;
+				added = true;
+			}
+		}
+		if (added && ++additions >= sampleSize) {
+			reset();
+		}
+	}
+
+	/**
+	 * Returns the estimated number of uses of a key.
+	 *
+	 * @param key the hashed key
+	 * @return the smallest counter of the key
+	 */
+	int frequency(long key) {
+		int frequency = MAX_COUNT;
+		for (int row = 0; row < DEPTH; row++) {
+			frequency = Math.min(frequency, counters[index(key, row)]);
+		}
+		return frequency;
+	}
+
+	/**
+	 * Halves every counter.
+	 */
+	private void reset() {
+		for (int i = 0; i < counters.length; i++) {
+			counters[i] >>= 1;
+		}
+		additions /= 2;
+	}
+
+	/**
+	 * Returns the position of the counter of a key in a row.
+	 *
+	 * @param key the hashed key
+	 * @param row the row of the sketch
+	 * @return the index of the counter
+	 */
+	private int index(long key, int row) {
+		long hash = (key ^ SEEDS[row]) * SEEDS[(row + 1) % DEPTH];
+		return row * (mask + 1) + ((int) (hash >>> 32) & mask);
+	}
+}
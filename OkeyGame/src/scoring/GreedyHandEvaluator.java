@@ -0,0 +1,21 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+import util.Utility;
+
+public class GreedyHandEvaluator implements HandEvaluator {
+
+	/**
+	 * Calculates the score of a hand using the permutation based greedy search in {@link Utility}.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the score of the hand
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		return Utility.calculateMaxScore(hand, okeyTile);
+	}
+}
@@ -0,0 +1,136 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+
+public class HandBatch {
+
+	/**
+	 * Columns are padded to a multiple of the widest vector of ints (512 bits), so vector
+	 * loops never need a scalar tail.
+	 */
+	static final int PADDING = 16;
+
+	/**
+	 * Count vector of every hand per color, packed in base three: {@code colors[color][hand]}.
+	 */
+	final int[][] colors = new int[Tile.COLOR_COUNT][];
+
+	/**
+	 * Values held by every hand per color, one bit per value: {@code presence[color][hand]}.
+	 */
+	final int[][] presence = new int[Tile.COLOR_COUNT][];
+
+	/**
+	 * Packed pair/series scores of every hand per color, filled by the scorers.
+	 */
+	final int[][] colorScores = new int[Tile.COLOR_COUNT][];
+
+	final int[] wildcards;
+	final int[] scores;
+
+	/**
+	 * 1 for every hand in which a set can be formed, so the set search is needed; filled by the scorers.
+	 */
+	final int[] needsSearch;
+
+	private final int capacity;
+	private int size;
+
+	/**
+	 * Creates an empty batch. Hands are stored as columns (one array per color) rather than as
+	 * tile lists, so a scorer can process many hands with the same instruction.
+	 *
+	 * @param capacity the maximum number of hands
+	 */
+	public HandBatch(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Batch capacity must be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		int padded = (capacity + PADDING - 1) / PADDING * PADDING;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = new int[padded];
+			presence[color] = new int[padded];
+			colorScores[color] = new int[padded];
+		}
+		wildcards = new int[padded];
+		scores = new int[padded];
+		needsSearch = new int[padded];
+	}
+
+	/**
+	 * Adds a hand to the batch. Tiles equal to the okey tile are counted as wildcards, while
+	 * fake okeys are counted as the okey tile.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile of the hand
+	 * @return the index of the hand in the batch
+	 * @throws IllegalStateException if the batch is full
+	 */
+	public int add(List<Tile> hand, Tile okeyTile) {
+		if (size == capacity) {
+			throw new IllegalStateException("Batch is full: " + capacity);
+		}
+		int index = size++;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color][index] = 0;
+			presence[color][index] = 0;
+		}
+		int okeyCode = okeyTile.getCode();
+		int wildcardCount = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile == okeyTile) {
+				wildcardCount++;
+			} else {
+				int code = tile.isFakeOkey() ? okeyCode : tile.getCode();
+				int color = code / Tile.VALUE_COUNT;
+				int value = code % Tile.VALUE_COUNT;
+				colors[color][index] += OptimalHandEvaluator.POW3[value];
+				presence[color][index] |= 1 << value;
+			}
+		}
+		wildcards[index] = wildcardCount;
+		return index;
+	}
+
+	/**
+	 * Removes every hand, so the batch can be filled again.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Returns the number of hands in the batch.
+	 *
+	 * @return the hand count
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the maximum number of hands in the batch.
+	 *
+	 * @return the capacity
+	 */
+	public int capacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the score of a hand, after the batch has been scored.
+	 *
+	 * @param index the index of the hand
+	 * @return the score of the hand
+	 */
+	public int getScore(int index) {
+		if (index >= size) {
+			throw new IndexOutOfBoundsException("Hand " + index + " of " + size);
+		}
+		return scores[index];
+	}
+}
@@ -0,0 +1,18 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+
+public interface HandEvaluator {
+
+	/**
+	 * Calculates the score of a hand, which is the number of tiles that can be placed
+	 * into pairs, sets and series.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the score of the hand
+	 */
+	int evaluate(List<Tile> hand, Tile okeyTile);
+}
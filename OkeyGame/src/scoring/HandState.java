@@ -0,0 +1,225 @@
+package scoring;
+
+import java.util.List;
+
+import metrics.HotPathMetrics;
+import metrics.Phase;
+import objects.Tile;
+
+public class HandState {
+	private static final int SCORES_PER_COLOR = OptimalHandEvaluator.MAX_WILDCARDS + 1;
+
+	private final OptimalHandEvaluator evaluator = new OptimalHandEvaluator();
+	private final int[] colors = new int[Tile.COLOR_COUNT];
+	private final int[] colorScores = new int[Tile.COLOR_COUNT * SCORES_PER_COLOR];
+	private final int[] presence = new int[Tile.VALUE_COUNT];
+	private Tile okeyTile;
+	private int wildcards;
+	private int tileCount;
+	private int score;
+	private int calls;
+
+	/**
+	 * Starts tracking a hand from scratch.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 */
+	public void reset(List<Tile> hand, Tile okeyTile) {
+		this.okeyTile = okeyTile;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			presence[value] = 0;
+		}
+		wildcards = OptimalHandEvaluator.countTiles(hand, okeyTile, colors);
+		tileCount = hand.size();
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+				if (OptimalHandEvaluator.count(colors[color], value) > 0) {
+					presence[value]++;
+				}
+			}
+			refreshColor(color);
+		}
+		score = -1;
+	}
+
+	/**
+	 * Copies the tracked hand of another state into this one.
+	 *
+	 * @param other the state to copy
+	 */
+	public void copyFrom(HandState other) {
+		okeyTile = other.okeyTile;
+		System.arraycopy(other.colors, 0, colors, 0, colors.length);
+		System.arraycopy(other.colorScores, 0, colorScores, 0, colorScores.length);
+		System.arraycopy(other.presence, 0, presence, 0, presence.length);
+		wildcards = other.wildcards;
+		tileCount = other.tileCount;
+		score = other.score;
+	}
+
+	/**
+	 * Adds a tile to the tracked hand. Only the color of the tile is scored again.
+	 *
+	 * @param tile the tile to add
+	 */
+	public void add(Tile tile) {
+		if (tile == okeyTile) {
+			wildcards++;
+		} else {
+			int code = faceCode(tile);
+			int color = code / Tile.VALUE_COUNT;
+			int value = code % Tile.VALUE_COUNT;
+			if (OptimalHandEvaluator.count(colors[color], value) == 0) {
+				presence[value]++;
+			}
+			colors[color] += OptimalHandEvaluator.POW3[value];
+			refreshColor(color);
+		}
+		tileCount++;
+		score = -1;
+	}
+
+	/**
+	 * Removes a tile from the tracked hand. Only the color of the tile is scored again.
+	 *
+	 * @param tile the tile to remove
+	 */
+	public void remove(Tile tile) {
+		if (tile == okeyTile) {
+			wildcards--;
+		} else {
+			int code = faceCode(tile);
+			int color = code / Tile.VALUE_COUNT;
+			int value = code % Tile.VALUE_COUNT;
+			colors[color] -= OptimalHandEvaluator.POW3[value];
+			if (OptimalHandEvaluator.count(colors[color], value) == 0) {
+				presence[value]--;
+			}
+			refreshColor(color);
+		}
+		tileCount--;
+		score = -1;
+	}
+
+	/**
+	 * Returns the score of the tracked hand. When no set can be formed, the score is combined
+	 * from the cached scores of the colors; otherwise the set search is run on the count vectors.
+	 *
+	 * @return the score of the hand
+	 */
+	public int score() {
+		if (score < 0) {
+			if (canFormSet()) {
+				score = evaluator.evaluate(colors, wildcards);
+			} else if (HotPathMetrics.isEnabled()) {
+				score = measureCombined();
+			} else {
+				score = combineCachedColors();
+			}
+		}
+		return score;
+	}
+
+	/**
+	 * Combines the cached scores of the colors, timing one call in
+	 * {@link HotPathMetrics#SAMPLE_INTERVAL} and counting the whole interval on it. The set
+	 * search counts and times itself.
+	 *
+	 * @return the score of the hand without sets
+	 */
+	private int measureCombined() {
+		if (HotPathMetrics.sample(++calls) != HotPathMetrics.SAMPLE_TOTAL) {
+			return combineCachedColors();
+		}
+		long start = System.nanoTime();
+		int combined = combineCachedColors();
+		HotPathMetrics.record(Phase.SCORE_HAND, System.nanoTime() - start);
+		HotPathMetrics.handsCombined(HotPathMetrics.SAMPLE_INTERVAL);
+		return combined;
+	}
+
+	/**
+	 * Returns the number of tiles in the tracked hand.
+	 *
+	 * @return the tile count
+	 */
+	public int getTileCount() {
+		return tileCount;
+	}
+
+	/**
+	 * Returns the okey tile of the tracked hand.
+	 *
+	 * @return the okey tile
+	 */
+	public Tile getOkeyTile() {
+		return okeyTile;
+	}
+
+	/**
+	 * Returns whether any value is held in enough colors, counting the wildcards, to form a set.
+	 *
+	 * @return true if a set can be formed
+	 */
+	private boolean canFormSet() {
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			if (presence[value] + wildcards >= 3) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Combines the cached scores of the colors with the best use of the wildcards.
+	 *
+	 * @return the score of the hand without sets
+	 */
+	private int combineCachedColors() {
+		int base = 0;
+		int bestSingle = 0;
+		int secondSingle = 0;
+		int bestDouble = 0;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int offset = color * SCORES_PER_COLOR;
+			int plain = colorScores[offset];
+			base += plain;
+			int single = colorScores[offset + 1] - plain;
+			if (single > bestSingle) {
+				secondSingle = bestSingle;
+				bestSingle = single;
+			} else if (single > secondSingle) {
+				secondSingle = single;
+			}
+			bestDouble = Math.max(bestDouble, colorScores[offset + 2] - plain);
+		}
+		return OptimalHandEvaluator.combine(base, bestSingle, secondSingle, bestDouble, wildcards);
+	}
+
+	/**
+	 * Looks up the pair/series scores of a color for every number of wildcards.
+	 *
+	 * @param color the index of the color
+	 */
+	private void refreshColor(int color) {
+		int offset = color * SCORES_PER_COLOR;
+		int scores = OptimalHandEvaluator.colorScores(colors[color]);
+		for (int used = 0; used < SCORES_PER_COLOR; used++) {
+			colorScores[offset + used] = ColorTable.score(scores, used);
+		}
+	}
+
+	/**
+	 * Returns the code of the face a tile is scored as. Fake okeys take the face of the okey tile.
+	 *
+	 * @param tile a tile that is not the okey tile
+	 * @return the code of the face of the tile
+	 */
+	private int faceCode(Tile tile) {
+		return tile.isFakeOkey() ? okeyTile.getCode() : tile.getCode();
+	}
+}
@@ -0,0 +1,390 @@
+package scoring;
+
+import java.util.List;
+
+import metrics.HotPathMetrics;
+import metrics.Phase;
+import objects.Tile;
+
+public class OptimalHandEvaluator implements HandEvaluator {
+
+	public static final int MAX_WILDCARDS = 2;
+
+	/**
+	 * Powers of three, used to pack the count (0-2) of each value of a color into a single integer.
+	 */
+	static final int[] POW3 = new int[Tile.VALUE_COUNT + 1];
+
+	/**
+	 * Number of distinct per-color count vectors.
+	 */
+	static final int VECTOR_COUNT;
+
+	static {
+		POW3[0] = 1;
+		for (int i = 1; i <= Tile.VALUE_COUNT; i++) {
+			POW3[i] = POW3[i - 1] * 3;
+		}
+		VECTOR_COUNT = POW3[Tile.VALUE_COUNT];
+	}
+
+	/**
+	 * Best series/pair scores of every per-color count vector, mapped from a generated file or
+	 * calculated on first use.
+	 */
+	private static final ColorTable COLOR_TABLE = ColorTable.open();
+
+	/**
+	 * Reusable count vectors and color masks of each thread, so that scoring a hand does not allocate.
+	 */
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	/**
+	 * Calculates the best possible score of a hand by searching every split of the hand into
+	 * pairs, sets and series. Tiles equal to the okey tile are used as wildcards, while fake
+	 * okeys keep the value and color of the okey tile.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the score of the hand
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		Scratch scratch = SCRATCH.get();
+		int[] colors = scratch.colors;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		int wildcards = countTiles(hand, okeyTile, colors);
+		return evaluate(colors, wildcards, scratch);
+	}
+
+	/**
+	 * Adds the tiles of a hand to per-color count vectors. Fake okeys are counted as the okey
+	 * tile, while the okey tiles themselves are counted as wildcards.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @param colors   the count vector of each color, packed in base three
+	 * @return the number of wildcards in the hand
+	 */
+	public static int countTiles(List<Tile> hand, Tile okeyTile, int[] colors) {
+		int wildcards = 0;
+		int okeyCode = okeyTile.getCode();
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile == okeyTile) {
+				wildcards++;
+			} else {
+				int code = tile.isFakeOkey() ? okeyCode : tile.getCode();
+				colors[code / Tile.VALUE_COUNT] += POW3[code % Tile.VALUE_COUNT];
+			}
+		}
+		return wildcards;
+	}
+
+	/**
+	 * Calculates the best possible score of a hand given as per-color count vectors.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @return the score of the hand
+	 */
+	public int evaluate(int[] colors, int wildcards) {
+		return evaluate(colors, wildcards, SCRATCH.get());
+	}
+
+	/**
+	 * Calculates the best possible score of a hand, using the scratch space of the thread.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @param scratch   the scratch space of the thread
+	 * @return the score of the hand
+	 */
+	private int evaluate(int[] colors, int wildcards, Scratch scratch) {
+		if (HotPathMetrics.isEnabled()) {
+			return measure(colors, wildcards, scratch);
+		}
+		int tileCount = markValues(colors, wildcards, scratch.masks);
+		return searchSets(colors, scratch.masks, 0, 1, wildcards, 0, tileCount);
+	}
+
+	/**
+	 * Calculates the best possible score of a hand, timing one call in
+	 * {@link HotPathMetrics#SAMPLE_INTERVAL} as a whole and another one phase by phase. The
+	 * whole interval is counted on the call timed as a whole.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @param scratch   the scratch space of the thread
+	 * @return the score of the hand
+	 */
+	private int measure(int[] colors, int wildcards, Scratch scratch) {
+		int sample = HotPathMetrics.sample(++scratch.calls);
+		int[] masks = scratch.masks;
+		int score;
+		if (sample == HotPathMetrics.SAMPLE_TOTAL) {
+			long start = System.nanoTime();
+			score = searchSets(colors, masks, 0, 1, wildcards, 0, markValues(colors, wildcards, masks));
+			HotPathMetrics.record(Phase.SCORE_HAND, System.nanoTime() - start);
+			HotPathMetrics.handsSearched(HotPathMetrics.SAMPLE_INTERVAL);
+		} else if (sample == HotPathMetrics.SAMPLE_PHASES) {
+			long start = System.nanoTime();
+			int tileCount = markValues(colors, wildcards, masks);
+			long marked = System.nanoTime();
+			score = searchSets(colors, masks, 0, 1, wildcards, 0, tileCount);
+			HotPathMetrics.record(Phase.MARK_VALUES, marked - start);
+			HotPathMetrics.record(Phase.SEARCH_SETS, System.nanoTime() - marked);
+		} else {
+			score = searchSets(colors, masks, 0, 1, wildcards, 0, markValues(colors, wildcards, masks));
+		}
+		return score;
+	}
+
+	/**
+	 * Fills the color masks of the values and counts the tiles of a hand.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @param masks     the array that receives the colors holding each value
+	 * @return the number of tiles, wildcards included
+	 */
+	private static int markValues(int[] colors, int wildcards, int[] masks) {
+		int tileCount = wildcards;
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			masks[value] = 0;
+		}
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int vector = colors[color];
+			for (int value = 0; vector != 0; value++) {
+				int count = vector % 3;
+				if (count > 0) {
+					masks[value] |= 1 << color;
+					tileCount += count;
+				}
+				vector /= 3;
+			}
+		}
+		return tileCount;
+	}
+
+	/**
+	 * Searches every choice of sets value by value. Since sets are the only groups that use tiles
+	 * of different colors, the remaining tiles of each color are scored independently.
+	 * Values whose colors and wildcards are too few for a set are skipped.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param masks     the colors holding each value
+	 * @param value     the index of the value currently searched
+	 * @param minMask   the smallest color mask allowed for the next set of the same value
+	 * @param wildcards the number of wildcards left
+	 * @param setScore  the number of tiles already placed into sets
+	 * @param limit     the highest score the hand can reach
+	 * @return the best score found
+	 */
+	private int searchSets(int[] colors, int[] masks, int value, int minMask, int wildcards, int setScore, int limit) {
+		while (value < Tile.VALUE_COUNT && Integer.bitCount(masks[value]) + wildcards < 3) {
+			value++;
+			minMask = 1;
+		}
+		if (value == Tile.VALUE_COUNT) {
+			return setScore + combineColors(colors, wildcards);
+		}
+		int best = searchSets(colors, masks, value + 1, 1, wildcards, setScore, limit);
+		int presentMask = masks[value];
+		for (int mask = minMask; mask <= presentMask && best < limit; mask++) {
+			if ((mask & presentMask) != mask) {
+				continue;
+			}
+			int size = Integer.bitCount(mask);
+			int maxFill = Math.min(wildcards, Tile.COLOR_COUNT - size);
+			for (int fill = Math.max(0, 3 - size); fill <= maxFill; fill++) {
+				int emptied = 0;
+				for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+					if ((mask & (1 << color)) != 0) {
+						colors[color] -= POW3[value];
+						if (count(colors[color], value) == 0) {
+							emptied |= 1 << color;
+						}
+					}
+				}
+				masks[value] = presentMask & ~emptied;
+				best = Math.max(best, searchSets(colors, masks, value, mask, wildcards - fill, setScore + size + fill, limit));
+				masks[value] = presentMask;
+				for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+					if ((mask & (1 << color)) != 0) {
+						colors[color] += POW3[value];
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Combines the best series/pair scores of each color, trying every way to share the
+	 * remaining wildcards between the colors.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of wildcards left
+	 * @return the combined score of the colors and the wildcards
+	 */
+	private int combineColors(int[] colors, int wildcards) {
+		int base = 0;
+		int bestSingle = 0;
+		int secondSingle = 0;
+		int bestDouble = 0;
+		for (int color : colors) {
+			int scores = COLOR_TABLE.scores(color);
+			int plain = ColorTable.score(scores, 0);
+			base += plain;
+			if (wildcards > 0) {
+				int single = ColorTable.score(scores, 1) - plain;
+				if (single > bestSingle) {
+					secondSingle = bestSingle;
+					bestSingle = single;
+				} else if (single > secondSingle) {
+					secondSingle = single;
+				}
+				if (wildcards > 1) {
+					bestDouble = Math.max(bestDouble, ColorTable.score(scores, 2) - plain);
+				}
+			}
+		}
+		return combine(base, bestSingle, secondSingle, bestDouble, wildcards);
+	}
+
+	/**
+	 * Combines the per-color scores with the best way to use the remaining wildcards.
+	 *
+	 * @param base         the sum of the scores of the colors without wildcards
+	 * @param bestSingle   the largest gain of one wildcard in a color
+	 * @param secondSingle the largest gain of one wildcard in another color
+	 * @param bestDouble   the largest gain of two wildcards in the same color
+	 * @param wildcards    the number of wildcards left
+	 * @return the combined score of the colors and the wildcards
+	 */
+	static int combine(int base, int bestSingle, int secondSingle, int bestDouble, int wildcards) {
+		if (wildcards == 0) {
+			return base;
+		}
+		if (wildcards == 1) {
+			return base + bestSingle;
+		}
+		// Two wildcards can also be paired with each other.
+		return base + Math.max(Math.max(bestSingle + secondSingle, bestDouble), 2);
+	}
+
+	/**
+	 * Returns the best score of a single color, using only pairs and series.
+	 *
+	 * @param vector    the count vector of the color, packed in base three
+	 * @param wildcards the number of wildcards that can be used
+	 * @return the number of tiles, including the used wildcards, placed into groups
+	 */
+	static int bestColorScore(int vector, int wildcards) {
+		return ColorTable.score(COLOR_TABLE.scores(vector), wildcards);
+	}
+
+	/**
+	 * Returns the packed best scores of a single color with zero, one and two wildcards.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 * @return the scores packed by {@link ColorTable#pack(int, int, int)}
+	 */
+	static int colorScores(int vector) {
+		return COLOR_TABLE.scores(vector);
+	}
+
+	/**
+	 * Calculates the scores of a color for every number of wildcards. Only smaller vectors are
+	 * looked up, so a table can be filled in increasing order of the vectors.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 * @return the packed scores
+	 */
+	static int solveScores(int vector) {
+		return ColorTable.pack(solveColor(vector, 0), solveColor(vector, 1), solveColor(vector, 2));
+	}
+
+	/**
+	 * Finds the best split of a single color into pairs and series by deciding the role of
+	 * its lowest tile.
+	 *
+	 * @param vector    the count vector of the color, packed in base three
+	 * @param wildcards the number of wildcards that can be used
+	 * @return the number of tiles, including the used wildcards, placed into groups
+	 */
+	private static int solveColor(int vector, int wildcards) {
+		if (vector == 0) {
+			return 0;
+		}
+		int low = 0;
+		while (count(vector, low) == 0) {
+			low++;
+		}
+		int rest = vector - POW3[low];
+		// The lowest tile is left out.
+		int best = bestColorScore(rest, wildcards);
+		if (count(vector, low) == 2) {
+			best = Math.max(best, 2 + bestColorScore(rest - POW3[low], wildcards));
+		}
+		if (wildcards > 0) {
+			best = Math.max(best, 2 + bestColorScore(rest, wildcards - 1));
+		}
+		// The lowest tile starts a series, possibly after some wildcards.
+		for (int prefix = 0; prefix <= Math.min(wildcards, low); prefix++) {
+			int used = prefix;
+			int remaining = rest;
+			int length = prefix + 1;
+			if (length >= 3) {
+				best = Math.max(best, length + bestColorScore(remaining, wildcards - used));
+			}
+			for (int value = low + 1; value < Tile.VALUE_COUNT; value++) {
+				if (count(vector, value) > 0) {
+					remaining -= POW3[value];
+				} else if (++used > wildcards) {
+					break;
+				}
+				length++;
+				if (length >= 3) {
+					best = Math.max(best, length + bestColorScore(remaining, wildcards - used));
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the number of copies of a value in a count vector.
+	 *
+	 * @param vector the count vector of a color, packed in base three
+	 * @param value  the index of the value (0-12)
+	 * @return the number of copies (0-2)
+	 */
+	static int count(int vector, int value) {
+		return (vector / POW3[value]) % 3;
+	}
+
+	/**
+	 * Returns the total number of tiles in a count vector.
+	 *
+	 * @param vector the count vector of a color, packed in base three
+	 * @return the number of tiles
+	 */
+	static int tileCount(int vector) {
+		int tiles = 0;
+		while (vector != 0) {
+			tiles += vector % 3;
+			vector /= 3;
+		}
+		return tiles;
+	}
+
+	private static final class Scratch {
+		final int[] colors = new int[Tile.COLOR_COUNT];
+		final int[] masks = new int[Tile.VALUE_COUNT];
+		int calls;
+	}
+}
@@ -0,0 +1,54 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+
+public class PairHandEvaluator implements HandEvaluator {
+
+	/**
+	 * Per-thread tile counts, so that scoring a hand does not allocate.
+	 */
+	private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[Tile.FACE_COUNT]);
+
+	/**
+	 * Calculates the score of a hand when only pairs count, as in a pair finish: twice the number
+	 * of pairs of identical tiles. A wildcard pairs with any single tile, and two wildcards left
+	 * over pair with each other. Fake okeys keep the value and color of the okey tile.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the number of tiles placed into pairs
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		int[] counts = COUNTS.get();
+		int okeyCode = okeyTile.getCode();
+		int wildcards = 0;
+		int pairs = 0;
+		int singles = 0;
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile == okeyTile) {
+				wildcards++;
+				continue;
+			}
+			int code = tile.isFakeOkey() ? okeyCode : tile.getCode();
+			// Every second copy turns a single into a pair.
+			if (++counts[code] == 2) {
+				pairs++;
+				singles--;
+			} else {
+				singles++;
+			}
+		}
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile != okeyTile) {
+				counts[tile.isFakeOkey() ? okeyCode : tile.getCode()] = 0;
+			}
+		}
+		int matched = Math.min(wildcards, singles);
+		return 2 * (pairs + matched + (wildcards - matched) / 2);
+	}
+}
@@ -0,0 +1,208 @@
+package scoring;
+
+import java.util.List;
+
+import objects.Tile;
+
+public class PointHandEvaluator implements HandEvaluator {
+
+	/**
+	 * Bits used by the points of one wildcard count in a packed table entry. A color holds at
+	 * most 182 points, so a byte is enough.
+	 */
+	private static final int POINT_BITS = 8;
+	private static final int POINT_MASK = (1 << POINT_BITS) - 1;
+
+	/**
+	 * Best series points of every per-color count vector with zero, one and two wildcards. The
+	 * table is built when the class is loaded, so no hand pays for it.
+	 */
+	private static final int[] POINT_TABLE = buildTable();
+
+	/**
+	 * Reusable count vectors and color masks of each thread, so that scoring a hand does not allocate.
+	 */
+	private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(
+			() -> new int[][] {new int[Tile.COLOR_COUNT], new int[Tile.VALUE_COUNT]});
+
+	/**
+	 * Calculates the best points of a hand under 101 Okey counting: the sum of the face values
+	 * of the tiles placed into sets and series of at least three tiles. Pairs do not count.
+	 * Tiles equal to the okey tile are wildcards worth the value of the tile they stand for,
+	 * while fake okeys keep the value and color of the okey tile.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the points of the hand
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		int[][] scratch = SCRATCH.get();
+		int[] colors = scratch[0];
+		int[] masks = scratch[1];
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		int wildcards = OptimalHandEvaluator.countTiles(hand, okeyTile, colors);
+		int limit = wildcards * Tile.VALUE_COUNT;
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			masks[value] = 0;
+		}
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int vector = colors[color];
+			for (int value = 0; vector != 0; value++) {
+				int count = vector % 3;
+				if (count > 0) {
+					masks[value] |= 1 << color;
+					limit += count * (value + 1);
+				}
+				vector /= 3;
+			}
+		}
+		return searchSets(colors, masks, 0, 1, wildcards, 0, limit);
+	}
+
+	/**
+	 * Searches every choice of sets value by value, like {@link OptimalHandEvaluator}, with every
+	 * tile of a set worth its value.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param masks     the colors holding each value
+	 * @param value     the index of the value currently searched
+	 * @param minMask   the smallest color mask allowed for the next set of the same value
+	 * @param wildcards the number of wildcards left
+	 * @param setPoints the points already placed into sets
+	 * @param limit     the highest points the hand can reach
+	 * @return the best points found
+	 */
+	private static int searchSets(int[] colors, int[] masks, int value, int minMask, int wildcards, int setPoints, int limit) {
+		while (value < Tile.VALUE_COUNT && Integer.bitCount(masks[value]) + wildcards < 3) {
+			value++;
+			minMask = 1;
+		}
+		if (value == Tile.VALUE_COUNT) {
+			return setPoints + combineColors(colors, wildcards);
+		}
+		int best = searchSets(colors, masks, value + 1, 1, wildcards, setPoints, limit);
+		int presentMask = masks[value];
+		for (int mask = minMask; mask <= presentMask && best < limit; mask++) {
+			if ((mask & presentMask) != mask) {
+				continue;
+			}
+			int size = Integer.bitCount(mask);
+			int maxFill = Math.min(wildcards, Tile.COLOR_COUNT - size);
+			for (int fill = Math.max(0, 3 - size); fill <= maxFill; fill++) {
+				int emptied = 0;
+				for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+					if ((mask & (1 << color)) != 0) {
+						colors[color] -= OptimalHandEvaluator.POW3[value];
+						if (OptimalHandEvaluator.count(colors[color], value) == 0) {
+							emptied |= 1 << color;
+						}
+					}
+				}
+				masks[value] = presentMask & ~emptied;
+				best = Math.max(best, searchSets(colors, masks, value, mask, wildcards - fill,
+						setPoints + (size + fill) * (value + 1), limit));
+				masks[value] = presentMask;
+				for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+					if ((mask & (1 << color)) != 0) {
+						colors[color] += OptimalHandEvaluator.POW3[value];
+					}
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Combines the best series points of each color with the best way to use the remaining
+	 * wildcards. Unlike pairs, two wildcards cannot form a group on their own.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of wildcards left
+	 * @return the combined points of the colors and the wildcards
+	 */
+	private static int combineColors(int[] colors, int wildcards) {
+		int base = 0;
+		int bestSingle = 0;
+		int secondSingle = 0;
+		int bestDouble = 0;
+		for (int color : colors) {
+			int points = POINT_TABLE[color];
+			int plain = points & POINT_MASK;
+			base += plain;
+			int single = (points >>> POINT_BITS & POINT_MASK) - plain;
+			secondSingle = Math.max(secondSingle, Math.min(bestSingle, single));
+			bestSingle = Math.max(bestSingle, single);
+			bestDouble = Math.max(bestDouble, (points >>> (2 * POINT_BITS) & POINT_MASK) - plain);
+		}
+		if (wildcards == 0) {
+			return base;
+		}
+		if (wildcards == 1) {
+			return base + bestSingle;
+		}
+		return base + Math.max(bestSingle + secondSingle, bestDouble);
+	}
+
+	/**
+	 * Calculates the series points of every count vector in increasing order, since a vector
+	 * only depends on smaller vectors.
+	 *
+	 * @return the packed points of every vector
+	 */
+	private static int[] buildTable() {
+		int[] table = new int[OptimalHandEvaluator.VECTOR_COUNT];
+		for (int vector = 1; vector < table.length; vector++) {
+			table[vector] = solvePoints(table, vector, 0)
+					| solvePoints(table, vector, 1) << POINT_BITS
+					| solvePoints(table, vector, 2) << (2 * POINT_BITS);
+		}
+		return table;
+	}
+
+	/**
+	 * Finds the best split of a single color into series by deciding the role of its lowest tile.
+	 *
+	 * @param table     the points of the smaller vectors
+	 * @param vector    the count vector of the color, packed in base three
+	 * @param wildcards the number of wildcards that can be used
+	 * @return the points of the tiles, including the used wildcards, placed into series
+	 */
+	private static int solvePoints(int[] table, int vector, int wildcards) {
+		int low = 0;
+		while (OptimalHandEvaluator.count(vector, low) == 0) {
+			low++;
+		}
+		int rest = vector - OptimalHandEvaluator.POW3[low];
+		// The lowest tile is left out.
+		int best = table[rest] >>> (wildcards * POINT_BITS) & POINT_MASK;
+		// The lowest tile starts a series, possibly after some wildcards.
+		for (int prefix = 0; prefix <= Math.min(wildcards, low); prefix++) {
+			int used = prefix;
+			int remaining = rest;
+			int length = prefix + 1;
+			int points = 0;
+			for (int value = low - prefix; value <= low; value++) {
+				points += value + 1;
+			}
+			for (int value = low + 1; ; value++) {
+				if (length >= 3) {
+					best = Math.max(best, points + (table[remaining] >>> ((wildcards - used) * POINT_BITS) & POINT_MASK));
+				}
+				if (value == Tile.VALUE_COUNT) {
+					break;
+				}
+				if (OptimalHandEvaluator.count(vector, value) > 0) {
+					remaining -= OptimalHandEvaluator.POW3[value];
+				} else if (++used > wildcards) {
+					break;
+				}
+				length++;
+				points += value + 1;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,210 @@
+package scoring;
+
+import java.util.Arrays;
+import java.util.List;
+
+import objects.Tile;
+
+public class ReferenceSolver implements HandEvaluator {
+
+	/**
+	 * Largest hand the solver accepts. The memo holds one entry per subset of the hand.
+	 */
+	public static final int MAX_TILES = 16;
+
+	/**
+	 * Largest group tried. Longer series score the same as a split into series of three to five
+	 * tiles, so they never have to be enumerated.
+	 */
+	private static final int MAX_GROUP_SIZE = 5;
+
+	/**
+	 * Face code of the wildcards in the per-tile arrays, which sorts them after every other tile.
+	 */
+	private static final int WILDCARD = Integer.MAX_VALUE;
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	/**
+	 * Calculates the best possible score of a hand by trying every partition of the hand into
+	 * pairs, sets, series and unused tiles. It is much slower than {@link OptimalHandEvaluator}
+	 * and shares none of its code, so it is meant as a reference for testing other evaluators.
+	 * Tiles equal to the okey tile are wildcards, while fake okeys keep the face of the okey tile.
+	 *
+	 * @param hand     the list of tiles in the player's hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the score of the hand
+	 * @throws IllegalArgumentException if the hand has more than {@link #MAX_TILES} tiles
+	 */
+	@Override
+	public int evaluate(List<Tile> hand, Tile okeyTile) {
+		int size = hand.size();
+		if (size > MAX_TILES) {
+			throw new IllegalArgumentException("Elde en fazla " + MAX_TILES + " tas olabilir: " + size);
+		}
+		Scratch scratch = SCRATCH.get();
+		for (int i = 0; i < size; i++) {
+			Tile tile = hand.get(i);
+			scratch.faces[i] = tile == okeyTile ? WILDCARD
+					: tile.isFakeOkey() ? okeyTile.getCode() : tile.getCode();
+		}
+		// Sorting puts copies of a face next to each other, so equal groups are tried only once.
+		Arrays.sort(scratch.faces, 0, size);
+		scratch.size = size;
+		if (++scratch.stamp == 0) {
+			Arrays.fill(scratch.stamps, 0);
+			scratch.stamp = 1;
+		}
+		return scratch.solve((1 << size) - 1);
+	}
+
+	/**
+	 * Returns whether the given tiles form a pair, a set or a series.
+	 *
+	 * @param faces  the face code of every tile, or {@link #WILDCARD}
+	 * @param group  the indexes of the tiles of the group
+	 * @param length the number of tiles in the group
+	 * @return true if the tiles form a valid group
+	 */
+	static boolean isGroup(int[] faces, int[] group, int length) {
+		int wildcards = 0;
+		int color = -1;
+		int value = -1;
+		boolean sameColor = true;
+		boolean sameValue = true;
+		int colorMask = 0;
+		int valueMask = 0;
+		boolean distinctColors = true;
+		boolean distinctValues = true;
+		for (int k = 0; k < length; k++) {
+			int face = faces[group[k]];
+			if (face == WILDCARD) {
+				wildcards++;
+				continue;
+			}
+			int tileColor = face / Tile.VALUE_COUNT;
+			int tileValue = face % Tile.VALUE_COUNT;
+			if (color < 0) {
+				color = tileColor;
+				value = tileValue;
+			}
+			sameColor &= tileColor == color;
+			sameValue &= tileValue == value;
+			distinctColors &= (colorMask & (1 << tileColor)) == 0;
+			distinctValues &= (valueMask & (1 << tileValue)) == 0;
+			colorMask |= 1 << tileColor;
+			valueMask |= 1 << tileValue;
+		}
+		if (length == 2) {
+			// Two tiles of the same face, or a wildcard with any tile.
+			return wildcards > 0 || (sameColor && sameValue);
+		}
+		if (wildcards == length) {
+			return true;
+		}
+		if (length <= Tile.COLOR_COUNT && sameValue && distinctColors) {
+			return true;
+		}
+		if (!sameColor || !distinctValues) {
+			return false;
+		}
+		// The series must fit between 1 and 13; wildcards fill the gaps and the ends.
+		int low = Integer.numberOfTrailingZeros(valueMask);
+		int high = 31 - Integer.numberOfLeadingZeros(valueMask);
+		return high - low < length && length <= Tile.VALUE_COUNT;
+	}
+
+	private static final class Scratch {
+		final int[] faces = new int[MAX_TILES];
+		final int[] memo = new int[1 << MAX_TILES];
+		final int[] stamps = new int[1 << MAX_TILES];
+		final int[][] groups = new int[MAX_TILES][MAX_GROUP_SIZE];
+		final int[][] partners = new int[MAX_TILES][MAX_TILES];
+		int size;
+		int stamp;
+
+		/**
+		 * Returns the best score of a subset of the hand. The lowest tile of the subset is either
+		 * grouped with every possible combination of other tiles of the subset or left out. The
+		 * search stops as soon as every tile of the subset is placed.
+		 *
+		 * @param mask the tiles of the subset
+		 * @return the number of tiles of the subset placed into groups
+		 */
+		int solve(int mask) {
+			if (mask == 0) {
+				return 0;
+			}
+			if (stamps[mask] == stamp) {
+				return memo[mask];
+			}
+			int first = Integer.numberOfTrailingZeros(mask);
+			int rest = mask & ~(1 << first);
+			int tiles = Integer.bitCount(mask);
+			// Only wildcards and tiles sharing a color or a value can join the first tile.
+			int[] candidates = partners[first];
+			int count = 0;
+			for (int other = first + 1; other < size; other++) {
+				if ((rest & (1 << other)) != 0 && canJoin(faces[first], faces[other])) {
+					candidates[count++] = other;
+				}
+			}
+			// The lowest tile grows along the recursion, so every level has its own group array.
+			int[] group = groups[first];
+			group[0] = first;
+			int best = extend(group, candidates, count, 0, 1, rest, tiles);
+			if (best < tiles) {
+				best = Math.max(best, solve(rest));
+			}
+			stamps[mask] = stamp;
+			memo[mask] = best;
+			return best;
+		}
+
+		/**
+		 * Tries every group that starts with the tiles chosen so far and continues with
+		 * candidates from the given index on.
+		 *
+		 * @param group      the tiles chosen so far
+		 * @param candidates the tiles that can join the group
+		 * @param count      the number of candidates
+		 * @param from       the index of the next candidate to try
+		 * @param length     the number of tiles chosen so far
+		 * @param rest       the tiles of the subset that are not in the group
+		 * @param tiles      the number of tiles of the subset, which no split can exceed
+		 * @return the best score of the subset with the group formed from the chosen tiles
+		 */
+		private int extend(int[] group, int[] candidates, int count, int from, int length, int rest, int tiles) {
+			int best = 0;
+			if (length >= 2 && isGroup(faces, group, length)) {
+				best = length + solve(rest);
+			}
+			if (length == MAX_GROUP_SIZE) {
+				return best;
+			}
+			for (int k = from; k < count && best < tiles; k++) {
+				int other = candidates[k];
+				if (k > from && faces[other] == faces[candidates[k - 1]]) {
+					// Choosing the other copy of the face gives the same group.
+					continue;
+				}
+				group[length] = other;
+				best = Math.max(best, extend(group, candidates, count, k + 1, length + 1, rest & ~(1 << other), tiles));
+			}
+			return best;
+		}
+
+		/**
+		 * Returns whether two tiles can be in the same group.
+		 *
+		 * @param face  the face code of a tile, or {@link #WILDCARD}
+		 * @param other the face code of another tile, or {@link #WILDCARD}
+		 * @return true if either is a wildcard or they share a color or a value
+		 */
+		private static boolean canJoin(int face, int other) {
+			return face == WILDCARD || other == WILDCARD
+					|| face / Tile.VALUE_COUNT == other / Tile.VALUE_COUNT
+					|| face % Tile.VALUE_COUNT == other % Tile.VALUE_COUNT;
+		}
+	}
+}
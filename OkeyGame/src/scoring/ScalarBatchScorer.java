@@ -0,0 +1,48 @@
+package scoring;
+
+import objects.Tile;
+
+public class ScalarBatchScorer extends BatchScorer {
+
+	/**
+	 * Scores the hands of a batch one at a time. Hands in which no set can be formed are scored
+	 * from the table scores of their colors; the others run the set search.
+	 *
+	 * @param batch the hands to score
+	 */
+	@Override
+	public void score(HandBatch batch) {
+		int[] p0 = batch.presence[0];
+		int[] p1 = batch.presence[1];
+		int[] p2 = batch.presence[2];
+		int[] p3 = batch.presence[3];
+		for (int i = 0; i < batch.size(); i++) {
+			int wildcards = batch.wildcards[i];
+			if (canFormSet(p0[i], p1[i], p2[i], p3[i], wildcards)) {
+				batch.needsSearch[i] = 1;
+				batch.scores[i] = searchScore(batch, i);
+				continue;
+			}
+			batch.needsSearch[i] = 0;
+			int base = 0;
+			int bestSingle = 0;
+			int secondSingle = 0;
+			int bestDouble = 0;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				int scores = OptimalHandEvaluator.colorScores(batch.colors[color][i]);
+				int plain = ColorTable.score(scores, 0);
+				int single = ColorTable.score(scores, 1) - plain;
+				base += plain;
+				secondSingle = Math.max(secondSingle, Math.min(bestSingle, single));
+				bestSingle = Math.max(bestSingle, single);
+				bestDouble = Math.max(bestDouble, ColorTable.score(scores, 2) - plain);
+			}
+			batch.scores[i] = OptimalHandEvaluator.combine(base, bestSingle, secondSingle, bestDouble, wildcards);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "scalar";
+	}
+}
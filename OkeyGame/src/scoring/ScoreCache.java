@@ -0,0 +1,364 @@
+package scoring;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ScoreCache {
+
+	/**
+	 * Number of bits used by a per-color count vector in a canonical key.
+	 */
+	private static final int VECTOR_BITS = 21;
+	private static final long VECTOR_MASK = (1L << VECTOR_BITS) - 1;
+
+	private final Segment[] segments;
+	private final int segmentMask;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Creates a cache that holds at most the given number of hand scores. The entries are split
+	 * into independently locked segments so that many scoring threads can use the cache at once.
+	 *
+	 * @param maximumSize the maximum number of entries
+	 * @param policy      the policy used to choose the entries to evict
+	 */
+	public ScoreCache(int maximumSize, EvictionPolicy policy) {
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("Cache size must be positive: " + maximumSize);
+		}
+		int segmentCount = Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4);
+		while (segmentCount > 1 && maximumSize / segmentCount < 16) {
+			segmentCount >>= 1;
+		}
+		segments = new Segment[segmentCount];
+		segmentMask = segmentCount - 1;
+		for (int i = 0; i < segmentCount; i++) {
+			int capacity = maximumSize / segmentCount + (i < maximumSize % segmentCount ? 1 : 0);
+			segments[i] = policy == EvictionPolicy.LRU ? new LruSegment(capacity) : new TinyLfuSegment(capacity);
+		}
+	}
+
+	/**
+	 * Returns the cached score of a hand.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @return the cached score, or -1 if the hand is not in the cache
+	 */
+	public int get(int[] colors, int wildcards) {
+		long low = canonicalLow(colors);
+		long high = canonicalHigh(colors, wildcards);
+		long signature = signature(low, high);
+		int score = segmentFor(signature).get(signature, low, high);
+		if (score < 0) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return score;
+	}
+
+	/**
+	 * Stores the score of a hand, evicting another entry if the cache is full.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @param score     the score of the hand
+	 */
+	public void put(int[] colors, int wildcards, int score) {
+		long low = canonicalLow(colors);
+		long high = canonicalHigh(colors, wildcards);
+		long signature = signature(low, high);
+		int evicted = segmentFor(signature).put(signature, low, high, score);
+		if (evicted > 0) {
+			evictions.add(evicted);
+		}
+	}
+
+	/**
+	 * Returns a snapshot of the hit, miss and eviction counters.
+	 *
+	 * @return the statistics of the cache
+	 */
+	public CacheStats stats() {
+		long size = 0;
+		for (Segment segment : segments) {
+			size += segment.size();
+		}
+		return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+	}
+
+	/**
+	 * Returns the canonical 64-bit signature of a hand. The colors are sorted first, so hands that
+	 * only differ by a permutation of the colors have the same signature.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @return the signature of the hand
+	 */
+	public static long signature(int[] colors, int wildcards) {
+		return signature(canonicalLow(colors), canonicalHigh(colors, wildcards));
+	}
+
+	/**
+	 * Mixes the two halves of a canonical key into a 64-bit signature.
+	 *
+	 * @param low  the three smallest color vectors
+	 * @param high the largest color vector and the wildcard count
+	 * @return the signature
+	 */
+	private static long signature(long low, long high) {
+		long hash = low * 0x9E3779B97F4A7C15L + high;
+		hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+		hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+		return hash ^ (hash >>> 31);
+	}
+
+	/**
+	 * Packs the three smallest color vectors of a hand.
+	 *
+	 * @param colors the count vector of each color, packed in base three
+	 * @return the low half of the canonical key
+	 */
+	private static long canonicalLow(int[] colors) {
+		int a = Math.min(colors[0], colors[1]);
+		int b = Math.max(colors[0], colors[1]);
+		int c = Math.min(colors[2], colors[3]);
+		int d = Math.max(colors[2], colors[3]);
+		int smallest = Math.min(a, c);
+		int middleLow = Math.min(Math.max(a, c), Math.min(b, d));
+		int middleHigh = Math.max(Math.max(a, c), Math.min(b, d));
+		return smallest | (long) middleLow << VECTOR_BITS | (long) middleHigh << (2 * VECTOR_BITS);
+	}
+
+	/**
+	 * Packs the largest color vector and the wildcard count of a hand.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param wildcards the number of okey tiles in the hand
+	 * @return the high half of the canonical key
+	 */
+	private static long canonicalHigh(int[] colors, int wildcards) {
+		int largest = Math.max(Math.max(colors[0], colors[1]), Math.max(colors[2], colors[3]));
+		return (largest & VECTOR_MASK) | (long) wildcards << VECTOR_BITS;
+	}
+
+	/**
+	 * Returns the segment that holds a signature.
+	 *
+	 * @param signature the signature of a hand
+	 * @return the segment of the signature
+	 */
+	private Segment segmentFor(long signature) {
+		return segments[(int) (signature >>> 40) & segmentMask];
+	}
+
+	private static class Key {
+		long signature;
+
+		Key(long signature) {
+			this.signature = signature;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(signature);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof Key && ((Key) other).signature == signature;
+		}
+	}
+
+	private static class Entry {
+		final long low;
+		final long high;
+		final int score;
+
+		Entry(long low, long high, int score) {
+			this.low = low;
+			this.high = high;
+			this.score = score;
+		}
+
+		boolean matches(long low, long high) {
+			return this.low == low && this.high == high;
+		}
+	}
+
+	private abstract static class Segment {
+
+		/**
+		 * Key reused for lookups under the lock of the segment, so that a hit does not allocate.
+		 * Stored keys are never changed.
+		 */
+		private final Key lookup = new Key(0);
+
+		/**
+		 * Points the reused lookup key at a signature.
+		 *
+		 * @param signature the signature to look up
+		 * @return the lookup key
+		 */
+		Key probe(long signature) {
+			lookup.signature = signature;
+			return lookup;
+		}
+
+		/**
+		 * Returns the score stored for a key.
+		 *
+		 * @param signature the signature of the key
+		 * @param low       the low half of the key
+		 * @param high      the high half of the key
+		 * @return the score, or -1 if the key is not stored
+		 */
+		abstract int get(long signature, long low, long high);
+
+		/**
+		 * Stores the score of a key.
+		 *
+		 * @param signature the signature of the key
+		 * @param low       the low half of the key
+		 * @param high      the high half of the key
+		 * @param score     the score to store
+		 * @return the number of entries evicted
+		 */
+		abstract int put(long signature, long low, long high, int score);
+
+		/**
+		 * Returns the number of stored entries.
+		 *
+		 * @return the size of the segment
+		 */
+		abstract int size();
+	}
+
+	private static class LruSegment extends Segment {
+		private final LinkedHashMap<Key, Entry> entries;
+		private final int capacity;
+
+		LruSegment(int capacity) {
+			this.capacity = capacity;
+			entries = new LinkedHashMap<>(capacity * 4 / 3 + 1, 0.75f, true);
+		}
+
+		@Override
+		synchronized int get(long signature, long low, long high) {
+			Entry entry = entries.get(probe(signature));
+			return entry != null && entry.matches(low, high) ? entry.score : -1;
+		}
+
+		@Override
+		synchronized int put(long signature, long low, long high, int score) {
+			entries.put(new Key(signature), new Entry(low, high, score));
+			if (entries.size() > capacity) {
+				Iterator<Entry> eldest = entries.values().iterator();
+				eldest.next();
+				eldest.remove();
+				return 1;
+			}
+			return 0;
+		}
+
+		@Override
+		synchronized int size() {
+			return entries.size();
+		}
+	}
+
+	private static class TinyLfuSegment extends Segment {
+		private final LinkedHashMap<Key, Entry> window;
+		private final LinkedHashMap<Key, Entry> probation;
+		private final LinkedHashMap<Key, Entry> protectedEntries;
+		private final int windowCapacity;
+		private final int mainCapacity;
+		private final int protectedCapacity;
+		private final FrequencySketch sketch;
+
+		TinyLfuSegment(int capacity) {
+			windowCapacity = Math.max(1, capacity / 100);
+			mainCapacity = Math.max(0, capacity - windowCapacity);
+			protectedCapacity = mainCapacity * 4 / 5;
+			window = new LinkedHashMap<>(16, 0.75f, true);
+			probation = new LinkedHashMap<>(16, 0.75f, true);
+			protectedEntries = new LinkedHashMap<>(16, 0.75f, true);
+			sketch = new FrequencySketch(capacity);
+		}
+
+		@Override
+		synchronized int get(long signature, long low, long high) {
+			sketch.increment(signature);
+			Key key = probe(signature);
+			Entry entry = window.get(key);
+			if (entry == null) {
+				entry = protectedEntries.get(key);
+			}
+			if (entry == null) {
+				entry = probation.remove(key);
+				if (entry != null) {
+					// A second use moves the entry from probation to the protected area.
+					protectedEntries.put(new Key(signature), entry);
+					if (protectedEntries.size() > protectedCapacity) {
+						Map.Entry<Key, Entry> demoted = eldest(protectedEntries);
+						protectedEntries.remove(demoted.getKey());
+						probation.put(demoted.getKey(), demoted.getValue());
+					}
+				}
+			}
+			return entry != null && entry.matches(low, high) ? entry.score : -1;
+		}
+
+		@Override
+		synchronized int put(long signature, long low, long high, int score) {
+			Entry entry = new Entry(low, high, score);
+			Key key = probe(signature);
+			if (protectedEntries.containsKey(key)) {
+				protectedEntries.put(key, entry);
+				return 0;
+			}
+			if (probation.containsKey(key)) {
+				probation.put(key, entry);
+				return 0;
+			}
+			window.put(new Key(signature), entry);
+			if (window.size() <= windowCapacity) {
+				return 0;
+			}
+			Map.Entry<Key, Entry> candidate = eldest(window);
+			window.remove(candidate.getKey());
+			if (probation.size() + protectedEntries.size() < mainCapacity) {
+				probation.put(candidate.getKey(), candidate.getValue());
+				return 0;
+			}
+			LinkedHashMap<Key, Entry> victims = probation.isEmpty() ? protectedEntries : probation;
+			Map.Entry<Key, Entry> victim = eldest(victims);
+			if (victim != null && sketch.frequency(candidate.getKey().signature) > sketch.frequency(victim.getKey().signature)) {
+				victims.remove(victim.getKey());
+				probation.put(candidate.getKey(), candidate.getValue());
+			}
+			return 1;
+		}
+
+		@Override
+		synchronized int size() {
+			return window.size() + probation.size() + protectedEntries.size();
+		}
+
+		/**
+		 * Returns the least recently used entry of a map.
+		 *
+		 * @param entries an access ordered map
+		 * @return the eldest entry, or null if the map is empty
+		 */
+		private static Map.Entry<Key, Entry> eldest(LinkedHashMap<Key, Entry> entries) {
+			Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+			return iterator.hasNext() ? iterator.next() : null;
+		}
+	}
+}
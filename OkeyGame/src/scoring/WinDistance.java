@@ -0,0 +1,74 @@
+package scoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import objects.Tile;
+
+public final class WinDistance {
+	private final int distance;
+	private final long improvingCodes;
+
+	/**
+	 * Creates the distance of a hand from a finished hand.
+	 *
+	 * @param distance       the smallest number of draws and discards that finish the hand
+	 * @param improvingCodes the mask of the codes of the tiles whose draw lowers the distance
+	 */
+	public WinDistance(int distance, long improvingCodes) {
+		this.distance = distance;
+		this.improvingCodes = improvingCodes;
+	}
+
+	/**
+	 * Returns the smallest number of tiles that have to be drawn, each followed by a discard,
+	 * before every tile of the hand is placed into pairs, sets and series.
+	 *
+	 * @return the distance, 0 for a finished hand
+	 */
+	public int getDistance() {
+		return distance;
+	}
+
+	/**
+	 * Returns whether the hand is finished.
+	 *
+	 * @return true if the distance is 0
+	 */
+	public boolean isWinning() {
+		return distance == 0;
+	}
+
+	/**
+	 * Returns the tiles whose draw lowers the distance by one, as a mask of their codes like
+	 * {@link tracking.SeenTiles#mask(Tile...)}.
+	 *
+	 * @return the mask of the improving tiles
+	 */
+	public long getImprovingCodes() {
+		return improvingCodes;
+	}
+
+	/**
+	 * Returns the tiles whose draw lowers the distance by one.
+	 *
+	 * @return a new list of the improving tiles, ordered by code
+	 */
+	public List<Tile> getImprovingTiles() {
+		List<Tile> tiles = new ArrayList<>(Long.bitCount(improvingCodes));
+		for (long codes = improvingCodes; codes != 0; codes &= codes - 1) {
+			tiles.add(Tile.valueOf(Long.numberOfTrailingZeros(codes)));
+		}
+		return tiles;
+	}
+
+	/**
+	 * Returns a string representation of the distance.
+	 *
+	 * @return A string representing the distance and the improving tiles.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Bitmeye %d tas (Iyilestiren taslar: %s)", distance, getImprovingTiles());
+	}
+}
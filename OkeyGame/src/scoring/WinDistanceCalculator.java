@@ -0,0 +1,715 @@
+package scoring;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import objects.OkeyGame;
+import objects.Tile;
+import tracking.SeenTiles;
+
+public class WinDistanceCalculator {
+
+	/**
+	 * Number of tiles of a finished hand.
+	 */
+	private static final int TARGET = OkeyGame.TILE_PER_HAND;
+
+	/**
+	 * Bits used by one size of a packed table entry. A color keeps at most 14 tiles.
+	 */
+	private static final int SIZE_BITS = 4;
+	private static final int SIZE_MASK = (1 << SIZE_BITS) - 1;
+
+	/**
+	 * Shift of the spare bits of a packed table entry, which hold the smallest size that keeps
+	 * as many tiles as the largest one.
+	 */
+	private static final int FULL_SHIFT = (TARGET + 1) * SIZE_BITS;
+
+	/**
+	 * Most places of a finished hand that take a copy of a tile beyond its two copies. Only an
+	 * okey tile fills such a place, and there are two of them, held or drawn.
+	 */
+	private static final int OVER_LIMIT = SeenTiles.COPIES;
+	private static final int OVERS = OVER_LIMIT + 1;
+
+	/**
+	 * Best partial melds of every per-color count vector, calculated on first use. A vector has
+	 * one entry for every number of extra copies from 0 to {@link #OVER_LIMIT}. For every size
+	 * from 0 to 14, an entry holds the most tiles of the color that can be kept when the kept
+	 * tiles and the tiles still missing from their pairs and series take at most that many
+	 * places of the hand, and the spare bits hold the smallest size keeping as many tiles as
+	 * the largest. Entries are read and written whole, the entry without extra copies last, and
+	 * zero marks a vector that is not calculated yet, since every other vector keeps at least
+	 * one tile.
+	 */
+	private static final AtomicLongArray MELDS = new AtomicLongArray(OVERS * OptimalHandEvaluator.VECTOR_COUNT);
+
+	/**
+	 * Open series between two values: the lengths of up to two series, 0 for none and 3 for
+	 * three tiles or more. A value has two copies, so a third series would pass it with an
+	 * extra copy, which keeps no more tiles than a pair beside two series.
+	 */
+	private static final int[] FIRST_LENGTH = {0, 0, 0, 0, 1, 1, 1, 2, 2, 3};
+	private static final int[] SECOND_LENGTH = {0, 1, 2, 3, 1, 2, 3, 2, 3, 3};
+	private static final int OPEN_STATES = FIRST_LENGTH.length;
+
+	/**
+	 * Moves from every open state over a value held zero, one and two times, packed as the next
+	 * state, the kept tiles, the places taken at the value and the extra copies they need.
+	 */
+	private static final int[][][] MOVES = buildMoves();
+
+	/**
+	 * Flag of the result of {@link #searchDraws}, above the faces, set when the hand without the
+	 * drawn tile may keep the best number of tiles after the sets chosen so far.
+	 */
+	private static final long REACHED = 1L << 63;
+
+	/**
+	 * Reusable count vectors, color masks, tile counts, sizes and weakened sets of each thread,
+	 * so that a query does not allocate.
+	 */
+	private static final ThreadLocal<int[][]> SCRATCH = ThreadLocal.withInitial(() -> new int[][] {
+			new int[Tile.COLOR_COUNT], new int[Tile.VALUE_COUNT], new int[Tile.TILE_KINDS], new int[OVERS * (TARGET + 1)],
+			new int[Tile.FACE_COUNT]});
+
+	/**
+	 * Most kept tiles of each open state, number of extra copies and size while a color is
+	 * swept, for each thread.
+	 */
+	private static final ThreadLocal<int[][][][]> SWEEP = ThreadLocal.withInitial(
+			() -> new int[][][][] {new int[OPEN_STATES][OVERS][TARGET + 1], new int[OPEN_STATES][OVERS][TARGET + 1]});
+
+	/**
+	 * Calculates how far a hand is from a finished hand. Every tile that is not the okey tile
+	 * is counted as available.
+	 *
+	 * @param hand     the tiles of the hand, usually 14
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the distance and the improving tiles
+	 */
+	public WinDistance calculate(List<Tile> hand, Tile okeyTile) {
+		return calculate(hand, okeyTile, null);
+	}
+
+	/**
+	 * Calculates the smallest number of draws, each followed by a discard, that leave a hand
+	 * whose 14 tiles are all placed into pairs, sets and series, and the tiles whose draw lowers
+	 * that number. The kept tiles are split into partial melds with the per-color tables and a
+	 * branch-and-bound search over the sets, and a second search finds every improving tile at
+	 * once by carrying the drawn tile until a set or a color takes it. Wildcards fill any
+	 * missing tile, and fake okeys count as the okey tile. A tile is drawn at most as often as
+	 * its copies missing from the hand, and any further copy, such as a pair at a value that a
+	 * series passes, is an okey tile. Only tiles with an unseen copy can improve the hand.
+	 *
+	 * @param hand     the tiles of the hand, usually 14
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @param seen     the tiles seen by the player, including the hand, or null to count only
+	 *                 the copies in the hand as seen
+	 * @return the distance and the improving tiles
+	 */
+	public WinDistance calculate(List<Tile> hand, Tile okeyTile, SeenTiles seen) {
+		int[][] scratch = SCRATCH.get();
+		int[] colors = scratch[0];
+		int[] masks = scratch[1];
+		int[] copies = scratch[2];
+		int[] sizes = scratch[3];
+		int[] weakened = scratch[4];
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		int wildcards = OptimalHandEvaluator.countTiles(hand, okeyTile, colors);
+		int tiles = hand.size() - wildcards;
+		fillMasks(colors, masks);
+		int distance = distance(colors, masks, tiles, wildcards, sizes);
+		long improving = 0;
+		if (distance > 0) {
+			for (int i = 0; i < hand.size(); i++) {
+				copies[hand.get(i).getCode()]++;
+			}
+			int okeyCode = okeyTile.getCode();
+			long faces = 0;
+			for (int code = 0; code < Tile.TILE_KINDS; code++) {
+				if (seen == null ? copies[code] >= SeenTiles.COPIES : seen.unseenCopies(code) == 0) {
+					continue;
+				}
+				if (code == okeyCode) {
+					// Drawing the okey adds a wildcard, which fills one of the places left.
+					improving |= 1L << code;
+					continue;
+				}
+				int face = code == Tile.FAKE_OKEY_CODE ? okeyCode : code;
+				if (OptimalHandEvaluator.count(colors[face / Tile.VALUE_COUNT], face % Tile.VALUE_COUNT) < 2) {
+					faces |= 1L << face;
+				}
+			}
+			for (int i = 0; i < hand.size(); i++) {
+				copies[hand.get(i).getCode()] = 0;
+			}
+			// A drawn tile improves the hand when it lets one more tile be kept.
+			int kept = TARGET - Math.min(wildcards, TARGET) - distance;
+			faces &= ~searchDraws(colors, masks, sizes, weakened, 0, 1, 0, TARGET, OVER_LIMIT, tiles, kept, faces);
+			improving |= faces & ~(1L << okeyCode);
+			if ((faces & (1L << okeyCode)) != 0) {
+				improving |= 1L << Tile.FAKE_OKEY_CODE;
+			}
+		}
+		return new WinDistance(distance, improving);
+	}
+
+	/**
+	 * Calculates only the distance of a hand from a finished hand.
+	 *
+	 * @param hand     the tiles of the hand
+	 * @param okeyTile the okey tile, which can act as a wildcard
+	 * @return the smallest number of draws, each followed by a discard, that finish the hand
+	 */
+	public int distance(List<Tile> hand, Tile okeyTile) {
+		int[][] scratch = SCRATCH.get();
+		int[] colors = scratch[0];
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			colors[color] = 0;
+		}
+		int wildcards = OptimalHandEvaluator.countTiles(hand, okeyTile, colors);
+		fillMasks(colors, scratch[1]);
+		return distance(colors, scratch[1], hand.size() - wildcards, wildcards, scratch[3]);
+	}
+
+	/**
+	 * Sets the colors holding each value.
+	 *
+	 * @param colors the count vector of each color, packed in base three
+	 * @param masks  the colors holding each value, filled by the method
+	 */
+	private static void fillMasks(int[] colors, int[] masks) {
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			masks[value] = 0;
+		}
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			int vector = colors[color];
+			for (int value = 0; vector != 0; value++) {
+				if (vector % 3 > 0) {
+					masks[value] |= 1 << color;
+				}
+				vector /= 3;
+			}
+		}
+	}
+
+	/**
+	 * Calculates the distance of the tiles of count vectors. The hand is finished after as many
+	 * draws as the places left by the kept tiles and the wildcards, so the search looks for the
+	 * most tiles that can be kept while they and their missing tiles fit into 14 places.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param masks     the colors holding each value
+	 * @param tiles     the number of tiles in the vectors
+	 * @param wildcards the number of wildcards
+	 * @param sizes     scratch space for the sizes of the colors
+	 * @return the distance
+	 */
+	private static int distance(int[] colors, int[] masks, int tiles, int wildcards, int[] sizes) {
+		int goal = TARGET - Math.min(wildcards, TARGET);
+		int kept = searchSets(colors, masks, sizes, 0, 1, 0, TARGET, OVER_LIMIT, tiles, -1, goal);
+		return Math.max(0, goal - kept);
+	}
+
+	/**
+	 * Searches the sets value by value, like {@link OptimalHandEvaluator}, and places the other
+	 * tiles with the per-color tables. A set keeps two to four tiles of one value and misses a
+	 * tile when it keeps only two, which is an extra copy when every other color holds both
+	 * copies. A choice is dropped as soon as its tiles left, or the places left, cannot keep
+	 * more tiles than the best one found.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param masks     the colors holding each value
+	 * @param sizes     scratch space for the sizes of the colors
+	 * @param value     the index of the value currently searched
+	 * @param minMask   the smallest color mask allowed for the next set of the same value
+	 * @param kept      the number of tiles kept in sets
+	 * @param places    the number of places not taken by the sets
+	 * @param overs     the number of extra copies not taken by the sets
+	 * @param remaining the number of tiles not placed into sets
+	 * @param best      the most tiles kept so far
+	 * @param goal      the number of kept tiles at which the search stops
+	 * @return the most tiles kept
+	 */
+	private static int searchSets(int[] colors, int[] masks, int[] sizes, int value, int minMask, int kept, int places,
+			int overs, int remaining, int best, int goal) {
+		if (kept + Math.min(remaining, places) <= best) {
+			return best;
+		}
+		while (value < Tile.VALUE_COUNT && Integer.bitCount(masks[value]) < 2) {
+			value++;
+			minMask = 1;
+		}
+		if (value == Tile.VALUE_COUNT) {
+			return Math.max(best, kept + combineColors(colors, sizes, places, overs, best - kept));
+		}
+		best = searchSets(colors, masks, sizes, value + 1, 1, kept, places, overs, remaining, best, goal);
+		int presentMask = masks[value];
+		for (int mask = minMask; mask <= presentMask && best < goal; mask++) {
+			int count = Integer.bitCount(mask);
+			if ((mask & presentMask) != mask || count < 2 || Math.max(3, count) > places) {
+				continue;
+			}
+			int over = count == 2 && !drawable(colors, value, mask) ? 1 : 0;
+			if (over > overs) {
+				continue;
+			}
+			int emptied = 0;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				if ((mask & (1 << color)) != 0) {
+					colors[color] -= OptimalHandEvaluator.POW3[value];
+					if (OptimalHandEvaluator.count(colors[color], value) == 0) {
+						emptied |= 1 << color;
+					}
+				}
+			}
+			masks[value] = presentMask & ~emptied;
+			best = searchSets(colors, masks, sizes, value, mask, kept + count, places - Math.max(3, count),
+					overs - over, remaining - count, best, goal);
+			masks[value] = presentMask;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				if ((mask & (1 << color)) != 0) {
+					colors[color] += OptimalHandEvaluator.POW3[value];
+				}
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Searches the sets like {@link #searchSets} for the hand with one more tile that is not
+	 * chosen yet, and drops the faces of that tile that let the hand keep more tiles. The drawn
+	 * tile is fixed once a set takes it, which leaves a plain search of the sets, or once the
+	 * sets are chosen, when it joins its color. A set of two colors that can only draw its third
+	 * tile from the color of the drawn tile needs an extra copy if that color draws it, so the
+	 * sets are counted as weakened for that face. A set that takes the drawn tile beside two or
+	 * more tiles of the hand keeps one tile more than the same set without it, so it is only
+	 * searched when the hand keeps the best number of tiles after that set.
+	 *
+	 * @param colors    the count vector of each color, packed in base three
+	 * @param masks     the colors holding each value
+	 * @param sizes     scratch space for the sizes of the colors
+	 * @param weakened  the number of chosen sets weakened by each face, left as it was found
+	 * @param value     the index of the value currently searched
+	 * @param minMask   the smallest color mask allowed for the next set of the same value
+	 * @param kept      the number of tiles kept in sets
+	 * @param places    the number of places not taken by the sets
+	 * @param overs     the number of extra copies not taken by the sets
+	 * @param remaining the number of tiles of the hand not placed into sets
+	 * @param best      the most tiles the hand keeps without the drawn tile
+	 * @param open      the faces of the drawn tile not known to keep more tiles
+	 * @return the faces still not known to keep more tiles, with {@link #REACHED} set if the
+	 *         hand may keep the best number of tiles after the chosen sets
+	 */
+	private static long searchDraws(int[] colors, int[] masks, int[] sizes, int[] weakened, int value, int minMask,
+			int kept, int places, int overs, int remaining, int best, long open) {
+		if (open == 0) {
+			return open;
+		}
+		if (kept + Math.min(remaining + 1, places) <= best) {
+			return kept + Math.min(remaining, places) < best ? open : open | REACHED;
+		}
+		while (value < Tile.VALUE_COUNT && Integer.bitCount(masks[value] | drawnColors(open, value)) < 2) {
+			value++;
+			minMask = 1;
+		}
+		if (value == Tile.VALUE_COUNT) {
+			// One more tile keeps at most one more, so only sets that keep the best without it count.
+			if (kept + combineColors(colors, sizes, places, overs, best - kept - 1) < best) {
+				return open;
+			}
+			for (long faces = open; faces != 0; faces &= faces - 1) {
+				int face = Long.numberOfTrailingZeros(faces);
+				int color = face / Tile.VALUE_COUNT;
+				int left = overs - weakened[face];
+				if (left < 0) {
+					continue;
+				}
+				colors[color] += OptimalHandEvaluator.POW3[face % Tile.VALUE_COUNT];
+				if (kept + combineColors(colors, sizes, places, left, best - kept) > best) {
+					open &= ~(1L << face);
+				}
+				colors[color] -= OptimalHandEvaluator.POW3[face % Tile.VALUE_COUNT];
+			}
+			return open | REACHED;
+		}
+		long result = searchDraws(colors, masks, sizes, weakened, value + 1, 1, kept, places, overs, remaining, best, open);
+		long reached = result & REACHED;
+		open = result & ~REACHED;
+		int presentMask = masks[value];
+		// The sets of the hand searched here, and those after which it may keep the best.
+		int searched = 0;
+		int reaching = 0;
+		for (int mask = minMask; mask < 1 << Tile.COLOR_COUNT && open != 0; mask++) {
+			int count = Integer.bitCount(mask);
+			// A color without a copy of the value joins the set with the drawn tile.
+			int drawn = mask & ~presentMask;
+			if (count < 2 || Math.max(3, count) > places || Integer.bitCount(drawn) > 1
+					|| (drawn & drawnColors(open, value)) != drawn) {
+				continue;
+			}
+			int held = 1 << (mask & ~drawn);
+			if (drawn != 0 && (searched & held) != 0 && (reaching & held) == 0) {
+				continue;
+			}
+			int over = count == 2 && !drawable(colors, value, mask) ? 1 : 0;
+			int face = drawn == 0 ? -1 : Integer.numberOfTrailingZeros(drawn) * Tile.VALUE_COUNT + value;
+			int left = overs - over - (face < 0 ? 0 : weakened[face]);
+			if (left < 0) {
+				continue;
+			}
+			int weak = face < 0 && over == 0 && count == 2 ? weakColor(colors, value, mask) : -1;
+			int emptied = 0;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				if ((mask & ~drawn & (1 << color)) != 0) {
+					colors[color] -= OptimalHandEvaluator.POW3[value];
+					if (OptimalHandEvaluator.count(colors[color], value) == 0) {
+						emptied |= 1 << color;
+					}
+				}
+			}
+			masks[value] = presentMask & ~emptied;
+			if (face >= 0) {
+				if (searchSets(colors, masks, sizes, value, mask, kept + count, places - Math.max(3, count), left,
+						remaining - count + 1, best, best + 1) > best) {
+					open &= ~(1L << face);
+				}
+			} else {
+				if (weak >= 0) {
+					weakened[weak * Tile.VALUE_COUNT + value]++;
+				}
+				result = searchDraws(colors, masks, sizes, weakened, value, mask, kept + count, places - Math.max(3, count),
+						left, remaining - count, best, open);
+				if (weak >= 0) {
+					weakened[weak * Tile.VALUE_COUNT + value]--;
+				}
+				searched |= held;
+				if ((result & REACHED) != 0) {
+					reaching |= held;
+					reached = REACHED;
+				}
+				open = result & ~REACHED;
+			}
+			masks[value] = presentMask;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				if ((mask & ~drawn & (1 << color)) != 0) {
+					colors[color] += OptimalHandEvaluator.POW3[value];
+				}
+			}
+		}
+		return open | reached;
+	}
+
+	/**
+	 * Returns the colors whose face of a value is still open for the drawn tile.
+	 *
+	 * @param open  the faces of the drawn tile not known to keep more tiles
+	 * @param value the index of the value
+	 * @return the color mask
+	 */
+	private static int drawnColors(long open, int value) {
+		int mask = 0;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			mask |= (int) (open >>> (color * Tile.VALUE_COUNT + value) & 1) << color;
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the color from which alone a set of two colors draws its third tile when that
+	 * color holds one copy, since drawing the other copy of the face leaves the set without one.
+	 *
+	 * @param colors the count vector of each color, packed in base three
+	 * @param value  the index of the value of the set
+	 * @param mask   the colors of the set
+	 * @return the color, or -1 if no single draw takes the third tile away
+	 */
+	private static int weakColor(int[] colors, int value, int mask) {
+		int weak = -1;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			if ((mask & (1 << color)) == 0 && OptimalHandEvaluator.count(colors[color], value) < 2) {
+				if (weak >= 0 || OptimalHandEvaluator.count(colors[color], value) == 0) {
+					return -1;
+				}
+				weak = color;
+			}
+		}
+		return weak;
+	}
+
+	/**
+	 * Returns whether a set of two colors can draw its third tile, which needs a color outside
+	 * the set that does not hold both copies of the value.
+	 *
+	 * @param colors the count vector of each color, packed in base three
+	 * @param value  the index of the value of the set
+	 * @param mask   the colors of the set
+	 * @return true if the missing tile has a copy left
+	 */
+	private static boolean drawable(int[] colors, int value, int mask) {
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			if ((mask & (1 << color)) == 0 && OptimalHandEvaluator.count(colors[color], value) < 2) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Shares the places and the extra copies left by the sets between the colors so that they
+	 * keep the most tiles.
+	 *
+	 * @param colors the count vector of each color, packed in base three
+	 * @param sizes  scratch space for the most tiles kept in each number of places, for each
+	 *               number of extra copies
+	 * @param places the number of places left
+	 * @param overs  the number of extra copies left
+	 * @param bound  a number of kept tiles that is not worth combining the colors for
+	 * @return the most tiles the colors keep, or at most the bound when they cannot keep more
+	 */
+	private static int combineColors(int[] colors, int[] sizes, int places, int overs, int bound) {
+		// Each color taking every place and extra copy left gives a limit that needs no combining.
+		int limit = 0;
+		int last = -1;
+		for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+			if (colors[color] != 0) {
+				limit += kept(melds(colors[color], overs), places);
+				last = color;
+			}
+		}
+		if (last < 0 || Math.min(limit, places) <= bound) {
+			return Math.min(limit, places);
+		}
+		// Sizes above the reach keep as many tiles as the reach, and more extra copies than the
+		// colors so far can use keep as many tiles as the width, so neither is stored.
+		int reach = 0;
+		int width = 0;
+		for (int over = 0; over <= overs; over++) {
+			sizes[over * (TARGET + 1)] = 0;
+		}
+		for (int color = 0; color < last; color++) {
+			if (colors[color] == 0) {
+				continue;
+			}
+			int extra = extraCopies(colors[color], overs);
+			int top = Math.min(places, reach + full(melds(colors[color], extra)));
+			int wider = Math.min(overs, width + extra);
+			// Sizes are updated from the largest, so every smaller size still holds the colors before.
+			for (int size = top; size > 0; size--) {
+				for (int over = wider; over >= 0; over--) {
+					int best = sizes[Math.min(over, width) * (TARGET + 1) + Math.min(size, reach)];
+					for (int used = 0; used <= Math.min(over, extra); used++) {
+						long entry = melds(colors[color], used);
+						int row = Math.min(over - used, width) * (TARGET + 1);
+						for (int taken = 1; taken <= Math.min(size, full(entry)); taken++) {
+							best = Math.max(best, sizes[row + Math.min(size - taken, reach)] + kept(entry, taken));
+						}
+					}
+					sizes[over * (TARGET + 1) + size] = best;
+				}
+			}
+			reach = top;
+			width = wider;
+		}
+		// The last color only needs the size of every place and the extra copies left.
+		int best = sizes[Math.min(overs, width) * (TARGET + 1) + Math.min(places, reach)];
+		for (int used = 0; used <= extraCopies(colors[last], overs); used++) {
+			long entry = melds(colors[last], used);
+			int row = Math.min(overs - used, width) * (TARGET + 1);
+			for (int taken = 1; taken <= Math.min(places, full(entry)); taken++) {
+				best = Math.max(best, sizes[row + Math.min(places - taken, reach)] + kept(entry, taken));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the most extra copies worth giving to a color: none when they keep no more tiles.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 * @param overs  the number of extra copies left
+	 * @return the number of extra copies to try
+	 */
+	private static int extraCopies(int vector, int overs) {
+		while (overs > 0 && melds(vector, overs) == melds(vector, overs - 1)) {
+			overs--;
+		}
+		return overs;
+	}
+
+	/**
+	 * Returns the most tiles a packed table entry keeps in a number of places.
+	 *
+	 * @param entry the packed table entry
+	 * @param size  the number of places
+	 * @return the kept tiles
+	 */
+	private static int kept(long entry, int size) {
+		return (int) (entry >>> (size * SIZE_BITS)) & SIZE_MASK;
+	}
+
+	/**
+	 * Returns the smallest number of places in which a packed table entry keeps its most tiles.
+	 *
+	 * @param entry the packed table entry
+	 * @return the smallest full size
+	 */
+	private static int full(long entry) {
+		return (int) (entry >>> FULL_SHIFT);
+	}
+
+	/**
+	 * Returns the best partial melds of a count vector, sweeping the color on first use.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 * @param overs  the number of extra copies the color may use
+	 * @return the packed most kept tiles of each size and the smallest size keeping the most
+	 */
+	private static long melds(int vector, int overs) {
+		int index = vector * OVERS;
+		if (MELDS.getAcquire(index) == 0) {
+			sweep(vector);
+		}
+		return MELDS.getOpaque(index + overs);
+	}
+
+	/**
+	 * Finds the best partial melds of a color by sweeping its values from the lowest, and
+	 * stores them in the table. At every value the open series end or take a copy, new series
+	 * start, and the held copies may also form a pair, and the copies left are discarded. Held
+	 * copies are used before drawn ones, and a value is never drawn more often than its copies
+	 * missing from the hand, so a tile waits for its second copy only when the hand holds a
+	 * single copy. Every further use of the value is an extra copy.
+	 *
+	 * @param vector the count vector of the color, packed in base three
+	 */
+	private static void sweep(int vector) {
+		int[][][][] sweep = SWEEP.get();
+		int[][][] current = sweep[0];
+		int[][][] next = sweep[1];
+		for (int[][] overs : current) {
+			for (int[] sizes : overs) {
+				Arrays.fill(sizes, -1);
+			}
+		}
+		current[0][0][0] = 0;
+		int rest = vector;
+		for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+			int[][] moves = MOVES[rest % 3];
+			rest /= 3;
+			for (int[][] overs : next) {
+				for (int[] sizes : overs) {
+					Arrays.fill(sizes, -1);
+				}
+			}
+			for (int state = 0; state < OPEN_STATES; state++) {
+				for (int move : moves[state]) {
+					int kept = move >>> 4 & 0xF;
+					int places = move >>> 8 & 0xF;
+					int extra = move >>> 12;
+					for (int over = 0; over + extra < OVERS; over++) {
+						int[] sizes = current[state][over];
+						int[] target = next[move & 0xF][over + extra];
+						for (int size = 0; size + places <= TARGET; size++) {
+							if (sizes[size] >= 0 && sizes[size] + kept > target[size + places]) {
+								target[size + places] = sizes[size] + kept;
+							}
+						}
+					}
+				}
+			}
+			int[][][] swap = current;
+			current = next;
+			next = swap;
+		}
+		int index = vector * OVERS;
+		// The entry without extra copies is stored last, since it marks the vector as calculated.
+		for (int overs = OVER_LIMIT; overs >= 0; overs--) {
+			long entry = 0;
+			int best = 0;
+			int full = 0;
+			for (int size = 0; size <= TARGET; size++) {
+				for (int state = 0; state < OPEN_STATES; state++) {
+					if (FIRST_LENGTH[state] % 3 != 0 || SECOND_LENGTH[state] % 3 != 0) {
+						continue;
+					}
+					for (int over = 0; over <= overs; over++) {
+						if (current[state][over][size] > best) {
+							best = current[state][over][size];
+							full = size;
+						}
+					}
+				}
+				entry |= (long) best << (size * SIZE_BITS);
+			}
+			entry |= (long) full << FULL_SHIFT;
+			if (overs > 0) {
+				MELDS.setOpaque(index + overs, entry);
+			} else {
+				MELDS.setRelease(index, entry);
+			}
+		}
+	}
+
+	/**
+	 * Lists the moves from every open state over a value, for each number of held copies.
+	 *
+	 * @return the packed moves, indexed by the held copies and the open state
+	 */
+	private static int[][][] buildMoves() {
+		int[][][] moves = new int[3][OPEN_STATES][];
+		for (int held = 0; held <= 2; held++) {
+			for (int state = 0; state < OPEN_STATES; state++) {
+				int[] lengths = {FIRST_LENGTH[state], SECOND_LENGTH[state]};
+				int[] list = new int[32];
+				int count = 0;
+				// Each open series either takes a copy or ends, which needs three tiles.
+				for (int continued = 0; continued < 4; continued++) {
+					int first = (continued & 1) != 0 ? lengths[0] : 0;
+					int second = (continued & 2) != 0 ? lengths[1] : 0;
+					if (((continued & 1) != 0 && lengths[0] == 0) || ((continued & 2) != 0 && lengths[1] == 0)
+							|| ((continued & 1) == 0 && lengths[0] % 3 != 0) || ((continued & 2) == 0 && lengths[1] % 3 != 0)) {
+						continue;
+					}
+					int taken = Integer.bitCount(continued);
+					for (int started = 0; taken + started <= 2; started++) {
+						int[] open = {first == 0 ? 0 : Math.min(3, first + 1), second == 0 ? 0 : Math.min(3, second + 1)};
+						for (int i = 0; i < started; i++) {
+							open[open[0] == 0 ? 0 : 1] = 1;
+						}
+						// The held copies may also form a pair, with a drawn copy for a single one.
+						for (int pair = 0; pair <= (held > 0 ? 2 : 0); pair += 2) {
+							int copies = taken + started + pair;
+							list[count++] = move(open[0], open[1], Math.min(held, copies), copies, Math.max(0, copies - 2));
+						}
+					}
+				}
+				moves[held][state] = Arrays.copyOf(list, count);
+			}
+		}
+		return moves;
+	}
+
+	/**
+	 * Packs a move between open states.
+	 *
+	 * @param first  the length of one open series after the value, 0 for none
+	 * @param second the length of the other open series after the value, 0 for none
+	 * @param kept   the number of held copies kept at the value
+	 * @param places the number of places taken at the value
+	 * @param over   the number of extra copies taken at the value
+	 * @return the packed move
+	 */
+	private static int move(int first, int second, int kept, int places, int over) {
+		int state = 0;
+		while (FIRST_LENGTH[state] != Math.min(first, second) || SECOND_LENGTH[state] != Math.max(first, second)) {
+			state++;
+		}
+		return state | kept << 4 | places << 8 | over << 12;
+	}
+}
@@ -0,0 +1,162 @@
+package service;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import objects.OkeyGame;
+import objects.Player;
+import pipeline.HandFormat;
+import util.LatencyHistogram;
+
+public class LoadGenerator {
+
+	/**
+	 * Number of different request bodies sent in turn by every connection.
+	 */
+	private static final int BODY_COUNT = 256;
+
+	private final URI scoreUri;
+	private final int connections;
+	private final int handsPerRequest;
+
+	/**
+	 * Creates a load generator for a scoring server.
+	 *
+	 * @param baseUri         the address of the server, for example http://localhost:8080
+	 * @param connections     the number of client threads, each sending one request at a time
+	 *                        over its own kept-alive connection
+	 * @param handsPerRequest the number of hands sent in each request
+	 */
+	public LoadGenerator(URI baseUri, int connections, int handsPerRequest) {
+		if (connections < 1 || handsPerRequest < 1 || handsPerRequest > ScoringServer.MAX_REQUEST_HANDS) {
+			throw new IllegalArgumentException("Connection and hand counts must be positive");
+		}
+		this.scoreUri = baseUri.resolve("/score");
+		this.connections = connections;
+		this.handsPerRequest = handsPerRequest;
+	}
+
+	/**
+	 * Sends requests from every connection for the given time. The hands are dealt from real
+	 * games, so they have 14 or 15 tiles like the hands of a game server.
+	 *
+	 * @param durationNanos the length of the run
+	 * @param seed          the seed of the dealt hands
+	 * @return the merged statistics of the connections
+	 * @throws InterruptedException if the thread is interrupted while waiting for the clients
+	 */
+	public LoadStats run(long durationNanos, long seed) throws InterruptedException {
+		List<String> bodies = createBodies(seed);
+		HttpClient client = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		LoadStats stats = new LoadStats();
+		long start = System.nanoTime();
+		long deadline = start + durationNanos;
+		List<Thread> threads = new ArrayList<>(connections);
+		for (int i = 0; i < connections; i++) {
+			int offset = i;
+			Thread thread = new Thread(() -> sendUntil(client, bodies, offset, deadline, stats), "okey-load-" + (i + 1));
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		stats.setNanos(System.nanoTime() - start);
+		return stats;
+	}
+
+	/**
+	 * Runs the load generator and prints the statistics.
+	 *
+	 * @param durationNanos the length of the run
+	 * @param seed          the seed of the dealt hands
+	 * @param out           the stream to print to
+	 * @return the merged statistics of the connections
+	 * @throws InterruptedException if the thread is interrupted while waiting for the clients
+	 */
+	public LoadStats runAndReport(long durationNanos, long seed, PrintStream out) throws InterruptedException {
+		out.println(String.format("%s adresine %d baglanti ile istek basina %d el gonderiliyor (%.0f sn)...",
+				scoreUri, connections, handsPerRequest, durationNanos / 1e9));
+		LoadStats stats = run(durationNanos, seed);
+		out.print(stats);
+		return stats;
+	}
+
+	/**
+	 * Runs a client thread: sends the bodies in turn until the deadline and records the
+	 * latency of every answered request.
+	 *
+	 * @param client   the shared HTTP client, which keeps the connections alive
+	 * @param bodies   the request bodies
+	 * @param offset   the index of the first body sent by this client
+	 * @param deadline the time after which no new request is sent
+	 * @param stats    the statistics that receive the results of the client
+	 */
+	private void sendUntil(HttpClient client, List<String> bodies, int offset, long deadline, LoadStats stats) {
+		LatencyHistogram latency = new LatencyHistogram();
+		long requests = 0;
+		long shed = 0;
+		long failed = 0;
+		for (int i = offset; System.nanoTime() < deadline; i++) {
+			HttpRequest request = HttpRequest.newBuilder(scoreUri)
+					.POST(HttpRequest.BodyPublishers.ofString(bodies.get(i % bodies.size())))
+					.build();
+			long start = System.nanoTime();
+			try {
+				HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+				if (response.statusCode() == 200) {
+					latency.record(System.nanoTime() - start);
+					requests++;
+				} else if (response.statusCode() == 503) {
+					shed++;
+				} else {
+					failed++;
+				}
+			} catch (IOException e) {
+				failed++;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				break;
+			}
+		}
+		stats.addClient(requests, requests * handsPerRequest, shed, failed, latency);
+	}
+
+	/**
+	 * Deals games and writes their hands into request bodies, one hand per line.
+	 *
+	 * @param seed the seed of the games
+	 * @return the request bodies
+	 */
+	private List<String> createBodies(long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		// The hands are only dealt here, so they do not need to be scored.
+		OkeyGame game = new OkeyGame((hand, okeyTile) -> 0, random);
+		List<String> bodies = new ArrayList<>(BODY_COUNT);
+		List<Player> players = game.getPlayers();
+		int nextPlayer = OkeyGame.PLAYER_COUNT;
+		for (int i = 0; i < BODY_COUNT; i++) {
+			StringBuilder stringBuilder = new StringBuilder();
+			for (int hand = 0; hand < handsPerRequest; hand++) {
+				if (nextPlayer == OkeyGame.PLAYER_COUNT) {
+					game.redeal(random.nextLong());
+					nextPlayer = 0;
+				}
+				stringBuilder.append(HandFormat.format(players.get(nextPlayer++).getHand(), game.getOkeyTile())).append('\n');
+			}
+			bodies.add(stringBuilder.toString());
+		}
+		return bodies;
+	}
+}
@@ -0,0 +1,91 @@
+package service;
+
+import util.LatencyHistogram;
+
+public class LoadStats {
+	private long requests;
+	private long hands;
+	private long shedRequests;
+	private long failedRequests;
+	private final LatencyHistogram latency = new LatencyHistogram();
+	private long nanos;
+
+	/**
+	 * Adds the results of one client connection.
+	 *
+	 * @param requests       the number of answered requests
+	 * @param hands          the number of hands scored by the answered requests
+	 * @param shedRequests   the number of requests turned away by the server
+	 * @param failedRequests the number of requests that failed
+	 * @param latency        the durations of the answered requests
+	 */
+	synchronized void addClient(long requests, long hands, long shedRequests, long failedRequests, LatencyHistogram latency) {
+		this.requests += requests;
+		this.hands += hands;
+		this.shedRequests += shedRequests;
+		this.failedRequests += failedRequests;
+		this.latency.merge(latency);
+	}
+
+	/**
+	 * Sets the duration of the run.
+	 *
+	 * @param nanos the duration in nanoseconds
+	 */
+	synchronized void setNanos(long nanos) {
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the number of answered requests.
+	 *
+	 * @return the request count
+	 */
+	public synchronized long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Returns the number of requests turned away by the server.
+	 *
+	 * @return the shed request count
+	 */
+	public synchronized long getShedRequests() {
+		return shedRequests;
+	}
+
+	/**
+	 * Returns the number of requests answered per second.
+	 *
+	 * @return the request throughput
+	 */
+	public synchronized double getRequestsPerSecond() {
+		return nanos == 0 ? 0 : requests * 1e9 / nanos;
+	}
+
+	/**
+	 * Returns the value of a request latency percentile.
+	 *
+	 * @param percentile the percentile (0-100)
+	 * @return the request duration at the percentile, in nanoseconds
+	 */
+	public synchronized long getLatency(double percentile) {
+		return latency.getPercentile(percentile);
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string with the counts, the throughput and the latencies.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(String.format("Istek: %d, el: %d, reddedilen: %d, hatali: %d\n",
+				requests, hands, shedRequests, failedRequests));
+		stringBuilder.append(String.format("Sure: %.2f sn, Hiz: %.0f istek/sn, %.0f el/sn\n",
+				nanos / 1e9, getRequestsPerSecond(), nanos == 0 ? 0 : hands * 1e9 / nanos));
+		stringBuilder.append("Istek suresi: ").append(latency).append('\n');
+		return stringBuilder.toString();
+	}
+}
@@ -0,0 +1,385 @@
+package service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import objects.Tile;
+import pipeline.HandFormat;
+import scoring.HandEvaluator;
+
+public class ScoringServer implements Closeable {
+
+	/**
+	 * Largest number of hands accepted in one request.
+	 */
+	public static final int MAX_REQUEST_HANDS = 4096;
+
+	/**
+	 * Seconds a client is asked to wait before retrying a request that was turned away.
+	 */
+	private static final String RETRY_AFTER_SECONDS = "1";
+
+	private static final String CONTENT_TYPE = "text/plain; charset=utf-8";
+
+	static {
+		// The JDK server writes the headers and the body of a response separately. With Nagle's
+		// algorithm on, a kept-alive connection waits for the delayed ACK of the client, which
+		// adds about 40 ms to every small response.
+		if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		}
+	}
+
+	private final HandEvaluator handEvaluator;
+	private final int workers;
+	private final int queueCapacity;
+	private final int maxBatch;
+	private final long maxDelayNanos;
+	private final BlockingQueue<Request> pending = new LinkedBlockingQueue<>();
+	private final AtomicInteger queuedHands = new AtomicInteger();
+	private final Semaphore idleWorkers;
+	private final ServiceStats stats = new ServiceStats();
+	private HttpServer server;
+	private ExecutorService handlerPool;
+	private ExecutorService workerPool;
+	private Thread batcher;
+	private volatile boolean running;
+
+	/**
+	 * Creates a server that scores hands with the given evaluator.
+	 *
+	 * @param handEvaluator the evaluator shared by every worker thread
+	 * @param workers       the number of worker threads that score the micro-batches
+	 * @param queueCapacity the maximum number of hands accepted but not yet answered; requests
+	 *                      beyond it are turned away with 503
+	 * @param maxBatch      the number of hands after which a micro-batch is closed
+	 * @param maxDelayNanos the longest time a micro-batch waits for more requests once it holds
+	 *                      its first request
+	 */
+	public ScoringServer(HandEvaluator handEvaluator, int workers, int queueCapacity, int maxBatch, long maxDelayNanos) {
+		if (workers < 1 || queueCapacity < 1 || maxBatch < 1 || maxDelayNanos < 0) {
+			throw new IllegalArgumentException("Worker, queue and batch sizes must be positive");
+		}
+		this.handEvaluator = handEvaluator;
+		this.workers = workers;
+		this.queueCapacity = queueCapacity;
+		this.maxBatch = maxBatch;
+		this.maxDelayNanos = maxDelayNanos;
+		idleWorkers = new Semaphore(workers);
+	}
+
+	/**
+	 * Starts listening on the given address. POST /score takes one hand per line in the format
+	 * of {@link HandFormat} and answers one line per hand: the score, or "HATA" followed by the
+	 * reason. GET /stats answers the statistics of the server. Connections are kept alive
+	 * between requests.
+	 *
+	 * @param address the address to listen on; port 0 picks a free port
+	 * @return the address the server listens on
+	 * @throws IOException if the server cannot be bound
+	 */
+	public synchronized InetSocketAddress start(InetSocketAddress address) throws IOException {
+		if (server != null) {
+			throw new IllegalStateException("Server already started");
+		}
+		server = HttpServer.create(address, 1024);
+		server.createContext("/score", this::handleScore);
+		server.createContext("/stats", this::handleStats);
+		handlerPool = Executors.newFixedThreadPool(workers, daemonThreads("okey-http"));
+		workerPool = Executors.newFixedThreadPool(workers, daemonThreads("okey-score-worker"));
+		server.setExecutor(handlerPool);
+		running = true;
+		batcher = new Thread(this::batch, "okey-batcher");
+		batcher.setDaemon(true);
+		batcher.start();
+		server.start();
+		return server.getAddress();
+	}
+
+	/**
+	 * Stops the server. Requests still waiting in the queue are answered with 503.
+	 */
+	@Override
+	public synchronized void close() {
+		if (server == null || !running) {
+			return;
+		}
+		running = false;
+		server.stop(0);
+		batcher.interrupt();
+		try {
+			batcher.join();
+			workerPool.shutdown();
+			workerPool.awaitTermination(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		Request request;
+		while ((request = pending.poll()) != null) {
+			shed(request.exchange);
+		}
+		handlerPool.shutdown();
+	}
+
+	/**
+	 * Returns the statistics of the server.
+	 *
+	 * @return the live statistics, which keep changing while the server runs
+	 */
+	public ServiceStats getStats() {
+		return stats;
+	}
+
+	/**
+	 * Parses a scoring request and queues it, or turns it away if the queue is full. The answer
+	 * is sent later by the worker that scores the request.
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the request cannot be read
+	 */
+	private void handleScore(HttpExchange exchange) throws IOException {
+		long start = System.nanoTime();
+		if (!exchange.getRequestMethod().equals("POST")) {
+			stats.addRejectedRequest();
+			respond(exchange, 405, "Sadece POST kabul edilir\n");
+			return;
+		}
+		String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+		Request request;
+		try {
+			request = Request.parse(exchange, body, start);
+		} catch (IllegalArgumentException e) {
+			stats.addRejectedRequest();
+			respond(exchange, 413, e.getMessage() + "\n");
+			return;
+		}
+		// Hands are counted from acceptance until the answer is sent, so the bound also covers
+		// the batches the workers are scoring.
+		if (queuedHands.addAndGet(request.size) > queueCapacity || !running) {
+			queuedHands.addAndGet(-request.size);
+			shed(exchange);
+			return;
+		}
+		pending.add(request);
+	}
+
+	/**
+	 * Answers the statistics of the server.
+	 *
+	 * @param exchange the request and its response
+	 * @throws IOException if the response cannot be written
+	 */
+	private void handleStats(HttpExchange exchange) throws IOException {
+		exchange.getRequestBody().readAllBytes();
+		respond(exchange, 200, stats.toString());
+	}
+
+	/**
+	 * Runs the batcher thread: waits for an idle worker, coalesces the queued requests into a
+	 * micro-batch of about {@code maxBatch} hands and hands it to the worker. While every worker
+	 * is busy the requests pile up in the queue, so batches grow with the load.
+	 */
+	private void batch() {
+		try {
+			while (running) {
+				idleWorkers.acquire();
+				List<Request> batch = collectBatch();
+				if (batch.isEmpty()) {
+					idleWorkers.release();
+					continue;
+				}
+				workerPool.execute(() -> {
+					try {
+						score(batch);
+					} finally {
+						idleWorkers.release();
+					}
+				});
+			}
+		} catch (InterruptedException e) {
+			// The server is stopping.
+		}
+	}
+
+	/**
+	 * Takes the requests of the next micro-batch from the queue. After the first request, the
+	 * batch waits at most {@code maxDelayNanos} for more requests until it holds
+	 * {@code maxBatch} hands. If the thread is interrupted, the requests taken so far are
+	 * returned and the interrupt is kept for the caller.
+	 *
+	 * @return the requests of the batch, or an empty list if none arrived for a while
+	 */
+	private List<Request> collectBatch() {
+		List<Request> batch = new ArrayList<>();
+		try {
+			Request first = pending.poll(100, TimeUnit.MILLISECONDS);
+			if (first == null) {
+				return batch;
+			}
+			batch.add(first);
+			int hands = first.size;
+			long deadline = System.nanoTime() + maxDelayNanos;
+			while (hands < maxBatch) {
+				Request next = pending.poll();
+				if (next == null) {
+					long wait = deadline - System.nanoTime();
+					if (wait <= 0 || (next = pending.poll(wait, TimeUnit.NANOSECONDS)) == null) {
+						break;
+					}
+				}
+				batch.add(next);
+				hands += next.size;
+			}
+			stats.addBatch(hands);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return batch;
+	}
+
+	/**
+	 * Scores the hands of a micro-batch and answers each of its requests.
+	 *
+	 * @param batch the requests of the batch
+	 */
+	private void score(List<Request> batch) {
+		for (Request request : batch) {
+			StringBuilder stringBuilder = new StringBuilder(request.size * 4);
+			int invalid = 0;
+			for (int i = 0; i < request.size; i++) {
+				if (request.errors[i] != null) {
+					stringBuilder.append("HATA ").append(request.errors[i]).append('\n');
+					invalid++;
+				} else {
+					stringBuilder.append(handEvaluator.evaluate(request.hands.get(i), request.okeyTiles[i])).append('\n');
+				}
+			}
+			try {
+				respond(request.exchange, 200, stringBuilder.toString());
+			} catch (IOException e) {
+				// The client is gone; the connection is closed by respond.
+			}
+			queuedHands.addAndGet(-request.size);
+			stats.addRequest(request.size, invalid, System.nanoTime() - request.start);
+		}
+	}
+
+	/**
+	 * Turns a request away because the queue is full.
+	 *
+	 * @param exchange the request and its response
+	 */
+	private void shed(HttpExchange exchange) {
+		stats.addShedRequest();
+		exchange.getResponseHeaders().set("Retry-After", RETRY_AFTER_SECONDS);
+		try {
+			respond(exchange, 503, "Sunucu mesgul\n");
+		} catch (IOException e) {
+			// The client is gone; the connection is closed by respond.
+		}
+	}
+
+	/**
+	 * Sends a text response with a fixed length, which keeps the connection reusable.
+	 *
+	 * @param exchange the request and its response
+	 * @param status   the HTTP status code
+	 * @param text     the body of the response
+	 * @throws IOException if the response cannot be written
+	 */
+	private static void respond(HttpExchange exchange, int status, String text) throws IOException {
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		try {
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+			if (bytes.length > 0) {
+				try (OutputStream out = exchange.getResponseBody()) {
+					out.write(bytes);
+				}
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Returns a factory of named daemon threads, so that a running server does not keep the
+	 * JVM alive on its own.
+	 *
+	 * @param name the prefix of the thread names
+	 * @return the thread factory
+	 */
+	private static ThreadFactory daemonThreads(String name) {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+
+	private static final class Request {
+		final HttpExchange exchange;
+		final long start;
+		final int size;
+		final List<List<Tile>> hands;
+		final Tile[] okeyTiles;
+		final String[] errors;
+
+		private Request(HttpExchange exchange, long start, List<String> lines) {
+			this.exchange = exchange;
+			this.start = start;
+			size = lines.size();
+			hands = new ArrayList<>(size);
+			okeyTiles = new Tile[size];
+			errors = new String[size];
+			for (int i = 0; i < size; i++) {
+				List<Tile> hand = new ArrayList<>(15);
+				try {
+					okeyTiles[i] = HandFormat.parse(lines.get(i), hand);
+				} catch (IllegalArgumentException e) {
+					errors[i] = e.getMessage();
+				}
+				hands.add(hand);
+			}
+		}
+
+		/**
+		 * Parses the body of a scoring request, one hand per line. Empty lines are skipped.
+		 *
+		 * @param exchange the request and its response
+		 * @param body     the body of the request
+		 * @param start    the arrival time of the request
+		 * @return the parsed request
+		 * @throws IllegalArgumentException if the request holds more than {@link #MAX_REQUEST_HANDS} hands
+		 */
+		static Request parse(HttpExchange exchange, String body, long start) {
+			List<String> lines = new ArrayList<>();
+			for (String line : body.split("\r?\n")) {
+				if (!line.isBlank()) {
+					if (lines.size() == MAX_REQUEST_HANDS) {
+						throw new IllegalArgumentException("Istekte en fazla " + MAX_REQUEST_HANDS + " el olabilir");
+					}
+					lines.add(line);
+				}
+			}
+			return new Request(exchange, start, lines);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package service;
+
+import util.LatencyHistogram;
+
+public class ServiceStats {
+	private long requests;
+	private long hands;
+	private long invalidHands;
+	private long shedRequests;
+	private long rejectedRequests;
+	private long batches;
+	private long batchedHands;
+	private int largestBatch;
+	private final LatencyHistogram latency = new LatencyHistogram();
+
+	/**
+	 * Counts an answered request.
+	 *
+	 * @param hands        the number of lines of the request
+	 * @param invalidHands the number of lines that were not valid hands
+	 * @param nanos        the time from the arrival of the request until its answer was sent
+	 */
+	synchronized void addRequest(int hands, int invalidHands, long nanos) {
+		requests++;
+		this.hands += hands;
+		this.invalidHands += invalidHands;
+		latency.record(nanos);
+	}
+
+	/**
+	 * Counts a request that was turned away because the queue was full.
+	 */
+	synchronized void addShedRequest() {
+		shedRequests++;
+	}
+
+	/**
+	 * Counts a request that was refused because it was malformed or too large.
+	 */
+	synchronized void addRejectedRequest() {
+		rejectedRequests++;
+	}
+
+	/**
+	 * Counts a micro-batch handed to the workers.
+	 *
+	 * @param hands the number of hands in the batch
+	 */
+	synchronized void addBatch(int hands) {
+		batches++;
+		batchedHands += hands;
+		largestBatch = Math.max(largestBatch, hands);
+	}
+
+	/**
+	 * Returns the number of answered requests.
+	 *
+	 * @return the request count
+	 */
+	public synchronized long getRequests() {
+		return requests;
+	}
+
+	/**
+	 * Returns the number of scored hands.
+	 *
+	 * @return the hand count
+	 */
+	public synchronized long getHands() {
+		return hands;
+	}
+
+	/**
+	 * Returns the number of requests turned away because the queue was full.
+	 *
+	 * @return the shed request count
+	 */
+	public synchronized long getShedRequests() {
+		return shedRequests;
+	}
+
+	/**
+	 * Returns the average number of hands in a micro-batch.
+	 *
+	 * @return the average batch size
+	 */
+	public synchronized double getAverageBatch() {
+		return batches == 0 ? 0 : (double) batchedHands / batches;
+	}
+
+	/**
+	 * Returns the value of a request latency percentile.
+	 *
+	 * @param percentile the percentile (0-100)
+	 * @return the request duration at the percentile, in nanoseconds
+	 */
+	public synchronized long getLatency(double percentile) {
+		return latency.getPercentile(percentile);
+	}
+
+	/**
+	 * Returns a string representation of the statistics.
+	 *
+	 * @return A string with the counts, the batch sizes and the latencies.
+	 */
+	@Override
+	public synchronized String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(String.format("Istek: %d, el: %d (hatali: %d), reddedilen: %d, gecersiz istek: %d\n",
+				requests, hands, invalidHands, shedRequests, rejectedRequests));
+		stringBuilder.append(String.format("Toplu is: %d, ortalama %.1f el, en buyuk %d el\n",
+				batches, getAverageBatch(), largestBatch));
+		stringBuilder.append("Istek suresi: ").append(latency).append('\n');
+		return stringBuilder.toString();
+	}
+}
@@ -0,0 +1,257 @@
+package simulation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import rules.RuleSet;
+import scoring.HandEvaluator;
+import storage.GameLogWriter;
+import storage.GameRecord;
+import util.FastRandom;
+
+public class BatchSimulator {
+
+	/**
+	 * Number of games dealt from one random number stream. The games are split into chunks of
+	 * this size no matter how many threads are used, so the results only depend on the seed.
+	 */
+	public static final int CHUNK_SIZE = 4096;
+
+	private final RuleSet rules;
+	private final HandEvaluator handEvaluator;
+	private final int parallelism;
+
+	/**
+	 * Creates a simulator that deals standard hands and scores them with the given evaluator.
+	 *
+	 * @param handEvaluator the evaluator used to calculate the scores, shared by every worker
+	 * @param parallelism   the number of worker threads
+	 */
+	public BatchSimulator(HandEvaluator handEvaluator, int parallelism) {
+		this(RuleSet.STANDARD, handEvaluator, parallelism);
+	}
+
+	/**
+	 * Creates a simulator that deals and scores hands with a rule set.
+	 *
+	 * @param rules       the rule set of the games
+	 * @param parallelism the number of worker threads
+	 */
+	public BatchSimulator(RuleSet rules, int parallelism) {
+		this(rules, rules.getEvaluator(), parallelism);
+	}
+
+	/**
+	 * Creates a simulator that deals hands with a rule set and scores them with the given evaluator.
+	 *
+	 * @param rules         the rule set of the games
+	 * @param handEvaluator the evaluator used to calculate the scores, shared by every worker
+	 * @param parallelism   the number of worker threads
+	 */
+	private BatchSimulator(RuleSet rules, HandEvaluator handEvaluator, int parallelism) {
+		this.rules = rules;
+		this.handEvaluator = handEvaluator;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Deals and scores the given number of games on all worker threads.
+	 *
+	 * @param games      the number of games to play
+	 * @param masterSeed the seed from which the random number stream of every chunk is derived
+	 * @return the merged statistics of the games
+	 */
+	public SimulationStats run(long games, long masterSeed) {
+		return simulate(games, masterSeed, null);
+	}
+
+	/**
+	 * Deals and scores the given number of games and writes every game to a game log. Each chunk
+	 * writes its records at their own place in the file, so the log is in game order and does
+	 * not depend on the number of threads.
+	 *
+	 * @param games      the number of games to play
+	 * @param masterSeed the seed from which the random number stream of every chunk is derived
+	 * @param log        the log that receives the games
+	 * @return the merged statistics of the games
+	 * @throws IOException if the log cannot be written
+	 * @throws IllegalArgumentException if the rules are not the standard ones, whose hands the log holds
+	 */
+	public SimulationStats run(long games, long masterSeed, GameLogWriter log) throws IOException {
+		if (!rules.isPlayable()) {
+			throw new IllegalArgumentException("Game logs hold hands of the standard rules only: " + rules.getName());
+		}
+		try {
+			return simulate(games, masterSeed, log);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Plays the chunks of the simulation on the worker threads.
+	 *
+	 * @param games      the number of games to play
+	 * @param masterSeed the seed of the simulation
+	 * @param log        the log that receives the games, or null
+	 * @return the merged statistics of the games
+	 */
+	private SimulationStats simulate(long games, long masterSeed, GameLogWriter log) {
+		long chunks = (games + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new ChunkTask(0, chunks, games, masterSeed, log));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Runs the simulation and prints the statistics and the throughput.
+	 *
+	 * @param games      the number of games to play
+	 * @param masterSeed the seed of the simulation
+	 * @param out        the stream to print to
+	 * @return the merged statistics of the games
+	 */
+	public SimulationStats runAndReport(long games, long masterSeed, PrintStream out) {
+		try {
+			return runAndReport(games, masterSeed, null, out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Runs the simulation, writing every game to a game log, and prints the statistics and the throughput.
+	 *
+	 * @param games      the number of games to play
+	 * @param masterSeed the seed of the simulation
+	 * @param log        the log that receives the games, or null
+	 * @param out        the stream to print to
+	 * @return the merged statistics of the games
+	 * @throws IOException if the log cannot be written
+	 */
+	public SimulationStats runAndReport(long games, long masterSeed, GameLogWriter log, PrintStream out) throws IOException {
+		out.println(String.format("%d oyun %d is parcacigi ile oynaniyor (tohum: %d)...", games, parallelism, masterSeed));
+		long start = System.nanoTime();
+		SimulationStats stats = log == null ? run(games, masterSeed) : run(games, masterSeed, log);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		out.print(stats);
+		out.println(String.format("Sure: %.2f sn, Hiz: %.0f oyun/sn", seconds, games / seconds));
+		return stats;
+	}
+
+	/**
+	 * Plays the games of one chunk with its own random number stream. The chunk reuses one game,
+	 * deck and set of players, which are redealt from a new seed for every game.
+	 *
+	 * @param chunk      the index of the chunk
+	 * @param games      the total number of games
+	 * @param masterSeed the seed of the simulation
+	 * @param log        the log that receives the games, or null
+	 * @return the statistics of the chunk
+	 */
+	SimulationStats playChunk(long chunk, long games, long masterSeed, GameLogWriter log) {
+		SimulationStats stats = newStats();
+		SplittableRandom random = new SplittableRandom(chunkSeed(masterSeed, chunk));
+		OkeyGame okeyGame = new OkeyGame(handEvaluator, random);
+		okeyGame.setRules(rules);
+		okeyGame.setHandEvaluator(handEvaluator);
+		long first = chunk * CHUNK_SIZE;
+		long end = Math.min(games, first + CHUNK_SIZE);
+		ByteBuffer block = log == null ? null : GameLogWriter.allocateBlock((int) (end - first));
+		for (long game = first; game < end; game++) {
+			long seed = random.nextLong();
+			okeyGame.redeal(seed);
+			int scoreWithoutExtraTile = scoreWithoutExtraTile(okeyGame);
+			stats.addGame(okeyGame, scoreWithoutExtraTile);
+			if (block != null) {
+				GameRecord.write(block, (int) (game - first) * GameRecord.SIZE, okeyGame, seed, scoreWithoutExtraTile);
+			}
+		}
+		if (block != null) {
+			try {
+				log.writeBlock(first, block, (int) (end - first));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return stats;
+	}
+
+	/**
+	 * Calculates the score the first player would have without the 15th tile.
+	 *
+	 * @param game the dealt game
+	 * @return the score of the first 14 tiles of the first player
+	 */
+	private int scoreWithoutExtraTile(OkeyGame game) {
+		Player firstPlayer = game.getPlayers().get(game.getFirstPlayerIndex());
+		List<Tile> hand = firstPlayer.getHand();
+		int index = hand.indexOf(game.getExtraTile());
+		hand.remove(index);
+		int score = handEvaluator.evaluate(hand, game.getOkeyTile());
+		hand.add(index, game.getExtraTile());
+		return score;
+	}
+
+	/**
+	 * Creates empty statistics sized for the scores of the rules.
+	 *
+	 * @return the statistics
+	 */
+	private SimulationStats newStats() {
+		return new SimulationStats(rules.getMaxScore(), rules.getTargetScore());
+	}
+
+	/**
+	 * Derives the seed of a chunk from the master seed.
+	 *
+	 * @param masterSeed the seed of the simulation
+	 * @param chunk      the index of the chunk
+	 * @return the seed of the chunk
+	 */
+	static long chunkSeed(long masterSeed, long chunk) {
+		return FastRandom.mix(masterSeed + (chunk + 1) * 0x9E3779B97F4A7C15L);
+	}
+
+	@SuppressWarnings("serial")
+	private class ChunkTask extends RecursiveTask<SimulationStats> {
+		private final long fromChunk;
+		private final long toChunk;
+		private final long games;
+		private final long masterSeed;
+		private final GameLogWriter log;
+
+		ChunkTask(long fromChunk, long toChunk, long games, long masterSeed, GameLogWriter log) {
+			this.fromChunk = fromChunk;
+			this.toChunk = toChunk;
+			this.games = games;
+			this.masterSeed = masterSeed;
+			this.log = log;
+		}
+
+		@Override
+		protected SimulationStats compute() {
+			if (toChunk - fromChunk <= 1) {
+				return fromChunk < toChunk ? playChunk(fromChunk, games, masterSeed, log) : newStats();
+			}
+			long middle = (fromChunk + toChunk) >>> 1;
+			ChunkTask left = new ChunkTask(fromChunk, middle, games, masterSeed, log);
+			ChunkTask right = new ChunkTask(middle, toChunk, games, masterSeed, log);
+			left.fork();
+			SimulationStats stats = right.compute();
+			return stats.merge(left.join());
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package simulation;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.LongAdder;
+
+import objects.OkeyGame;
+import objects.Tile;
+import scoring.HandEvaluator;
+import storage.GameLogReader;
+import storage.GameRecord;
+
+public class LogRescorer {
+
+	/**
+	 * Number of records scored by one task.
+	 */
+	static final int BLOCK_SIZE = 4096;
+
+	private final HandEvaluator handEvaluator;
+	private final int parallelism;
+	private final LongAdder mismatches = new LongAdder();
+
+	/**
+	 * Creates a rescorer that scores the stored hands with the given evaluator.
+	 *
+	 * @param handEvaluator the evaluator shared by every worker
+	 * @param parallelism   the number of worker threads
+	 */
+	public LogRescorer(HandEvaluator handEvaluator, int parallelism) {
+		this.handEvaluator = handEvaluator;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Scores every hand of a game log again and collects the statistics of the new scores.
+	 * Hands whose new score differs from the stored one are counted as mismatches.
+	 *
+	 * @param reader the game log
+	 * @return the statistics of the rescored games
+	 */
+	public SimulationStats rescore(GameLogReader reader) {
+		long blocks = (reader.size() + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			return pool.invoke(new BlockTask(reader, 0, blocks));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Rescores a game log and prints the statistics, the mismatches and the throughput.
+	 *
+	 * @param reader the game log
+	 * @param out    the stream to print to
+	 * @return the statistics of the rescored games
+	 */
+	public SimulationStats rescoreAndReport(GameLogReader reader, PrintStream out) {
+		out.println(String.format("%d oyun %d is parcacigi ile yeniden puanlaniyor...", reader.size(), parallelism));
+		long start = System.nanoTime();
+		SimulationStats stats = rescore(reader);
+		double seconds = (System.nanoTime() - start) / 1e9;
+		out.print(stats);
+		out.println(String.format("Farkli skor: %d", getMismatches()));
+		out.println(String.format("Sure: %.2f sn, Hiz: %.0f oyun/sn", seconds, reader.size() / seconds));
+		return stats;
+	}
+
+	/**
+	 * Returns the number of hands whose new score differed from the stored score.
+	 *
+	 * @return the mismatch count
+	 */
+	public long getMismatches() {
+		return mismatches.sum();
+	}
+
+	/**
+	 * Rescores the records of one block.
+	 *
+	 * @param reader the game log
+	 * @param block  the index of the block
+	 * @return the statistics of the block
+	 */
+	SimulationStats rescoreBlock(GameLogReader reader, long block) {
+		SimulationStats stats = new SimulationStats();
+		GameRecord record = new GameRecord();
+		ArrayList<Tile> hand = new ArrayList<>(OkeyGame.TILE_PER_HAND + 1);
+		int[] scores = new int[OkeyGame.PLAYER_COUNT];
+		long end = Math.min(reader.size(), (block + 1) * BLOCK_SIZE);
+		int blockMismatches = 0;
+		for (long index = block * BLOCK_SIZE; index < end; index++) {
+			reader.get(index, record);
+			Tile okeyTile = record.getOkeyTile();
+			int firstPlayerIndex = record.getFirstPlayerIndex();
+			int scoreWithoutExtraTile = 0;
+			for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+				record.readHand(seat, hand);
+				scores[seat] = handEvaluator.evaluate(hand, okeyTile);
+				if (scores[seat] != record.getScore(seat)) {
+					blockMismatches++;
+				}
+				if (seat == firstPlayerIndex) {
+					hand.remove(record.getExtraTile());
+					scoreWithoutExtraTile = handEvaluator.evaluate(hand, okeyTile);
+				}
+			}
+			stats.addGame(scores, firstPlayerIndex, scoreWithoutExtraTile);
+		}
+		mismatches.add(blockMismatches);
+		return stats;
+	}
+
+	@SuppressWarnings("serial")
+	private class BlockTask extends RecursiveTask<SimulationStats> {
+		private final GameLogReader reader;
+		private final long fromBlock;
+		private final long toBlock;
+
+		BlockTask(GameLogReader reader, long fromBlock, long toBlock) {
+			this.reader = reader;
+			this.fromBlock = fromBlock;
+			this.toBlock = toBlock;
+		}
+
+		@Override
+		protected SimulationStats compute() {
+			if (toBlock - fromBlock <= 1) {
+				return fromBlock < toBlock ? rescoreBlock(reader, fromBlock) : new SimulationStats();
+			}
+			long middle = (fromBlock + toBlock) >>> 1;
+			BlockTask left = new BlockTask(reader, fromBlock, middle);
+			BlockTask right = new BlockTask(reader, middle, toBlock);
+			left.fork();
+			SimulationStats stats = right.compute();
+			return stats.merge(left.join());
+		}
+	}
+}
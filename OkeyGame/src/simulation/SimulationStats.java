@@ -0,0 +1,260 @@
+package simulation;
+
+import java.util.Arrays;
+
+import objects.OkeyGame;
+
+public class SimulationStats {
+
+	public static final int MAX_SCORE = OkeyGame.TILE_PER_HAND + 1;
+
+	/**
+	 * Wins are shared between tied players in units of 1/12, which divides evenly among
+	 * one to four players and keeps the shares exact.
+	 */
+	public static final int WIN_UNITS = 12;
+
+	private final int targetScore;
+	private long games;
+	private final long[] firstPlayerScores;
+	private final long[] otherPlayerScores;
+	private final long[] extraTileGains;
+	private final long[] seatWins = new long[OkeyGame.PLAYER_COUNT];
+	private final long[] seatScores = new long[OkeyGame.PLAYER_COUNT];
+	private long firstPlayerWins;
+	private long firstPlayerTargets;
+	private long otherPlayerTargets;
+	private final int[] gameScores = new int[OkeyGame.PLAYER_COUNT];
+
+	/**
+	 * Creates empty statistics of games with the standard rules.
+	 */
+	public SimulationStats() {
+		this(MAX_SCORE, OkeyGame.TILE_PER_HAND);
+	}
+
+	/**
+	 * Creates empty statistics of games whose hands score up to the given score.
+	 *
+	 * @param maxScore    the highest score of a dealt hand
+	 * @param targetScore the score at which a hand is finished
+	 */
+	public SimulationStats(int maxScore, int targetScore) {
+		this.targetScore = targetScore;
+		firstPlayerScores = new long[maxScore + 1];
+		otherPlayerScores = new long[maxScore + 1];
+		extraTileGains = new long[maxScore + 1];
+	}
+
+	/**
+	 * Adds the result of a dealt and scored game.
+	 *
+	 * @param game the finished game
+	 * @param scoreWithoutExtraTile the score of the first player's hand without the 15th tile
+	 */
+	public void addGame(OkeyGame game, int scoreWithoutExtraTile) {
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			gameScores[seat] = game.getPlayers().get(seat).getScore();
+		}
+		addGame(gameScores, game.getFirstPlayerIndex(), scoreWithoutExtraTile);
+	}
+
+	/**
+	 * Adds the result of a game given by the scores of its seats.
+	 *
+	 * @param scores                the score of each seat
+	 * @param firstPlayerIndex      the seat of the player who received the 15th tile
+	 * @param scoreWithoutExtraTile the score of the first player's hand without the 15th tile
+	 */
+	public void addGame(int[] scores, int firstPlayerIndex, int scoreWithoutExtraTile) {
+		int bestScore = -1;
+		int winners = 0;
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			int score = scores[seat];
+			seatScores[seat] += score;
+			if (seat == firstPlayerIndex) {
+				firstPlayerScores[score]++;
+				if (score >= targetScore) {
+					firstPlayerTargets++;
+				}
+			} else {
+				otherPlayerScores[score]++;
+				if (score >= targetScore) {
+					otherPlayerTargets++;
+				}
+			}
+			if (score > bestScore) {
+				bestScore = score;
+				winners = 1;
+			} else if (score == bestScore) {
+				winners++;
+			}
+		}
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			if (scores[seat] == bestScore) {
+				seatWins[seat] += WIN_UNITS / winners;
+				if (seat == firstPlayerIndex) {
+					firstPlayerWins += WIN_UNITS / winners;
+				}
+			}
+		}
+		extraTileGains[Math.max(0, scores[firstPlayerIndex] - scoreWithoutExtraTile)]++;
+		games++;
+	}
+
+	/**
+	 * Adds the counters of another result to this one. Merging is exact, so the merged result
+	 * does not depend on how the games were split between workers.
+	 *
+	 * @param other the result to merge
+	 * @return this result
+	 */
+	public SimulationStats merge(SimulationStats other) {
+		games += other.games;
+		firstPlayerWins += other.firstPlayerWins;
+		firstPlayerTargets += other.firstPlayerTargets;
+		otherPlayerTargets += other.otherPlayerTargets;
+		add(firstPlayerScores, other.firstPlayerScores);
+		add(otherPlayerScores, other.otherPlayerScores);
+		add(extraTileGains, other.extraTileGains);
+		add(seatWins, other.seatWins);
+		add(seatScores, other.seatScores);
+		return this;
+	}
+
+	/**
+	 * Adds the elements of an array to another.
+	 *
+	 * @param target the array to add to
+	 * @param source the array to add
+	 */
+	private static void add(long[] target, long[] source) {
+		for (int i = 0; i < target.length; i++) {
+			target[i] += source[i];
+		}
+	}
+
+	/**
+	 * Returns the number of games.
+	 *
+	 * @return the game count
+	 */
+	public long getGames() {
+		return games;
+	}
+
+	/**
+	 * Returns the histogram of the first players' scores.
+	 *
+	 * @return the number of first players with each score
+	 */
+	public long[] getFirstPlayerScores() {
+		return firstPlayerScores.clone();
+	}
+
+	/**
+	 * Returns the histogram of the other players' scores.
+	 *
+	 * @return the number of other players with each score
+	 */
+	public long[] getOtherPlayerScores() {
+		return otherPlayerScores.clone();
+	}
+
+	/**
+	 * Returns the histogram of the score gained by the first players' 15th tile.
+	 *
+	 * @return the number of games with each gain
+	 */
+	public long[] getExtraTileGains() {
+		return extraTileGains.clone();
+	}
+
+	/**
+	 * Returns the share of the games won by a seat. Tied players share the win.
+	 *
+	 * @param seat the index of the seat
+	 * @return the win share of the seat
+	 */
+	public double getWinShare(int seat) {
+		return games == 0 ? 0 : (double) seatWins[seat] / (games * WIN_UNITS);
+	}
+
+	/**
+	 * Returns the share of the games won by the first player.
+	 *
+	 * @return the win share of the first player
+	 */
+	public double getFirstPlayerWinShare() {
+		return games == 0 ? 0 : (double) firstPlayerWins / (games * WIN_UNITS);
+	}
+
+	/**
+	 * Returns the share of the first players' dealt hands that reach the target score.
+	 *
+	 * @return the share of the first players' hands at the target
+	 */
+	public double getFirstPlayerTargetShare() {
+		return games == 0 ? 0 : (double) firstPlayerTargets / games;
+	}
+
+	/**
+	 * Returns the share of the other players' dealt hands that reach the target score.
+	 *
+	 * @return the share of the other players' hands at the target
+	 */
+	public double getOtherPlayerTargetShare() {
+		return games == 0 ? 0 : (double) otherPlayerTargets / (games * (OkeyGame.PLAYER_COUNT - 1));
+	}
+
+	/**
+	 * Returns the average score of a seat.
+	 *
+	 * @param seat the index of the seat
+	 * @return the average score of the seat
+	 */
+	public double getAverageScore(int seat) {
+		return games == 0 ? 0 : (double) seatScores[seat] / games;
+	}
+
+	/**
+	 * Returns the average of a score histogram.
+	 *
+	 * @param histogram the number of hands with each score
+	 * @return the average score
+	 */
+	public static double average(long[] histogram) {
+		long count = 0;
+		long sum = 0;
+		for (int score = 0; score < histogram.length; score++) {
+			count += histogram[score];
+			sum += score * histogram[score];
+		}
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns a string representation of the result.
+	 *
+	 * @return A string representing the aggregated statistics.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder stringBuilder = new StringBuilder();
+		stringBuilder.append(String.format("Oyun sayisi: %d\n", games));
+		stringBuilder.append(String.format("Ilk oyuncu skorlari: %s (Ortalama: %.3f)\n",
+				Arrays.toString(firstPlayerScores), average(firstPlayerScores)));
+		stringBuilder.append(String.format("Diger oyuncu skorlari: %s (Ortalama: %.3f)\n",
+				Arrays.toString(otherPlayerScores), average(otherPlayerScores)));
+		stringBuilder.append(String.format("15. tasin kazandirdigi skor: %s (Ortalama: %.3f)\n",
+				Arrays.toString(extraTileGains), average(extraTileGains)));
+		stringBuilder.append(String.format("Ilk oyuncunun kazanma payi: %.4f\n", getFirstPlayerWinShare()));
+		stringBuilder.append(String.format("Hedefe (%d) ulasan el payi: ilk oyuncu %.4f, diger oyuncular %.4f\n",
+				targetScore, getFirstPlayerTargetShare(), getOtherPlayerTargetShare()));
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			stringBuilder.append(String.format("Oyuncu %d: kazanma payi %.4f, ortalama skor %.3f\n",
+					seat + 1, getWinShare(seat), getAverageScore(seat)));
+		}
+		return stringBuilder.toString();
+	}
+}
@@ -0,0 +1,124 @@
+package simulation;
+
+public class WinEstimate {
+
+	/**
+	 * Normal quantile of the 95% confidence intervals.
+	 */
+	public static final double Z_95 = 1.959964;
+
+	private final long samples;
+	private final long wins;
+	private final long nanos;
+
+	/**
+	 * Creates the result of an estimation.
+	 *
+	 * @param samples the number of simulated completions
+	 * @param wins    the number of completions that reached a winning hand
+	 * @param nanos   the duration of the estimation
+	 */
+	public WinEstimate(long samples, long wins, long nanos) {
+		this.samples = samples;
+		this.wins = wins;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * Returns the estimated probability of winning.
+	 *
+	 * @return the share of the simulated completions that won
+	 */
+	public double getProbability() {
+		return samples == 0 ? 0 : (double) wins / samples;
+	}
+
+	/**
+	 * Returns the lower bound of the 95% Wilson score interval.
+	 *
+	 * @return the lower bound of the probability
+	 */
+	public double getLower() {
+		return wilsonCenter(wins, samples) - wilsonHalfWidth(wins, samples);
+	}
+
+	/**
+	 * Returns the upper bound of the 95% Wilson score interval.
+	 *
+	 * @return the upper bound of the probability
+	 */
+	public double getUpper() {
+		return wilsonCenter(wins, samples) + wilsonHalfWidth(wins, samples);
+	}
+
+	/**
+	 * Returns the number of simulated completions.
+	 *
+	 * @return the sample count
+	 */
+	public long getSamples() {
+		return samples;
+	}
+
+	/**
+	 * Returns the number of completions that won.
+	 *
+	 * @return the win count
+	 */
+	public long getWins() {
+		return wins;
+	}
+
+	/**
+	 * Returns the duration of the estimation.
+	 *
+	 * @return the duration in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * Returns the center of the 95% Wilson score interval. Unlike the normal approximation,
+	 * the interval stays inside [0, 1] and does not collapse when no completion won.
+	 *
+	 * @param wins    the number of successes
+	 * @param samples the number of trials
+	 * @return the center of the interval
+	 */
+	static double wilsonCenter(long wins, long samples) {
+		if (samples == 0) {
+			return 0.5;
+		}
+		double p = (double) wins / samples;
+		double z2 = Z_95 * Z_95;
+		return (p + z2 / (2 * samples)) / (1 + z2 / samples);
+	}
+
+	/**
+	 * Returns the half width of the 95% Wilson score interval.
+	 *
+	 * @param wins    the number of successes
+	 * @param samples the number of trials
+	 * @return the half width of the interval
+	 */
+	static double wilsonHalfWidth(long wins, long samples) {
+		if (samples == 0) {
+			return 0.5;
+		}
+		double p = (double) wins / samples;
+		double z2 = Z_95 * Z_95;
+		return Z_95 * Math.sqrt(p * (1 - p) / samples + z2 / (4.0 * samples * samples)) / (1 + z2 / samples);
+	}
+
+	/**
+	 * Returns a string representation of the estimate.
+	 *
+	 * @return A string with the probability, its interval and the number of samples.
+	 */
+	@Override
+	public String toString() {
+		return String.format("Kazanma olasiligi: %.4f [%.4f, %.4f] (%d deneme, %.1f ms)",
+				getProbability(), getLower(), getUpper(), samples, nanos / 1e6);
+	}
+}
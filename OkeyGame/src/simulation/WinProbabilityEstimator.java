@@ -0,0 +1,295 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+import scoring.HandState;
+import tracking.SeenTiles;
+import util.FastRandom;
+
+public class WinProbabilityEstimator {
+
+	/**
+	 * Number of completions simulated by one task. A round of batches takes a few milliseconds
+	 * on one thread, so a time budget is kept to within one round.
+	 */
+	static final int BATCH_SIZE = 16;
+
+	/**
+	 * Number of batches simulated between two checks of the interval width. The rounds do not
+	 * depend on the number of threads, so the estimate only depends on the seed.
+	 */
+	static final int BATCHES_PER_ROUND = 8;
+
+	private final ExecutorService executor;
+	private final double targetWidth;
+	private final long maxSamples;
+	private final long budgetNanos;
+
+	/**
+	 * Creates an estimator without a time budget that simulates the completions of each round on
+	 * an executor.
+	 *
+	 * @param executor    the executor that runs the batches, or null to run them on the calling thread
+	 * @param targetWidth the width of the 95% confidence interval at which the estimation stops
+	 * @param maxSamples  the number of completions after which the estimation stops anyway
+	 */
+	public WinProbabilityEstimator(ExecutorService executor, double targetWidth, long maxSamples) {
+		this(executor, targetWidth, maxSamples, Long.MAX_VALUE);
+	}
+
+	/**
+	 * Creates an estimator that simulates the completions of each round on an executor and stops
+	 * after the first round that ends past the time budget. The interval of an estimate stopped
+	 * by the budget is wider than the target width.
+	 *
+	 * @param executor    the executor that runs the batches, or null to run them on the calling thread
+	 * @param targetWidth the width of the 95% confidence interval at which the estimation stops
+	 * @param maxSamples  the number of completions after which the estimation stops anyway
+	 * @param budgetNanos the time after which the estimation stops at the end of a round
+	 */
+	public WinProbabilityEstimator(ExecutorService executor, double targetWidth, long maxSamples, long budgetNanos) {
+		this.executor = executor;
+		this.targetWidth = targetWidth;
+		this.maxSamples = maxSamples;
+		this.budgetNanos = budgetNanos;
+	}
+
+	/**
+	 * Estimates the probability that a player completes a winning hand within a number of draws.
+	 *
+	 * @param player        the player, holding 14 tiles before a draw or 15 before a discard
+	 * @param indicatorTile the indicator tile, which shows the okey tile
+	 * @param seenTiles     the other tiles that are known not to be in the deck, such as discards
+	 * @param draws         the number of draws left
+	 * @param seed          the seed of the simulation
+	 * @return the estimate
+	 */
+	public WinEstimate estimate(Player player, Tile indicatorTile, List<Tile> seenTiles, int draws, long seed) {
+		return estimate(player.getHand(), indicatorTile, seenTiles, draws, seed);
+	}
+
+	/**
+	 * Estimates the probability that a hand becomes a winning hand within a number of draws.
+	 * Every simulated completion draws random tiles from the unseen tiles. A drawn tile is kept
+	 * only if it raises the score, and then the tile whose removal leaves the highest score is
+	 * discarded. The completion wins as soon as 14 tiles of the hand score 14.
+	 *
+	 * @param hand          the tiles of the hand, 14 before a draw or 15 before a discard
+	 * @param indicatorTile the indicator tile, which shows the okey tile and is counted as seen
+	 * @param seenTiles     the other tiles that are known not to be in the deck, such as discards
+	 * @param draws         the number of draws left
+	 * @param seed          the seed of the simulation
+	 * @return the estimate
+	 * @throws IllegalArgumentException if the hand and the seen tiles hold more copies of a tile than the deck
+	 */
+	public WinEstimate estimate(List<Tile> hand, Tile indicatorTile, List<Tile> seenTiles, int draws, long seed) {
+		SeenTiles seen = new SeenTiles();
+		seen.see(indicatorTile);
+		seen.seeAll(hand);
+		seen.seeAll(seenTiles);
+		return estimate(hand, indicatorTile, seen, draws, seed);
+	}
+
+	/**
+	 * Estimates the probability that a player of a game in play completes a winning hand within
+	 * a number of draws, drawing from the tiles the player has not seen.
+	 *
+	 * @param game  the game being played
+	 * @param seat  the index of the seat of the player
+	 * @param draws the number of draws left
+	 * @param seed  the seed of the simulation
+	 * @return the estimate
+	 */
+	public WinEstimate estimate(OkeyGame game, int seat, int draws, long seed) {
+		return estimate(game.getPlayers().get(seat).getHand(), game.getIndicatorTile(), game.getSeenTiles(seat),
+				draws, seed);
+	}
+
+	/**
+	 * Estimates the probability that a hand becomes a winning hand within a number of draws,
+	 * drawing from the tiles that a tracker has not seen.
+	 *
+	 * @param hand          the tiles of the hand, 14 before a draw or 15 before a discard
+	 * @param indicatorTile the indicator tile, which shows the okey tile
+	 * @param seen          the seen tiles, including the hand and the indicator tile
+	 * @param draws         the number of draws left
+	 * @param seed          the seed of the simulation
+	 * @return the estimate
+	 */
+	public WinEstimate estimate(List<Tile> hand, Tile indicatorTile, SeenTiles seen, int draws, long seed) {
+		long start = System.nanoTime();
+		Tile okeyTile = OkeyGame.okeyFor(indicatorTile);
+		int[] unseen = unseenCodes(seen);
+		HandState base = new HandState();
+		base.reset(hand, okeyTile);
+		int[] handCounts = new int[Tile.TILE_KINDS];
+		for (Tile tile : hand) {
+			handCounts[tile.getCode()]++;
+		}
+		int turns = Math.min(draws, unseen.length);
+
+		long samples = 0;
+		long wins = 0;
+		long batch = 0;
+		while (samples < maxSamples) {
+			List<Future<Integer>> futures = new ArrayList<>(BATCHES_PER_ROUND);
+			int[] roundWins = new int[BATCHES_PER_ROUND];
+			for (int i = 0; i < BATCHES_PER_ROUND; i++) {
+				long batchSeed = FastRandom.mix(seed + (batch + i + 1) * 0x9E3779B97F4A7C15L);
+				if (executor == null) {
+					roundWins[i] = simulateBatch(base, handCounts, unseen, turns, batchSeed);
+				} else {
+					futures.add(executor.submit(() -> simulateBatch(base, handCounts, unseen, turns, batchSeed)));
+				}
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				roundWins[i] = await(futures.get(i));
+			}
+			for (int roundWin : roundWins) {
+				wins += roundWin;
+			}
+			batch += BATCHES_PER_ROUND;
+			samples += BATCHES_PER_ROUND * BATCH_SIZE;
+			if (2 * WinEstimate.wilsonHalfWidth(wins, samples) <= targetWidth
+					|| System.nanoTime() - start >= budgetNanos) {
+				break;
+			}
+		}
+		return new WinEstimate(samples, wins, System.nanoTime() - start);
+	}
+
+	/**
+	 * Simulates one batch of completions with its own random number stream and copies of the
+	 * hand and the unseen tiles.
+	 *
+	 * @param base       the tracked hand
+	 * @param handCounts the number of copies of each tile in the hand
+	 * @param unseen     the codes of the unseen tiles
+	 * @param draws      the number of draws of each completion
+	 * @param seed       the seed of the batch
+	 * @return the number of completions that won
+	 */
+	static int simulateBatch(HandState base, int[] handCounts, int[] unseen, int draws, long seed) {
+		FastRandom random = new FastRandom(seed);
+		HandState state = new HandState();
+		int[] counts = new int[Tile.TILE_KINDS];
+		int[] pool = unseen.clone();
+		int wins = 0;
+		for (int i = 0; i < BATCH_SIZE; i++) {
+			state.copyFrom(base);
+			System.arraycopy(handCounts, 0, counts, 0, counts.length);
+			if (simulate(state, counts, pool, draws, random)) {
+				wins++;
+			}
+		}
+		return wins;
+	}
+
+	/**
+	 * Simulates one completion of the hand.
+	 *
+	 * @param state  the tracked hand, changed by the simulation
+	 * @param counts the number of copies of each tile in the hand, changed by the simulation
+	 * @param pool   the codes of the unseen tiles, shuffled by the simulation
+	 * @param draws  the number of draws
+	 * @param random the random number generator
+	 * @return true if the hand became a winning hand
+	 */
+	private static boolean simulate(HandState state, int[] counts, int[] pool, int draws, FastRandom random) {
+		int score = state.score();
+		if (state.getTileCount() > OkeyGame.TILE_PER_HAND) {
+			score = discardBest(state, counts);
+		}
+		if (score >= OkeyGame.TILE_PER_HAND) {
+			return true;
+		}
+		for (int draw = 0; draw < draws; draw++) {
+			// The unseen tiles are drawn without replacement by a partial shuffle of the pool.
+			int index = draw + random.nextInt(pool.length - draw);
+			int code = pool[index];
+			pool[index] = pool[draw];
+			pool[draw] = code;
+			Tile tile = Tile.valueOf(code);
+			state.add(tile);
+			if (state.score() <= score) {
+				state.remove(tile);
+				continue;
+			}
+			counts[code]++;
+			score = discardBest(state, counts);
+			if (score >= OkeyGame.TILE_PER_HAND) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Discards the tile whose removal leaves the highest score. Identical tiles are only tried once.
+	 *
+	 * @param state  the tracked hand
+	 * @param counts the number of copies of each tile in the hand
+	 * @return the score of the hand after the discard
+	 */
+	private static int discardBest(HandState state, int[] counts) {
+		int bestCode = -1;
+		int bestScore = -1;
+		for (int code = 0; code < Tile.TILE_KINDS && bestScore < OkeyGame.TILE_PER_HAND; code++) {
+			if (counts[code] == 0) {
+				continue;
+			}
+			Tile tile = Tile.valueOf(code);
+			state.remove(tile);
+			int score = state.score();
+			state.add(tile);
+			if (score > bestScore) {
+				bestScore = score;
+				bestCode = code;
+			}
+		}
+		counts[bestCode]--;
+		state.remove(Tile.valueOf(bestCode));
+		return bestScore;
+	}
+
+	/**
+	 * Lists the codes of the tiles that have not been seen, one entry per copy.
+	 *
+	 * @param seen the seen tiles
+	 * @return the codes of the unseen tiles
+	 */
+	private static int[] unseenCodes(SeenTiles seen) {
+		int[] unseen = new int[seen.unseenTotal()];
+		int index = 0;
+		for (int code = 0; code < Tile.TILE_KINDS; code++) {
+			for (int copy = seen.unseenCopies(code); copy > 0; copy--) {
+				unseen[index++] = code;
+			}
+		}
+		return unseen;
+	}
+
+	/**
+	 * Waits for a batch.
+	 *
+	 * @param future the batch
+	 * @return the number of completions of the batch that won
+	 */
+	private static int await(Future<Integer> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Tahmin kesildi", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Tahmin basarisiz oldu", e.getCause());
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+class GameLog {
+
+	/**
+	 * Magic number at the start of every game log ("OKEY").
+	 */
+	static final int MAGIC = 0x4F4B4559;
+	static final short VERSION = 1;
+
+	/**
+	 * Size of the file header: magic, version, record size and record count.
+	 */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * Writes the file header.
+	 *
+	 * @param header      a buffer of at least {@link #HEADER_SIZE} bytes
+	 * @param recordCount the number of records in the file
+	 */
+	static void writeHeader(ByteBuffer header, long recordCount) {
+		header.putInt(0, MAGIC);
+		header.putShort(4, VERSION);
+		header.putShort(6, (short) GameRecord.SIZE);
+		header.putLong(8, recordCount);
+	}
+
+	/**
+	 * Checks the file header and returns the number of records.
+	 *
+	 * @param header the header read from the file
+	 * @return the number of records in the file
+	 * @throws IOException if the file is not a game log this version can read
+	 */
+	static long readHeader(ByteBuffer header) throws IOException {
+		if (header.limit() < HEADER_SIZE || header.getInt(0) != MAGIC) {
+			throw new IOException("Dosya bir oyun kaydi degil");
+		}
+		if (header.getShort(4) != VERSION || header.getShort(6) != GameRecord.SIZE) {
+			throw new IOException("Desteklenmeyen kayit surumu: " + header.getShort(4));
+		}
+		return header.getLong(8);
+	}
+}
@@ -0,0 +1,106 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+public class GameLogReader implements Closeable {
+
+	/**
+	 * Number of records in one mapped window. A mapping is limited to 2 GB, so larger files
+	 * are mapped as several windows that each hold whole records.
+	 */
+	static final int WINDOW_RECORDS = (1 << 30) / GameRecord.SIZE;
+
+	private final FileChannel channel;
+	private final long recordCount;
+	private final MappedByteBuffer[] windows;
+
+	/**
+	 * Opens a game log and maps it into memory. Pages are only read from the disk when
+	 * records are accessed.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be read or is not a game log
+	 */
+	public GameLogReader(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(GameLog.HEADER_SIZE);
+			while (header.hasRemaining()) {
+				if (channel.read(header, header.position()) < 0) {
+					break;
+				}
+			}
+			header.flip();
+			recordCount = GameLog.readHeader(header);
+			if (channel.size() < GameLog.HEADER_SIZE + recordCount * GameRecord.SIZE) {
+				throw new IOException("Oyun kaydi eksik: " + recordCount + " kayit bekleniyordu");
+			}
+			int windowCount = (int) ((recordCount + WINDOW_RECORDS - 1) / WINDOW_RECORDS);
+			windows = new MappedByteBuffer[windowCount];
+			for (int i = 0; i < windowCount; i++) {
+				long first = (long) i * WINDOW_RECORDS;
+				long records = Math.min(WINDOW_RECORDS, recordCount - first);
+				windows[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+						GameLog.HEADER_SIZE + first * GameRecord.SIZE, records * GameRecord.SIZE);
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the number of records in the log.
+	 *
+	 * @return the record count
+	 */
+	public long size() {
+		return recordCount;
+	}
+
+	/**
+	 * Points a view at a record without copying it.
+	 *
+	 * @param index the index of the record
+	 * @param view  the view to move
+	 * @return the view
+	 */
+	public GameRecord get(long index, GameRecord view) {
+		if (index < 0 || index >= recordCount) {
+			throw new IndexOutOfBoundsException("Record " + index + " of " + recordCount);
+		}
+		return view.wrap(windows[(int) (index / WINDOW_RECORDS)], (int) (index % WINDOW_RECORDS) * GameRecord.SIZE);
+	}
+
+	/**
+	 * Passes a range of records to an action. The same view is moved from record to record,
+	 * so the action must not keep it.
+	 *
+	 * @param from   the index of the first record
+	 * @param to     the index after the last record
+	 * @param action the action to run on every record
+	 */
+	public void forEach(long from, long to, Consumer<GameRecord> action) {
+		GameRecord view = new GameRecord();
+		for (long index = from; index < to; index++) {
+			action.accept(get(index, view));
+		}
+	}
+
+	/**
+	 * Closes the file. The mapped windows stay readable until they are garbage collected.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,81 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class GameLogWriter implements Closeable {
+	private final FileChannel channel;
+	private final AtomicLong recordCount = new AtomicLong();
+
+	/**
+	 * Creates a game log, replacing any existing file.
+	 *
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be created
+	 */
+	public GameLogWriter(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+
+	/**
+	 * Allocates a buffer for a block of records.
+	 *
+	 * @param records the number of records in the block
+	 * @return a buffer of {@code records} records
+	 */
+	public static ByteBuffer allocateBlock(int records) {
+		return ByteBuffer.allocate(records * GameRecord.SIZE);
+	}
+
+	/**
+	 * Writes a block of consecutive records at their place in the file. Blocks are written with
+	 * positional writes, so several threads can write their own blocks at once and in any order.
+	 *
+	 * @param firstRecord the index of the first record of the block
+	 * @param block       the records, from index 0 of the buffer
+	 * @param records     the number of records in the block
+	 * @throws IOException if the block cannot be written
+	 */
+	public void writeBlock(long firstRecord, ByteBuffer block, int records) throws IOException {
+		ByteBuffer source = block.duplicate();
+		source.clear().limit(records * GameRecord.SIZE);
+		long position = GameLog.HEADER_SIZE + firstRecord * GameRecord.SIZE;
+		while (source.hasRemaining()) {
+			position += channel.write(source, position);
+		}
+		recordCount.accumulateAndGet(firstRecord + records, Math::max);
+	}
+
+	/**
+	 * Returns the number of records up to the end of the last block.
+	 *
+	 * @return the record count
+	 */
+	public long getRecordCount() {
+		return recordCount.get();
+	}
+
+	/**
+	 * Writes the header with the record count and closes the file.
+	 *
+	 * @throws IOException if the header cannot be written
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			ByteBuffer header = ByteBuffer.allocate(GameLog.HEADER_SIZE);
+			GameLog.writeHeader(header, recordCount.get());
+			while (header.hasRemaining()) {
+				channel.write(header, header.position());
+			}
+		} finally {
+			channel.close();
+		}
+	}
+}
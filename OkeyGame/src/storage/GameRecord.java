@@ -0,0 +1,191 @@
+package storage;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+
+public class GameRecord {
+
+	/**
+	 * Number of tiles dealt in a game: 15 for the first player and 14 for the others.
+	 */
+	public static final int DEALT_TILES = OkeyGame.PLAYER_COUNT * OkeyGame.TILE_PER_HAND + 1;
+
+	private static final int SEED_OFFSET = 0;
+	private static final int INDICATOR_OFFSET = 8;
+	private static final int OKEY_OFFSET = 9;
+	private static final int FIRST_PLAYER_OFFSET = 10;
+	private static final int EXTRA_TILE_OFFSET = 11;
+	private static final int SCORES_OFFSET = 12;
+	private static final int SCORE_WITHOUT_EXTRA_OFFSET = SCORES_OFFSET + OkeyGame.PLAYER_COUNT;
+	private static final int TILES_OFFSET = SCORE_WITHOUT_EXTRA_OFFSET + 1;
+
+	/**
+	 * Size of a record in bytes. The bytes after the tiles are reserved and written as zero.
+	 */
+	public static final int SIZE = 80;
+
+	private ByteBuffer buffer;
+	private int offset;
+
+	/**
+	 * Points this view at a record. The record is read in place with absolute reads, so moving
+	 * the view copies nothing and several views can read the same buffer at once.
+	 *
+	 * @param buffer the buffer holding the record
+	 * @param offset the position of the record in the buffer
+	 * @return this view
+	 */
+	public GameRecord wrap(ByteBuffer buffer, int offset) {
+		this.buffer = buffer;
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Returns the seed the game was dealt from with {@link OkeyGame#redeal(long)}.
+	 *
+	 * @return the seed of the game
+	 */
+	public long getSeed() {
+		return buffer.getLong(offset + SEED_OFFSET);
+	}
+
+	/**
+	 * Returns the indicator tile of the game.
+	 *
+	 * @return the indicator tile
+	 */
+	public Tile getIndicatorTile() {
+		return Tile.valueOf(buffer.get(offset + INDICATOR_OFFSET));
+	}
+
+	/**
+	 * Returns the okey tile of the game.
+	 *
+	 * @return the okey tile
+	 */
+	public Tile getOkeyTile() {
+		return Tile.valueOf(buffer.get(offset + OKEY_OFFSET));
+	}
+
+	/**
+	 * Returns the seat of the player who received the 15th tile.
+	 *
+	 * @return the index of the first player
+	 */
+	public int getFirstPlayerIndex() {
+		return buffer.get(offset + FIRST_PLAYER_OFFSET);
+	}
+
+	/**
+	 * Returns the 15th tile dealt to the first player.
+	 *
+	 * @return the extra tile
+	 */
+	public Tile getExtraTile() {
+		return Tile.valueOf(buffer.get(offset + EXTRA_TILE_OFFSET));
+	}
+
+	/**
+	 * Returns the stored score of a seat.
+	 *
+	 * @param seat the index of the seat
+	 * @return the score of the seat
+	 */
+	public int getScore(int seat) {
+		return buffer.get(offset + SCORES_OFFSET + seat);
+	}
+
+	/**
+	 * Returns the stored score of the first player's hand without the 15th tile.
+	 *
+	 * @return the score without the extra tile
+	 */
+	public int getScoreWithoutExtraTile() {
+		return buffer.get(offset + SCORE_WITHOUT_EXTRA_OFFSET);
+	}
+
+	/**
+	 * Returns the number of tiles dealt to a seat.
+	 *
+	 * @param seat the index of the seat
+	 * @return 15 for the first player, otherwise 14
+	 */
+	public int getHandSize(int seat) {
+		return seat == getFirstPlayerIndex() ? OkeyGame.TILE_PER_HAND + 1 : OkeyGame.TILE_PER_HAND;
+	}
+
+	/**
+	 * Returns a tile of a seat's hand.
+	 *
+	 * @param seat  the index of the seat
+	 * @param index the index of the tile in the sorted hand
+	 * @return the tile
+	 */
+	public Tile getTile(int seat, int index) {
+		return Tile.valueOf(buffer.get(offset + handOffset(seat, getFirstPlayerIndex()) + index));
+	}
+
+	/**
+	 * Replaces the contents of a list with the sorted hand of a seat.
+	 *
+	 * @param seat the index of the seat
+	 * @param hand the list that receives the tiles
+	 */
+	public void readHand(int seat, List<Tile> hand) {
+		hand.clear();
+		int firstPlayerIndex = getFirstPlayerIndex();
+		int start = offset + handOffset(seat, firstPlayerIndex);
+		int size = seat == firstPlayerIndex ? OkeyGame.TILE_PER_HAND + 1 : OkeyGame.TILE_PER_HAND;
+		for (int i = 0; i < size; i++) {
+			hand.add(Tile.valueOf(buffer.get(start + i)));
+		}
+	}
+
+	/**
+	 * Writes a dealt and scored game as a record.
+	 *
+	 * @param buffer                the buffer to write to
+	 * @param offset                the position of the record in the buffer
+	 * @param game                  the game
+	 * @param seed                  the seed the game was dealt from
+	 * @param scoreWithoutExtraTile the score of the first player's hand without the 15th tile
+	 */
+	public static void write(ByteBuffer buffer, int offset, OkeyGame game, long seed, int scoreWithoutExtraTile) {
+		int firstPlayerIndex = game.getFirstPlayerIndex();
+		buffer.putLong(offset + SEED_OFFSET, seed);
+		buffer.put(offset + INDICATOR_OFFSET, (byte) game.getIndicatorTile().getCode());
+		buffer.put(offset + OKEY_OFFSET, (byte) game.getOkeyTile().getCode());
+		buffer.put(offset + FIRST_PLAYER_OFFSET, (byte) firstPlayerIndex);
+		buffer.put(offset + EXTRA_TILE_OFFSET, (byte) game.getExtraTile().getCode());
+		List<Player> players = game.getPlayers();
+		for (int seat = 0; seat < OkeyGame.PLAYER_COUNT; seat++) {
+			buffer.put(offset + SCORES_OFFSET + seat, (byte) players.get(seat).getScore());
+			List<Tile> hand = players.get(seat).getHand();
+			int start = offset + handOffset(seat, firstPlayerIndex);
+			for (int i = 0; i < hand.size(); i++) {
+				buffer.put(start + i, (byte) hand.get(i).getCode());
+			}
+		}
+		buffer.put(offset + SCORE_WITHOUT_EXTRA_OFFSET, (byte) scoreWithoutExtraTile);
+		for (int i = TILES_OFFSET + DEALT_TILES; i < SIZE; i++) {
+			buffer.put(offset + i, (byte) 0);
+		}
+	}
+
+	/**
+	 * Returns the position of a seat's hand in a record. The hands are stored seat by seat, and
+	 * the hand of the first player takes one more byte.
+	 *
+	 * @param seat             the index of the seat
+	 * @param firstPlayerIndex the seat of the first player
+	 * @return the offset of the first tile of the hand
+	 */
+	private static int handOffset(int seat, int firstPlayerIndex) {
+		return TILES_OFFSET + seat * OkeyGame.TILE_PER_HAND + (seat > firstPlayerIndex ? 1 : 0);
+	}
+}
@@ -0,0 +1,54 @@
+package strategy;
+
+import java.util.ArrayList;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+
+public class GreedyStrategy implements PlayerStrategy {
+
+	/**
+	 * Shared instance. The strategy keeps no state, so every seat of every table can use it.
+	 */
+	public static final GreedyStrategy INSTANCE = new GreedyStrategy();
+
+	/**
+	 * Takes the discarded tile when it raises the score of the hand.
+	 *
+	 * @param game   the game being played
+	 * @param player the player whose turn it is
+	 * @param top    the top tile of the discard pile
+	 * @return true if the tile raises the score
+	 */
+	@Override
+	public boolean takeDiscard(OkeyGame game, Player player, Tile top) {
+		return player.scoreWith(top) > player.getScore();
+	}
+
+	/**
+	 * Chooses the tile whose removal leaves the highest score. Identical tiles are only tried once.
+	 *
+	 * @param game   the game being played
+	 * @param player the player who discards
+	 * @return the tile to discard
+	 */
+	@Override
+	public Tile chooseDiscard(OkeyGame game, Player player) {
+		ArrayList<Tile> hand = player.getHand();
+		Tile best = null;
+		int bestScore = -1;
+		for (int i = 0; i < hand.size(); i++) {
+			Tile tile = hand.get(i);
+			if (tile == best || (i > 0 && tile == hand.get(i - 1))) {
+				continue;
+			}
+			int score = player.scoreWithout(tile);
+			if (score > bestScore) {
+				bestScore = score;
+				best = tile;
+			}
+		}
+		return best;
+	}
+}
@@ -0,0 +1,27 @@
+package strategy;
+
+import objects.OkeyGame;
+import objects.Player;
+import objects.Tile;
+
+public interface PlayerStrategy {
+
+	/**
+	 * Decides whether the player takes the top tile of the discard pile instead of drawing from the deck.
+	 *
+	 * @param game   the game being played
+	 * @param player the player whose turn it is, holding 14 tiles
+	 * @param top    the top tile of the discard pile
+	 * @return true to take the discarded tile
+	 */
+	boolean takeDiscard(OkeyGame game, Player player, Tile top);
+
+	/**
+	 * Chooses the tile the player discards.
+	 *
+	 * @param game   the game being played
+	 * @param player the player whose turn it is, holding 15 tiles
+	 * @return a tile of the player's hand
+	 */
+	Tile chooseDiscard(OkeyGame game, Player player);
+}
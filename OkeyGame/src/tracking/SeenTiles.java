@@ -0,0 +1,226 @@
+package tracking;
+
+import java.util.List;
+
+import objects.Deck;
+import objects.Tile;
+
+public final class SeenTiles {
+
+	/**
+	 * Number of copies of every tile in a deck.
+	 */
+	public static final int COPIES = Deck.TILE_COUNT / Tile.TILE_KINDS;
+
+	/**
+	 * Mask of every tile code. The 53 codes fit in one long, so a set of tiles is a single mask.
+	 */
+	public static final long ALL_CODES = (1L << Tile.TILE_KINDS) - 1;
+
+	private long first;
+	private long second;
+	private int seen;
+
+	/**
+	 * Creates a tracker where no tile has been seen.
+	 */
+	public SeenTiles() {
+	}
+
+	/**
+	 * Creates a tracker with the same seen tiles as another one.
+	 *
+	 * @param other the tracker to copy
+	 */
+	public SeenTiles(SeenTiles other) {
+		copyFrom(other);
+	}
+
+	/**
+	 * Marks a copy of a tile as seen.
+	 *
+	 * @param tile the seen tile
+	 * @throws IllegalArgumentException if both copies of the tile have already been seen
+	 */
+	public void see(Tile tile) {
+		see(tile.getCode());
+	}
+
+	/**
+	 * Marks a copy of a tile as seen. The first copy sets the bit of the code in the first mask,
+	 * and the second copy in the second mask.
+	 *
+	 * @param code the code of the seen tile
+	 * @throws IllegalArgumentException if both copies of the tile have already been seen
+	 */
+	public void see(int code) {
+		long bit = 1L << code;
+		if ((first & bit) == 0) {
+			first |= bit;
+		} else if ((second & bit) == 0) {
+			second |= bit;
+		} else {
+			throw new IllegalArgumentException("Destede ikiden fazla " + Tile.valueOf(code) + " yok");
+		}
+		seen++;
+	}
+
+	/**
+	 * Marks every tile of a list as seen.
+	 *
+	 * @param tiles the seen tiles
+	 * @throws IllegalArgumentException if more copies of a tile are seen than the deck holds
+	 */
+	public void seeAll(List<Tile> tiles) {
+		for (int i = 0; i < tiles.size(); i++) {
+			see(tiles.get(i).getCode());
+		}
+	}
+
+	/**
+	 * Marks a seen copy of a tile as unseen again, for example when a search takes back a draw.
+	 *
+	 * @param code the code of the tile
+	 * @throws IllegalArgumentException if no copy of the tile has been seen
+	 */
+	public void unsee(int code) {
+		long bit = 1L << code;
+		if ((second & bit) != 0) {
+			second &= ~bit;
+		} else if ((first & bit) != 0) {
+			first &= ~bit;
+		} else {
+			throw new IllegalArgumentException("Gorulmemis tas geri alinamaz: " + Tile.valueOf(code));
+		}
+		seen--;
+	}
+
+	/**
+	 * Marks every tile as unseen.
+	 */
+	public void clear() {
+		first = 0;
+		second = 0;
+		seen = 0;
+	}
+
+	/**
+	 * Copies the seen tiles of another tracker into this one.
+	 *
+	 * @param other the tracker to copy
+	 */
+	public void copyFrom(SeenTiles other) {
+		first = other.first;
+		second = other.second;
+		seen = other.seen;
+	}
+
+	/**
+	 * Returns the number of seen copies of a tile.
+	 *
+	 * @param code the code of the tile
+	 * @return the number of seen copies (0-2)
+	 */
+	public int seenCopies(int code) {
+		return (int) (first >>> code & 1) + (int) (second >>> code & 1);
+	}
+
+	/**
+	 * Returns the number of copies of a tile that have not been seen.
+	 *
+	 * @param code the code of the tile
+	 * @return the number of unseen copies (0-2)
+	 */
+	public int unseenCopies(int code) {
+		return COPIES - seenCopies(code);
+	}
+
+	/**
+	 * Returns the number of unseen copies of the tiles of a set.
+	 *
+	 * @param codes the mask of the codes of the set, as built by {@link #mask(Tile...)}
+	 * @return the number of unseen copies
+	 */
+	public int unseenCopies(long codes) {
+		codes &= ALL_CODES;
+		return COPIES * Long.bitCount(codes) - Long.bitCount(first & codes) - Long.bitCount(second & codes);
+	}
+
+	/**
+	 * Returns the number of tiles that have not been seen.
+	 *
+	 * @return the number of unseen tiles
+	 */
+	public int unseenTotal() {
+		return Deck.TILE_COUNT - seen;
+	}
+
+	/**
+	 * Returns the number of seen tiles.
+	 *
+	 * @return the number of seen tiles
+	 */
+	public int seenTotal() {
+		return seen;
+	}
+
+	/**
+	 * Returns the chance that a tile drawn from the unseen tiles is a copy of the given tile.
+	 *
+	 * @param code the code of the tile
+	 * @return the probability, or 0 if every tile has been seen
+	 */
+	public double drawProbability(int code) {
+		int unseen = unseenTotal();
+		return unseen == 0 ? 0 : (double) unseenCopies(code) / unseen;
+	}
+
+	/**
+	 * Returns the chance that a tile drawn from the unseen tiles belongs to a set.
+	 *
+	 * @param codes the mask of the codes of the set
+	 * @return the probability, or 0 if every tile has been seen
+	 */
+	public double drawProbability(long codes) {
+		int unseen = unseenTotal();
+		return unseen == 0 ? 0 : (double) unseenCopies(codes) / unseen;
+	}
+
+	/**
+	 * Returns the mask of a set of tiles.
+	 *
+	 * @param tiles the tiles of the set
+	 * @return the mask with the bit of the code of every tile set
+	 */
+	public static long mask(Tile... tiles) {
+		long mask = 0;
+		for (Tile tile : tiles) {
+			mask |= 1L << tile.getCode();
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns the mask of a set of tiles.
+	 *
+	 * @param tiles the tiles of the set
+	 * @return the mask with the bit of the code of every tile set
+	 */
+	public static long mask(List<Tile> tiles) {
+		long mask = 0;
+		for (int i = 0; i < tiles.size(); i++) {
+			mask |= 1L << tiles.get(i).getCode();
+		}
+		return mask;
+	}
+
+	/**
+	 * Returns a string representation of the tracker.
+	 *
+	 * @return A string with the number of seen and unseen tiles.
+	 */
+	@Override
+	public String toString() {
+		return "Gorulen tas: " + seen + ", gorulmeyen tas: " + unseenTotal();
+	}
+}
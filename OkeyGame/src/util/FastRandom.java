@@ -0,0 +1,73 @@
+package util;
+
+import java.util.random.RandomGenerator;
+
+public class FastRandom implements RandomGenerator {
+	private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+	private long state;
+
+	/**
+	 * Creates a SplitMix64 random number generator with the given seed.
+	 *
+	 * @param seed the initial seed
+	 */
+	public FastRandom(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * Restarts the sequence of the generator from the given seed.
+	 *
+	 * @param seed the new seed
+	 */
+	public void setSeed(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * Returns the next pseudorandom 64-bit value.
+	 *
+	 * @return a pseudorandom long
+	 */
+	@Override
+	public long nextLong() {
+		return mix(state += GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Returns a pseudorandom value between zero (inclusive) and the bound (exclusive), using
+	 * a multiply and shift instead of a division.
+	 *
+	 * @param bound the upper bound, which must be positive
+	 * @return a pseudorandom int
+	 */
+	@Override
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("Bound must be positive: " + bound);
+		}
+		long product = (nextLong() >>> 32) * bound;
+		int low = (int) product;
+		if (Integer.toUnsignedLong(low) < bound) {
+			long threshold = (1L << 32) % bound;
+			while (Integer.toUnsignedLong(low) < threshold) {
+				product = (nextLong() >>> 32) * bound;
+				low = (int) product;
+			}
+		}
+		return (int) (product >>> 32);
+	}
+
+	/**
+	 * Scrambles a 64-bit value with the SplitMix64 finalizer.
+	 *
+	 * @param value the value to scramble
+	 * @return the scrambled value
+	 */
+	public static long mix(long value) {
+		value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+		value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+		return value ^ (value >>> 31);
+	}
+}
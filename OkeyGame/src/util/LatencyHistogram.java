@@ -0,0 +1,144 @@
+package util;
+
+public class LatencyHistogram {
+
+	/**
+	 * Number of bits of a value kept exactly in a bucket. Values below 2^SUB_BUCKET_BITS have a
+	 * bucket each, and larger values share buckets whose width grows with the magnitude, so the
+	 * relative error of a recorded value stays below 1/32.
+	 */
+	private static final int SUB_BUCKET_BITS = 6;
+	private static final int HALF_SUB_BUCKETS = 1 << (SUB_BUCKET_BITS - 1);
+	private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS + 2) * HALF_SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKET_COUNT];
+	private long count;
+	private long sum;
+	private long max;
+
+	/**
+	 * Records a value, usually a duration in nanoseconds. Negative values are recorded as zero.
+	 *
+	 * @param value the value to record
+	 */
+	public void record(long value) {
+		value = Math.max(0, value);
+		counts[bucket(value)]++;
+		count++;
+		sum += value;
+		max = Math.max(max, value);
+	}
+
+	/**
+	 * Adds the values of another histogram to this one.
+	 *
+	 * @param other the histogram to add
+	 * @return this histogram
+	 */
+	public LatencyHistogram merge(LatencyHistogram other) {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] += other.counts[i];
+		}
+		count += other.count;
+		sum += other.sum;
+		max = Math.max(max, other.max);
+		return this;
+	}
+
+	/**
+	 * Removes every recorded value.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			counts[i] = 0;
+		}
+		count = 0;
+		sum = 0;
+		max = 0;
+	}
+
+	/**
+	 * Returns the number of recorded values.
+	 *
+	 * @return the value count
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the largest recorded value.
+	 *
+	 * @return the maximum, or 0 if nothing was recorded
+	 */
+	public long getMax() {
+		return max;
+	}
+
+	/**
+	 * Returns the mean of the recorded values.
+	 *
+	 * @return the mean, or 0 if nothing was recorded
+	 */
+	public double getMean() {
+		return count == 0 ? 0 : (double) sum / count;
+	}
+
+	/**
+	 * Returns the value below which the given share of the recorded values fall. The result is
+	 * the upper end of the bucket holding the percentile, capped at the maximum.
+	 *
+	 * @param percentile the percentile (0-100)
+	 * @return the value at the percentile, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(max, upperBound(i));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the bucket of a value. The lowest bits of large values are dropped so that every
+	 * magnitude is split into the same number of buckets.
+	 *
+	 * @param value a non-negative value
+	 * @return the index of the bucket
+	 */
+	static int bucket(long value) {
+		int shift = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+		return shift * HALF_SUB_BUCKETS + (int) (value >>> shift);
+	}
+
+	/**
+	 * Returns the largest value that falls into a bucket.
+	 *
+	 * @param bucket the index of the bucket
+	 * @return the upper end of the bucket
+	 */
+	static long upperBound(int bucket) {
+		int shift = Math.max(0, bucket / HALF_SUB_BUCKETS - 1);
+		long lower = (long) (bucket - shift * HALF_SUB_BUCKETS) << shift;
+		return lower + (1L << shift) - 1;
+	}
+
+	/**
+	 * Returns a string representation of the histogram.
+	 *
+	 * @return A string with the count and the main percentiles, in microseconds.
+	 */
+	@Override
+	public String toString() {
+		return String.format("n=%d ort=%.1f p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f maks=%.1f us",
+				count, getMean() / 1e3, getPercentile(50) / 1e3, getPercentile(90) / 1e3,
+				getPercentile(99) / 1e3, getPercentile(99.9) / 1e3, max / 1e3);
+	}
+}
@@ -1,16 +1,45 @@
 package util;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
 
+import metrics.HotPathMetrics;
+import metrics.Phase;
 import objects.Player;
 import objects.Tile;
 
 public class Utility {
 	
+	/**
+	 * Reusable arrays of each thread, so that scoring and sorting a hand do not allocate.
+	 */
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+	
+	/**
+	 * Number of orders in which pairs, sets and series are tried.
+	 */
+	private static final int ORDER_COUNT = 6;
+	
+	/**
+	 * Phase that places pairs.
+	 */
+	private static final int PAIRS = 0;
+	
+	/**
+	 * Phase that places sets of one value in different colors.
+	 */
+	private static final int SETS = 1;
+	
+	/**
+	 * Phase that places series of one color.
+	 */
+	private static final int SERIES = 2;
+	
+	/**
+	 * Number of phases, each of which is tried at every place of an order.
+	 */
+	private static final int PHASE_COUNT = 3;
+	
 	 /**
      * Evaluates the hand of a player by calculating the maximum score
      * and updates the player's score accordingly.
@@ -19,51 +48,186 @@ public class Utility {
      * @param okeyTile the okey tile, which can act as a wildcard
      */
     public static void processHand(Player player, Tile okeyTile) {
-        ArrayList<Tile> hand = player.getHand();
+        player.setScore(calculateMaxScore(player.getHand(), okeyTile));
+    }
+
+    /**
+     * Calculates the maximum score of a hand by trying every order of
+     * pairs, sets and series.
+     *
+     * @param hand     the list of tiles to be evaluated
+     * @param okeyTile the okey tile, which can act as a wildcard
+     * @return the maximum score found
+     */
+    public static int calculateMaxScore(List<Tile> hand, Tile okeyTile) {
+        int size = hand.size();
+        Scratch scratch = SCRATCH.get();
+        scratch.ensureCapacity(size);
+        int[] codes = scratch.codes;
+        boolean[] wildcards = scratch.wildcards;
+        for (int i = 0; i < size; i++) {
+            Tile tile = hand.get(i);
+            codes[i] = tile.isFakeOkey() ? okeyTile.getCode() : tile.getCode();
+            wildcards[i] = tile == okeyTile;
+        }
+
+        if (HotPathMetrics.isEnabled()) {
+            return measureMaxScore(scratch, size);
+        }
+        return searchOrders(scratch, size, false);
+    }
+
+    /**
+     * Calculates the maximum score of a hand, counting the call and timing one call in
+     * {@link HotPathMetrics#SAMPLE_INTERVAL} as a whole and another one phase by phase.
+     *
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
+     * @return the maximum score found
+     */
+    private static int measureMaxScore(Scratch scratch, int size) {
+        int sample = HotPathMetrics.sample(++scratch.calls);
+        int maxScore;
+        if (sample == HotPathMetrics.SAMPLE_TOTAL) {
+            long start = System.nanoTime();
+            maxScore = searchOrders(scratch, size, false);
+            HotPathMetrics.record(Phase.PROCESS_HAND, System.nanoTime() - start);
+        } else if (sample == HotPathMetrics.SAMPLE_PHASES) {
+            long[] phaseNanos = scratch.phaseNanos;
+            maxScore = searchOrders(scratch, size, true);
+            HotPathMetrics.record(Phase.COUNT_PAIRS, phaseNanos[PAIRS]);
+            HotPathMetrics.record(Phase.COUNT_SETS, phaseNanos[SETS]);
+            HotPathMetrics.record(Phase.COUNT_SERIES, phaseNanos[SERIES]);
+            Arrays.fill(phaseNanos, 0);
+        } else {
+            maxScore = searchOrders(scratch, size, false);
+        }
+        HotPathMetrics.handProcessed(ORDER_COUNT);
+        return maxScore;
+    }
 
+    /**
+     * Scores the hand in every order of pairs, sets and series.
+     *
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
+     * @param timed   true to time every order and every phase
+     * @return the maximum score found
+     */
+    private static int searchOrders(Scratch scratch, int size, boolean timed) {
         int maxScore = 0;
-        int[] orders = {0, 1, 2};
-        int[] scores = new int[6];
+        int[] orders = scratch.orders;
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = i;
+        }
 
         do {
-            ArrayList<Tile> tempHand = new ArrayList<>(hand);
-            scores[0] = calculateScore(tempHand, orders);
-            maxScore = Math.max(maxScore, scores[0]);
+            maxScore = Math.max(maxScore, score(scratch, size, orders, timed));
 
             if (nextPermutation(orders)) {
-                tempHand = new ArrayList<>(hand);
-                tempHand.forEach(tile->tile.setUsed(false));
-                scores[1] = calculateScore(tempHand, orders);
-                maxScore = Math.max(maxScore, scores[1]);
+                maxScore = Math.max(maxScore, score(scratch, size, orders, timed));
             }
 
         } while (nextPermutation(orders));
 
-        player.setScore(maxScore);
+        return maxScore;
+    }
+
+    /**
+     * Calculates the score of a hand in the given order, timing the order if requested.
+     *
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
+     * @param orders  the order of operations for scoring (0: pairs, 1: sets, 2: series)
+     * @param timed   true to time the order and its phases
+     * @return the score of the hand
+     */
+    private static int score(Scratch scratch, int size, int[] orders, boolean timed) {
+        if (!timed) {
+            return calculateScore(scratch, size, orders, null);
+        }
+        long start = System.nanoTime();
+        int score = calculateScore(scratch, size, orders, scratch.phaseNanos);
+        HotPathMetrics.record(Phase.PERMUTATION, System.nanoTime() - start);
+        return score;
+    }
+
+    /**
+     * Sorts a hand by color and value, using a counting sort over the tile codes.
+     *
+     * @param hand the list of tiles to sort
+     */
+    public static void sortHand(List<Tile> hand) {
+        int[] counts = SCRATCH.get().sortCounts;
+        for (int i = 0; i < hand.size(); i++) {
+            counts[hand.get(i).getCode()]++;
+        }
+        int index = 0;
+        for (int code = 0; code < Tile.TILE_KINDS; code++) {
+            for (int n = counts[code]; n > 0; n--) {
+                hand.set(index++, Tile.valueOf(code));
+            }
+            counts[code] = 0;
+        }
     }
 
     /**
      * Calculates the score of a hand based on the given order of operations.
+     * The used state of the tiles is cleared before scoring.
      *
-     * @param hand   the list of tiles in the player's hand
-     * @param orders the order of operations for scoring (0: pairs, 1: sets, 2: series)
+     * @param scratch    the arrays holding the tile codes of the hand, with fake okeys replaced by
+     *                   the okey tile, the wildcard status and the used status of each tile
+     * @param size       the number of tiles in the hand
+     * @param orders     the order of operations for scoring (0: pairs, 1: sets, 2: series)
+     * @param phaseNanos the time spent in each phase, added to by the method, or null to not time the phases
      * @return the score of the hand
      */
-    private static int calculateScore(List<Tile> hand, int[] orders) {
+    private static int calculateScore(Scratch scratch, int size, int[] orders, long[] phaseNanos) {
+        Arrays.fill(scratch.used, 0, size, false);
         int score = 0;
         for (int order : orders) {
-            if (order == 0) {
-                score += countPairs(hand);
-            } else if (order == 1) {
-                score += countSets(hand);
-            } else {
-                score += countSeries(hand);
-            }
+            score += countPhase(scratch, size, order, phaseNanos);
+        }
+        score += countPhase(scratch, size, PAIRS, phaseNanos);
+        return score;
+    }
+
+    /**
+     * Runs one phase of the scoring, timing it if requested.
+     *
+     * @param scratch    the arrays holding the tiles of the hand
+     * @param size       the number of tiles in the hand
+     * @param order      the phase to run (0: pairs, 1: sets, 2: series)
+     * @param phaseNanos the time spent in each phase, or null to not time the phase
+     * @return the score of the phase
+     */
+    private static int countPhase(Scratch scratch, int size, int order, long[] phaseNanos) {
+        if (phaseNanos == null) {
+            return countPhase(scratch, size, order);
         }
-        score += countPairs(hand);
+        long start = System.nanoTime();
+        int score = countPhase(scratch, size, order);
+        phaseNanos[order] += System.nanoTime() - start;
         return score;
     }
 
+    /**
+     * Runs one phase of the scoring.
+     *
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
+     * @param order   the phase to run (0: pairs, 1: sets, 2: series)
+     * @return the score of the phase
+     */
+    private static int countPhase(Scratch scratch, int size, int order) {
+        if (order == PAIRS) {
+            return countPairs(scratch, size);
+        } else if (order == SETS) {
+            return countSets(scratch, size);
+        }
+        return countSeries(scratch, size);
+    }
+
     /**
      * Generates the next permutation of the given array.
      * Allows us to try all possible combinations to calculate score.
@@ -102,52 +266,43 @@ public class Utility {
     }
 
     /**
-     * Groups the given list of tiles by their color.
-     *
-     * @param hand the list of tiles to group
-     * @return a HashMap with color keys and lists of tiles as values
-     */
-    private static HashMap<String, List<Tile>> groupByColor(List<Tile> hand) {
-        HashMap<String, List<Tile>> colorGroups = new HashMap<>();
-        for (Tile tile : hand) {
-            if (!colorGroups.containsKey(tile.getColor())) {
-                colorGroups.put(tile.getColor(), new ArrayList<>());
-            }
-            colorGroups.get(tile.getColor()).add(tile);
-        }
-        return colorGroups;
-    }
-
-
-    /**
-     * Counts the number of pairs in the given list of tiles.
+     * Counts the number of pairs in the given tiles. A wildcard is only counted
+     * after a regular tile of its color has been seen.
      *
-     * @param tiles the list of tiles to search for pairs
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
      * @return the number of pairs found
      */
-    private static int countPairs(List<Tile> tiles) {
-        HashMap<String, HashMap<Integer, Integer>> colorValueCounts = new HashMap<>();
-        for (Tile tile : tiles) {
-            if (!tile.isUsed()) {
-                if (!colorValueCounts.containsKey(tile.getColor()) && !tile.isWildcard()) {
-                    colorValueCounts.put(tile.getColor(), new HashMap<>());
+    private static int countPairs(Scratch scratch, int size) {
+        int[] codes = scratch.codes;
+        boolean[] wildcards = scratch.wildcards;
+        boolean[] used = scratch.used;
+        int[] counts = scratch.pairCounts;
+        int seenColors = 0;
+        for (int i = 0; i < size; i++) {
+            if (!used[i]) {
+                int colorBit = 1 << (codes[i] / Tile.VALUE_COUNT);
+                if (!wildcards[i]) {
+                    seenColors |= colorBit;
+                }
+                if ((seenColors & colorBit) != 0) {
+                    counts[codes[i]]++;
                 }
-                HashMap<Integer, Integer> valueCounts = colorValueCounts.get(tile.getColor());
-                if(valueCounts!=null)
-                	valueCounts.put(tile.getValue(), valueCounts.getOrDefault(tile.getValue(), 0) + 1);
             }
         }
 
         int pairs = 0;
-        for (Map.Entry<String, HashMap<Integer, Integer>> colorEntry : colorValueCounts.entrySet()) {
-            for (Map.Entry<Integer, Integer> valueEntry : colorEntry.getValue().entrySet()) {
-                int count = valueEntry.getValue();
-                if (count >= 2) {
-                    pairs += count;
-                    tiles.stream()
-                        .filter(tile -> tile.getColor().equals(colorEntry.getKey()) && tile.getValue() == valueEntry.getKey() && !tile.isUsed())
-                        .limit(2)
-                        .forEach(tile -> tile.setUsed(true));
+        for (int code = 0; code < Tile.FACE_COUNT; code++) {
+            int count = counts[code];
+            counts[code] = 0;
+            if (count >= 2) {
+                pairs += count;
+                int marked = 0;
+                for (int i = 0; i < size && marked < 2; i++) {
+                    if (codes[i] == code && !used[i]) {
+                        used[i] = true;
+                        marked++;
+                    }
                 }
             }
         }
@@ -156,32 +311,42 @@ public class Utility {
 
 
     /**
-     * Counts the number of series in the given list of tiles.
+     * Counts the number of series in the given tiles.
      *
-     * @param tiles the list of tiles to search for series
+     * @param scratch the arrays holding the tiles of the hand
+     * @param handSize the number of tiles in the hand
      * @return the number of series found
      */
-    private static int countSeries(List<Tile> tiles) {
-        tiles = tiles.stream().filter(tile -> !tile.isUsed()).collect(Collectors.toList());
-        tiles.sort((t1, t2) -> {
-            int colorCompare = t1.getColor().compareTo(t2.getColor());
-            if (colorCompare != 0) {
-                return colorCompare;
+    private static int countSeries(Scratch scratch, int handSize) {
+        int[] codes = scratch.codes;
+        boolean[] wildcards = scratch.wildcards;
+        boolean[] used = scratch.used;
+        int[] tiles = scratch.seriesTiles;
+        int size = 0;
+        for (int i = 0; i < handSize; i++) {
+            if (!used[i]) {
+                int j = size++;
+                while (j > 0 && codes[tiles[j - 1]] > codes[i]) {
+                    tiles[j] = tiles[j - 1];
+                    j--;
+                }
+                tiles[j] = i;
             }
-            return Integer.compare(t1.getValue(), t2.getValue());
-        });
+        }
 
         int seriesCount = 0;
         int consecutiveCount = 0;
-        for (int i = 1; i < tiles.size(); i++) {
-            if ((tiles.get(i).getColor().equals(tiles.get(i - 1).getColor()) && tiles.get(i).getValue() - tiles.get(i - 1).getValue() == 1) 
-            		|| (tiles.get(i).isWildcard() && !tiles.get(i).isUsed())) {
+        for (int i = 1; i < size; i++) {
+            int current = codes[tiles[i]];
+            int previous = codes[tiles[i - 1]];
+            if ((current / Tile.VALUE_COUNT == previous / Tile.VALUE_COUNT && current - previous == 1)
+            		|| (wildcards[tiles[i]] && !used[tiles[i]])) {
                 consecutiveCount++;
             } else {
                 if (consecutiveCount >= 2) {
                     seriesCount += consecutiveCount + 1;
                     for (int j = i - consecutiveCount - 1; j < i; j++) {
-                        tiles.get(j).setUsed(true);
+                        used[tiles[j]] = true;
                     }
                 }
                 consecutiveCount = 0;
@@ -190,8 +355,8 @@ public class Utility {
 
         if (consecutiveCount >= 2) {
             seriesCount += consecutiveCount + 1;
-            for (int j = tiles.size() - consecutiveCount - 1; j < tiles.size(); j++) {
-                tiles.get(j).setUsed(true);
+            for (int j = size - consecutiveCount - 1; j < size; j++) {
+                used[tiles[j]] = true;
             }
         }
 
@@ -200,38 +365,80 @@ public class Utility {
 
 
     /**
-     * Counts the number of sets in the given list of tiles.
+     * Counts the number of sets in the given tiles.
      *
-     * @param hand the list of tiles to search for sets
+     * @param scratch the arrays holding the tiles of the hand
+     * @param size    the number of tiles in the hand
      * @return the number of sets found
      */
-    private static int countSets(List<Tile> hand) {
-        HashMap<String, List<Tile>> colorGroups = groupByColor(hand);
-        HashMap<Integer, Integer> valueCounts = new HashMap<>();
-
-        for (Tile tile : hand) {
-            if (!tile.isUsed()) {
-                valueCounts.put(tile.getValue(), valueCounts.getOrDefault(tile.getValue(), 0) + 1);
+    private static int countSets(Scratch scratch, int size) {
+        int[] codes = scratch.codes;
+        boolean[] wildcards = scratch.wildcards;
+        boolean[] used = scratch.used;
+        boolean[] values = scratch.values;
+        int[] matches = scratch.matches;
+        Arrays.fill(values, false);
+        for (int i = 0; i < size; i++) {
+            if (!used[i]) {
+                values[codes[i] % Tile.VALUE_COUNT] = true;
             }
         }
 
         int sets = 0;
-        for (Map.Entry<Integer, Integer> entry : valueCounts.entrySet()) {
-            int value = entry.getKey();
-            int count = (int) colorGroups.values().stream()
-                .filter(tiles -> tiles.stream().anyMatch(tile ->( tile.getValue() == value && !tile.isUsed()) || (tile.isWildcard() && !tile.isUsed())))
-                .count();
+        for (int value = 0; value < Tile.VALUE_COUNT; value++) {
+            if (!values[value]) {
+                continue;
+            }
+            int count = 0;
+            for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+                matches[color] = -1;
+                for (int i = 0; i < size; i++) {
+                    if (codes[i] / Tile.VALUE_COUNT == color && !used[i]
+                    		&& (codes[i] % Tile.VALUE_COUNT == value || wildcards[i])) {
+                        matches[color] = i;
+                        count++;
+                        break;
+                    }
+                }
+            }
 
             if (count >= 3) {
                 sets += count;
-                for (List<Tile> tiles : colorGroups.values()) {
-                    tiles.stream()
-                        .filter(tile -> (tile.getValue() == value && !tile.isUsed()) || (tile.isWildcard() && !tile.isUsed()))
-                        .findFirst()
-                        .ifPresent(tile -> tile.setUsed(true));
+                for (int match : matches) {
+                    if (match >= 0) {
+                        used[match] = true;
+                    }
                 }
             }
         }
         return sets;
     }
-}
\ No newline at end of file
+
+    private static final class Scratch {
+        int[] codes = new int[0];
+        boolean[] wildcards = new boolean[0];
+        boolean[] used = new boolean[0];
+        int[] seriesTiles = new int[0];
+        final int[] orders = new int[PHASE_COUNT];
+        final int[] pairCounts = new int[Tile.FACE_COUNT];
+        final boolean[] values = new boolean[Tile.VALUE_COUNT];
+        final int[] matches = new int[Tile.COLOR_COUNT];
+        final int[] sortCounts = new int[Tile.TILE_KINDS];
+        final long[] phaseNanos = new long[PHASE_COUNT];
+        int calls;
+
+        /**
+         * Grows the per-tile arrays so that they can hold a hand of the given size.
+         *
+         * @param size the number of tiles in the hand
+         */
+        void ensureCapacity(int size) {
+            if (codes.length < size) {
+                codes = new int[size];
+                wildcards = new boolean[size];
+                used = new boolean[size];
+                seriesTiles = new int[size];
+            }
+        }
+    }
+}
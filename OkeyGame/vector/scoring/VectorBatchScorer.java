@@ -0,0 +1,121 @@
+package scoring;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import objects.Tile;
+
+public class VectorBatchScorer extends BatchScorer {
+
+	private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+	/**
+	 * Scores a batch in three passes. The first pass finds, one vector of hands at a time, the
+	 * hands in which a set can be formed by counting the colors that hold each value with bit
+	 * operations on the presence columns. The second pass runs the set search for those hands
+	 * and looks up the pair/series scores of the colors of the others, which is a table lookup
+	 * per color and stays scalar. The third pass combines the color scores with the wildcards
+	 * for all hands without sets, again one vector of hands at a time.
+	 *
+	 * @param batch the hands to score
+	 */
+	@Override
+	public void score(HandBatch batch) {
+		int size = batch.size();
+		int lanes = SPECIES.length();
+		// The columns are padded to a multiple of every vector length, so the last vector may
+		// read and write past the size.
+		int end = (size + lanes - 1) / lanes * lanes;
+		findSetHands(batch, end);
+		for (int i = 0; i < size; i++) {
+			if (batch.needsSearch[i] != 0) {
+				batch.scores[i] = searchScore(batch, i);
+			} else {
+				for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+					batch.colorScores[color][i] = OptimalHandEvaluator.colorScores(batch.colors[color][i]);
+				}
+			}
+		}
+		combineColors(batch, end);
+	}
+
+	/**
+	 * Marks the hands in which some value is held in at least three colors, counting the
+	 * wildcards as colors.
+	 *
+	 * @param batch the hands to score
+	 * @param end   the padded number of hands to process
+	 */
+	private static void findSetHands(HandBatch batch, int end) {
+		int lanes = SPECIES.length();
+		IntVector zero = IntVector.zero(SPECIES);
+		for (int i = 0; i < end; i += lanes) {
+			IntVector p0 = IntVector.fromArray(SPECIES, batch.presence[0], i);
+			IntVector p1 = IntVector.fromArray(SPECIES, batch.presence[1], i);
+			IntVector p2 = IntVector.fromArray(SPECIES, batch.presence[2], i);
+			IntVector p3 = IntVector.fromArray(SPECIES, batch.presence[3], i);
+			IntVector wildcards = IntVector.fromArray(SPECIES, batch.wildcards, i);
+			IntVector atLeastOne = p0.or(p1).or(p2).or(p3);
+			IntVector atLeastTwo = p0.and(p1).or(p0.and(p2)).or(p0.and(p3)).or(p1.and(p2)).or(p1.and(p3)).or(p2.and(p3));
+			IntVector atLeastThree = p0.and(p1).and(p2.or(p3)).or(p2.and(p3).and(p0.or(p1)));
+			// Every wildcard stands in for one more color.
+			IntVector needed = atLeastOne
+					.blend(atLeastTwo, wildcards.compare(VectorOperators.EQ, 1))
+					.blend(atLeastThree, wildcards.compare(VectorOperators.EQ, 0));
+			VectorMask<Integer> search = needed.compare(VectorOperators.NE, 0)
+					.or(wildcards.compare(VectorOperators.GT, OptimalHandEvaluator.MAX_WILDCARDS));
+			zero.blend(1, search).intoArray(batch.needsSearch, i);
+		}
+	}
+
+	/**
+	 * Combines the color scores of the hands without sets with the best use of their wildcards,
+	 * like {@link OptimalHandEvaluator#combine(int, int, int, int, int)}.
+	 *
+	 * @param batch the hands to score
+	 * @param end   the padded number of hands to process
+	 */
+	private static void combineColors(HandBatch batch, int end) {
+		int lanes = SPECIES.length();
+		IntVector zero = IntVector.zero(SPECIES);
+		for (int i = 0; i < end; i += lanes) {
+			VectorMask<Integer> plainHands = IntVector.fromArray(SPECIES, batch.needsSearch, i)
+					.compare(VectorOperators.EQ, 0);
+			if (!plainHands.anyTrue()) {
+				continue;
+			}
+			IntVector base = zero;
+			IntVector bestSingle = zero;
+			IntVector secondSingle = zero;
+			IntVector bestDouble = zero;
+			for (int color = 0; color < Tile.COLOR_COUNT; color++) {
+				IntVector packed = IntVector.fromArray(SPECIES, batch.colorScores[color], i);
+				IntVector plain = packed.and(ColorTable.SCORE_MASK);
+				IntVector single = packed.lanewise(VectorOperators.LSHR, ColorTable.SCORE_BITS)
+						.and(ColorTable.SCORE_MASK).sub(plain);
+				IntVector pair = packed.lanewise(VectorOperators.LSHR, 2 * ColorTable.SCORE_BITS)
+						.and(ColorTable.SCORE_MASK).sub(plain);
+				base = base.add(plain);
+				secondSingle = secondSingle.max(bestSingle.min(single));
+				bestSingle = bestSingle.max(single);
+				bestDouble = bestDouble.max(pair);
+			}
+			IntVector wildcards = IntVector.fromArray(SPECIES, batch.wildcards, i);
+			// Two wildcards can also be paired with each other.
+			IntVector twoWildcards = bestSingle.add(secondSingle).max(bestDouble).max(2);
+			IntVector gain = twoWildcards
+					.blend(bestSingle, wildcards.compare(VectorOperators.EQ, 1))
+					.blend(zero, wildcards.compare(VectorOperators.EQ, 0));
+			IntVector.fromArray(SPECIES, batch.scores, i)
+					.blend(base.add(gain), plainHands)
+					.intoArray(batch.scores, i);
+		}
+	}
+
+	@Override
+	public String getName() {
+		return "vector(" + SPECIES.length() + " lanes)";
+	}
+}